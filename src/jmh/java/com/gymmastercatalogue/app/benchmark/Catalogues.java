@@ -0,0 +1,55 @@
+package com.gymmastercatalogue.app.benchmark;
+
+import com.gymmastercatalogue.app.domain.Catalogue;
+import com.gymmastercatalogue.app.domain.enumeration.categoryEnum;
+import com.gymmastercatalogue.app.service.dto.CatalogueDTO;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Catalogues with all fields set, shared by the benchmarks.
+ */
+public final class Catalogues {
+
+    private static final Instant SESSION_DT = Instant.parse("2026-01-05T18:30:00Z");
+
+    private Catalogues() {
+    }
+
+    public static Catalogue catalogue(long id) {
+        Catalogue catalogue = new Catalogue()
+            .description("Evening session " + id)
+            .price(12.5 + id % 10)
+            .duration(45 + (int) (id % 4) * 15)
+            .sessionDt(SESSION_DT.plusSeconds(id * 3600))
+            .category(categoryEnum.values()[(int) (id % categoryEnum.values().length)])
+            .username("coach" + id % 50)
+            .partnerId((int) (id % 200));
+        catalogue.setId(id);
+        return catalogue;
+    }
+
+    public static CatalogueDTO catalogueDTO(long id) {
+        Catalogue catalogue = catalogue(id);
+        CatalogueDTO catalogueDTO = new CatalogueDTO();
+        catalogueDTO.setId(catalogue.getId());
+        catalogueDTO.setDescription(catalogue.getDescription());
+        catalogueDTO.setPrice(catalogue.getPrice());
+        catalogueDTO.setDuration(catalogue.getDuration());
+        catalogueDTO.setSessionDt(catalogue.getSessionDt());
+        catalogueDTO.setCategory(catalogue.getCategory());
+        catalogueDTO.setUsername(catalogue.getUsername());
+        catalogueDTO.setPartnerId(catalogue.getPartnerId());
+        return catalogueDTO;
+    }
+
+    public static List<CatalogueDTO> catalogueDTOs(int size) {
+        List<CatalogueDTO> catalogueDTOs = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            catalogueDTOs.add(catalogueDTO(id));
+        }
+        return catalogueDTOs;
+    }
+}
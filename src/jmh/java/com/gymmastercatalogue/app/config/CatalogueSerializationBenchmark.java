@@ -0,0 +1,69 @@
+package com.gymmastercatalogue.app.config;
+
+import com.gymmastercatalogue.app.benchmark.Catalogues;
+import com.gymmastercatalogue.app.service.dto.CatalogueDTO;
+
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.config.SerializerConfig;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.serialization.SerializationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hazelcast serialization of a {@link CatalogueDTO}, with Java serialization or with {@link CatalogueSerializers}.
+ * The size of the serialized form is printed by the setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CatalogueSerializationBenchmark {
+
+    @Param({ "java", "compact" })
+    private String format;
+
+    private SerializationService serializationService;
+
+    private CatalogueDTO catalogueDTO;
+
+    private Data catalogueDTOData;
+
+    @Setup
+    public void setup() {
+        SerializationConfig serializationConfig = new SerializationConfig();
+        if ("compact".equals(format)) {
+            serializationConfig.addSerializerConfig(new SerializerConfig()
+                .setTypeClass(CatalogueDTO.class)
+                .setImplementation(new CatalogueSerializers.CatalogueDTOSerializer()));
+        }
+        serializationService = new DefaultSerializationServiceBuilder().setConfig(serializationConfig).build();
+        catalogueDTO = Catalogues.catalogueDTO(42);
+        catalogueDTOData = serializationService.toData(catalogueDTO);
+        System.out.printf("%n%s serialization: CatalogueDTO in %d bytes%n", format, catalogueDTOData.totalSize());
+    }
+
+    @Benchmark
+    public Data writeCatalogueDTO() {
+        return serializationService.toData(catalogueDTO);
+    }
+
+    @Benchmark
+    public CatalogueDTO readCatalogueDTO() {
+        return serializationService.toObject(catalogueDTOData);
+    }
+}
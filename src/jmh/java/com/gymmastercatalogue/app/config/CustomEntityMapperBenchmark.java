@@ -0,0 +1,78 @@
+package com.gymmastercatalogue.app.config;
+
+import com.gymmastercatalogue.app.benchmark.Catalogues;
+import com.gymmastercatalogue.app.domain.Catalogue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.elasticsearch.core.EntityMapper;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversions of a {@link Catalogue} by the Elasticsearch entity mapper, when indexing and when reading search hits.
+ * Run with {@code -Djmh.args="-prof gc CustomEntityMapper"} for the allocation per document.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomEntityMapperBenchmark {
+
+    private EntityMapper entityMapper;
+
+    private Catalogue catalogue;
+
+    private String source;
+
+    private Map<String, Object> sourceMap;
+
+    @Setup
+    public void setup() throws IOException {
+        JacksonConfiguration jacksonConfiguration = new JacksonConfiguration();
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .modules(jacksonConfiguration.javaTimeModule(), jacksonConfiguration.jdk8TimeModule())
+            // As configured by Spring Boot
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+        entityMapper = new ElasticsearchConfiguration(objectMapper).getEntityMapper();
+        catalogue = Catalogues.catalogue(42L);
+        source = entityMapper.mapToString(catalogue);
+        sourceMap = entityMapper.mapObject(catalogue);
+    }
+
+    @Benchmark
+    public String mapToString() throws IOException {
+        return entityMapper.mapToString(catalogue);
+    }
+
+    @Benchmark
+    public Catalogue mapToObject() throws IOException {
+        return entityMapper.mapToObject(source, Catalogue.class);
+    }
+
+    @Benchmark
+    public Map<String, Object> mapObject() {
+        return entityMapper.mapObject(catalogue);
+    }
+
+    @Benchmark
+    public Catalogue readObject() {
+        return entityMapper.readObject(sourceMap, Catalogue.class);
+    }
+}
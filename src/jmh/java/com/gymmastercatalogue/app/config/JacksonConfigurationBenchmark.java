@@ -0,0 +1,60 @@
+package com.gymmastercatalogue.app.config;
+
+import com.gymmastercatalogue.app.benchmark.Catalogues;
+import com.gymmastercatalogue.app.service.dto.CatalogueDTO;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of the {@link CatalogueDTO} lists returned by the REST API, with the modules of {@link JacksonConfiguration}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JacksonConfigurationBenchmark {
+
+    @Param({"20", "100"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+
+    private List<CatalogueDTO> catalogueDTOs;
+
+    @Setup
+    public void setup() {
+        JacksonConfiguration jacksonConfiguration = new JacksonConfiguration();
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+            .modules(jacksonConfiguration.javaTimeModule(), jacksonConfiguration.jdk8TimeModule(),
+                jacksonConfiguration.hibernate5Module(), jacksonConfiguration.problemModule(),
+                jacksonConfiguration.constraintViolationProblemModule())
+            // As configured by Spring Boot
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+        catalogueDTOs = Catalogues.catalogueDTOs(size);
+    }
+
+    @Benchmark
+    public byte[] writeCatalogueDTOs() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(catalogueDTOs);
+    }
+}
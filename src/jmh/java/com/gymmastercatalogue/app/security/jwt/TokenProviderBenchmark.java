@@ -0,0 +1,55 @@
+package com.gymmastercatalogue.app.security.jwt;
+
+import com.gymmastercatalogue.app.security.AuthoritiesConstants;
+
+import io.github.jhipster.config.JHipsterProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of parsing and verifying the JWT of each authenticated request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenProviderBenchmark {
+
+    private static final String BASE64_SECRET = "ZmQ1ODE1NjIzOGJlNDE5OWQ0YTQ4MjYzMzQ1MjljYmNmNGI1NjY5NmE0ZGQ5YjNhOGRlNmI3N2E0YmY2NWFmMjg5ZWMxMzU4NmJjMjNmYmU3ZWFmYjg1YjQzOWUzZDEyMDE0MjUxZDY4N2VmNzNmNzUwMjAwYzAwODJlNWZiZTQ=";
+
+    private TokenProvider tokenProvider;
+
+    private String token;
+
+    @Setup
+    public void setup() {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().setBase64Secret(BASE64_SECRET);
+        tokenProvider = new TokenProvider(jHipsterProperties);
+        tokenProvider.init();
+        Authentication authentication = new UsernamePasswordAuthenticationToken("user", "user",
+            Arrays.asList(new SimpleGrantedAuthority(AuthoritiesConstants.USER), new SimpleGrantedAuthority(AuthoritiesConstants.ADMIN)));
+        token = tokenProvider.createToken(authentication, false);
+    }
+
+    @Benchmark
+    public Authentication getAuthentication() {
+        return tokenProvider.getAuthentication(token);
+    }
+}
@@ -0,0 +1,82 @@
+package com.gymmastercatalogue.app.service;
+
+import com.gymmastercatalogue.app.benchmark.Catalogues;
+import com.gymmastercatalogue.app.domain.Catalogue;
+import com.gymmastercatalogue.app.service.dto.CatalogueCriteria;
+
+import io.github.jhipster.service.filter.InstantFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schedule queries of the {@link CatalogueColumnarIndex} over 5M sessions, one every 6 seconds for a year, one in a
+ * thousand lasting 3 days: the sessions running during an evening hour, and those starting during a week. The rows are
+ * read from buckets of session dates of {@code sessionBucketMinutes}, or all scanned when it is 0.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class CatalogueColumnarIndexSessionBenchmark {
+
+    private static final int SESSIONS = 5_000_000;
+
+    private static final Instant FIRST_SESSION_DT = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Param({ "60", "0" })
+    public int sessionBucketMinutes;
+
+    private CatalogueColumnarIndex.Columns columns;
+
+    private CatalogueCriteria eveningCriteria;
+
+    private CatalogueCriteria weekCriteria;
+
+    @Setup
+    public void setup() {
+        columns = new CatalogueColumnarIndex.Columns(TimeUnit.MINUTES.toMicros(sessionBucketMinutes), 1440);
+        for (long id = 1; id <= SESSIONS; id++) {
+            Catalogue catalogue = Catalogues.catalogue(id)
+                .sessionDt(FIRST_SESSION_DT.plusSeconds(id * 6));
+            if (id % 1000 == 0) {
+                catalogue.setDuration(3 * 24 * 60);
+            }
+            columns.put(catalogue);
+        }
+
+        Instant evening = Instant.parse("2026-06-15T18:00:00Z");
+        eveningCriteria = new CatalogueCriteria();
+        eveningCriteria.setSessionOverlap(new CatalogueCriteria.SessionOverlapFilter()
+            .setFrom(evening).setTo(evening.plusSeconds(3600)));
+
+        weekCriteria = new CatalogueCriteria();
+        InstantFilter sessionDt = new InstantFilter();
+        sessionDt.setGreaterThanOrEqual(Instant.parse("2026-06-15T00:00:00Z"));
+        sessionDt.setLessThan(Instant.parse("2026-06-22T00:00:00Z"));
+        weekCriteria.setSessionDt(sessionDt);
+    }
+
+    @Benchmark
+    public long eveningSessions() {
+        return columns.count(eveningCriteria);
+    }
+
+    @Benchmark
+    public long sessionsOfTheWeek() {
+        return columns.count(weekCriteria);
+    }
+}
@@ -0,0 +1,78 @@
+package com.gymmastercatalogue.app.service;
+
+import com.gymmastercatalogue.app.benchmark.Catalogues;
+import com.gymmastercatalogue.app.service.dto.CatalogueDTO;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads and writes of a {@link CatalogueOffHeapStore} holding 5M catalogues. The heap used by the store once loaded is
+ * printed by the setup, the heap being limited to 256 MB.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx256m", "-XX:MaxDirectMemorySize=1g" })
+public class CatalogueOffHeapStoreBenchmark {
+
+    private static final int ENTRIES = 5_000_000;
+
+    private static final int READS = 1 << 16;
+
+    private CatalogueOffHeapStore store;
+
+    private long[] ids;
+
+    private int next;
+
+    private CatalogueDTO catalogueDTO;
+
+    @Setup
+    public void setup() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long heapBefore = memory.getHeapMemoryUsage().getUsed();
+        store = new CatalogueOffHeapStore(ENTRIES, 512L * 1024 * 1024, 0);
+        for (long id = 1; id <= ENTRIES; id++) {
+            store.put(Catalogues.catalogueDTO(id));
+        }
+        System.gc();
+        long heapAfter = memory.getHeapMemoryUsage().getUsed();
+        System.out.printf("%n%d catalogues stored in %d MB off-heap (%d MB of records), %d MB of heap%n", store.size(),
+            store.getAllocatedBytes() >> 20, store.getUsedBytes() >> 20, Math.max(0, heapAfter - heapBefore) >> 20);
+
+        SplittableRandom random = new SplittableRandom(42);
+        ids = new long[READS];
+        for (int i = 0; i < READS; i++) {
+            ids[i] = 1 + random.nextInt(ENTRIES);
+        }
+        catalogueDTO = Catalogues.catalogueDTO(1);
+    }
+
+    @Benchmark
+    public CatalogueDTO get() {
+        return store.get(ids[next++ & (READS - 1)]);
+    }
+
+    @Benchmark
+    public boolean put() {
+        catalogueDTO.setId(ids[next++ & (READS - 1)]);
+        return store.put(catalogueDTO);
+    }
+}
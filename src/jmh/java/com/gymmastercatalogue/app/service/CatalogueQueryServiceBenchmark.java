@@ -0,0 +1,74 @@
+package com.gymmastercatalogue.app.service;
+
+import com.gymmastercatalogue.app.domain.Catalogue;
+import com.gymmastercatalogue.app.domain.enumeration.categoryEnum;
+import com.gymmastercatalogue.app.service.dto.CatalogueCriteria;
+
+import io.github.jhipster.service.filter.InstantFilter;
+import io.github.jhipster.service.filter.IntegerFilter;
+import io.github.jhipster.service.filter.StringFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building the {@link Specification} of a {@link CatalogueCriteria}, before any query is sent.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CatalogueQueryServiceBenchmark {
+
+    private CatalogueQueryService catalogueQueryService;
+
+    private CatalogueCriteria emptyCriteria;
+
+    private CatalogueCriteria typicalCriteria;
+
+    @Setup
+    public void setup() {
+        // Only the specification building is measured, which does not use the collaborators
+        catalogueQueryService = new CatalogueQueryService(null, null, null, null, null, null, null, null);
+        emptyCriteria = new CatalogueCriteria();
+
+        typicalCriteria = new CatalogueCriteria();
+        IntegerFilter partnerId = new IntegerFilter();
+        partnerId.setIn(Arrays.asList(3, 7, 11));
+        typicalCriteria.setPartnerId(partnerId);
+        CatalogueCriteria.categoryEnumFilter category = new CatalogueCriteria.categoryEnumFilter();
+        category.setEquals(categoryEnum.YOGA);
+        typicalCriteria.setCategory(category);
+        InstantFilter sessionDt = new InstantFilter();
+        sessionDt.setGreaterThanOrEqual(Instant.parse("2026-01-01T00:00:00Z"));
+        sessionDt.setLessThan(Instant.parse("2026-02-01T00:00:00Z"));
+        typicalCriteria.setSessionDt(sessionDt);
+        StringFilter description = new StringFilter();
+        description.setContains("morning");
+        typicalCriteria.setDescription(description);
+    }
+
+    @Benchmark
+    public Specification<Catalogue> emptyCriteria() {
+        return catalogueQueryService.createSpecification(emptyCriteria);
+    }
+
+    @Benchmark
+    public Specification<Catalogue> typicalCriteria() {
+        return catalogueQueryService.createSpecification(typicalCriteria);
+    }
+}
@@ -0,0 +1,53 @@
+package com.gymmastercatalogue.app.service.mapper;
+
+import com.gymmastercatalogue.app.benchmark.Catalogues;
+import com.gymmastercatalogue.app.domain.Catalogue;
+import com.gymmastercatalogue.app.service.dto.CatalogueDTO;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the MapStruct conversions between {@link Catalogue} and {@link CatalogueDTO}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CatalogueMapperBenchmark {
+
+    private CatalogueMapper catalogueMapper;
+
+    private Catalogue catalogue;
+
+    private CatalogueDTO catalogueDTO;
+
+    @Setup
+    public void setup() {
+        catalogueMapper = new CatalogueMapperImpl();
+        catalogue = Catalogues.catalogue(42L);
+        catalogueDTO = Catalogues.catalogueDTO(42L);
+    }
+
+    @Benchmark
+    public CatalogueDTO toDto() {
+        return catalogueMapper.toDto(catalogue);
+    }
+
+    @Benchmark
+    public Catalogue toEntity() {
+        return catalogueMapper.toEntity(catalogueDTO);
+    }
+}
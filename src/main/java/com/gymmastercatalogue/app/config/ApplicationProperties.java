@@ -10,4 +10,647 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
 public class ApplicationProperties {
+
+    private final Search search = new Search();
+
+    private final Query query = new Query();
+
+    private final Cache cache = new Cache();
+
+    private final Batch batch = new Batch();
+
+    public Search getSearch() {
+        return search;
+    }
+
+    public Query getQuery() {
+        return query;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Batch getBatch() {
+        return batch;
+    }
+
+    public static class Search {
+
+        private final Outbox outbox = new Outbox();
+
+        private final Bulk bulk = new Bulk();
+
+        private final Reindex reindex = new Reindex();
+
+        private final Transport transport = new Transport();
+
+        private final Index index = new Index();
+
+        private final Suggest suggest = new Suggest();
+
+        private final Facets facets = new Facets();
+
+        public Outbox getOutbox() {
+            return outbox;
+        }
+
+        public Bulk getBulk() {
+            return bulk;
+        }
+
+        public Reindex getReindex() {
+            return reindex;
+        }
+
+        public Transport getTransport() {
+            return transport;
+        }
+
+        public Index getIndex() {
+            return index;
+        }
+
+        public Suggest getSuggest() {
+            return suggest;
+        }
+
+        public Facets getFacets() {
+            return facets;
+        }
+
+        public static class Outbox {
+
+            private boolean enabled = true;
+
+            private int batchSize = 500;
+
+            private long relayDelayMs = 1000;
+
+            private int maxAttempts = 10;
+
+            private long claimTimeoutMs = 300000;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getBatchSize() {
+                return batchSize;
+            }
+
+            public void setBatchSize(int batchSize) {
+                this.batchSize = batchSize;
+            }
+
+            public long getRelayDelayMs() {
+                return relayDelayMs;
+            }
+
+            public void setRelayDelayMs(long relayDelayMs) {
+                this.relayDelayMs = relayDelayMs;
+            }
+
+            public int getMaxAttempts() {
+                return maxAttempts;
+            }
+
+            public void setMaxAttempts(int maxAttempts) {
+                this.maxAttempts = maxAttempts;
+            }
+
+            public long getClaimTimeoutMs() {
+                return claimTimeoutMs;
+            }
+
+            public void setClaimTimeoutMs(long claimTimeoutMs) {
+                this.claimTimeoutMs = claimTimeoutMs;
+            }
+        }
+
+        public static class Bulk {
+
+            private int maxActions = 500;
+
+            private long flushIntervalMs = 50;
+
+            private int queueCapacity = 10000;
+
+            private long offerTimeoutMs = 30000;
+
+            public int getMaxActions() {
+                return maxActions;
+            }
+
+            public void setMaxActions(int maxActions) {
+                this.maxActions = maxActions;
+            }
+
+            public long getFlushIntervalMs() {
+                return flushIntervalMs;
+            }
+
+            public void setFlushIntervalMs(long flushIntervalMs) {
+                this.flushIntervalMs = flushIntervalMs;
+            }
+
+            public int getQueueCapacity() {
+                return queueCapacity;
+            }
+
+            public void setQueueCapacity(int queueCapacity) {
+                this.queueCapacity = queueCapacity;
+            }
+
+            public long getOfferTimeoutMs() {
+                return offerTimeoutMs;
+            }
+
+            public void setOfferTimeoutMs(long offerTimeoutMs) {
+                this.offerTimeoutMs = offerTimeoutMs;
+            }
+        }
+
+        public static class Reindex {
+
+            private int parallelism = 4;
+
+            private int partitionsPerThread = 4;
+
+            private int batchSize = 1000;
+
+            public int getParallelism() {
+                return parallelism;
+            }
+
+            public void setParallelism(int parallelism) {
+                this.parallelism = parallelism;
+            }
+
+            public int getPartitionsPerThread() {
+                return partitionsPerThread;
+            }
+
+            public void setPartitionsPerThread(int partitionsPerThread) {
+                this.partitionsPerThread = partitionsPerThread;
+            }
+
+            public int getBatchSize() {
+                return batchSize;
+            }
+
+            public void setBatchSize(int batchSize) {
+                this.batchSize = batchSize;
+            }
+        }
+
+        public static class Transport {
+
+            private int maxTotalConnections = 40;
+
+            private int maxConnectionsPerRoute = 20;
+
+            private int connectTimeoutMs = 3000;
+
+            private int readTimeoutMs = 10000;
+
+            private long maxConnectionIdleTimeMs = 60000;
+
+            private boolean requestCompression = true;
+
+            public int getMaxTotalConnections() {
+                return maxTotalConnections;
+            }
+
+            public void setMaxTotalConnections(int maxTotalConnections) {
+                this.maxTotalConnections = maxTotalConnections;
+            }
+
+            public int getMaxConnectionsPerRoute() {
+                return maxConnectionsPerRoute;
+            }
+
+            public void setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+                this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+            }
+
+            public int getConnectTimeoutMs() {
+                return connectTimeoutMs;
+            }
+
+            public void setConnectTimeoutMs(int connectTimeoutMs) {
+                this.connectTimeoutMs = connectTimeoutMs;
+            }
+
+            public int getReadTimeoutMs() {
+                return readTimeoutMs;
+            }
+
+            public void setReadTimeoutMs(int readTimeoutMs) {
+                this.readTimeoutMs = readTimeoutMs;
+            }
+
+            public long getMaxConnectionIdleTimeMs() {
+                return maxConnectionIdleTimeMs;
+            }
+
+            public void setMaxConnectionIdleTimeMs(long maxConnectionIdleTimeMs) {
+                this.maxConnectionIdleTimeMs = maxConnectionIdleTimeMs;
+            }
+
+            public boolean isRequestCompression() {
+                return requestCompression;
+            }
+
+            public void setRequestCompression(boolean requestCompression) {
+                this.requestCompression = requestCompression;
+            }
+        }
+
+        public static class Index {
+
+            private int shards = 1;
+
+            private int replicas = 1;
+
+            private String refreshInterval = "1s";
+
+            public int getShards() {
+                return shards;
+            }
+
+            public void setShards(int shards) {
+                this.shards = shards;
+            }
+
+            public int getReplicas() {
+                return replicas;
+            }
+
+            public void setReplicas(int replicas) {
+                this.replicas = replicas;
+            }
+
+            public String getRefreshInterval() {
+                return refreshInterval;
+            }
+
+            public void setRefreshInterval(String refreshInterval) {
+                this.refreshInterval = refreshInterval;
+            }
+        }
+
+        public static class Suggest {
+
+            private int maxResults = 20;
+
+            private int cacheMaxSize = 10000;
+
+            private int cacheTimeToLiveSeconds = 30;
+
+            public int getMaxResults() {
+                return maxResults;
+            }
+
+            public void setMaxResults(int maxResults) {
+                this.maxResults = maxResults;
+            }
+
+            public int getCacheMaxSize() {
+                return cacheMaxSize;
+            }
+
+            public void setCacheMaxSize(int cacheMaxSize) {
+                this.cacheMaxSize = cacheMaxSize;
+            }
+
+            public int getCacheTimeToLiveSeconds() {
+                return cacheTimeToLiveSeconds;
+            }
+
+            public void setCacheTimeToLiveSeconds(int cacheTimeToLiveSeconds) {
+                this.cacheTimeToLiveSeconds = cacheTimeToLiveSeconds;
+            }
+        }
+
+        public static class Facets {
+
+            private int maxPartners = 1000;
+
+            private int maxSessionBuckets = 1000;
+
+            public int getMaxPartners() {
+                return maxPartners;
+            }
+
+            public void setMaxPartners(int maxPartners) {
+                this.maxPartners = maxPartners;
+            }
+
+            public int getMaxSessionBuckets() {
+                return maxSessionBuckets;
+            }
+
+            public void setMaxSessionBuckets(int maxSessionBuckets) {
+                this.maxSessionBuckets = maxSessionBuckets;
+            }
+        }
+    }
+
+    public static class Query {
+
+        private final CountCache countCache = new CountCache();
+
+        private final ColumnarIndex columnarIndex = new ColumnarIndex();
+
+        public CountCache getCountCache() {
+            return countCache;
+        }
+
+        public ColumnarIndex getColumnarIndex() {
+            return columnarIndex;
+        }
+
+        public static class CountCache {
+
+            private int timeToLiveSeconds = 60;
+
+            private int maxSize = 10000;
+
+            public int getTimeToLiveSeconds() {
+                return timeToLiveSeconds;
+            }
+
+            public void setTimeToLiveSeconds(int timeToLiveSeconds) {
+                this.timeToLiveSeconds = timeToLiveSeconds;
+            }
+
+            public int getMaxSize() {
+                return maxSize;
+            }
+
+            public void setMaxSize(int maxSize) {
+                this.maxSize = maxSize;
+            }
+        }
+
+        public static class ColumnarIndex {
+
+            private boolean enabled = false;
+
+            private int sessionBucketMinutes = 60;
+
+            private int longSessionMinutes = 1440;
+
+            private long reconcileIntervalMs = 300000;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getSessionBucketMinutes() {
+                return sessionBucketMinutes;
+            }
+
+            public void setSessionBucketMinutes(int sessionBucketMinutes) {
+                this.sessionBucketMinutes = sessionBucketMinutes;
+            }
+
+            public int getLongSessionMinutes() {
+                return longSessionMinutes;
+            }
+
+            public void setLongSessionMinutes(int longSessionMinutes) {
+                this.longSessionMinutes = longSessionMinutes;
+            }
+
+            public long getReconcileIntervalMs() {
+                return reconcileIntervalMs;
+            }
+
+            public void setReconcileIntervalMs(long reconcileIntervalMs) {
+                this.reconcileIntervalMs = reconcileIntervalMs;
+            }
+        }
+    }
+
+    public static class Cache {
+
+        private final CatalogueById catalogueById = new CatalogueById();
+
+        private final Hibernate hibernate = new Hibernate();
+
+        private final QueryResults queryResults = new QueryResults();
+
+        public CatalogueById getCatalogueById() {
+            return catalogueById;
+        }
+
+        public Hibernate getHibernate() {
+            return hibernate;
+        }
+
+        public QueryResults getQueryResults() {
+            return queryResults;
+        }
+
+        public static class QueryResults {
+
+            private boolean enabled = true;
+
+            private int timeToLiveSeconds = 10;
+
+            private int maxSize = 10000;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getTimeToLiveSeconds() {
+                return timeToLiveSeconds;
+            }
+
+            public void setTimeToLiveSeconds(int timeToLiveSeconds) {
+                this.timeToLiveSeconds = timeToLiveSeconds;
+            }
+
+            public int getMaxSize() {
+                return maxSize;
+            }
+
+            public void setMaxSize(int maxSize) {
+                this.maxSize = maxSize;
+            }
+        }
+
+        public static class Hibernate {
+
+            private int catalogueMaxSize = 100000;
+
+            private int queryTimeToLiveSeconds = 300;
+
+            private int queryMaxSize = 10000;
+
+            public int getCatalogueMaxSize() {
+                return catalogueMaxSize;
+            }
+
+            public void setCatalogueMaxSize(int catalogueMaxSize) {
+                this.catalogueMaxSize = catalogueMaxSize;
+            }
+
+            public int getQueryTimeToLiveSeconds() {
+                return queryTimeToLiveSeconds;
+            }
+
+            public void setQueryTimeToLiveSeconds(int queryTimeToLiveSeconds) {
+                this.queryTimeToLiveSeconds = queryTimeToLiveSeconds;
+            }
+
+            public int getQueryMaxSize() {
+                return queryMaxSize;
+            }
+
+            public void setQueryMaxSize(int queryMaxSize) {
+                this.queryMaxSize = queryMaxSize;
+            }
+        }
+
+        public static class CatalogueById {
+
+            private int timeToLiveSeconds = 3600;
+
+            private int maxSize = 100000;
+
+            private int nearCacheTimeToLiveSeconds = 60;
+
+            private int nearCacheMaxSize = 10000;
+
+            private final OffHeap offHeap = new OffHeap();
+
+            public int getTimeToLiveSeconds() {
+                return timeToLiveSeconds;
+            }
+
+            public void setTimeToLiveSeconds(int timeToLiveSeconds) {
+                this.timeToLiveSeconds = timeToLiveSeconds;
+            }
+
+            public int getMaxSize() {
+                return maxSize;
+            }
+
+            public void setMaxSize(int maxSize) {
+                this.maxSize = maxSize;
+            }
+
+            public int getNearCacheTimeToLiveSeconds() {
+                return nearCacheTimeToLiveSeconds;
+            }
+
+            public void setNearCacheTimeToLiveSeconds(int nearCacheTimeToLiveSeconds) {
+                this.nearCacheTimeToLiveSeconds = nearCacheTimeToLiveSeconds;
+            }
+
+            public int getNearCacheMaxSize() {
+                return nearCacheMaxSize;
+            }
+
+            public void setNearCacheMaxSize(int nearCacheMaxSize) {
+                this.nearCacheMaxSize = nearCacheMaxSize;
+            }
+
+            public OffHeap getOffHeap() {
+                return offHeap;
+            }
+
+            public static class OffHeap {
+
+                private boolean enabled = false;
+
+                private int maxEntries = 1000000;
+
+                private int maxSizeMb = 256;
+
+                public boolean isEnabled() {
+                    return enabled;
+                }
+
+                public void setEnabled(boolean enabled) {
+                    this.enabled = enabled;
+                }
+
+                public int getMaxEntries() {
+                    return maxEntries;
+                }
+
+                public void setMaxEntries(int maxEntries) {
+                    this.maxEntries = maxEntries;
+                }
+
+                public int getMaxSizeMb() {
+                    return maxSizeMb;
+                }
+
+                public void setMaxSizeMb(int maxSizeMb) {
+                    this.maxSizeMb = maxSizeMb;
+                }
+            }
+        }
+    }
+
+    public static class Batch {
+
+        private int maxEntries = 10000;
+
+        private int chunkSize = 500;
+
+        private int maxReportedRejects = 100;
+
+        private long exportTimeoutMs = 3600000;
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public int getMaxReportedRejects() {
+            return maxReportedRejects;
+        }
+
+        public void setMaxReportedRejects(int maxReportedRejects) {
+            this.maxReportedRejects = maxReportedRejects;
+        }
+
+        public long getExportTimeoutMs() {
+            return exportTimeoutMs;
+        }
+
+        public void setExportTimeoutMs(long exportTimeoutMs) {
+            this.exportTimeoutMs = exportTimeoutMs;
+        }
+    }
 }
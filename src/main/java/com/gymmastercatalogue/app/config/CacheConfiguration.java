@@ -1,17 +1,33 @@
 package com.gymmastercatalogue.app.config;
 
+import com.gymmastercatalogue.app.domain.Catalogue;
+import com.gymmastercatalogue.app.repository.CatalogueRepository;
+import com.gymmastercatalogue.app.service.CatalogueDataSerializableFactory;
+import com.gymmastercatalogue.app.service.CatalogueOffHeapStore;
+import com.gymmastercatalogue.app.service.dto.CatalogueDTO;
+
 import io.github.jhipster.config.JHipsterConstants;
 import io.github.jhipster.config.JHipsterProperties;
 
 import com.hazelcast.config.*;
+import com.hazelcast.core.Cluster;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.IMap;
+import com.hazelcast.core.Member;
+import com.hazelcast.core.MembershipAdapter;
+import com.hazelcast.core.MembershipEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.HazelcastCacheMetrics;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.springframework.boot.autoconfigure.web.ServerProperties;
 
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 
 import org.springframework.boot.info.BuildProperties;
@@ -28,10 +44,28 @@ import org.springframework.core.env.Environment;
 import org.springframework.core.env.Profiles;
 
 import javax.annotation.PreDestroy;
+import java.util.Collection;
 
 @Configuration
 @EnableCaching
 public class CacheConfiguration {
+
+    /**
+     * Version of the members of the cluster, which only run with members of the same version. It is bumped by the
+     * changes older members are not compatible with, which are deployed by stopping every member of the cluster:
+     * <ol>
+     *     <li>ids allocated from {@code sequence_generator} by the pooled-lo optimizer, see
+     *     {@link com.gymmastercatalogue.app.domain.PooledSequenceGenerator}.</li>
+     *     <li>query results keyed by generations, which older members don't increment, see
+     *     {@link com.gymmastercatalogue.app.service.CatalogueQueryResultCache}.</li>
+     *     <li>cached catalogues serialized by {@link CatalogueSerializers}, which older members read with Java
+     *     serialization.</li>
+     * </ol>
+     */
+    public static final int CLUSTER_VERSION = 3;
+
+    static final String CLUSTER_VERSION_ATTRIBUTE = "gymMasterCatalogue.clusterVersion";
+
     private GitProperties gitProperties;
     private BuildProperties buildProperties;
 
@@ -63,13 +97,34 @@ public class CacheConfiguration {
     }
 
     @Bean
-    public CacheManager cacheManager(HazelcastInstance hazelcastInstance) {
+    public CacheManager cacheManager(HazelcastInstance hazelcastInstance, ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
         log.debug("Starting HazelcastCacheManager");
-        return new com.hazelcast.spring.cache.HazelcastCacheManager(hazelcastInstance);
+        CacheManager cacheManager = new com.hazelcast.spring.cache.HazelcastCacheManager(hazelcastInstance);
+        ApplicationProperties.Cache.CatalogueById.OffHeap offHeap = applicationProperties.getCache().getCatalogueById().getOffHeap();
+        if (!offHeap.isEnabled()) {
+            return cacheManager;
+        }
+        log.debug("Keeping a per-node copy of the {} cache off-heap, in {} MB", CatalogueRepository.CATALOGUE_BY_ID_CACHE, offHeap.getMaxSizeMb());
+        // The copies expire like the near cache they replace
+        CatalogueOffHeapStore store = new CatalogueOffHeapStore(offHeap.getMaxEntries(), offHeap.getMaxSizeMb() * 1024L * 1024L,
+            applicationProperties.getCache().getCatalogueById().getNearCacheTimeToLiveSeconds() * 1000L);
+        Cache catalogueById = new OffHeapCatalogueCache(cacheManager.getCache(CatalogueRepository.CATALOGUE_BY_ID_CACHE),
+            hazelcastInstance.getMap(CatalogueRepository.CATALOGUE_BY_ID_CACHE), store, meterRegistry);
+        return new CacheManager() {
+            @Override
+            public Cache getCache(String name) {
+                return CatalogueRepository.CATALOGUE_BY_ID_CACHE.equals(name) ? catalogueById : cacheManager.getCache(name);
+            }
+
+            @Override
+            public Collection<String> getCacheNames() {
+                return cacheManager.getCacheNames();
+            }
+        };
     }
 
     @Bean
-    public HazelcastInstance hazelcastInstance(JHipsterProperties jHipsterProperties) {
+    public HazelcastInstance hazelcastInstance(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
         log.debug("Configuring Hazelcast");
         HazelcastInstance hazelCastInstance = Hazelcast.getHazelcastInstanceByName("gymMasterCatalogue");
         if (hazelCastInstance != null) {
@@ -79,6 +134,7 @@ public class CacheConfiguration {
         Config config = new Config();
         config.setInstanceName("gymMasterCatalogue");
         config.getNetworkConfig().getJoin().getMulticastConfig().setEnabled(false);
+        config.getMemberAttributeConfig().setIntAttribute(CLUSTER_VERSION_ATTRIBUTE, CLUSTER_VERSION);
         if (this.registration == null) {
             log.warn("No discovery service is set up, Hazelcast cannot create a cluster.");
         } else {
@@ -110,10 +166,56 @@ public class CacheConfiguration {
             }
         }
         config.getMapConfigs().put("default", initializeDefaultMapConfig(jHipsterProperties));
+        // Hibernate second level cache regions
+        config.getMapConfigs().put("com.gymmastercatalogue.app.domain.*", initializeDomainMapConfig(jHipsterProperties));
+        config.getMapConfigs().put(Catalogue.class.getName(), initializeCatalogueRegionMapConfig(jHipsterProperties, applicationProperties));
+        config.getMapConfigs().put(CatalogueRepository.QUERY_CACHE_REGION, initializeQueryRegionMapConfig(applicationProperties));
+
+        config.getMapConfigs().put(CatalogueRepository.CATALOGUE_BY_ID_CACHE, initializeCatalogueByIdMapConfig(jHipsterProperties, applicationProperties));
+        config.getMapConfigs().put(CatalogueRepository.COUNTS_CACHE, initializeCountsMapConfig(applicationProperties));
+        config.getMapConfigs().put(CatalogueRepository.QUERY_RESULTS_CACHE, initializeQueryResultsMapConfig(applicationProperties));
+        config.getMapConfigs().put(CatalogueRepository.QUERY_RESULTS_GENERATIONS, initializeQueryResultGenerationsMapConfig(jHipsterProperties));
+
+        config.setSerializationConfig(initializeSerializationConfig());
 
         // Full reference is available at: https://docs.hazelcast.org/docs/management-center/3.9/manual/html/Deploying_and_Starting.html
         config.setManagementCenterConfig(initializeDefaultManagementCenterConfig(jHipsterProperties));
-        return Hazelcast.newHazelcastInstance(config);
+        hazelCastInstance = Hazelcast.newHazelcastInstance(config);
+        try {
+            checkClusterVersion(hazelCastInstance.getCluster());
+        } catch (IllegalStateException e) {
+            hazelCastInstance.shutdown();
+            throw e;
+        }
+        hazelCastInstance.getCluster().addMembershipListener(new MembershipAdapter() {
+            @Override
+            public void memberAdded(MembershipEvent membershipEvent) {
+                Member member = membershipEvent.getMember();
+                if (!isCompatible(member)) {
+                    log.error("Member {} of cluster version {} joined members of version {}, stop every member of the cluster to deploy a new version",
+                        member.getAddress(), member.getIntAttribute(CLUSTER_VERSION_ATTRIBUTE), CLUSTER_VERSION);
+                }
+            }
+        });
+        return hazelCastInstance;
+    }
+
+    /**
+     * Refuse to join members of another cluster version, which are still running when a new version is deployed
+     * member by member.
+     */
+    static void checkClusterVersion(Cluster cluster) {
+        for (Member member : cluster.getMembers()) {
+            if (!isCompatible(member)) {
+                throw new IllegalStateException("Member " + member.getAddress() + " runs cluster version "
+                    + member.getIntAttribute(CLUSTER_VERSION_ATTRIBUTE) + " instead of " + CLUSTER_VERSION
+                    + ": stop every member of the cluster to deploy this version");
+            }
+        }
+    }
+
+    private static boolean isCompatible(Member member) {
+        return Integer.valueOf(CLUSTER_VERSION).equals(member.getIntAttribute(CLUSTER_VERSION_ATTRIBUTE));
     }
 
     private ManagementCenterConfig initializeDefaultManagementCenterConfig(JHipsterProperties jHipsterProperties) {
@@ -124,6 +226,16 @@ public class CacheConfiguration {
         return managementCenterConfig;
     }
 
+    private SerializationConfig initializeSerializationConfig() {
+        SerializationConfig serializationConfig = new SerializationConfig();
+        // Compact and versioned format of the Catalogue cache entries, instead of Java serialization
+        serializationConfig.addSerializerConfig(new SerializerConfig()
+            .setTypeClass(CatalogueDTO.class)
+            .setImplementation(new CatalogueSerializers.CatalogueDTOSerializer()));
+        serializationConfig.addDataSerializableFactory(CatalogueDataSerializableFactory.FACTORY_ID, new CatalogueDataSerializableFactory());
+        return serializationConfig;
+    }
+
     private MapConfig initializeDefaultMapConfig(JHipsterProperties jHipsterProperties) {
         MapConfig mapConfig = new MapConfig();
 
@@ -154,6 +266,81 @@ public class CacheConfiguration {
         return mapConfig;
     }
 
+    private MapConfig initializeCatalogueRegionMapConfig(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
+        ApplicationProperties.Cache.Hibernate hibernate = applicationProperties.getCache().getHibernate();
+        MapConfig mapConfig = initializeDomainMapConfig(jHipsterProperties);
+        mapConfig.setName(Catalogue.class.getName());
+        mapConfig.setBackupCount(jHipsterProperties.getCache().getHazelcast().getBackupCount());
+        mapConfig.setEvictionPolicy(EvictionPolicy.LRU);
+        mapConfig.setMaxSizeConfig(new MaxSizeConfig(hibernate.getCatalogueMaxSize(), MaxSizeConfig.MaxSizePolicy.PER_NODE));
+        return mapConfig;
+    }
+
+    private MapConfig initializeQueryRegionMapConfig(ApplicationProperties applicationProperties) {
+        ApplicationProperties.Cache.Hibernate hibernate = applicationProperties.getCache().getHibernate();
+        MapConfig mapConfig = new MapConfig(CatalogueRepository.QUERY_CACHE_REGION);
+        mapConfig.setTimeToLiveSeconds(hibernate.getQueryTimeToLiveSeconds());
+        mapConfig.setEvictionPolicy(EvictionPolicy.LRU);
+        mapConfig.setMaxSizeConfig(new MaxSizeConfig(hibernate.getQueryMaxSize(), MaxSizeConfig.MaxSizePolicy.PER_NODE));
+        return mapConfig;
+    }
+
+    private MapConfig initializeCatalogueByIdMapConfig(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
+        ApplicationProperties.Cache.CatalogueById catalogueById = applicationProperties.getCache().getCatalogueById();
+        MapConfig mapConfig = new MapConfig(CatalogueRepository.CATALOGUE_BY_ID_CACHE);
+        mapConfig.setBackupCount(jHipsterProperties.getCache().getHazelcast().getBackupCount());
+        mapConfig.setTimeToLiveSeconds(catalogueById.getTimeToLiveSeconds());
+        mapConfig.setEvictionPolicy(EvictionPolicy.LRU);
+        mapConfig.setMaxSizeConfig(new MaxSizeConfig(catalogueById.getMaxSize(), MaxSizeConfig.MaxSizePolicy.PER_NODE));
+
+        if (catalogueById.getOffHeap().isEnabled()) {
+            // The per-node copies are kept off-heap by OffHeapCatalogueCache instead
+            return mapConfig;
+        }
+
+        /*
+        Near cache: each node keeps deserialized copies of the entries it reads, including the ones
+        it owns, and the cluster invalidates them when an entry is evicted by a Catalogue change.
+        */
+        NearCacheConfig nearCacheConfig = new NearCacheConfig(CatalogueRepository.CATALOGUE_BY_ID_CACHE);
+        nearCacheConfig.setInMemoryFormat(InMemoryFormat.OBJECT);
+        nearCacheConfig.setInvalidateOnChange(true);
+        nearCacheConfig.setCacheLocalEntries(true);
+        nearCacheConfig.setTimeToLiveSeconds(catalogueById.getNearCacheTimeToLiveSeconds());
+        nearCacheConfig.setEvictionConfig(new EvictionConfig(catalogueById.getNearCacheMaxSize(),
+            EvictionConfig.MaxSizePolicy.ENTRY_COUNT, EvictionPolicy.LRU));
+        mapConfig.setNearCacheConfig(nearCacheConfig);
+        return mapConfig;
+    }
+
+    private MapConfig initializeCountsMapConfig(ApplicationProperties applicationProperties) {
+        MapConfig mapConfig = new MapConfig(CatalogueRepository.COUNTS_CACHE);
+        ApplicationProperties.Query.CountCache countCache = applicationProperties.getQuery().getCountCache();
+        // Approximate counts are allowed to be stale: they expire instead of being evicted on writes
+        mapConfig.setTimeToLiveSeconds(countCache.getTimeToLiveSeconds());
+        mapConfig.setEvictionPolicy(EvictionPolicy.LRU);
+        mapConfig.setMaxSizeConfig(new MaxSizeConfig(countCache.getMaxSize(), MaxSizeConfig.MaxSizePolicy.PER_NODE));
+        return mapConfig;
+    }
+
+    private MapConfig initializeQueryResultsMapConfig(ApplicationProperties applicationProperties) {
+        MapConfig mapConfig = new MapConfig(CatalogueRepository.QUERY_RESULTS_CACHE);
+        ApplicationProperties.Cache.QueryResults queryResults = applicationProperties.getCache().getQueryResults();
+        mapConfig.setTimeToLiveSeconds(queryResults.getTimeToLiveSeconds());
+        mapConfig.setEvictionPolicy(EvictionPolicy.LRU);
+        mapConfig.setMaxSizeConfig(new MaxSizeConfig(queryResults.getMaxSize(), MaxSizeConfig.MaxSizePolicy.PER_NODE));
+        return mapConfig;
+    }
+
+    private MapConfig initializeQueryResultGenerationsMapConfig(JHipsterProperties jHipsterProperties) {
+        MapConfig mapConfig = new MapConfig(CatalogueRepository.QUERY_RESULTS_GENERATIONS);
+        mapConfig.setBackupCount(jHipsterProperties.getCache().getHazelcast().getBackupCount());
+        // A generation which expired or was evicted would start again, and make the pages it had left behind reachable
+        mapConfig.setTimeToLiveSeconds(0);
+        mapConfig.setEvictionPolicy(EvictionPolicy.NONE);
+        return mapConfig;
+    }
+
     private MapConfig initializeDomainMapConfig(JHipsterProperties jHipsterProperties) {
         MapConfig mapConfig = new MapConfig();
         mapConfig.setTimeToLiveSeconds(jHipsterProperties.getCache().getHazelcast().getTimeToLiveSeconds());
@@ -170,6 +357,29 @@ public class CacheConfiguration {
         this.buildProperties = buildProperties;
     }
 
+    @Bean
+    public MeterBinder catalogueByIdCacheMetrics(HazelcastInstance hazelcastInstance) {
+        return cacheMetrics(hazelcastInstance.getMap(CatalogueRepository.CATALOGUE_BY_ID_CACHE));
+    }
+
+    @Bean
+    public MeterBinder catalogueCountsCacheMetrics(HazelcastInstance hazelcastInstance) {
+        return cacheMetrics(hazelcastInstance.getMap(CatalogueRepository.COUNTS_CACHE));
+    }
+
+    @Bean
+    public MeterBinder catalogueQueryResultsCacheMetrics(HazelcastInstance hazelcastInstance) {
+        return cacheMetrics(hazelcastInstance.getMap(CatalogueRepository.QUERY_RESULTS_CACHE));
+    }
+
+    /**
+     * Metrics of a cache tagged like the ones Spring Boot binds for the caches of the {@code cacheManager} bean, as
+     * meters of the same name must have the same tags, and Spring Boot doesn't bind the caches created after startup.
+     */
+    private static MeterBinder cacheMetrics(IMap<?, ?> map) {
+        return new HazelcastCacheMetrics(map, Tags.of("cacheManager", "cacheManager", "name", map.getName()));
+    }
+
     @Bean
     public KeyGenerator keyGenerator() {
         return new PrefixedKeyGenerator(this.gitProperties, this.buildProperties);
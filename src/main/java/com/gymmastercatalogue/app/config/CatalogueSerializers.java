@@ -0,0 +1,161 @@
+package com.gymmastercatalogue.app.config;
+
+import com.gymmastercatalogue.app.domain.enumeration.categoryEnum;
+import com.gymmastercatalogue.app.service.dto.CatalogueDTO;
+
+import com.hazelcast.nio.BufferObjectDataInput;
+import com.hazelcast.nio.BufferObjectDataOutput;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.HazelcastSerializationException;
+import com.hazelcast.nio.serialization.StreamSerializer;
+
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * Compact Hazelcast serializer of {@link CatalogueDTO}, replacing Java serialization in the cluster, registered by
+ * {@link CacheConfiguration}. The {@link com.gymmastercatalogue.app.domain.Catalogue} entities are not serialized by
+ * Hazelcast: the Hibernate second level cache stores their disassembled state, as arrays of their column values.
+ * <p>
+ * A payload is a version byte, the length of the body, and the body: a byte of flags telling which of the nullable
+ * numeric fields are present, these fields, then the category by name and the description and username.
+ * <p>
+ * Versions only append fields to the body: a member reads the fields of the versions it knows, which are given their
+ * default value when the payload is older, and skips the ones it does not know, so members of different versions can
+ * share a cluster during a rolling upgrade. Any other change of the format needs new type ids. Replacing Java
+ * serialization was such a change, deployed by stopping the whole cluster, see {@link CacheConfiguration#CLUSTER_VERSION}.
+ */
+public final class CatalogueSerializers {
+
+    public static final int CATALOGUE_DTO_TYPE_ID = 1002;
+
+    static final byte VERSION = 1;
+
+    private static final int ID = 1;
+
+    private static final int PRICE = 1 << 1;
+
+    private static final int DURATION = 1 << 2;
+
+    private static final int SESSION_DT = 1 << 3;
+
+    private static final int PARTNER_ID = 1 << 4;
+
+    private CatalogueSerializers() {
+    }
+
+    /**
+     * Serializer of {@link CatalogueDTO}, the values of the {@code catalogueById} and query results caches.
+     */
+    public static class CatalogueDTOSerializer extends VersionedSerializer<CatalogueDTO> {
+
+        @Override
+        public int getTypeId() {
+            return CATALOGUE_DTO_TYPE_ID;
+        }
+
+        @Override
+        protected void writeBody(ObjectDataOutput out, CatalogueDTO catalogueDTO) throws IOException {
+            writeFields(out, catalogueDTO.getId(), catalogueDTO.getPrice(), catalogueDTO.getDuration(),
+                catalogueDTO.getSessionDt(), catalogueDTO.getPartnerId());
+            out.writeUTF(catalogueDTO.getCategory() == null ? null : catalogueDTO.getCategory().name());
+            out.writeUTF(catalogueDTO.getDescription());
+            out.writeUTF(catalogueDTO.getUsername());
+        }
+
+        @Override
+        protected CatalogueDTO readBody(ObjectDataInput in, int version) throws IOException {
+            int flags = in.readByte();
+            CatalogueDTO catalogueDTO = new CatalogueDTO();
+            catalogueDTO.setId((flags & ID) != 0 ? in.readLong() : null);
+            catalogueDTO.setPrice((flags & PRICE) != 0 ? in.readDouble() : null);
+            catalogueDTO.setDuration((flags & DURATION) != 0 ? in.readInt() : null);
+            catalogueDTO.setSessionDt((flags & SESSION_DT) != 0 ? readInstant(in) : null);
+            catalogueDTO.setPartnerId((flags & PARTNER_ID) != 0 ? in.readInt() : null);
+            catalogueDTO.setCategory(readCategory(in));
+            catalogueDTO.setDescription(in.readUTF());
+            catalogueDTO.setUsername(in.readUTF());
+            return catalogueDTO;
+        }
+    }
+
+    /**
+     * Writes the version and length of the body before it, and skips the end of the bodies of newer versions.
+     */
+    abstract static class VersionedSerializer<T> implements StreamSerializer<T> {
+
+        @Override
+        public void write(ObjectDataOutput out, T object) throws IOException {
+            BufferObjectDataOutput buffer = (BufferObjectDataOutput) out;
+            buffer.writeByte(VERSION);
+            int lengthPosition = buffer.position();
+            buffer.writeInt(0);
+            writeBody(buffer, object);
+            buffer.writeInt(lengthPosition, buffer.position() - lengthPosition - Integer.BYTES);
+        }
+
+        @Override
+        public T read(ObjectDataInput in) throws IOException {
+            BufferObjectDataInput buffer = (BufferObjectDataInput) in;
+            int version = buffer.readByte();
+            if (version < 1) {
+                throw new HazelcastSerializationException("Unknown version " + version + " of type " + getTypeId());
+            }
+            int length = buffer.readInt();
+            int end = buffer.position() + length;
+            T object = readBody(buffer, version);
+            if (buffer.position() > end) {
+                throw new HazelcastSerializationException("Body of type " + getTypeId() + " version " + version
+                    + " is longer than its " + length + " bytes");
+            }
+            buffer.position(end);
+            return object;
+        }
+
+        @Override
+        public void destroy() {
+        }
+
+        protected abstract void writeBody(ObjectDataOutput out, T object) throws IOException;
+
+        /**
+         * Read the fields known to this version of the application.
+         *
+         * @param version the version of the payload, which may be older or newer.
+         */
+        protected abstract T readBody(ObjectDataInput in, int version) throws IOException;
+    }
+
+    private static void writeFields(ObjectDataOutput out, Long id, Double price, Integer duration, Instant sessionDt,
+                                    Integer partnerId) throws IOException {
+        out.writeByte((id != null ? ID : 0) | (price != null ? PRICE : 0) | (duration != null ? DURATION : 0)
+            | (sessionDt != null ? SESSION_DT : 0) | (partnerId != null ? PARTNER_ID : 0));
+        if (id != null) {
+            out.writeLong(id);
+        }
+        if (price != null) {
+            out.writeDouble(price);
+        }
+        if (duration != null) {
+            out.writeInt(duration);
+        }
+        if (sessionDt != null) {
+            out.writeLong(sessionDt.getEpochSecond());
+            out.writeInt(sessionDt.getNano());
+        }
+        if (partnerId != null) {
+            out.writeInt(partnerId);
+        }
+    }
+
+    private static Instant readInstant(ObjectDataInput in) throws IOException {
+        long seconds = in.readLong();
+        return Instant.ofEpochSecond(seconds, in.readInt());
+    }
+
+    private static categoryEnum readCategory(ObjectDataInput in) throws IOException {
+        String category = in.readUTF();
+        return category == null ? null : categoryEnum.valueOf(category);
+    }
+}
@@ -1,5 +1,6 @@
 package com.gymmastercatalogue.app.config;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
@@ -7,6 +8,7 @@ import com.github.vanroy.springdata.jest.JestElasticsearchTemplate;
 import com.github.vanroy.springdata.jest.mapper.DefaultJestResultsMapper;
 import io.searchbox.client.JestClient;
 import org.springframework.boot.autoconfigure.data.elasticsearch.ElasticsearchProperties;
+import org.springframework.boot.autoconfigure.elasticsearch.jest.HttpClientConfigBuilderCustomizer;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -20,11 +22,14 @@ import org.springframework.data.mapping.MappingException;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 @EnableConfigurationProperties(ElasticsearchProperties.class)
 public class ElasticsearchConfiguration {
 
+    private static final TypeReference<HashMap<String, Object>> MAP_TYPE = new TypeReference<HashMap<String, Object>>() { };
+
     private ObjectMapper mapper;
 
     public ElasticsearchConfiguration(ObjectMapper mapper) {
@@ -36,6 +41,24 @@ public class ElasticsearchConfiguration {
         return new CustomEntityMapper(mapper);
     }
 
+    /**
+     * Pool the connections of the Jest clients, which are kept alive between requests until they are idle
+     * for {@code application.search.transport.max-connection-idle-time-ms}, and compress the request bodies.
+     */
+    @Bean
+    @SuppressWarnings("deprecation")
+    public HttpClientConfigBuilderCustomizer jestTransportCustomizer(ApplicationProperties applicationProperties) {
+        ApplicationProperties.Search.Transport transport = applicationProperties.getSearch().getTransport();
+        return builder -> builder
+            .multiThreaded(true)
+            .maxTotalConnection(transport.getMaxTotalConnections())
+            .defaultMaxTotalConnectionPerRoute(transport.getMaxConnectionsPerRoute())
+            .connTimeout(transport.getConnectTimeoutMs())
+            .readTimeout(transport.getReadTimeoutMs())
+            .maxConnectionIdleTime(transport.getMaxConnectionIdleTimeMs(), TimeUnit.MILLISECONDS)
+            .requestCompressionEnabled(transport.isRequestCompression());
+    }
+
     @Bean
     @Primary
     public ElasticsearchOperations elasticsearchTemplate(JestClient jestClient,
@@ -48,7 +71,12 @@ public class ElasticsearchConfiguration {
             new DefaultJestResultsMapper(mappingContext, entityMapper));
     }
 
-    public class CustomEntityMapper implements EntityMapper {
+    /**
+     * Entity mapper converting the documents with the application {@link ObjectMapper}.
+     * <p>
+     * Conversions between objects and maps go through a token buffer, without writing and parsing a JSON string.
+     */
+    public static class CustomEntityMapper implements EntityMapper {
 
         private ObjectMapper objectMapper;
 
@@ -74,8 +102,8 @@ public class ElasticsearchConfiguration {
         @Override
         public Map<String, Object> mapObject(Object source) {
             try {
-                return objectMapper.readValue(mapToString(source), HashMap.class);
-            } catch (IOException e) {
+                return objectMapper.convertValue(source, MAP_TYPE);
+            } catch (IllegalArgumentException e) {
                 throw new MappingException(e.getMessage(), e);
             }
         }
@@ -83,8 +111,8 @@ public class ElasticsearchConfiguration {
         @Override
         public <T> T readObject(Map<String, Object> source, Class<T> targetType) {
             try {
-                return mapToObject(mapToString(source), targetType);
-            } catch (IOException e) {
+                return objectMapper.convertValue(source, targetType);
+            } catch (IllegalArgumentException e) {
                 throw new MappingException(e.getMessage(), e);
             }
         }
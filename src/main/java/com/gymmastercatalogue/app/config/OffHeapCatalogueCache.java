@@ -0,0 +1,181 @@
+package com.gymmastercatalogue.app.config;
+
+import com.gymmastercatalogue.app.service.CatalogueOffHeapStore;
+import com.gymmastercatalogue.app.service.dto.CatalogueDTO;
+
+import com.hazelcast.core.EntryEvent;
+import com.hazelcast.core.IMap;
+import com.hazelcast.core.MapEvent;
+import com.hazelcast.map.listener.EntryEvictedListener;
+import com.hazelcast.map.listener.EntryExpiredListener;
+import com.hazelcast.map.listener.EntryRemovedListener;
+import com.hazelcast.map.listener.EntryUpdatedListener;
+import com.hazelcast.map.listener.MapClearedListener;
+import com.hazelcast.map.listener.MapEvictedListener;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+
+/**
+ * A {@link Cache} of {@link CatalogueDTO}s by id keeping a per-node copy of the entries it reads and writes in a
+ * {@link CatalogueOffHeapStore}, in front of the cluster-wide Hazelcast cache, like a near cache outside of the heap.
+ * <p>
+ * The copies expire after the time to live of the store, and are evicted when their Hazelcast entries are removed,
+ * evicted, expired or replaced on any node. A copy read before such an eviction is not stored after it.
+ */
+public class OffHeapCatalogueCache implements Cache {
+
+    private final Cache delegate;
+
+    private final CatalogueOffHeapStore store;
+
+    public OffHeapCatalogueCache(Cache delegate, IMap<Object, Object> map, CatalogueOffHeapStore store, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.store = store;
+        map.addEntryListener(new Invalidator(), false);
+        Gauge.builder("catalogue.cache.offheap.entries", store, CatalogueOffHeapStore::size)
+            .description("Number of Catalogues in the off-heap tier of the " + delegate.getName() + " cache")
+            .register(meterRegistry);
+        Gauge.builder("catalogue.cache.offheap.used", store, CatalogueOffHeapStore::getUsedBytes)
+            .description("Bytes of the off-heap records of the " + delegate.getName() + " cache, including the replaced ones not reclaimed yet")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        Gauge.builder("catalogue.cache.offheap.allocated", store, CatalogueOffHeapStore::getAllocatedBytes)
+            .description("Direct memory allocated for the off-heap tier of the " + delegate.getName() + " cache")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        FunctionCounter.builder("catalogue.cache.offheap.gets", store, CatalogueOffHeapStore::getHits)
+            .description("Reads of the off-heap tier of the " + delegate.getName() + " cache, by result")
+            .tag("result", "hit")
+            .register(meterRegistry);
+        FunctionCounter.builder("catalogue.cache.offheap.gets", store, CatalogueOffHeapStore::getMisses)
+            .description("Reads of the off-heap tier of the " + delegate.getName() + " cache, by result")
+            .tag("result", "miss")
+            .register(meterRegistry);
+        FunctionCounter.builder("catalogue.cache.offheap.evictions", store, CatalogueOffHeapStore::getEvictions)
+            .description("Catalogues evicted from the off-heap tier of the " + delegate.getName() + " cache to make room")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        if (key instanceof Long) {
+            CatalogueDTO catalogueDTO = store.get((Long) key);
+            if (catalogueDTO != null) {
+                return new SimpleValueWrapper(catalogueDTO);
+            }
+        }
+        long stamp = store.stamp();
+        ValueWrapper value = delegate.get(key);
+        if (value != null) {
+            storeLocally(key, value.get(), stamp);
+        }
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+        long stamp = store.stamp();
+        T value = delegate.get(key, valueLoader);
+        storeLocally(key, value, stamp);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        long stamp = store.stamp();
+        delegate.put(key, value);
+        storeLocally(key, value, stamp);
+    }
+
+    @Override
+    public void evict(Object key) {
+        evictLocally(key);
+        delegate.evict(key);
+    }
+
+    @Override
+    public void clear() {
+        store.clear();
+        delegate.clear();
+    }
+
+    private void storeLocally(Object key, Object value, long stamp) {
+        if (key instanceof Long && value instanceof CatalogueDTO && key.equals(((CatalogueDTO) value).getId())) {
+            store.put((CatalogueDTO) value, stamp);
+        }
+    }
+
+    private void evictLocally(Object key) {
+        if (key instanceof Long) {
+            store.remove((Long) key);
+        }
+    }
+
+    /**
+     * Listener of the changes of the Hazelcast entries, on every node, evicting their local copies.
+     */
+    private class Invalidator implements EntryRemovedListener<Object, Object>, EntryEvictedListener<Object, Object>,
+        EntryExpiredListener<Object, Object>, EntryUpdatedListener<Object, Object>, MapClearedListener, MapEvictedListener {
+
+        @Override
+        public void entryRemoved(EntryEvent<Object, Object> event) {
+            evictLocally(event.getKey());
+        }
+
+        @Override
+        public void entryEvicted(EntryEvent<Object, Object> event) {
+            evictLocally(event.getKey());
+        }
+
+        @Override
+        public void entryExpired(EntryEvent<Object, Object> event) {
+            evictLocally(event.getKey());
+        }
+
+        @Override
+        public void entryUpdated(EntryEvent<Object, Object> event) {
+            evictLocally(event.getKey());
+        }
+
+        @Override
+        public void mapCleared(MapEvent event) {
+            store.clear();
+        }
+
+        @Override
+        public void mapEvicted(MapEvent event) {
+            store.clear();
+        }
+    }
+}
@@ -1,12 +1,20 @@
 package com.gymmastercatalogue.app.domain;
 
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+
 import javax.persistence.*;
 import javax.validation.constraints.*;
 
 import org.springframework.data.elasticsearch.annotations.FieldType;
+import org.springframework.data.elasticsearch.annotations.Mapping;
+import org.springframework.data.elasticsearch.annotations.Setting;
 import java.io.Serializable;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 
 import com.gymmastercatalogue.app.domain.enumeration.categoryEnum;
 
@@ -15,14 +23,17 @@ import com.gymmastercatalogue.app.domain.enumeration.categoryEnum;
  */
 @Entity
 @Table(name = "catalogue")
-@org.springframework.data.elasticsearch.annotations.Document(indexName = "catalogue")
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
+@org.springframework.data.elasticsearch.annotations.Document(indexName = "catalogue", createIndex = false)
+@Mapping(mappingPath = "/config/elasticsearch/catalogue-mapping.json")
+@Setting(settingPath = "/config/elasticsearch/catalogue-settings.json")
 public class Catalogue implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
-    @SequenceGenerator(name = "sequenceGenerator")
+    @GenericGenerator(name = "sequenceGenerator", strategy = "com.gymmastercatalogue.app.domain.PooledSequenceGenerator")
     private Long id;
 
     @Column(name = "description")
@@ -52,6 +63,23 @@ public class Catalogue implements Serializable {
     @Column(name = "partner_id", nullable = false)
     private Integer partnerId;
 
+    /**
+     * The end of the session: its date plus its duration in minutes, derived from them so that the sessions running
+     * during a period are found with range predicates on both columns.
+     */
+    @JsonIgnore
+    @Column(name = "session_end")
+    private Instant sessionEnd;
+
+    /**
+     * The number of updates of the row, incremented by each update: the external version of the Elasticsearch
+     * document, so that a document read before a change cannot overwrite the document of the change.
+     */
+    @JsonIgnore
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
     public Long getId() {
         return id;
@@ -92,12 +120,13 @@ public class Catalogue implements Serializable {
     }
 
     public Catalogue duration(Integer duration) {
-        this.duration = duration;
+        setDuration(duration);
         return this;
     }
 
     public void setDuration(Integer duration) {
         this.duration = duration;
+        updateSessionEnd();
     }
 
     public Instant getSessionDt() {
@@ -105,12 +134,29 @@ public class Catalogue implements Serializable {
     }
 
     public Catalogue sessionDt(Instant sessionDt) {
-        this.sessionDt = sessionDt;
+        setSessionDt(sessionDt);
         return this;
     }
 
     public void setSessionDt(Instant sessionDt) {
         this.sessionDt = sessionDt;
+        updateSessionEnd();
+    }
+
+    public Instant getSessionEnd() {
+        return sessionEnd;
+    }
+
+    private void updateSessionEnd() {
+        sessionEnd = sessionDt == null ? null : sessionDt.plus(duration == null ? 0 : duration, ChronoUnit.MINUTES);
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
     }
 
     public categoryEnum getCategory() {
@@ -0,0 +1,189 @@
+package com.gymmastercatalogue.app.domain;
+
+
+import org.hibernate.annotations.GenericGenerator;
+
+import javax.persistence.*;
+import javax.validation.constraints.*;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import com.gymmastercatalogue.app.domain.enumeration.OutboxOperation;
+
+/**
+ * A pending Elasticsearch change for a {@link Catalogue}.
+ * <p>
+ * Rows are written in the same transaction as the {@link Catalogue} change they describe,
+ * and drained asynchronously by {@link com.gymmastercatalogue.app.service.CatalogueSearchOutboxRelay}.
+ * A relay claims the rows it drains until {@code claimedUntil}; rows which failed too many times are
+ * dead-lettered, and kept until an operator replays them by clearing {@code deadLetteredDate}.
+ */
+@Entity
+@Table(name = "catalogue_outbox")
+public class CatalogueOutboxEvent implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @GenericGenerator(name = "sequenceGenerator", strategy = "com.gymmastercatalogue.app.domain.PooledSequenceGenerator")
+    private Long id;
+
+    @NotNull
+    @Column(name = "catalogue_id", nullable = false)
+    private Long catalogueId;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "operation", nullable = false)
+    private OutboxOperation operation;
+
+    @NotNull
+    @Column(name = "created_date", nullable = false)
+    private Instant createdDate;
+
+    @NotNull
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts = 0;
+
+    @Size(max = 64)
+    @Column(name = "claimed_by", length = 64)
+    private String claimedBy;
+
+    @Column(name = "claimed_until")
+    private Instant claimedUntil;
+
+    @Column(name = "dead_lettered_date")
+    private Instant deadLetteredDate;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getCatalogueId() {
+        return catalogueId;
+    }
+
+    public CatalogueOutboxEvent catalogueId(Long catalogueId) {
+        this.catalogueId = catalogueId;
+        return this;
+    }
+
+    public void setCatalogueId(Long catalogueId) {
+        this.catalogueId = catalogueId;
+    }
+
+    public OutboxOperation getOperation() {
+        return operation;
+    }
+
+    public CatalogueOutboxEvent operation(OutboxOperation operation) {
+        this.operation = operation;
+        return this;
+    }
+
+    public void setOperation(OutboxOperation operation) {
+        this.operation = operation;
+    }
+
+    public Instant getCreatedDate() {
+        return createdDate;
+    }
+
+    public CatalogueOutboxEvent createdDate(Instant createdDate) {
+        this.createdDate = createdDate;
+        return this;
+    }
+
+    public void setCreatedDate(Instant createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    public Integer getAttempts() {
+        return attempts;
+    }
+
+    public CatalogueOutboxEvent attempts(Integer attempts) {
+        this.attempts = attempts;
+        return this;
+    }
+
+    public void setAttempts(Integer attempts) {
+        this.attempts = attempts;
+    }
+
+    public String getClaimedBy() {
+        return claimedBy;
+    }
+
+    public CatalogueOutboxEvent claimedBy(String claimedBy) {
+        this.claimedBy = claimedBy;
+        return this;
+    }
+
+    public void setClaimedBy(String claimedBy) {
+        this.claimedBy = claimedBy;
+    }
+
+    public Instant getClaimedUntil() {
+        return claimedUntil;
+    }
+
+    public CatalogueOutboxEvent claimedUntil(Instant claimedUntil) {
+        this.claimedUntil = claimedUntil;
+        return this;
+    }
+
+    public void setClaimedUntil(Instant claimedUntil) {
+        this.claimedUntil = claimedUntil;
+    }
+
+    public Instant getDeadLetteredDate() {
+        return deadLetteredDate;
+    }
+
+    public CatalogueOutboxEvent deadLetteredDate(Instant deadLetteredDate) {
+        this.deadLetteredDate = deadLetteredDate;
+        return this;
+    }
+
+    public void setDeadLetteredDate(Instant deadLetteredDate) {
+        this.deadLetteredDate = deadLetteredDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CatalogueOutboxEvent)) {
+            return false;
+        }
+        return id != null && id.equals(((CatalogueOutboxEvent) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CatalogueOutboxEvent{" +
+            "id=" + getId() +
+            ", catalogueId=" + getCatalogueId() +
+            ", operation='" + getOperation() + "'" +
+            ", createdDate='" + getCreatedDate() + "'" +
+            ", attempts=" + getAttempts() +
+            ", claimedBy='" + getClaimedBy() + "'" +
+            ", claimedUntil='" + getClaimedUntil() + "'" +
+            ", deadLetteredDate='" + getDeadLetteredDate() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,8 @@
+package com.gymmastercatalogue.app.domain.enumeration;
+
+/**
+ * The OutboxOperation enumeration.
+ */
+public enum OutboxOperation {
+    INDEX, DELETE
+}
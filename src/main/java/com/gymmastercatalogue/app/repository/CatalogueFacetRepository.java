@@ -0,0 +1,39 @@
+package com.gymmastercatalogue.app.repository;
+
+import com.gymmastercatalogue.app.domain.Catalogue;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.metamodel.SingularAttribute;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+
+/**
+ * Spring Data fragment counting the Catalogue rows by value of an attribute, in one {@code GROUP BY} query.
+ */
+public interface CatalogueFacetRepository {
+
+    /**
+     * Count the catalogues matching the specification for each value of an attribute, ignoring the catalogues
+     * without value.
+     *
+     * @param specification the filters the catalogues should match.
+     * @param attribute the attribute whose values are counted.
+     * @param limit the maximum number of values, the most frequent first.
+     * @param <T> the type of the attribute.
+     * @return the number of catalogues by value, the most frequent first.
+     */
+    <T> Map<T, Long> countBy(Specification<Catalogue> specification, SingularAttribute<? super Catalogue, T> attribute, int limit);
+
+    /**
+     * Count the catalogues matching the specification by time bucket of their session date, truncated in the query,
+     * ignoring the catalogues without session date.
+     *
+     * @param specification the filters the catalogues should match.
+     * @param unit the width of the buckets, {@link ChronoUnit#HOURS} or {@link ChronoUnit#DAYS}.
+     * @param limit the maximum number of buckets, the earliest first.
+     * @return the number of catalogues by start of UTC bucket, in time order.
+     */
+    Map<Instant, Long> countBySessionDt(Specification<Catalogue> specification, ChronoUnit unit, int limit);
+}
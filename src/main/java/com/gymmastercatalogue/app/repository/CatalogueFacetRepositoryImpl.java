@@ -0,0 +1,68 @@
+package com.gymmastercatalogue.app.repository;
+
+import com.gymmastercatalogue.app.domain.Catalogue;
+import com.gymmastercatalogue.app.domain.Catalogue_;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.metamodel.SingularAttribute;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Criteria API implementation of {@link CatalogueFacetRepository}.
+ */
+public class CatalogueFacetRepositoryImpl implements CatalogueFacetRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public <T> Map<T, Long> countBy(Specification<Catalogue> specification, SingularAttribute<? super Catalogue, T> attribute, int limit) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<Catalogue> root = query.from(Catalogue.class);
+        Path<T> value = root.get(attribute);
+        Expression<Long> count = builder.count(root);
+        Predicate predicate = specification != null ? specification.toPredicate(root, query, builder) : null;
+        query.multiselect(value, count)
+            .where(predicate != null ? builder.and(predicate, builder.isNotNull(value)) : builder.isNotNull(value))
+            .groupBy(value)
+            .orderBy(builder.desc(count));
+        Map<T, Long> counts = new LinkedHashMap<>();
+        for (Tuple tuple : entityManager.createQuery(query).setMaxResults(limit).getResultList()) {
+            counts.put(tuple.get(0, attribute.getJavaType()), tuple.get(1, Long.class));
+        }
+        return counts;
+    }
+
+    @Override
+    public Map<Instant, Long> countBySessionDt(Specification<Catalogue> specification, ChronoUnit unit, int limit) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<Catalogue> root = query.from(Catalogue.class);
+        Path<Instant> sessionDt = root.get(Catalogue_.sessionDt);
+        Expression<Instant> bucket = builder.function(CatalogueSqlFunctions.trunc(unit), Instant.class, sessionDt);
+        Predicate predicate = specification != null ? specification.toPredicate(root, query, builder) : null;
+        query.multiselect(bucket, builder.count(root))
+            .where(predicate != null ? builder.and(predicate, builder.isNotNull(sessionDt)) : builder.isNotNull(sessionDt))
+            .groupBy(bucket)
+            .orderBy(builder.asc(bucket));
+        Map<Instant, Long> counts = new LinkedHashMap<>();
+        for (Tuple tuple : entityManager.createQuery(query).setMaxResults(limit).getResultList()) {
+            counts.put(tuple.get(0, Instant.class), tuple.get(1, Long.class));
+        }
+        return counts;
+    }
+}
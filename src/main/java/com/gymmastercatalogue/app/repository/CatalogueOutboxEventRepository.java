@@ -0,0 +1,53 @@
+package com.gymmastercatalogue.app.repository;
+
+import com.gymmastercatalogue.app.domain.CatalogueOutboxEvent;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Spring Data  repository for the CatalogueOutboxEvent entity.
+ */
+@Repository
+public interface CatalogueOutboxEventRepository extends JpaRepository<CatalogueOutboxEvent, Long> {
+
+    /**
+     * Get the ids of the oldest events which are neither dead-lettered nor claimed by a relay.
+     *
+     * @param now the current time, after which the claims have expired.
+     * @param pageable the number of events.
+     * @return the ids, in ascending order.
+     */
+    @Query("select event.id from CatalogueOutboxEvent event where event.deadLetteredDate is null " +
+        "and (event.claimedUntil is null or event.claimedUntil < :now) order by event.id asc")
+    List<Long> findClaimableIds(@Param("now") Instant now, Pageable pageable);
+
+    /**
+     * Claim events for a relay, unless another relay claimed them since they were read. Concurrent claims of the same
+     * row are serialized by its lock, so only one of them updates it.
+     *
+     * @return the number of events claimed.
+     */
+    @Modifying
+    @Transactional
+    @Query("update CatalogueOutboxEvent event set event.claimedBy = :claimedBy, event.claimedUntil = :claimedUntil " +
+        "where event.id in :ids and event.deadLetteredDate is null and (event.claimedUntil is null or event.claimedUntil < :now)")
+    int claim(@Param("ids") Collection<Long> ids, @Param("claimedBy") String claimedBy, @Param("claimedUntil") Instant claimedUntil,
+              @Param("now") Instant now);
+
+    List<CatalogueOutboxEvent> findAllByClaimedByAndIdInOrderByIdAsc(String claimedBy, Collection<Long> ids);
+
+    Optional<CatalogueOutboxEvent> findFirstByDeadLetteredDateIsNullOrderByIdAsc();
+
+    long countByDeadLetteredDateIsNull();
+
+    long countByDeadLetteredDateIsNotNull();
+}
@@ -2,13 +2,69 @@ package com.gymmastercatalogue.app.repository;
 
 import com.gymmastercatalogue.app.domain.Catalogue;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+
 /**
  * Spring Data  repository for the Catalogue entity.
  */
 @SuppressWarnings("unused")
 @Repository
-public interface CatalogueRepository extends JpaRepository<Catalogue, Long>, JpaSpecificationExecutor<Catalogue> {
+public interface CatalogueRepository extends JpaRepository<Catalogue, Long>, JpaSpecificationExecutor<Catalogue>, CatalogueSliceRepository,
+    CatalogueFacetRepository, CatalogueStreamRepository {
+
+    String CATALOGUE_BY_ID_CACHE = "catalogueById";
+
+    String COUNTS_CACHE = "catalogueCounts";
+
+    String QUERY_CACHE_REGION = "catalogueQueries";
+
+    String QUERY_RESULTS_CACHE = "catalogueQueryResults";
+
+    String QUERY_RESULTS_GENERATIONS = "catalogueQueryResultGenerations";
+
+    /*
+    The criteria queries of CatalogueQueryService go through the Hibernate query cache.
+    Cached results are invalidated by any write to the catalogue table.
+    */
+    @Override
+    @QueryHints({
+        @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION)
+    })
+    List<Catalogue> findAll(@Nullable Specification<Catalogue> specification);
+
+    @Override
+    @QueryHints({
+        @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION)
+    })
+    Page<Catalogue> findAll(@Nullable Specification<Catalogue> specification, Pageable pageable);
+
+    @Override
+    @QueryHints({
+        @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION)
+    })
+    long count(@Nullable Specification<Catalogue> specification);
+
+    @Query("select min(catalogue.id) from Catalogue catalogue")
+    Long findMinId();
+
+    @Query("select max(catalogue.id) from Catalogue catalogue")
+    Long findMaxId();
+
+    @Query("select catalogue.id from Catalogue catalogue where catalogue.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    List<Catalogue> findByIdGreaterThanAndIdLessThanEqualOrderByIdAsc(Long after, Long upTo, Pageable pageable);
 }
@@ -0,0 +1,35 @@
+package com.gymmastercatalogue.app.repository;
+
+import com.gymmastercatalogue.app.domain.Catalogue;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Spring Data fragment reading a limited number of Catalogue rows, without the count query of a {@link org.springframework.data.domain.Page}.
+ */
+public interface CatalogueSliceRepository {
+
+    /**
+     * Find the first catalogues matching the specification.
+     *
+     * @param specification the filters the catalogues should match.
+     * @param sort the order of the catalogues.
+     * @param limit the maximum number of catalogues to return.
+     * @return the matching catalogues.
+     */
+    List<Catalogue> findTop(Specification<Catalogue> specification, Sort sort, int limit);
+
+    /**
+     * Find a slice of the catalogues matching the specification, reading one extra row to know if there is a next slice.
+     *
+     * @param specification the filters the catalogues should match.
+     * @param pageable the pagination information.
+     * @return the matching catalogues.
+     */
+    Slice<Catalogue> findSlice(Specification<Catalogue> specification, Pageable pageable);
+}
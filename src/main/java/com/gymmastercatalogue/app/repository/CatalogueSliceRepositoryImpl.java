@@ -0,0 +1,63 @@
+package com.gymmastercatalogue.app.repository;
+
+import com.gymmastercatalogue.app.domain.Catalogue;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.List;
+
+/**
+ * Criteria API implementation of {@link CatalogueSliceRepository}.
+ */
+public class CatalogueSliceRepositoryImpl implements CatalogueSliceRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Catalogue> findTop(Specification<Catalogue> specification, Sort sort, int limit) {
+        return createQuery(specification, sort)
+            .setMaxResults(limit)
+            .getResultList();
+    }
+
+    @Override
+    public Slice<Catalogue> findSlice(Specification<Catalogue> specification, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(createQuery(specification, pageable.getSort()).getResultList());
+        }
+        List<Catalogue> catalogues = createQuery(specification, pageable.getSort())
+            .setFirstResult((int) pageable.getOffset())
+            .setMaxResults(pageable.getPageSize() + 1)
+            .getResultList();
+        boolean hasNext = catalogues.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? catalogues.subList(0, pageable.getPageSize()) : catalogues, pageable, hasNext);
+    }
+
+    private TypedQuery<Catalogue> createQuery(Specification<Catalogue> specification, Sort sort) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Catalogue> query = builder.createQuery(Catalogue.class);
+        Root<Catalogue> root = query.from(Catalogue.class);
+        query.select(root);
+        if (specification != null) {
+            Predicate predicate = specification.toPredicate(root, query, builder);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, builder));
+        return entityManager.createQuery(query);
+    }
+}
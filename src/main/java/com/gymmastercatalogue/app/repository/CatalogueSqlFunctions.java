@@ -0,0 +1,96 @@
+package com.gymmastercatalogue.app.repository;
+
+import org.hibernate.QueryException;
+import org.hibernate.boot.MetadataBuilder;
+import org.hibernate.boot.spi.MetadataBuilderContributor;
+import org.hibernate.dialect.Oracle8iDialect;
+import org.hibernate.dialect.function.SQLFunction;
+import org.hibernate.engine.spi.Mapping;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.type.InstantType;
+import org.hibernate.type.Type;
+
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * SQL functions of the Catalogue queries, registered by the {@code hibernate.metadata_builder_contributor} JPA
+ * property.
+ */
+public class CatalogueSqlFunctions implements MetadataBuilderContributor {
+
+    /**
+     * Truncates a timestamp to the start of its UTC hour.
+     */
+    public static final String TRUNC_HOUR = "trunc_hour";
+
+    /**
+     * Truncates a timestamp to the start of its UTC day.
+     */
+    public static final String TRUNC_DAY = "trunc_day";
+
+    @Override
+    public void contribute(MetadataBuilder metadataBuilder) {
+        metadataBuilder.applySqlFunction(TRUNC_HOUR, new DateTrunc("HH24", "hour"));
+        metadataBuilder.applySqlFunction(TRUNC_DAY, new DateTrunc("DD", "day"));
+    }
+
+    /**
+     * Get the function truncating a timestamp to a unit.
+     *
+     * @param unit {@link ChronoUnit#HOURS} or {@link ChronoUnit#DAYS}.
+     * @return the name of the function.
+     */
+    public static String trunc(ChronoUnit unit) {
+        switch (unit) {
+            case HOURS:
+                return TRUNC_HOUR;
+            case DAYS:
+                return TRUNC_DAY;
+            default:
+                throw new IllegalArgumentException("Timestamps can't be truncated to " + unit);
+        }
+    }
+
+    /**
+     * Truncation of a timestamp, rendered with {@code trunc} on Oracle and {@code date_trunc} on the other databases.
+     * The unit is inlined rather than bound, so that the expression is the same in the select and group by clauses.
+     */
+    static final class DateTrunc implements SQLFunction {
+
+        private final String oracleFormat;
+
+        private final String unit;
+
+        DateTrunc(String oracleFormat, String unit) {
+            this.oracleFormat = oracleFormat;
+            this.unit = unit;
+        }
+
+        @Override
+        public boolean hasArguments() {
+            return true;
+        }
+
+        @Override
+        public boolean hasParenthesesIfNoArguments() {
+            return true;
+        }
+
+        @Override
+        public Type getReturnType(Type firstArgumentType, Mapping mapping) {
+            return InstantType.INSTANCE;
+        }
+
+        @Override
+        public String render(Type firstArgumentType, List arguments, SessionFactoryImplementor factory) {
+            if (arguments.size() != 1) {
+                throw new QueryException("The truncation to the " + unit + " takes one argument: " + arguments);
+            }
+            if (factory.getJdbcServices().getDialect() instanceof Oracle8iDialect) {
+                return "trunc(" + arguments.get(0) + ", '" + oracleFormat + "')";
+            }
+            return "date_trunc('" + unit + "', " + arguments.get(0) + ")";
+        }
+    }
+}
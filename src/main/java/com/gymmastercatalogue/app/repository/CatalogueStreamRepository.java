@@ -0,0 +1,36 @@
+package com.gymmastercatalogue.app.repository;
+
+import com.gymmastercatalogue.app.domain.Catalogue;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Spring Data fragment reading all the matching Catalogue rows through a forward-only cursor, one at a time.
+ */
+public interface CatalogueStreamRepository {
+
+    /**
+     * Pass each catalogue matching the specification to a consumer, then detach it, so that the memory used does not
+     * depend on the number of rows. The rows are fetched by {@code hibernate.jdbc.fetch_size}, and bypass the
+     * second level cache. Must be called within a transaction, which stays open until the last row.
+     *
+     * @param specification the filters the catalogues should match.
+     * @param sort the order of the catalogues.
+     * @param consumer the consumer of the catalogues, which must not keep them.
+     * @return the number of catalogues read.
+     */
+    long forEach(Specification<Catalogue> specification, Sort sort, Consumer<Catalogue> consumer);
+
+    /**
+     * Pass the id and version of each catalogue to a consumer, without reading the other columns. Must be called
+     * within a transaction, which stays open until the last row.
+     *
+     * @param consumer the consumer of the ids and versions.
+     * @return the number of catalogues read.
+     */
+    long forEachVersion(BiConsumer<Long, Long> consumer);
+}
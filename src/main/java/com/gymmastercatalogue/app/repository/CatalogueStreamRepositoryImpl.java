@@ -0,0 +1,75 @@
+package com.gymmastercatalogue.app.repository;
+
+import com.gymmastercatalogue.app.domain.Catalogue;
+
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.query.Query;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Hibernate {@link ScrollableResults} implementation of {@link CatalogueStreamRepository}.
+ */
+public class CatalogueStreamRepositoryImpl implements CatalogueStreamRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public long forEach(Specification<Catalogue> specification, Sort sort, Consumer<Catalogue> consumer) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Catalogue> query = builder.createQuery(Catalogue.class);
+        Root<Catalogue> root = query.from(Catalogue.class);
+        query.select(root);
+        if (specification != null) {
+            Predicate predicate = specification.toPredicate(root, query, builder);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, builder));
+        long count = 0;
+        try (ScrollableResults results = entityManager.createQuery(query)
+            .unwrap(Query.class)
+            .setReadOnly(true)
+            .setCacheable(false)
+            .setCacheMode(CacheMode.IGNORE)
+            .scroll(ScrollMode.FORWARD_ONLY)) {
+            while (results.next()) {
+                Catalogue catalogue = (Catalogue) results.get(0);
+                consumer.accept(catalogue);
+                entityManager.detach(catalogue);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public long forEachVersion(BiConsumer<Long, Long> consumer) {
+        long count = 0;
+        try (ScrollableResults results = entityManager
+            .createQuery("select catalogue.id, catalogue.version from Catalogue catalogue")
+            .unwrap(Query.class)
+            .setReadOnly(true)
+            .scroll(ScrollMode.FORWARD_ONLY)) {
+            while (results.next()) {
+                consumer.accept((Long) results.get(0), (Long) results.get(1));
+                count++;
+            }
+        }
+        return count;
+    }
+}
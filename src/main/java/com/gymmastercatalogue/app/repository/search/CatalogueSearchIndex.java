@@ -0,0 +1,207 @@
+package com.gymmastercatalogue.app.repository.search;
+
+import com.gymmastercatalogue.app.config.ApplicationProperties;
+import com.gymmastercatalogue.app.domain.Catalogue;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import io.searchbox.action.Action;
+import io.searchbox.client.JestClient;
+import io.searchbox.client.JestResult;
+import io.searchbox.indices.CreateIndex;
+import io.searchbox.indices.IndicesExists;
+import io.searchbox.indices.mapping.GetMapping;
+import io.searchbox.indices.mapping.PutMapping;
+import io.searchbox.indices.settings.UpdateSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.elasticsearch.annotations.Mapping;
+import org.springframework.data.elasticsearch.annotations.Setting;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.mapping.ElasticsearchPersistentEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Definition of the {@link Catalogue} Elasticsearch indices: the mapping and settings files declared on the
+ * entity, completed by {@code application.search.index}.
+ * <p>
+ * The settings sort the segments by {@code sessionDt}, so that searches sorted by session date can stop
+ * collecting early. The index sort can only be set when an index is created, which is why the index is not
+ * created by the Spring Data repository. At startup, the default index is created when missing; otherwise its
+ * mapping is validated: new fields are added to it, and fields of another type are reported, as they only
+ * change on a reindex.
+ */
+@Component
+public class CatalogueSearchIndex implements InitializingBean {
+
+    private final Logger log = LoggerFactory.getLogger(CatalogueSearchIndex.class);
+
+    private final JestClient jestClient;
+
+    private final ApplicationProperties.Search.Index properties;
+
+    private final String indexName;
+
+    private final String indexType;
+
+    private final JsonObject mapping;
+
+    private final JsonObject settings;
+
+    public CatalogueSearchIndex(JestClient jestClient, ElasticsearchOperations elasticsearchOperations,
+                                ApplicationProperties applicationProperties) {
+        this.jestClient = jestClient;
+        this.properties = applicationProperties.getSearch().getIndex();
+        ElasticsearchPersistentEntity<Object> persistentEntity = elasticsearchOperations.getPersistentEntityFor(Catalogue.class);
+        this.indexName = persistentEntity.getIndexName();
+        this.indexType = persistentEntity.getIndexType();
+        this.mapping = readJson(Catalogue.class.getAnnotation(Mapping.class).mappingPath());
+        this.settings = readJson(Catalogue.class.getAnnotation(Setting.class).settingPath());
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        try {
+            JestResult exists = jestClient.execute(new IndicesExists.Builder(indexName).build());
+            if (exists.isSucceeded()) {
+                validate();
+                updateSettings(indexName);
+            } else {
+                log.info("Creating Elasticsearch index {}", indexName);
+                create(indexName, Collections.emptyMap());
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Cannot initialize Elasticsearch index {}: {}", indexName, e.getMessage());
+        }
+    }
+
+    /**
+     * Create an index with the Catalogue mapping and settings.
+     *
+     * @param name the name of the index.
+     * @param overrides settings replacing the configured ones, like {@code index.refresh_interval}.
+     * @throws IOException if Elasticsearch cannot be reached.
+     */
+    public void create(String name, Map<String, Object> overrides) throws IOException {
+        JsonObject indexSettings = settings.deepCopy();
+        indexSettings.addProperty("index.number_of_shards", properties.getShards());
+        indexSettings.addProperty("index.number_of_replicas", properties.getReplicas());
+        indexSettings.addProperty("index.refresh_interval", properties.getRefreshInterval());
+        overrides.forEach((key, value) -> indexSettings.addProperty(key, String.valueOf(value)));
+        JsonObject mappings = new JsonObject();
+        mappings.add(indexType, mapping);
+        JsonObject payload = new JsonObject();
+        payload.add("settings", indexSettings);
+        payload.add("mappings", mappings);
+        execute(new CreateIndex.Builder(name).payload(payload.toString()).build());
+    }
+
+    /**
+     * Apply the configured replicas and refresh interval to an index.
+     *
+     * @param name the name of the index, or of its alias.
+     * @throws IOException if Elasticsearch cannot be reached.
+     */
+    public void updateSettings(String name) throws IOException {
+        JsonObject index = new JsonObject();
+        index.addProperty("number_of_replicas", properties.getReplicas());
+        index.addProperty("refresh_interval", properties.getRefreshInterval());
+        JsonObject update = new JsonObject();
+        update.add("index", index);
+        execute(new UpdateSettings.Builder(update.toString()).addIndex(name).build());
+    }
+
+    /**
+     * Compare the mapping of the default index with the expected one, and add the missing fields to it.
+     */
+    private void validate() throws IOException {
+        JestResult result = execute(new GetMapping.Builder().addIndex(indexName).addType(indexType).build());
+        for (Map.Entry<String, JsonElement> index : result.getJsonObject().entrySet()) {
+            JsonObject actual = index.getValue().getAsJsonObject().getAsJsonObject("mappings").getAsJsonObject(indexType);
+            List<String> conflicts = conflicts(mapping, actual);
+            if (!conflicts.isEmpty()) {
+                log.error("Elasticsearch index {} maps the Catalogue fields {} differently, they will be mapped as expected by a reindex",
+                    index.getKey(), conflicts);
+            } else if (actual == null || !properties(actual).keySet().containsAll(properties(mapping).keySet())) {
+                log.info("Adding the missing Catalogue fields to the mapping of Elasticsearch index {}", index.getKey());
+                execute(new PutMapping.Builder(index.getKey(), indexType, mapping.toString()).build());
+            }
+        }
+    }
+
+    /**
+     * Get the fields whose type, format, analyzer or doc values in the actual mapping differs from the expected one, ignoring
+     * the fields missing from the actual mapping. A missing sub-field is a conflict, as its analyzer may only be
+     * defined by the settings of a new index.
+     */
+    static List<String> conflicts(JsonObject expected, JsonObject actual) {
+        List<String> conflicts = new ArrayList<>();
+        if (actual == null) {
+            return conflicts;
+        }
+        JsonObject actualProperties = properties(actual);
+        for (Map.Entry<String, JsonElement> field : properties(expected).entrySet()) {
+            JsonObject actualField = actualProperties.getAsJsonObject(field.getKey());
+            if (actualField == null) {
+                continue;
+            }
+            JsonObject expectedField = field.getValue().getAsJsonObject();
+            if (differs(expectedField, actualField)) {
+                conflicts.add(field.getKey());
+            }
+            if (expectedField.has("fields")) {
+                JsonObject actualSubFields = actualField.has("fields") ? actualField.getAsJsonObject("fields") : new JsonObject();
+                for (Map.Entry<String, JsonElement> subField : expectedField.getAsJsonObject("fields").entrySet()) {
+                    JsonObject actualSubField = actualSubFields.getAsJsonObject(subField.getKey());
+                    if (actualSubField == null || differs(subField.getValue().getAsJsonObject(), actualSubField)) {
+                        conflicts.add(field.getKey() + "." + subField.getKey());
+                    }
+                }
+            }
+        }
+        return conflicts;
+    }
+
+    private static boolean differs(JsonObject expectedField, JsonObject actualField) {
+        for (String attribute : new String[] { "type", "format", "analyzer", "doc_values" }) {
+            if (expectedField.has(attribute) && !expectedField.get(attribute).equals(actualField.get(attribute))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static JsonObject properties(JsonObject mapping) {
+        JsonObject properties = mapping.getAsJsonObject("properties");
+        return properties != null ? properties : new JsonObject();
+    }
+
+    private <T extends JestResult> T execute(Action<T> action) throws IOException {
+        T result = jestClient.execute(action);
+        if (!result.isSucceeded()) {
+            throw new IllegalStateException(result.getErrorMessage());
+        }
+        return result;
+    }
+
+    private static JsonObject readJson(String path) {
+        try (InputStream input = new ClassPathResource(path).getInputStream()) {
+            return JsonParser.parseString(StreamUtils.copyToString(input, StandardCharsets.UTF_8)).getAsJsonObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read " + path, e);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.gymmastercatalogue.app.repository.search;
+
+import com.gymmastercatalogue.app.domain.Catalogue;
+
+import io.searchbox.action.Action;
+import io.searchbox.client.JestResult;
+import io.searchbox.core.SearchResult;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking transport of the {@link Catalogue} requests to Elasticsearch.
+ * <p>
+ * Requests are sent without holding the calling thread, and their latency is recorded per operation
+ * in the {@code catalogue.search.latency} metric.
+ */
+public interface CatalogueSearchTransport {
+
+    /**
+     * Send a request to Elasticsearch.
+     *
+     * @param operation the name of the operation, used to tag its latency.
+     * @param action the request.
+     * @param <T> the type of the result.
+     * @return a future completed with the result, whether it succeeded or not, or failed if no response was received.
+     */
+    <T extends JestResult> CompletableFuture<T> execute(String operation, Action<T> action);
+
+    /**
+     * Send a search to the Catalogue index.
+     *
+     * @param operation the name of the operation, used to tag its latency.
+     * @param source the body of the search.
+     * @return a future completed with the result, whether it succeeded or not, or failed if no response was received.
+     */
+    CompletableFuture<SearchResult> search(String operation, SearchSourceBuilder source);
+
+    /**
+     * Search the catalogues matching a query.
+     *
+     * @param query the query.
+     * @param pageable the pagination information.
+     * @return a future completed with the page of catalogues, or failed if the search failed.
+     */
+    CompletableFuture<Page<Catalogue>> search(QueryBuilder query, Pageable pageable);
+
+    /**
+     * Search the first catalogues matching a query, reading only some of their fields, without counting all
+     * the matching catalogues.
+     *
+     * @param operation the name of the operation, used to tag its latency.
+     * @param query the query.
+     * @param size the maximum number of catalogues.
+     * @param includes the fields read from the source of the catalogues.
+     * @return a future completed with the catalogues, or failed if the search failed.
+     */
+    CompletableFuture<List<Catalogue>> search(String operation, QueryBuilder query, int size, String... includes);
+}
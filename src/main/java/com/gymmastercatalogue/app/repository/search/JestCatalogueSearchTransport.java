@@ -0,0 +1,143 @@
+package com.gymmastercatalogue.app.repository.search;
+
+import com.gymmastercatalogue.app.domain.Catalogue;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.searchbox.action.Action;
+import io.searchbox.client.JestClient;
+import io.searchbox.client.JestResult;
+import io.searchbox.client.JestResultHandler;
+import io.searchbox.core.Search;
+import io.searchbox.core.SearchResult;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.search.sort.SortOrder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.EntityMapper;
+import org.springframework.data.elasticsearch.core.mapping.ElasticsearchPersistentEntity;
+import org.springframework.data.mapping.MappingException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link CatalogueSearchTransport} sending the requests with the asynchronous HTTP client of Jest.
+ * <p>
+ * Responses are received on the I/O threads of the HTTP client, so search hits are mapped on the async task executor.
+ */
+@Component
+public class JestCatalogueSearchTransport implements CatalogueSearchTransport {
+
+    private final JestClient jestClient;
+
+    private final EntityMapper entityMapper;
+
+    private final Executor taskExecutor;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    private final String indexName;
+
+    private final String indexType;
+
+    public JestCatalogueSearchTransport(JestClient jestClient, EntityMapper entityMapper, ElasticsearchOperations elasticsearchOperations,
+                                       @Qualifier("taskExecutor") Executor taskExecutor, MeterRegistry meterRegistry) {
+        this.jestClient = jestClient;
+        this.entityMapper = entityMapper;
+        this.taskExecutor = taskExecutor;
+        this.meterRegistry = meterRegistry;
+        ElasticsearchPersistentEntity<Object> persistentEntity = elasticsearchOperations.getPersistentEntityFor(Catalogue.class);
+        this.indexName = persistentEntity.getIndexName();
+        this.indexType = persistentEntity.getIndexType();
+    }
+
+    @Override
+    public <T extends JestResult> CompletableFuture<T> execute(String operation, Action<T> action) {
+        Timer timer = timers.computeIfAbsent(operation, name -> Timer.builder("catalogue.search.latency")
+            .description("Latency of Catalogue operations in Elasticsearch")
+            .tag("operation", name)
+            .publishPercentileHistogram()
+            .register(meterRegistry));
+        CompletableFuture<T> future = new CompletableFuture<>();
+        long start = System.nanoTime();
+        jestClient.executeAsync(action, new JestResultHandler<T>() {
+            @Override
+            public void completed(T result) {
+                timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                future.complete(result);
+            }
+
+            @Override
+            public void failed(Exception e) {
+                timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    @Override
+    public CompletableFuture<Page<Catalogue>> search(QueryBuilder query, Pageable pageable) {
+        SearchSourceBuilder source = new SearchSourceBuilder().query(query);
+        if (pageable.isPaged()) {
+            source.from((int) pageable.getOffset()).size(pageable.getPageSize());
+        }
+        pageable.getSort().forEach(order -> source.sort(order.getProperty(), order.isAscending() ? SortOrder.ASC : SortOrder.DESC));
+        return search("search", source).thenApplyAsync(result -> toPage(result, pageable), taskExecutor);
+    }
+
+    @Override
+    public CompletableFuture<SearchResult> search(String operation, SearchSourceBuilder source) {
+        Search search = new Search.Builder(source.toString())
+            .addIndex(indexName)
+            .addType(indexType)
+            .build();
+        return execute(operation, search);
+    }
+
+    @Override
+    public CompletableFuture<List<Catalogue>> search(String operation, QueryBuilder query, int size, String... includes) {
+        SearchSourceBuilder source = new SearchSourceBuilder()
+            .query(query)
+            .size(size)
+            .fetchSource(includes, null)
+            .trackTotalHits(false);
+        return search(operation, source).thenApplyAsync(this::toCatalogues, taskExecutor);
+    }
+
+    private Page<Catalogue> toPage(SearchResult result, Pageable pageable) {
+        List<Catalogue> catalogues = toCatalogues(result);
+        Long total = result.getTotal();
+        return new PageImpl<>(catalogues, pageable, total != null ? total : catalogues.size());
+    }
+
+    private List<Catalogue> toCatalogues(SearchResult result) {
+        if (!result.isSucceeded()) {
+            throw new IllegalStateException("Catalogue search failed: " + result.getErrorMessage());
+        }
+        List<String> sources = result.getSourceAsStringList();
+        List<Catalogue> catalogues = new ArrayList<>(sources.size());
+        for (String hit : sources) {
+            try {
+                catalogues.add(entityMapper.mapToObject(hit, Catalogue.class));
+            } catch (IOException e) {
+                throw new MappingException(e.getMessage(), e);
+            }
+        }
+        return catalogues;
+    }
+}
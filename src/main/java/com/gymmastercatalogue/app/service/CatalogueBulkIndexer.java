@@ -0,0 +1,395 @@
+package com.gymmastercatalogue.app.service;
+
+import com.gymmastercatalogue.app.config.ApplicationProperties;
+import com.gymmastercatalogue.app.domain.Catalogue;
+
+import com.hazelcast.core.HazelcastInstance;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.searchbox.action.BulkableAction;
+import io.searchbox.client.JestClient;
+import io.searchbox.core.Bulk;
+import io.searchbox.core.BulkResult;
+import io.searchbox.core.Delete;
+import io.searchbox.core.Index;
+import io.searchbox.params.Parameters;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.EntityMapper;
+import org.springframework.data.elasticsearch.core.mapping.ElasticsearchPersistentEntity;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service coalescing {@link Catalogue} index and delete operations into Elasticsearch {@code _bulk} requests.
+ * <p>
+ * Operations are queued and sent by a single flusher thread, at most {@code application.search.bulk.max-actions}
+ * per request and at the latest {@code application.search.bulk.flush-interval-ms} after the first pending operation.
+ * As only one bulk request is in flight at a time, a slow cluster fills the bounded queue, and callers then block
+ * for up to {@code application.search.bulk.offer-timeout-ms} before being rejected.
+ * The latency of each operation, from its queueing to its acknowledgement, is recorded in {@code catalogue.search.latency}.
+ * <p>
+ * Changes sent to the default index are also sent to any shadow index, such as an index being rebuilt. The shadow
+ * indices are kept in the Hazelcast set {@link #SHADOW_INDICES}, so that the changes relayed by every node reach them.
+ * <p>
+ * Documents are written with an external version, the {@link Catalogue#getVersion() version} of the catalogue, which
+ * each update of its row increments, and deleted with the highest version, as ids are not reused. Elasticsearch rejects
+ * the writes of a version not higher than the one in the index: as a version is only written for one state of the row,
+ * the index then already holds this state or a later one, such as when a catalogue read by a reindex before it was
+ * changed or deleted arrives after the change, and such conflicts are not failures.
+ */
+@Service
+public class CatalogueBulkIndexer {
+
+    static final String SHADOW_INDICES = "catalogue-search-shadow-indices";
+
+    private static final String EXTERNAL_VERSION = "external";
+
+    private static final long DELETED_VERSION = Long.MAX_VALUE;
+
+    private final Logger log = LoggerFactory.getLogger(CatalogueBulkIndexer.class);
+
+    private final JestClient jestClient;
+
+    private final EntityMapper entityMapper;
+
+    private final ElasticsearchOperations elasticsearchOperations;
+
+    private final ApplicationProperties.Search.Bulk properties;
+
+    private final BlockingQueue<BulkOperation> queue;
+
+    private final Set<String> shadowIndexNames;
+
+    private final Timer bulkTimer;
+
+    private final DistributionSummary bulkSize;
+
+    private final Counter failedCounter;
+
+    private final Timer indexLatency;
+
+    private final Timer deleteLatency;
+
+    private ExecutorService flusher;
+
+    private volatile boolean running;
+
+    private String defaultIndexName;
+
+    private String indexType;
+
+    public CatalogueBulkIndexer(JestClient jestClient, EntityMapper entityMapper, ElasticsearchOperations elasticsearchOperations,
+                                HazelcastInstance hazelcastInstance, ApplicationProperties applicationProperties,
+                                MeterRegistry meterRegistry) {
+        this.jestClient = jestClient;
+        this.entityMapper = entityMapper;
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.shadowIndexNames = hazelcastInstance.getSet(SHADOW_INDICES);
+        this.properties = applicationProperties.getSearch().getBulk();
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        Gauge.builder("catalogue.search.bulk.queued", queue, BlockingQueue::size)
+            .description("Catalogue operations waiting for the next bulk request")
+            .register(meterRegistry);
+        this.bulkTimer = Timer.builder("catalogue.search.bulk.requests")
+            .description("Latency of Catalogue bulk requests")
+            .register(meterRegistry);
+        this.bulkSize = DistributionSummary.builder("catalogue.search.bulk.size")
+            .description("Number of operations per Catalogue bulk request")
+            .register(meterRegistry);
+        this.failedCounter = Counter.builder("catalogue.search.bulk.failed")
+            .description("Catalogue bulk operations rejected by Elasticsearch")
+            .register(meterRegistry);
+        this.indexLatency = latencyTimer("index", meterRegistry);
+        this.deleteLatency = latencyTimer("delete", meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        ElasticsearchPersistentEntity<?> persistentEntity = elasticsearchOperations.getPersistentEntityFor(Catalogue.class);
+        this.defaultIndexName = persistentEntity.getIndexName();
+        this.indexType = persistentEntity.getIndexType();
+        this.running = true;
+        this.flusher = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("catalogue-bulk-indexer-"));
+        this.flusher.execute(this::run);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        flusher.shutdown();
+        if (!flusher.awaitTermination(properties.getOfferTimeoutMs(), TimeUnit.MILLISECONDS)) {
+            log.warn("Catalogue bulk indexer stopped with {} pending operations", queue.size());
+            flusher.shutdownNow();
+        }
+    }
+
+    /**
+     * Get the name of the default index, which is the alias searched by the application.
+     *
+     * @return the name of the default index.
+     */
+    public String getDefaultIndexName() {
+        return defaultIndexName;
+    }
+
+    /**
+     * Get the mapping type of the catalogue documents.
+     *
+     * @return the mapping type.
+     */
+    public String getIndexType() {
+        return indexType;
+    }
+
+    /**
+     * Also send the changes of the default index to the given index, on every node of the cluster, until
+     * {@link #removeShadowIndex(String)}.
+     *
+     * @param indexName the name of the shadow index.
+     */
+    public void addShadowIndex(String indexName) {
+        shadowIndexNames.add(indexName);
+    }
+
+    /**
+     * Stop sending the changes of the default index to the given index.
+     *
+     * @param indexName the name of the shadow index.
+     */
+    public void removeShadowIndex(String indexName) {
+        shadowIndexNames.remove(indexName);
+    }
+
+    /**
+     * Get the indices the changes of the default index are also sent to.
+     *
+     * @return the names of the shadow indices.
+     */
+    public Set<String> getShadowIndexNames() {
+        return new HashSet<>(shadowIndexNames);
+    }
+
+    /**
+     * Queue catalogues to be indexed in the default index, and in the shadow indices.
+     *
+     * @param catalogues the catalogues to index.
+     * @return a future completed once all catalogues are acknowledged by Elasticsearch.
+     */
+    public CompletableFuture<Void> index(Collection<Catalogue> catalogues) {
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        futures.add(index(defaultIndexName, catalogues));
+        shadowIndexNames.forEach(indexName -> futures.add(index(indexName, catalogues)));
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]));
+    }
+
+    /**
+     * Queue catalogues to be indexed in the given index.
+     *
+     * @param indexName the name of the target index.
+     * @param catalogues the catalogues to index.
+     * @return a future completed once all catalogues are acknowledged by Elasticsearch.
+     */
+    public CompletableFuture<Void> index(String indexName, Collection<Catalogue> catalogues) {
+        List<CompletableFuture<Void>> futures = new ArrayList<>(catalogues.size());
+        for (Catalogue catalogue : catalogues) {
+            String source;
+            try {
+                source = entityMapper.mapToString(catalogue);
+            } catch (IOException e) {
+                futures.add(failed(e));
+                continue;
+            }
+            futures.add(submit(new BulkOperation(new Index.Builder(source)
+                .index(indexName)
+                .type(indexType)
+                .id(catalogue.getId().toString())
+                .setParameter(Parameters.VERSION, version(catalogue))
+                .setParameter(Parameters.VERSION_TYPE, EXTERNAL_VERSION)
+                .build(), indexLatency)));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]));
+    }
+
+    /**
+     * Queue catalogues to be removed from the default index, and from the shadow indices.
+     *
+     * @param ids the ids of the catalogues to remove.
+     * @return a future completed once all deletions are acknowledged by Elasticsearch.
+     */
+    public CompletableFuture<Void> delete(Collection<Long> ids) {
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        futures.add(delete(defaultIndexName, ids));
+        shadowIndexNames.forEach(indexName -> futures.add(delete(indexName, ids)));
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]));
+    }
+
+    private CompletableFuture<Void> delete(String indexName, Collection<Long> ids) {
+        List<CompletableFuture<Void>> futures = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            futures.add(submit(new BulkOperation(new Delete.Builder(id.toString())
+                .index(indexName)
+                .type(indexType)
+                .setParameter(Parameters.VERSION, DELETED_VERSION)
+                .setParameter(Parameters.VERSION_TYPE, EXTERNAL_VERSION)
+                .build(), deleteLatency)));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]));
+    }
+
+    private CompletableFuture<Void> submit(BulkOperation operation) {
+        try {
+            if (!running || !queue.offer(operation, properties.getOfferTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                return failed(new IllegalStateException("Catalogue bulk indexer is not accepting operations"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return failed(e);
+        }
+        return operation.future;
+    }
+
+    private void run() {
+        int maxActions = properties.getMaxActions();
+        long flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(properties.getFlushIntervalMs());
+        List<BulkOperation> batch = new ArrayList<>(maxActions);
+        while (running || !queue.isEmpty()) {
+            try {
+                BulkOperation first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < maxActions) {
+                    queue.drainTo(batch, maxActions - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= maxActions || remaining <= 0) {
+                        break;
+                    }
+                    BulkOperation next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                batch.forEach(operation -> operation.fail(e));
+                queue.forEach(operation -> operation.fail(e));
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<BulkOperation> batch) {
+        Bulk.Builder bulk = new Bulk.Builder();
+        batch.forEach(operation -> bulk.addAction(operation.action));
+        bulkSize.record(batch.size());
+        long start = System.nanoTime();
+        BulkResult result;
+        try {
+            result = jestClient.execute(bulk.build());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Catalogue bulk request of {} operations failed: {}", batch.size(), e.getMessage());
+            failedCounter.increment(batch.size());
+            batch.forEach(operation -> operation.fail(e));
+            return;
+        } finally {
+            bulkTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        List<BulkResult.BulkResultItem> items = result.getItems();
+        if (items.size() != batch.size()) {
+            IllegalStateException e = new IllegalStateException("Catalogue bulk request failed: " + result.getErrorMessage());
+            failedCounter.increment(batch.size());
+            batch.forEach(operation -> operation.fail(e));
+            return;
+        }
+        for (int i = 0; i < items.size(); i++) {
+            BulkResult.BulkResultItem item = items.get(i);
+            // Deleting a document which is not in the index, or writing a version the index already has or has passed, is not an error
+            if (item.error == null || ("delete".equals(item.operation) && item.status == 404) || item.status == 409) {
+                batch.get(i).complete();
+            } else {
+                failedCounter.increment();
+                batch.get(i).fail(
+                    new IllegalStateException("Catalogue " + item.operation + " of " + item.id + " failed: " + item.errorReason));
+            }
+        }
+    }
+
+    /**
+     * Get the external version of the document of a catalogue.
+     *
+     * @param catalogue the catalogue, as read from the database.
+     * @return the version of its row.
+     */
+    static long version(Catalogue catalogue) {
+        return catalogue.getVersion();
+    }
+
+    private static Timer latencyTimer(String operation, MeterRegistry meterRegistry) {
+        return Timer.builder("catalogue.search.latency")
+            .description("Latency of Catalogue operations in Elasticsearch")
+            .tag("operation", operation)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+
+    private static CompletableFuture<Void> failed(Throwable e) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        future.completeExceptionally(e);
+        return future;
+    }
+
+    private static final class BulkOperation {
+
+        private final BulkableAction<?> action;
+
+        private final Timer latency;
+
+        private final long queuedAt = System.nanoTime();
+
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        private BulkOperation(BulkableAction<?> action, Timer latency) {
+            this.action = action;
+            this.latency = latency;
+        }
+
+        /**
+         * Complete the operation, recording its latency from the time it was queued.
+         */
+        private void complete() {
+            latency.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+            future.complete(null);
+        }
+
+        private void fail(Throwable e) {
+            latency.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+            future.completeExceptionally(e);
+        }
+    }
+}
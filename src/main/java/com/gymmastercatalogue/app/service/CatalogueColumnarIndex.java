@@ -0,0 +1,1309 @@
+package com.gymmastercatalogue.app.service;
+
+import com.gymmastercatalogue.app.config.ApplicationProperties;
+import com.gymmastercatalogue.app.domain.Catalogue;
+import com.gymmastercatalogue.app.domain.Catalogue_;
+import com.gymmastercatalogue.app.domain.enumeration.categoryEnum;
+import com.gymmastercatalogue.app.repository.CatalogueRepository;
+import com.gymmastercatalogue.app.service.dto.CatalogueCriteria;
+import com.gymmastercatalogue.app.service.dto.CatalogueDTO;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.ITopic;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.github.jhipster.service.filter.Filter;
+import io.github.jhipster.service.filter.RangeFilter;
+import io.github.jhipster.service.filter.StringFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.function.LongConsumer;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Service keeping a per-node copy of all the {@link Catalogue} rows in columnar arrays, to answer the
+ * {@link CatalogueCriteria} queries of {@link CatalogueQueryService} without the database.
+ * <p>
+ * Each field is a primitive array indexed by row slot: the categories are byte codes, the usernames codes of a
+ * dictionary of their distinct values, the session dates epoch microseconds, the precision of the database column.
+ * The rows of each category and partner are also kept in {@link RowBitmap compressed bitmaps}: their {@code equals} and
+ * {@code in} filters select the candidate rows by bitmap unions and intersection, and count queries with only these
+ * filters add up bitmap cardinalities. The rows are also kept in bitmaps by bucket of session date, so that session date
+ * ranges and {@link CatalogueCriteria.SessionOverlapFilter session overlaps} only read the rows of the buckets they
+ * cover, the sessions longer than {@code application.query.columnar-index.long-session-minutes} being checked by every
+ * overlap. A query then scans the column of each other filter over the candidate rows,
+ * clearing the rows which don't match, so that the most selective filters, applied first, shrink the following scans.
+ * <p>
+ * The index is loaded once the application is ready, and refreshed after each committed write: the written ids are
+ * published on a Hazelcast topic, and every node re-reads them from the database. It is therefore eventually
+ * consistent, a query following a write on another node may not see it yet. As the topic does not redeliver the
+ * messages a node missed, the index is also reconciled with the database every
+ * {@code application.query.columnar-index.reconcile-interval-ms}: the ids and last modified dates of all the rows are
+ * compared with the loaded ones, and the differing rows re-read, or the whole index loaded again when its initial load
+ * failed. It is disabled by default, see {@code application.query.columnar-index.enabled}.
+ */
+@Service
+public class CatalogueColumnarIndex {
+
+    static final String CHANGES_TOPIC = "catalogue-columnar-index-changes";
+
+    private static final int REFRESH_CHUNK_SIZE = 500;
+
+    private static final Set<String> SORTABLE_PROPERTIES = Stream.of(Catalogue_.ID, Catalogue_.DESCRIPTION, Catalogue_.PRICE,
+        Catalogue_.DURATION, Catalogue_.SESSION_DT, Catalogue_.CATEGORY, Catalogue_.USERNAME, Catalogue_.PARTNER_ID)
+        .collect(Collectors.toSet());
+
+    /**
+     * The categories by code: the codes follow the order of the names, which is how the database sorts them.
+     */
+    private static final categoryEnum[] CATEGORIES = Arrays.stream(categoryEnum.values())
+        .sorted(Comparator.comparing(categoryEnum::name))
+        .toArray(categoryEnum[]::new);
+
+    private static final byte[] CATEGORY_CODES = new byte[CATEGORIES.length];
+
+    static {
+        for (int code = 0; code < CATEGORIES.length; code++) {
+            CATEGORY_CODES[CATEGORIES[code].ordinal()] = (byte) code;
+        }
+    }
+
+    private final Logger log = LoggerFactory.getLogger(CatalogueColumnarIndex.class);
+
+    private final CatalogueRepository catalogueRepository;
+
+    private final HazelcastInstance hazelcastInstance;
+
+    private final Executor taskExecutor;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean enabled;
+
+    private final long sessionBucketMicros;
+
+    private final int longSessionMinutes;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    private final AtomicBoolean loading = new AtomicBoolean();
+
+    private final Timer updateTimer;
+
+    private final Counter updatedCounter;
+
+    private final Counter reconciledCounter;
+
+    private volatile ITopic<long[]> changes;
+
+    /**
+     * The loaded rows, {@code null} until the initial load completes.
+     */
+    private volatile Columns columns;
+
+    public CatalogueColumnarIndex(CatalogueRepository catalogueRepository, HazelcastInstance hazelcastInstance,
+                                  ApplicationProperties applicationProperties, @Qualifier("taskExecutor") Executor taskExecutor,
+                                  PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.catalogueRepository = catalogueRepository;
+        this.hazelcastInstance = hazelcastInstance;
+        ApplicationProperties.Query.ColumnarIndex properties = applicationProperties.getQuery().getColumnarIndex();
+        this.enabled = properties.isEnabled();
+        this.sessionBucketMicros = TimeUnit.MINUTES.toMicros(properties.getSessionBucketMinutes());
+        this.longSessionMinutes = properties.getLongSessionMinutes();
+        this.taskExecutor = taskExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        Gauge.builder("catalogue.columnar.index.rows", this, index -> index.measure(columns -> columns.rows))
+            .description("Number of Catalogues in the columnar index")
+            .register(meterRegistry);
+        Gauge.builder("catalogue.columnar.index.bitmap.size", this, index -> index.measure(columns -> sizeInBytes(Arrays.asList(columns.categoryRows))))
+            .description("Estimated memory of the row bitmaps of the columnar index, by field")
+            .baseUnit("bytes")
+            .tag("field", Catalogue_.CATEGORY)
+            .register(meterRegistry);
+        Gauge.builder("catalogue.columnar.index.bitmap.size", this, index -> index.measure(columns -> sizeInBytes(columns.partnerRows.values())))
+            .description("Estimated memory of the row bitmaps of the columnar index, by field")
+            .baseUnit("bytes")
+            .tag("field", Catalogue_.PARTNER_ID)
+            .register(meterRegistry);
+        Gauge.builder("catalogue.columnar.index.bitmap.size", this, index -> index.measure(columns ->
+            sizeInBytes(columns.sessionBuckets.values()) + columns.longSessions.sizeInBytes()))
+            .description("Estimated memory of the row bitmaps of the columnar index, by field")
+            .baseUnit("bytes")
+            .tag("field", Catalogue_.SESSION_DT)
+            .register(meterRegistry);
+        Gauge.builder("catalogue.columnar.index.bitmap.values", this, index -> index.measure(columns -> columns.partnerRows.size()))
+            .description("Number of distinct values with a row bitmap in the columnar index, by field")
+            .tag("field", Catalogue_.PARTNER_ID)
+            .register(meterRegistry);
+        Gauge.builder("catalogue.columnar.index.bitmap.values", this, index -> index.measure(columns -> columns.sessionBuckets.size()))
+            .description("Number of distinct values with a row bitmap in the columnar index, by field")
+            .tag("field", Catalogue_.SESSION_DT)
+            .register(meterRegistry);
+        this.updateTimer = Timer.builder("catalogue.columnar.index.updates")
+            .description("Time to apply a chunk of refreshed Catalogues to the columns and bitmaps of the columnar index")
+            .register(meterRegistry);
+        this.updatedCounter = Counter.builder("catalogue.columnar.index.updated")
+            .description("Catalogues refreshed in the columnar index")
+            .register(meterRegistry);
+        this.reconciledCounter = Counter.builder("catalogue.columnar.index.reconciled")
+            .description("Catalogues found missing or stale in the columnar index by its reconciliation with the database")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Subscribe to the changes of the catalogues, then load them all in the background.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        // Subscribing first, the changes committed while loading are queued and re-read after it
+        changes = hazelcastInstance.getTopic(CHANGES_TOPIC);
+        changes.addMessageListener(message -> onChange(message.getMessageObject()));
+        taskExecutor.execute(this::load);
+    }
+
+    /**
+     * Publish the ids of committed catalogue writes, so that every node refreshes them.
+     *
+     * @param ids the ids of the created, updated or deleted catalogues.
+     */
+    public void changed(Collection<Long> ids) {
+        ITopic<long[]> changes = this.changes;
+        if (changes == null || ids.isEmpty()) {
+            return;
+        }
+        changes.publish(ids.stream().mapToLong(Long::longValue).toArray());
+    }
+
+    /**
+     * Compare the loaded rows with the database, and re-read the ones which were missed, by a lost change message or a
+     * failed refresh. Rows written during the comparison may be re-read needlessly, but none is missed, as a row is only
+     * kept when its version is the one read from the database.
+     */
+    @Scheduled(fixedDelayString = "${application.query.columnar-index.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        if (changes == null) {
+            return;
+        }
+        Columns columns = this.columns;
+        if (columns == null) {
+            load();
+            return;
+        }
+        BitSet seen = new BitSet();
+        Set<Long> stale = new HashSet<>();
+        try {
+            transactionTemplate.execute(status -> catalogueRepository.forEachVersion((id, version) -> {
+                lock.readLock().lock();
+                try {
+                    int slot = columns.slotOf(id);
+                    if (slot < 0 || !columns.isCurrent(slot, version)) {
+                        stale.add(id);
+                    }
+                    if (slot >= 0) {
+                        seen.set(slot);
+                    }
+                } finally {
+                    lock.readLock().unlock();
+                }
+            }));
+        } catch (RuntimeException e) {
+            log.warn("Could not reconcile the Catalogue columnar index: {}", e.getMessage());
+            return;
+        }
+        lock.readLock().lock();
+        try {
+            columns.forEachIdNotIn(seen, stale::add);
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (!stale.isEmpty()) {
+            log.warn("Re-reading {} Catalogues missing or stale in the columnar index", stale.size());
+            reconciledCounter.increment(stale.size());
+            pending.addAll(stale);
+        }
+        scheduleRefresh();
+    }
+
+    /**
+     * Check that the index is loaded and answers a query like the database would.
+     * <p>
+     * Queries fall back to the database for sorts on other properties or ignoring case, {@code in} and {@code notIn}
+     * filters with no or {@code null} values, session dates or overlaps more precise than the microsecond, and {@code contains}
+     * filters with {@code LIKE} wildcards, which the database would interpret.
+     *
+     * @param criteria the criteria of the query, or {@code null}.
+     * @param sort the sort of the query.
+     * @return whether the index can answer the query.
+     */
+    public boolean supports(CatalogueCriteria criteria, Sort sort) {
+        if (columns == null) {
+            return false;
+        }
+        for (Sort.Order order : sort) {
+            if (!SORTABLE_PROPERTIES.contains(order.getProperty()) || order.isIgnoreCase()) {
+                return false;
+            }
+        }
+        return criteria == null || (supportsValues(criteria.getId()) && supportsValues(criteria.getPrice())
+            && supportsValues(criteria.getDuration()) && supportsValues(criteria.getCategory())
+            && supportsValues(criteria.getPartnerId()) && supportsStrings(criteria.getDescription())
+            && supportsStrings(criteria.getUsername()) && supportsInstants(criteria.getSessionDt())
+            && supportsOverlap(criteria.getSessionOverlap()));
+    }
+
+    /**
+     * Return the catalogues matching the criteria, in id order.
+     *
+     * @param criteria the criteria of the query, or {@code null}.
+     * @return the matching catalogues.
+     */
+    public List<CatalogueDTO> find(CatalogueCriteria criteria) {
+        lock.readLock().lock();
+        try {
+            Columns columns = this.columns;
+            BitSet rows = columns.select(criteria);
+            Integer[] slots = columns.slots(rows);
+            Arrays.sort(slots, columns.comparator(Sort.unsorted()));
+            return columns.toDtos(slots, 0, slots.length);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Return a page of the catalogues matching the criteria. Rows equal for the sort come in id order, and rows
+     * without a value for a sort property come last, or first in descending order, like in the database.
+     *
+     * @param criteria the criteria of the query, or {@code null}.
+     * @param page the requested page.
+     * @return the page of matching catalogues.
+     */
+    public Page<CatalogueDTO> find(CatalogueCriteria criteria, Pageable page) {
+        lock.readLock().lock();
+        try {
+            Columns columns = this.columns;
+            BitSet rows = columns.select(criteria);
+            int total = rows.cardinality();
+            Comparator<Integer> comparator = columns.comparator(page.getSort());
+            long from = page.isPaged() ? page.getOffset() : 0;
+            int to = (int) Math.min(page.isPaged() ? from + page.getPageSize() : total, total);
+            if (from >= to) {
+                return new PageImpl<>(new ArrayList<>(), page, total);
+            }
+            Integer[] slots;
+            if (to <= total / 2) {
+                // Only the first rows are kept, in a heap whose head is the last of them
+                PriorityQueue<Integer> heap = new PriorityQueue<>(to, comparator.reversed());
+                for (int slot = rows.nextSetBit(0); slot >= 0; slot = rows.nextSetBit(slot + 1)) {
+                    if (heap.size() < to) {
+                        heap.add(slot);
+                    } else if (comparator.compare(slot, heap.peek()) < 0) {
+                        heap.poll();
+                        heap.add(slot);
+                    }
+                }
+                slots = heap.toArray(new Integer[0]);
+            } else {
+                slots = columns.slots(rows);
+            }
+            Arrays.sort(slots, comparator);
+            return new PageImpl<>(columns.toDtos(slots, (int) from, to), page, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Return the number of catalogues matching the criteria.
+     *
+     * @param criteria the criteria of the query, or {@code null}.
+     * @return the number of matching catalogues.
+     */
+    public long count(CatalogueCriteria criteria) {
+        lock.readLock().lock();
+        try {
+            return columns.count(criteria);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private double measure(Function<Columns, Number> metric) {
+        lock.readLock().lock();
+        try {
+            return columns == null ? 0 : metric.apply(columns).doubleValue();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static long sizeInBytes(Collection<RowBitmap> bitmaps) {
+        return bitmaps.stream().mapToLong(RowBitmap::sizeInBytes).sum();
+    }
+
+    private void load() {
+        if (!loading.compareAndSet(false, true)) {
+            return;
+        }
+        long start = System.nanoTime();
+        Columns loaded = new Columns(sessionBucketMicros, longSessionMinutes);
+        try {
+            transactionTemplate.execute(status -> catalogueRepository.forEach(null, Sort.unsorted(), loaded::put));
+            columns = loaded;
+        } catch (RuntimeException e) {
+            log.error("Could not load the Catalogue columnar index, queries are answered by the database until it is "
+                + "loaded again by the next reconciliation", e);
+            return;
+        } finally {
+            loading.set(false);
+        }
+        log.info("Loaded {} Catalogues into the columnar index in {} ms", loaded.rows,
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        scheduleRefresh();
+    }
+
+    private void onChange(long[] ids) {
+        for (long id : ids) {
+            pending.add(id);
+        }
+        scheduleRefresh();
+    }
+
+    private void scheduleRefresh() {
+        if (columns != null && !pending.isEmpty() && refreshing.compareAndSet(false, true)) {
+            taskExecutor.execute(this::refresh);
+        }
+    }
+
+    /**
+     * Re-read the pending catalogues from the database, by chunks. Refreshes don't run concurrently, so a row read
+     * after a write is never replaced by a row read before it.
+     */
+    private void refresh() {
+        try {
+            while (!pending.isEmpty()) {
+                List<Long> ids = new ArrayList<>(REFRESH_CHUNK_SIZE);
+                Iterator<Long> iterator = pending.iterator();
+                while (iterator.hasNext() && ids.size() < REFRESH_CHUNK_SIZE) {
+                    ids.add(iterator.next());
+                    iterator.remove();
+                }
+                List<Catalogue> catalogues = new ArrayList<>(ids.size());
+                try {
+                    Specification<Catalogue> idIn = (root, query, builder) -> root.get(Catalogue_.id).in(ids);
+                    transactionTemplate.execute(status -> catalogueRepository.forEach(idIn, Sort.unsorted(), catalogues::add));
+                } catch (RuntimeException e) {
+                    // They are retried with the next change or reconciliation
+                    pending.addAll(ids);
+                    log.warn("Could not refresh {} Catalogues of the columnar index: {}", ids.size(), e.getMessage());
+                    return;
+                }
+                apply(ids, catalogues);
+            }
+        } finally {
+            refreshing.set(false);
+        }
+        scheduleRefresh();
+    }
+
+    private void apply(List<Long> ids, List<Catalogue> catalogues) {
+        Set<Long> deleted = new HashSet<>(ids);
+        lock.writeLock().lock();
+        try {
+            updateTimer.record(() -> {
+                for (Catalogue catalogue : catalogues) {
+                    columns.put(catalogue);
+                    deleted.remove(catalogue.getId());
+                }
+                deleted.forEach(columns::remove);
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+        updatedCounter.increment(ids.size());
+    }
+
+    private static boolean supportsValues(Filter<?> filter) {
+        return filter == null || (supportsValues(filter.getIn()) && supportsValues(filter.getNotIn()));
+    }
+
+    private static boolean supportsValues(List<?> values) {
+        return values == null || (!values.isEmpty() && values.stream().allMatch(value -> value != null));
+    }
+
+    private static boolean supportsStrings(StringFilter filter) {
+        return supportsValues(filter) && (filter == null || (isLiteral(filter.getContains()) && isLiteral(filter.getDoesNotContain())));
+    }
+
+    private static boolean isLiteral(String pattern) {
+        return pattern == null || (pattern.indexOf('%') < 0 && pattern.indexOf('_') < 0);
+    }
+
+    private static boolean supportsInstants(RangeFilter<Instant> filter) {
+        if (!supportsValues(filter)) {
+            return false;
+        }
+        if (filter == null) {
+            return true;
+        }
+        List<Instant> values = new ArrayList<>(Arrays.asList(filter.getEquals(), filter.getNotEquals(), filter.getGreaterThan(),
+            filter.getGreaterThanOrEqual(), filter.getLessThan(), filter.getLessThanOrEqual()));
+        if (filter.getIn() != null) {
+            values.addAll(filter.getIn());
+        }
+        if (filter.getNotIn() != null) {
+            values.addAll(filter.getNotIn());
+        }
+        return values.stream().allMatch(CatalogueColumnarIndex::isMicros);
+    }
+
+    private static boolean supportsOverlap(CatalogueCriteria.SessionOverlapFilter filter) {
+        return filter == null || (isMicros(filter.getFrom()) && isMicros(filter.getTo()));
+    }
+
+    private static boolean isMicros(Instant instant) {
+        if (instant == null) {
+            return true;
+        }
+        if (instant.getNano() % 1000 != 0) {
+            return false;
+        }
+        try {
+            toMicros(instant);
+            return true;
+        } catch (ArithmeticException e) {
+            return false;
+        }
+    }
+
+    static long toMicros(Instant instant) {
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000L), instant.getNano() / 1000);
+    }
+
+    static Instant ofMicros(long micros) {
+        return Instant.ofEpochSecond(Math.floorDiv(micros, 1_000_000L), Math.floorMod(micros, 1_000_000L) * 1000);
+    }
+
+    /**
+     * The catalogue rows, one slot of each array per row. The slots of deleted rows are reused by the next ones.
+     */
+    static final class Columns {
+
+        private static final int INITIAL_CAPACITY = 1024;
+
+        private static final long MICROS_PER_MINUTE = TimeUnit.MINUTES.toMicros(1);
+
+        private int capacity = INITIAL_CAPACITY;
+
+        private int size;
+
+        private int rows;
+
+        private long[] ids = new long[capacity];
+
+        private String[] descriptions = new String[capacity];
+
+        private double[] prices = new double[capacity];
+
+        private int[] durations = new int[capacity];
+
+        private long[] sessionDts = new long[capacity];
+
+        /**
+         * The versions of the rows, {@link Long#MIN_VALUE} when unknown.
+         */
+        private long[] versions = new long[capacity];
+
+        private byte[] categories = new byte[capacity];
+
+        private int[] usernames = new int[capacity];
+
+        private int[] partnerIds = new int[capacity];
+
+        private final BitSet live = new BitSet();
+
+        private final BitSet hasPrice = new BitSet();
+
+        private final BitSet hasDuration = new BitSet();
+
+        private final BitSet hasSessionDt = new BitSet();
+
+        private final LongIntHashMap slotsById = new LongIntHashMap(INITIAL_CAPACITY, false);
+
+        private int[] freeSlots = new int[16];
+
+        private int freeCount;
+
+        private final Map<String, Integer> usernameCodes = new HashMap<>();
+
+        private final List<String> usernameValues = new ArrayList<>();
+
+        /**
+         * The rows of each category, by code.
+         */
+        private final RowBitmap[] categoryRows = new RowBitmap[CATEGORIES.length];
+
+        /**
+         * The rows of each partner, the partners without rows being removed.
+         */
+        private final Map<Integer, RowBitmap> partnerRows = new HashMap<>();
+
+        /**
+         * The width of the session date buckets, in microseconds, 0 when the rows are not bucketed.
+         */
+        private final long bucketMicros;
+
+        private final int longSessionMinutes;
+
+        /**
+         * The rows with a session date, by bucket of their date, the empty buckets being removed.
+         */
+        private final TreeMap<Long, RowBitmap> sessionBuckets = new TreeMap<>();
+
+        /**
+         * The rows of the sessions longer than {@link #longSessionMinutes}, which may overlap any later period.
+         */
+        private final RowBitmap longSessions = new RowBitmap();
+
+        Columns(long bucketMicros, int longSessionMinutes) {
+            this.bucketMicros = bucketMicros;
+            this.longSessionMinutes = longSessionMinutes;
+            Arrays.setAll(categoryRows, code -> new RowBitmap());
+        }
+
+        void put(Catalogue catalogue) {
+            int slot = slotsById.get(catalogue.getId());
+            byte category = CATEGORY_CODES[catalogue.getCategory().ordinal()];
+            int partnerId = catalogue.getPartnerId();
+            if (slot < 0) {
+                slot = allocate();
+                slotsById.put(catalogue.getId(), slot);
+                live.set(slot);
+                rows++;
+                categoryRows[category].add(slot);
+                partnerRows.computeIfAbsent(partnerId, key -> new RowBitmap()).add(slot);
+            } else {
+                // The bitmaps only change with the indexed values
+                if (categories[slot] != category) {
+                    categoryRows[categories[slot]].remove(slot);
+                    categoryRows[category].add(slot);
+                }
+                if (partnerIds[slot] != partnerId) {
+                    removePartnerRow(partnerIds[slot], slot);
+                    partnerRows.computeIfAbsent(partnerId, key -> new RowBitmap()).add(slot);
+                }
+                removeSessionRow(slot);
+            }
+            ids[slot] = catalogue.getId();
+            descriptions[slot] = catalogue.getDescription();
+            hasPrice.set(slot, catalogue.getPrice() != null);
+            prices[slot] = catalogue.getPrice() != null ? catalogue.getPrice() : 0;
+            hasDuration.set(slot, catalogue.getDuration() != null);
+            durations[slot] = catalogue.getDuration() != null ? catalogue.getDuration() : 0;
+            hasSessionDt.set(slot, catalogue.getSessionDt() != null);
+            sessionDts[slot] = catalogue.getSessionDt() != null ? toMicros(catalogue.getSessionDt()) : 0;
+            versions[slot] = version(catalogue.getVersion());
+            categories[slot] = category;
+            usernames[slot] = usernameCodes.computeIfAbsent(catalogue.getUsername(), username -> {
+                usernameValues.add(username);
+                return usernameValues.size() - 1;
+            });
+            partnerIds[slot] = partnerId;
+            addSessionRow(slot);
+        }
+
+        int slotOf(long id) {
+            return slotsById.get(id);
+        }
+
+        boolean isCurrent(int slot, Long version) {
+            return versions[slot] == version(version);
+        }
+
+        void forEachIdNotIn(BitSet slots, LongConsumer consumer) {
+            for (int slot = live.nextSetBit(0); slot >= 0; slot = live.nextSetBit(slot + 1)) {
+                if (!slots.get(slot)) {
+                    consumer.accept(ids[slot]);
+                }
+            }
+        }
+
+        private static long version(Long version) {
+            return version != null ? version : Long.MIN_VALUE;
+        }
+
+        void remove(long id) {
+            int slot = slotsById.remove(id);
+            if (slot < 0) {
+                return;
+            }
+            live.clear(slot);
+            descriptions[slot] = null;
+            categoryRows[categories[slot]].remove(slot);
+            removePartnerRow(partnerIds[slot], slot);
+            removeSessionRow(slot);
+            if (freeCount == freeSlots.length) {
+                freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+            }
+            freeSlots[freeCount++] = slot;
+            rows--;
+        }
+
+        private void removePartnerRow(int partnerId, int slot) {
+            RowBitmap bitmap = partnerRows.get(partnerId);
+            bitmap.remove(slot);
+            if (bitmap.isEmpty()) {
+                partnerRows.remove(partnerId);
+            }
+        }
+
+        private void addSessionRow(int slot) {
+            if (bucketMicros == 0 || !hasSessionDt.get(slot)) {
+                return;
+            }
+            sessionBuckets.computeIfAbsent(bucket(sessionDts[slot]), key -> new RowBitmap()).add(slot);
+            if (hasDuration.get(slot) && durations[slot] > longSessionMinutes) {
+                longSessions.add(slot);
+            }
+        }
+
+        private void removeSessionRow(int slot) {
+            if (bucketMicros == 0 || !hasSessionDt.get(slot)) {
+                return;
+            }
+            long bucket = bucket(sessionDts[slot]);
+            RowBitmap bitmap = sessionBuckets.get(bucket);
+            bitmap.remove(slot);
+            if (bitmap.isEmpty()) {
+                sessionBuckets.remove(bucket);
+            }
+            longSessions.remove(slot);
+        }
+
+        private long bucket(long micros) {
+            return Math.floorDiv(micros, bucketMicros);
+        }
+
+        private int allocate() {
+            if (freeCount > 0) {
+                return freeSlots[--freeCount];
+            }
+            if (size == capacity) {
+                capacity += capacity >> 1;
+                ids = Arrays.copyOf(ids, capacity);
+                descriptions = Arrays.copyOf(descriptions, capacity);
+                prices = Arrays.copyOf(prices, capacity);
+                durations = Arrays.copyOf(durations, capacity);
+                sessionDts = Arrays.copyOf(sessionDts, capacity);
+                versions = Arrays.copyOf(versions, capacity);
+                categories = Arrays.copyOf(categories, capacity);
+                usernames = Arrays.copyOf(usernames, capacity);
+                partnerIds = Arrays.copyOf(partnerIds, capacity);
+            }
+            return size++;
+        }
+
+        /**
+         * Select the rows matching the criteria. The candidate rows are those of the bitmaps of the equality filters,
+         * then the other filters on the equality-heavy columns come first, and the string scans last, on the fewest rows.
+         */
+        BitSet select(CatalogueCriteria criteria) {
+            if (criteria == null) {
+                return (BitSet) live.clone();
+            }
+            BitSet rows = null;
+            if (isEquality(criteria.getCategory())) {
+                rows = union(categoryBitmaps(criteria.getCategory()));
+            }
+            if (isEquality(criteria.getPartnerId())) {
+                rows = intersect(rows, union(partnerBitmaps(criteria.getPartnerId())));
+            }
+            LongCondition sessionDt = criteria.getSessionDt() != null
+                ? LongCondition.of(criteria.getSessionDt(), CatalogueColumnarIndex::toMicros) : null;
+            if (bucketMicros > 0 && sessionDt != null && sessionDt.isBounded()) {
+                rows = intersect(rows, startingRows(sessionDt));
+            }
+            CatalogueCriteria.SessionOverlapFilter overlap = criteria.getSessionOverlap();
+            long overlapFrom = overlap != null && overlap.getFrom() != null ? toMicros(overlap.getFrom()) : Long.MIN_VALUE;
+            long overlapTo = overlap != null && overlap.getTo() != null ? toMicros(overlap.getTo()) : Long.MAX_VALUE;
+            if (bucketMicros > 0 && overlap != null && (overlap.getFrom() != null || overlap.getTo() != null)) {
+                rows = intersect(rows, overlappingRows(overlapFrom, overlapTo));
+            }
+            if (rows == null) {
+                rows = (BitSet) live.clone();
+            }
+            if (criteria.getPartnerId() != null && !isEquality(criteria.getPartnerId())) {
+                LongCondition.of(criteria.getPartnerId(), Integer::longValue).retain(rows, partnerIds, null);
+            }
+            if (criteria.getCategory() != null && !isEquality(criteria.getCategory())) {
+                boolean[] accepted = new boolean[CATEGORIES.length];
+                ValueCondition<categoryEnum> condition = ValueCondition.of(criteria.getCategory());
+                for (int code = 0; code < CATEGORIES.length; code++) {
+                    accepted[code] = condition.matches(CATEGORIES[code]);
+                }
+                for (int slot = rows.nextSetBit(0); slot >= 0; slot = rows.nextSetBit(slot + 1)) {
+                    if (!accepted[categories[slot]]) {
+                        rows.clear(slot);
+                    }
+                }
+            }
+            if (sessionDt != null) {
+                sessionDt.retain(rows, sessionDts, hasSessionDt);
+            }
+            if (overlap != null) {
+                for (int slot = rows.nextSetBit(0); slot >= 0; slot = rows.nextSetBit(slot + 1)) {
+                    // A session without a duration ends when it starts
+                    if (!hasSessionDt.get(slot) || sessionDts[slot] >= overlapTo
+                        || sessionDts[slot] + durations[slot] * MICROS_PER_MINUTE <= overlapFrom) {
+                        rows.clear(slot);
+                    }
+                }
+            }
+            if (criteria.getId() != null) {
+                LongCondition.of(criteria.getId(), Long::longValue).retain(rows, ids, null);
+            }
+            if (criteria.getDuration() != null) {
+                LongCondition.of(criteria.getDuration(), Integer::longValue).retain(rows, durations, hasDuration);
+            }
+            if (criteria.getPrice() != null) {
+                DoubleCondition.of(criteria.getPrice()).retain(rows, prices, hasPrice);
+            }
+            if (criteria.getUsername() != null) {
+                // The condition is evaluated once per distinct username, then the codes are scanned
+                ValueCondition<String> condition = ValueCondition.of(criteria.getUsername());
+                BitSet accepted = new BitSet(usernameValues.size());
+                for (int code = 0; code < usernameValues.size(); code++) {
+                    accepted.set(code, condition.matches(usernameValues.get(code)));
+                }
+                for (int slot = rows.nextSetBit(0); slot >= 0; slot = rows.nextSetBit(slot + 1)) {
+                    if (!accepted.get(usernames[slot])) {
+                        rows.clear(slot);
+                    }
+                }
+            }
+            if (criteria.getDescription() != null) {
+                ValueCondition<String> condition = ValueCondition.of(criteria.getDescription());
+                for (int slot = rows.nextSetBit(0); slot >= 0; slot = rows.nextSetBit(slot + 1)) {
+                    if (!condition.matches(descriptions[slot])) {
+                        rows.clear(slot);
+                    }
+                }
+            }
+            return rows;
+        }
+
+        /**
+         * Select the rows of the session date buckets which may hold the dates matched by a condition: the buckets of
+         * its values, or those between its bounds.
+         */
+        private BitSet startingRows(LongCondition condition) {
+            if (condition.in == null) {
+                return startingRows(condition.lower, condition.upper);
+            }
+            BitSet rows = new BitSet();
+            for (long bucket : Arrays.stream(condition.in).map(this::bucket).distinct().toArray()) {
+                RowBitmap bitmap = sessionBuckets.get(bucket);
+                if (bitmap != null) {
+                    bitmap.orInto(rows);
+                }
+            }
+            return rows;
+        }
+
+        /**
+         * Select the rows of the buckets of the sessions starting between two dates, in microseconds, inclusive.
+         */
+        private BitSet startingRows(long from, long to) {
+            BitSet rows = new BitSet();
+            if (from <= to) {
+                sessionBuckets.subMap(bucket(from), true, bucket(to), true).values().forEach(bitmap -> bitmap.orInto(rows));
+            }
+            return rows;
+        }
+
+        /**
+         * Select the rows which may overlap a period, in microseconds: the sessions starting before its end, and at most
+         * {@link #longSessionMinutes} before its start, as the longer sessions, which are all selected.
+         */
+        private BitSet overlappingRows(long from, long to) {
+            long longSessionMicros = longSessionMinutes * MICROS_PER_MINUTE;
+            long earliest = from < Long.MIN_VALUE + longSessionMicros ? Long.MIN_VALUE : from - longSessionMicros;
+            BitSet rows = startingRows(earliest, to == Long.MIN_VALUE ? to : to - 1);
+            longSessions.orInto(rows);
+            return rows;
+        }
+
+        private static BitSet intersect(BitSet rows, BitSet candidates) {
+            if (rows == null) {
+                return candidates;
+            }
+            rows.and(candidates);
+            return rows;
+        }
+
+        /**
+         * Count the rows matching the criteria. When their only filters are equalities on the category and partner,
+         * the count adds up the cardinalities of their bitmaps, or of the intersections of their bitmaps, as the rows
+         * of different values of a field are distinct.
+         */
+        long count(CatalogueCriteria criteria) {
+            if (criteria == null || criteria.getId() != null || criteria.getDescription() != null || criteria.getPrice() != null
+                || criteria.getDuration() != null || criteria.getSessionDt() != null || criteria.getSessionOverlap() != null
+                || criteria.getUsername() != null
+                || (criteria.getCategory() != null && !isEquality(criteria.getCategory()))
+                || (criteria.getPartnerId() != null && !isEquality(criteria.getPartnerId()))
+                || (criteria.getCategory() == null && criteria.getPartnerId() == null)) {
+                return select(criteria).cardinality();
+            }
+            long count = 0;
+            if (criteria.getPartnerId() == null) {
+                for (RowBitmap category : categoryBitmaps(criteria.getCategory())) {
+                    count += category.getCardinality();
+                }
+            } else if (criteria.getCategory() == null) {
+                for (RowBitmap partner : partnerBitmaps(criteria.getPartnerId())) {
+                    count += partner.getCardinality();
+                }
+            } else {
+                List<RowBitmap> partners = partnerBitmaps(criteria.getPartnerId());
+                for (RowBitmap category : categoryBitmaps(criteria.getCategory())) {
+                    for (RowBitmap partner : partners) {
+                        count += category.andCardinality(partner);
+                    }
+                }
+            }
+            return count;
+        }
+
+        private List<RowBitmap> categoryBitmaps(Filter<categoryEnum> filter) {
+            List<RowBitmap> bitmaps = new ArrayList<>();
+            for (categoryEnum category : values(filter)) {
+                bitmaps.add(categoryRows[CATEGORY_CODES[category.ordinal()]]);
+            }
+            return bitmaps;
+        }
+
+        private List<RowBitmap> partnerBitmaps(Filter<Integer> filter) {
+            List<RowBitmap> bitmaps = new ArrayList<>();
+            for (Integer partnerId : values(filter)) {
+                RowBitmap bitmap = partnerRows.get(partnerId);
+                if (bitmap != null) {
+                    bitmaps.add(bitmap);
+                }
+            }
+            return bitmaps;
+        }
+
+        private static BitSet union(List<RowBitmap> bitmaps) {
+            BitSet rows = new BitSet();
+            bitmaps.forEach(bitmap -> bitmap.orInto(rows));
+            return rows;
+        }
+
+        /**
+         * Check that only the {@code equals} or {@code in} condition of a filter applies.
+         */
+        private static boolean isEquality(Filter<?> filter) {
+            return filter != null && (filter.getEquals() != null || filter.getIn() != null);
+        }
+
+        /**
+         * Get the distinct values of an equality filter.
+         */
+        private static <T> Set<T> values(Filter<T> filter) {
+            return filter.getEquals() != null ? Collections.singleton(filter.getEquals()) : new LinkedHashSet<>(filter.getIn());
+        }
+
+        Integer[] slots(BitSet rows) {
+            Integer[] slots = new Integer[rows.cardinality()];
+            int i = 0;
+            for (int slot = rows.nextSetBit(0); slot >= 0; slot = rows.nextSetBit(slot + 1)) {
+                slots[i++] = slot;
+            }
+            return slots;
+        }
+
+        /**
+         * Compare the slots of rows by the sort, then by id.
+         */
+        Comparator<Integer> comparator(Sort sort) {
+            Comparator<Integer> comparator = Comparator.comparingLong(slot -> ids[slot]);
+            List<Sort.Order> orders = sort.toList();
+            for (int i = orders.size() - 1; i >= 0; i--) {
+                comparator = comparator(orders.get(i)).thenComparing(comparator);
+            }
+            return comparator;
+        }
+
+        private Comparator<Integer> comparator(Sort.Order order) {
+            Comparator<Integer> values;
+            IntPredicate present;
+            switch (order.getProperty()) {
+                case Catalogue_.ID:
+                    return direction(order, Comparator.comparingLong(slot -> ids[slot]));
+                case Catalogue_.DESCRIPTION:
+                    values = Comparator.comparing(slot -> descriptions[slot]);
+                    present = slot -> descriptions[slot] != null;
+                    break;
+                case Catalogue_.PRICE:
+                    values = Comparator.comparingDouble(slot -> prices[slot]);
+                    present = hasPrice::get;
+                    break;
+                case Catalogue_.DURATION:
+                    values = Comparator.comparingInt(slot -> durations[slot]);
+                    present = hasDuration::get;
+                    break;
+                case Catalogue_.SESSION_DT:
+                    values = Comparator.comparingLong(slot -> sessionDts[slot]);
+                    present = hasSessionDt::get;
+                    break;
+                case Catalogue_.CATEGORY:
+                    return direction(order, Comparator.comparingInt(slot -> categories[slot]));
+                case Catalogue_.USERNAME:
+                    return direction(order, Comparator.comparing(slot -> usernameValues.get(usernames[slot])));
+                case Catalogue_.PARTNER_ID:
+                    return direction(order, Comparator.comparingInt(slot -> partnerIds[slot]));
+                default:
+                    throw new IllegalArgumentException("Unsupported sort property: " + order.getProperty());
+            }
+            Comparator<Integer> directed = direction(order, values);
+            // Like Oracle, nulls are greater than any value unless the order says otherwise
+            boolean nullsFirst = order.getNullHandling() == Sort.NullHandling.NULLS_FIRST
+                || (order.getNullHandling() == Sort.NullHandling.NATIVE && order.isDescending());
+            return (a, b) -> {
+                boolean presentA = present.test(a);
+                boolean presentB = present.test(b);
+                if (presentA && presentB) {
+                    return directed.compare(a, b);
+                }
+                if (presentA == presentB) {
+                    return 0;
+                }
+                return presentA == nullsFirst ? 1 : -1;
+            };
+        }
+
+        private static Comparator<Integer> direction(Sort.Order order, Comparator<Integer> comparator) {
+            return order.isDescending() ? comparator.reversed() : comparator;
+        }
+
+        List<CatalogueDTO> toDtos(Integer[] slots, int from, int to) {
+            List<CatalogueDTO> catalogueDTOs = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                catalogueDTOs.add(toDto(slots[i]));
+            }
+            return catalogueDTOs;
+        }
+
+        private CatalogueDTO toDto(int slot) {
+            CatalogueDTO catalogueDTO = new CatalogueDTO();
+            catalogueDTO.setId(ids[slot]);
+            catalogueDTO.setDescription(descriptions[slot]);
+            catalogueDTO.setPrice(hasPrice.get(slot) ? prices[slot] : null);
+            catalogueDTO.setDuration(hasDuration.get(slot) ? durations[slot] : null);
+            catalogueDTO.setSessionDt(hasSessionDt.get(slot) ? ofMicros(sessionDts[slot]) : null);
+            catalogueDTO.setCategory(CATEGORIES[categories[slot]]);
+            catalogueDTO.setUsername(usernameValues.get(usernames[slot]));
+            catalogueDTO.setPartnerId(partnerIds[slot]);
+            return catalogueDTO;
+        }
+    }
+
+    /**
+     * A {@link RangeFilter} over a column of integral values, with the semantics of
+     * {@link io.github.jhipster.service.QueryService}: {@code equals}, else {@code in}, else all the other conditions,
+     * which rows without a value never match. A row without a value only matches {@code specified=false} alone,
+     * or an empty filter.
+     */
+    static final class LongCondition {
+
+        private long[] in;
+
+        private long[] notIn;
+
+        private long lower = Long.MIN_VALUE;
+
+        private long upper = Long.MAX_VALUE;
+
+        private boolean empty;
+
+        private boolean restricted;
+
+        private Boolean specified;
+
+        static <X extends Comparable<? super X>> LongCondition of(RangeFilter<X> filter, ToLongFunction<X> value) {
+            LongCondition condition = new LongCondition();
+            if (filter.getEquals() != null) {
+                condition.in = new long[] { value.applyAsLong(filter.getEquals()) };
+                return condition;
+            }
+            if (filter.getIn() != null) {
+                condition.in = filter.getIn().stream().mapToLong(value).sorted().toArray();
+                return condition;
+            }
+            condition.specified = filter.getSpecified();
+            List<X> excluded = new ArrayList<>();
+            if (filter.getNotEquals() != null) {
+                excluded.add(filter.getNotEquals());
+            }
+            if (filter.getNotIn() != null) {
+                excluded.addAll(filter.getNotIn());
+            }
+            if (!excluded.isEmpty()) {
+                condition.notIn = excluded.stream().mapToLong(value).sorted().toArray();
+                condition.restricted = true;
+            }
+            if (filter.getGreaterThan() != null) {
+                long bound = value.applyAsLong(filter.getGreaterThan());
+                condition.empty |= bound == Long.MAX_VALUE;
+                condition.lower = Math.max(condition.lower, bound + 1);
+                condition.restricted = true;
+            }
+            if (filter.getGreaterThanOrEqual() != null) {
+                condition.lower = Math.max(condition.lower, value.applyAsLong(filter.getGreaterThanOrEqual()));
+                condition.restricted = true;
+            }
+            if (filter.getLessThan() != null) {
+                long bound = value.applyAsLong(filter.getLessThan());
+                condition.empty |= bound == Long.MIN_VALUE;
+                condition.upper = Math.min(condition.upper, bound - 1);
+                condition.restricted = true;
+            }
+            if (filter.getLessThanOrEqual() != null) {
+                condition.upper = Math.min(condition.upper, value.applyAsLong(filter.getLessThanOrEqual()));
+                condition.restricted = true;
+            }
+            return condition;
+        }
+
+        boolean matches(long value) {
+            if (in != null) {
+                return Arrays.binarySearch(in, value) >= 0;
+            }
+            return !empty && !Boolean.FALSE.equals(specified) && (notIn == null || Arrays.binarySearch(notIn, value) < 0)
+                && value >= lower && value <= upper;
+        }
+
+        boolean matchesNull() {
+            return in == null && !restricted && !Boolean.TRUE.equals(specified);
+        }
+
+        /**
+         * Check that the matched values are some values or a range, without the rows lacking a value.
+         */
+        boolean isBounded() {
+            return !matchesNull() && (in != null || lower != Long.MIN_VALUE || upper != Long.MAX_VALUE);
+        }
+
+        void retain(BitSet rows, long[] column, BitSet present) {
+            boolean matchesNull = matchesNull();
+            for (int slot = rows.nextSetBit(0); slot >= 0; slot = rows.nextSetBit(slot + 1)) {
+                if (present != null && !present.get(slot) ? !matchesNull : !matches(column[slot])) {
+                    rows.clear(slot);
+                }
+            }
+        }
+
+        void retain(BitSet rows, int[] column, BitSet present) {
+            boolean matchesNull = matchesNull();
+            for (int slot = rows.nextSetBit(0); slot >= 0; slot = rows.nextSetBit(slot + 1)) {
+                if (present != null && !present.get(slot) ? !matchesNull : !matches(column[slot])) {
+                    rows.clear(slot);
+                }
+            }
+        }
+    }
+
+    /**
+     * A {@link RangeFilter} over a column of doubles, with the semantics of {@link LongCondition}. The strict bounds
+     * are made inclusive with the adjacent double.
+     */
+    static final class DoubleCondition {
+
+        private double[] in;
+
+        private double[] notIn;
+
+        private double lower = Double.NEGATIVE_INFINITY;
+
+        private double upper = Double.POSITIVE_INFINITY;
+
+        private boolean restricted;
+
+        private Boolean specified;
+
+        static DoubleCondition of(RangeFilter<Double> filter) {
+            DoubleCondition condition = new DoubleCondition();
+            if (filter.getEquals() != null) {
+                condition.in = new double[] { filter.getEquals() };
+                return condition;
+            }
+            if (filter.getIn() != null) {
+                condition.in = filter.getIn().stream().mapToDouble(Double::doubleValue).toArray();
+                return condition;
+            }
+            condition.specified = filter.getSpecified();
+            List<Double> excluded = new ArrayList<>();
+            if (filter.getNotEquals() != null) {
+                excluded.add(filter.getNotEquals());
+            }
+            if (filter.getNotIn() != null) {
+                excluded.addAll(filter.getNotIn());
+            }
+            if (!excluded.isEmpty()) {
+                condition.notIn = excluded.stream().mapToDouble(Double::doubleValue).toArray();
+                condition.restricted = true;
+            }
+            if (filter.getGreaterThan() != null) {
+                condition.lower = Math.max(condition.lower, Math.nextUp(filter.getGreaterThan()));
+                condition.restricted = true;
+            }
+            if (filter.getGreaterThanOrEqual() != null) {
+                condition.lower = Math.max(condition.lower, filter.getGreaterThanOrEqual());
+                condition.restricted = true;
+            }
+            if (filter.getLessThan() != null) {
+                condition.upper = Math.min(condition.upper, Math.nextDown(filter.getLessThan()));
+                condition.restricted = true;
+            }
+            if (filter.getLessThanOrEqual() != null) {
+                condition.upper = Math.min(condition.upper, filter.getLessThanOrEqual());
+                condition.restricted = true;
+            }
+            return condition;
+        }
+
+        boolean matches(double value) {
+            if (in != null) {
+                return contains(in, value);
+            }
+            return !Boolean.FALSE.equals(specified) && (notIn == null || !contains(notIn, value)) && value >= lower && value <= upper;
+        }
+
+        boolean matchesNull() {
+            return in == null && !restricted && !Boolean.TRUE.equals(specified);
+        }
+
+        void retain(BitSet rows, double[] column, BitSet present) {
+            boolean matchesNull = matchesNull();
+            for (int slot = rows.nextSetBit(0); slot >= 0; slot = rows.nextSetBit(slot + 1)) {
+                if (!present.get(slot) ? !matchesNull : !matches(column[slot])) {
+                    rows.clear(slot);
+                }
+            }
+        }
+
+        private static boolean contains(double[] values, double value) {
+            for (double candidate : values) {
+                if (candidate == value) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * A {@link Filter}, or a {@link StringFilter}, with the semantics of {@link io.github.jhipster.service.QueryService}:
+     * only its first condition applies, {@code contains} being a case-insensitive substring match.
+     */
+    static final class ValueCondition<T> {
+
+        private final Predicate<T> test;
+
+        private final boolean matchesNull;
+
+        private ValueCondition(Predicate<T> test, boolean matchesNull) {
+            this.test = test;
+            this.matchesNull = matchesNull;
+        }
+
+        static <T> ValueCondition<T> of(Filter<T> filter) {
+            if (filter.getEquals() != null) {
+                return new ValueCondition<>(filter.getEquals()::equals, false);
+            }
+            if (filter.getIn() != null) {
+                return new ValueCondition<>(new HashSet<>(filter.getIn())::contains, false);
+            }
+            if (filter.getNotIn() != null) {
+                Set<T> excluded = new HashSet<>(filter.getNotIn());
+                return new ValueCondition<>(value -> !excluded.contains(value), false);
+            }
+            if (filter instanceof StringFilter) {
+                StringFilter stringFilter = (StringFilter) filter;
+                if (stringFilter.getContains() != null) {
+                    String contained = stringFilter.getContains().toUpperCase(Locale.ROOT);
+                    return new ValueCondition<>(value -> value.toString().toUpperCase(Locale.ROOT).contains(contained), false);
+                }
+                if (stringFilter.getDoesNotContain() != null) {
+                    String contained = stringFilter.getDoesNotContain().toUpperCase(Locale.ROOT);
+                    return new ValueCondition<>(value -> !value.toString().toUpperCase(Locale.ROOT).contains(contained), false);
+                }
+            }
+            if (filter.getNotEquals() != null) {
+                T excluded = filter.getNotEquals();
+                return new ValueCondition<>(value -> !excluded.equals(value), false);
+            }
+            if (filter.getSpecified() != null) {
+                boolean specified = filter.getSpecified();
+                return new ValueCondition<>(value -> specified, !specified);
+            }
+            return new ValueCondition<>(value -> true, true);
+        }
+
+        boolean matches(T value) {
+            return value == null ? matchesNull : test.test(value);
+        }
+    }
+}
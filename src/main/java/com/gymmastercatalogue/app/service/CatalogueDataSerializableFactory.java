@@ -0,0 +1,32 @@
+package com.gymmastercatalogue.app.service;
+
+import com.hazelcast.nio.serialization.DataSerializableFactory;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+
+/**
+ * Factory of the {@link IdentifiedDataSerializable} objects of the Catalogue caches, registered in the Hazelcast
+ * configuration under {@link #FACTORY_ID}.
+ * <p>
+ * These objects only live in the cluster for the time-to-live of the query results cache: a change of the fields
+ * they write needs a new class id, so that members of different versions don't read each other's entries.
+ */
+public class CatalogueDataSerializableFactory implements DataSerializableFactory {
+
+    public static final int FACTORY_ID = 1000;
+
+    static final int CACHED_PAGE = 3;
+
+    static final int INCREMENT_GENERATION = 4;
+
+    @Override
+    public IdentifiedDataSerializable create(int typeId) {
+        switch (typeId) {
+            case CACHED_PAGE:
+                return new CatalogueQueryResultCache.CachedPage();
+            case INCREMENT_GENERATION:
+                return new CatalogueQueryResultCache.IncrementGeneration();
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.gymmastercatalogue.app.service;
+
+import com.gymmastercatalogue.app.config.ApplicationProperties;
+import com.gymmastercatalogue.app.service.dto.CatalogueCsvFormat;
+import com.gymmastercatalogue.app.service.dto.CatalogueDTO;
+import com.gymmastercatalogue.app.service.dto.CatalogueImportReportDTO;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Service importing the {@link com.gymmastercatalogue.app.domain.Catalogue} rows of large CSV or NDJSON documents,
+ * like the nightly files of the partners.
+ * <p>
+ * The document is read one row at a time: each row is validated against the {@link CatalogueDTO} constraints, and
+ * the valid ones are created by chunks of {@code application.batch.chunk-size} rows with
+ * {@link CatalogueService#saveAll(List)}, in one transaction of JDBC batches each, and indexed by the outbox relay.
+ * Invalid rows are rejected and reported, without stopping the import. If a chunk fails to be written, the import
+ * stops and reports the error, the previous chunks staying imported.
+ */
+@Service
+public class CatalogueImportService {
+
+    private final Logger log = LoggerFactory.getLogger(CatalogueImportService.class);
+
+    private final CatalogueService catalogueService;
+
+    private final ObjectReader catalogueReader;
+
+    private final Validator validator;
+
+    private final ApplicationProperties.Batch properties;
+
+    private final Counter importedCounter;
+
+    private final Counter rejectedCounter;
+
+    public CatalogueImportService(CatalogueService catalogueService, ObjectMapper objectMapper, Validator validator,
+                                  ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.catalogueService = catalogueService;
+        this.catalogueReader = objectMapper.readerFor(CatalogueDTO.class);
+        this.validator = validator;
+        this.properties = applicationProperties.getBatch();
+        this.importedCounter = Counter.builder("catalogue.import.rows")
+            .description("Number of imported Catalogue rows, by result")
+            .tag("result", "imported")
+            .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("catalogue.import.rows")
+            .description("Number of imported Catalogue rows, by result")
+            .tag("result", "rejected")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Import the catalogues of a CSV document, whose header line names the columns.
+     *
+     * @param in the UTF-8 document.
+     * @return the report of the import.
+     * @throws IOException if the document cannot be read.
+     * @throws IllegalArgumentException if the header line is missing or invalid.
+     */
+    public CatalogueImportReportDTO importCsv(InputStream in) throws IOException {
+        log.debug("Request to import Catalogues from CSV");
+        CatalogueCsvFormat.Parser parser = new CatalogueCsvFormat.Parser(new InputStreamReader(in, StandardCharsets.UTF_8));
+        return importRows(new RowReader() {
+            @Override
+            public CatalogueDTO next() throws IOException {
+                return parser.next();
+            }
+
+            @Override
+            public long getLine() {
+                return parser.getLine();
+            }
+        });
+    }
+
+    /**
+     * Import the catalogues of a newline-delimited JSON document, one JSON object per line.
+     *
+     * @param in the UTF-8 document.
+     * @return the report of the import.
+     * @throws IOException if the document cannot be read.
+     */
+    public CatalogueImportReportDTO importNdjson(InputStream in) throws IOException {
+        log.debug("Request to import Catalogues from NDJSON");
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        return importRows(new RowReader() {
+
+            private long line;
+
+            @Override
+            public CatalogueDTO next() throws IOException {
+                String text;
+                do {
+                    text = reader.readLine();
+                    line++;
+                } while (text != null && text.trim().isEmpty());
+                if (text == null) {
+                    return null;
+                }
+                // Each line is parsed on its own, so that a malformed one doesn't prevent reading the next ones
+                CatalogueDTO catalogueDTO;
+                try {
+                    catalogueDTO = catalogueReader.readValue(text);
+                } catch (JsonProcessingException e) {
+                    throw new IllegalArgumentException(e.getOriginalMessage());
+                }
+                if (catalogueDTO == null) {
+                    throw new IllegalArgumentException("The catalogue must not be null");
+                }
+                return catalogueDTO;
+            }
+
+            @Override
+            public long getLine() {
+                return line;
+            }
+        });
+    }
+
+    private CatalogueImportReportDTO importRows(RowReader rows) throws IOException {
+        long start = System.nanoTime();
+        CatalogueImportReportDTO report = new CatalogueImportReportDTO();
+        List<CatalogueDTO> chunk = new ArrayList<>(properties.getChunkSize());
+        while (true) {
+            CatalogueDTO catalogueDTO;
+            try {
+                catalogueDTO = rows.next();
+            } catch (IllegalArgumentException e) {
+                reject(report, rows.getLine(), e.getMessage());
+                continue;
+            }
+            if (catalogueDTO == null) {
+                break;
+            }
+            String violations = validate(catalogueDTO);
+            if (violations != null) {
+                reject(report, rows.getLine(), violations);
+                continue;
+            }
+            chunk.add(catalogueDTO);
+            if (chunk.size() == properties.getChunkSize() && !save(chunk, rows.getLine(), report)) {
+                break;
+            }
+        }
+        if (report.getError() == null) {
+            save(chunk, rows.getLine(), report);
+        }
+        long durationNanos = System.nanoTime() - start;
+        report.setDurationMs(TimeUnit.NANOSECONDS.toMillis(durationNanos));
+        report.setRowsPerSecond((report.getImported() + report.getRejected()) * (double) TimeUnit.SECONDS.toNanos(1) / Math.max(durationNanos, 1));
+        log.info("Imported {} Catalogues and rejected {} in {} ms, {} rows/s", report.getImported(), report.getRejected(),
+            report.getDurationMs(), Math.round(report.getRowsPerSecond()));
+        return report;
+    }
+
+    private String validate(CatalogueDTO catalogueDTO) {
+        if (catalogueDTO.getId() != null) {
+            return "An imported catalogue cannot have an ID";
+        }
+        Set<ConstraintViolation<CatalogueDTO>> violations = validator.validate(catalogueDTO);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+            .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+            .sorted()
+            .collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Save a chunk of rows, or report why it could not be saved.
+     *
+     * @param line the line of the last row of the chunk.
+     * @return whether the chunk was saved.
+     */
+    private boolean save(List<CatalogueDTO> chunk, long line, CatalogueImportReportDTO report) {
+        if (chunk.isEmpty()) {
+            return true;
+        }
+        try {
+            catalogueService.saveAll(chunk);
+        } catch (RuntimeException e) {
+            log.error("Could not import the Catalogues up to line {}, after importing {}", line, report.getImported(), e);
+            report.setError("Could not import the rows up to line " + line + ": " + e.getMessage());
+            return false;
+        }
+        report.setImported(report.getImported() + chunk.size());
+        importedCounter.increment(chunk.size());
+        chunk.clear();
+        return true;
+    }
+
+    private void reject(CatalogueImportReportDTO report, long line, String message) {
+        report.setRejected(report.getRejected() + 1);
+        rejectedCounter.increment();
+        if (report.getRejects().size() < properties.getMaxReportedRejects()) {
+            report.getRejects().add(new CatalogueImportReportDTO.Reject(line, message));
+        }
+    }
+
+    /**
+     * Reader of the rows of an imported document.
+     */
+    private interface RowReader {
+
+        /**
+         * Read the next row.
+         *
+         * @return the row, or {@code null} at the end of the document.
+         * @throws IllegalArgumentException if the row cannot be read as a catalogue.
+         */
+        CatalogueDTO next() throws IOException;
+
+        /**
+         * @return the line of the last row read.
+         */
+        long getLine();
+    }
+}
@@ -0,0 +1,473 @@
+package com.gymmastercatalogue.app.service;
+
+import com.gymmastercatalogue.app.domain.enumeration.categoryEnum;
+import com.gymmastercatalogue.app.service.dto.CatalogueDTO;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongSupplier;
+
+/**
+ * A store of {@link CatalogueDTO}s in direct memory, outside of the Java heap, so that a large number of cached
+ * catalogues doesn't grow the old generation and the GC pauses.
+ * <p>
+ * The catalogues are encoded in a ring buffer of records, appended at its head: fixed-width numeric fields, the
+ * ordinal of the category, then the UTF-8 description and username, prefixed with their length. A record is only
+ * decoded when it is read. The ids are mapped to the positions of their records by a {@link LongIntHashMap}, in
+ * direct memory too, so that the heap overhead doesn't depend on the number of entries.
+ * <p>
+ * When the ring buffer or the table is full, the oldest records are evicted first. Replaced and removed records stay in
+ * the ring buffer until its head wraps around to them. Records also expire after a time to live.
+ * <p>
+ * A catalogue read from the source of truth is stored with the {@link #stamp()} taken before the read, and is
+ * rejected if it was removed since then: the removal may have been for a change the read didn't see yet.
+ */
+public final class CatalogueOffHeapStore {
+
+    /**
+     * The largest ring buffer, the limit of a {@link ByteBuffer}, rounded to the record alignment.
+     */
+    public static final long MAX_SIZE_BYTES = Integer.MAX_VALUE & ~7L;
+
+    /**
+     * The most entries, whose hash table fits in a {@link ByteBuffer}.
+     */
+    public static final int MAX_ENTRIES = 1 << 25;
+
+    private static final categoryEnum[] CATEGORIES = categoryEnum.values();
+
+    private static final int HEADER_BYTES = 50;
+
+    private static final int ID = 4;
+
+    private static final int FLAGS = 12;
+
+    private static final int CATEGORY = 13;
+
+    private static final int PARTNER_ID = 14;
+
+    private static final int DURATION = 18;
+
+    private static final int PRICE = 22;
+
+    private static final int SESSION_SECONDS = 30;
+
+    private static final int SESSION_NANOS = 38;
+
+    private static final int EXPIRES_AT = 42;
+
+    private static final int INVALIDATION_STRIPES = 4096;
+
+    private static final int HAS_DESCRIPTION = 1;
+
+    private static final int HAS_PRICE = 1 << 1;
+
+    private static final int HAS_DURATION = 1 << 2;
+
+    private static final int HAS_SESSION_DT = 1 << 3;
+
+    private static final int HAS_CATEGORY = 1 << 4;
+
+    private static final int HAS_USERNAME = 1 << 5;
+
+    private static final int HAS_PARTNER_ID = 1 << 6;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final int maxEntries;
+
+    /**
+     * The positions of the records, by id.
+     */
+    private final LongIntHashMap positions;
+
+    /**
+     * The ring buffer of the records, each starting with its length, or with the negated length of the padding which
+     * ends the buffer when the next record didn't fit.
+     */
+    private final ByteBuffer records;
+
+    private final int capacity;
+
+    private int head;
+
+    private int tail;
+
+    private int usedBytes;
+
+    private final long timeToLiveMillis;
+
+    private final LongSupplier clock;
+
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * The last invalidation of the ids of each stripe, so that a stale catalogue is rejected in bounded memory, at the
+     * cost of rejecting the catalogues of the other ids of the stripe too.
+     */
+    private final long[] invalidatedAt = new long[INVALIDATION_STRIPES];
+
+    private long clearedAt;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maxEntries the maximum number of catalogues.
+     * @param maxSizeBytes the size of the ring buffer of the records, at most {@link #MAX_SIZE_BYTES}.
+     * @param timeToLiveMillis the time to live of the records, {@code 0} for none.
+     */
+    public CatalogueOffHeapStore(int maxEntries, long maxSizeBytes, long timeToLiveMillis) {
+        this(maxEntries, maxSizeBytes, timeToLiveMillis, System::currentTimeMillis);
+    }
+
+    CatalogueOffHeapStore(int maxEntries, long maxSizeBytes, long timeToLiveMillis, LongSupplier clock) {
+        if (maxEntries <= 0 || maxEntries > MAX_ENTRIES) {
+            throw new IllegalArgumentException("The maximum number of entries must be between 1 and " + MAX_ENTRIES + ": " + maxEntries);
+        }
+        if (maxSizeBytes < 1024 || maxSizeBytes > MAX_SIZE_BYTES) {
+            throw new IllegalArgumentException("The size must be between 1 KB and " + MAX_SIZE_BYTES + " bytes: " + maxSizeBytes);
+        }
+        this.maxEntries = maxEntries;
+        this.timeToLiveMillis = timeToLiveMillis;
+        this.clock = clock;
+        this.positions = new LongIntHashMap(maxEntries, true);
+        this.capacity = (int) (maxSizeBytes & ~7L);
+        this.records = ByteBuffer.allocateDirect(capacity);
+    }
+
+    /**
+     * Get a catalogue, decoded from its record.
+     *
+     * @param id the id of the catalogue.
+     * @return the catalogue, or {@code null} if it is not stored or has expired.
+     */
+    public CatalogueDTO get(long id) {
+        lock.readLock().lock();
+        try {
+            int position = positions.get(id);
+            if (position < 0 || isExpired(position)) {
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return decode(position);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the stamp to store a catalogue with, taken before reading it from the source of truth.
+     *
+     * @return the sequence number of the last removal.
+     */
+    public long stamp() {
+        return invalidations.get();
+    }
+
+    /**
+     * Store the current version of a catalogue, replacing the previous one with its id. The oldest catalogues are
+     * evicted to make room.
+     *
+     * @param catalogueDTO the catalogue, with an id.
+     * @return whether the catalogue is stored, which it isn't when its record is larger than the ring buffer.
+     */
+    public boolean put(CatalogueDTO catalogueDTO) {
+        return put(catalogueDTO, stamp());
+    }
+
+    /**
+     * Store a catalogue read from the source of truth, unless it was removed since, replacing the previous one with its
+     * id. The oldest catalogues are evicted to make room.
+     *
+     * @param catalogueDTO the catalogue, with an id.
+     * @param stamp the {@link #stamp()} taken before reading the catalogue.
+     * @return whether the catalogue is stored, which it isn't when it was removed after the stamp was taken, or when
+     * its record is larger than the ring buffer.
+     */
+    public boolean put(CatalogueDTO catalogueDTO, long stamp) {
+        long id = catalogueDTO.getId();
+        byte[] description = catalogueDTO.getDescription() != null ? catalogueDTO.getDescription().getBytes(StandardCharsets.UTF_8) : null;
+        byte[] username = catalogueDTO.getUsername() != null ? catalogueDTO.getUsername().getBytes(StandardCharsets.UTF_8) : null;
+        long length = HEADER_BYTES + encodedLength(description) + encodedLength(username);
+        length = (length + 7) & ~7L;
+        if (id == LongIntHashMap.FREE) {
+            return false;
+        }
+        if (length > capacity) {
+            remove(id);
+            return false;
+        }
+        lock.writeLock().lock();
+        try {
+            if (clearedAt > stamp || invalidatedAt[stripe(id)] > stamp) {
+                return false;
+            }
+            // The previous record becomes garbage, skipped when the ring buffer wraps around to it
+            positions.remove(id);
+            while (positions.size() >= maxEntries) {
+                evictTail();
+            }
+            int position = reserve((int) length);
+            encode(position, (int) length, catalogueDTO, description, username);
+            positions.put(id, position);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a catalogue, and reject the versions of it read before.
+     *
+     * @param id the id of the catalogue.
+     */
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            invalidatedAt[stripe(id)] = invalidations.incrementAndGet();
+            positions.remove(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove all the catalogues, and reject the versions of them read before.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            clearedAt = invalidations.incrementAndGet();
+            positions.clear();
+            head = 0;
+            tail = 0;
+            usedBytes = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return positions.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the bytes of the ring buffer used by records, including the replaced and removed ones not reclaimed yet.
+     */
+    public long getUsedBytes() {
+        lock.readLock().lock();
+        try {
+            return usedBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the direct memory allocated for the ring buffer and the hash table.
+     */
+    public long getAllocatedBytes() {
+        return capacity + positions.sizeInBytes();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Make room for a record at the head of the ring buffer, evicting the oldest records.
+     *
+     * @return the position of the record.
+     */
+    private int reserve(int length) {
+        if ((long) head + length > capacity) {
+            // The record doesn't fit before the end of the buffer, which is padded
+            int padding = capacity - head;
+            while (capacity - usedBytes < padding) {
+                evictTail();
+            }
+            if (padding > 0) {
+                records.putInt(head, -padding);
+                usedBytes += padding;
+            }
+            head = 0;
+        }
+        // The free bytes always follow the head
+        while (capacity - usedBytes < length) {
+            evictTail();
+        }
+        int position = head;
+        head += length;
+        if (head == capacity) {
+            head = 0;
+        }
+        usedBytes += length;
+        return position;
+    }
+
+    private void evictTail() {
+        int length = records.getInt(tail);
+        if (length < 0) {
+            usedBytes += length;
+            tail = 0;
+            return;
+        }
+        long id = records.getLong(tail + ID);
+        if (positions.get(id) == tail) {
+            positions.remove(id);
+            evictions.increment();
+        }
+        usedBytes -= length;
+        tail += length;
+        if (tail == capacity) {
+            tail = 0;
+        }
+    }
+
+    private void encode(int position, int length, CatalogueDTO catalogueDTO, byte[] description, byte[] username) {
+        int flags = 0;
+        records.putInt(position, length);
+        records.putLong(position + ID, catalogueDTO.getId());
+        records.putLong(position + EXPIRES_AT, timeToLiveMillis > 0 ? clock.getAsLong() + timeToLiveMillis : Long.MAX_VALUE);
+        if (catalogueDTO.getCategory() != null) {
+            flags |= HAS_CATEGORY;
+            records.put(position + CATEGORY, (byte) catalogueDTO.getCategory().ordinal());
+        }
+        if (catalogueDTO.getPartnerId() != null) {
+            flags |= HAS_PARTNER_ID;
+            records.putInt(position + PARTNER_ID, catalogueDTO.getPartnerId());
+        }
+        if (catalogueDTO.getDuration() != null) {
+            flags |= HAS_DURATION;
+            records.putInt(position + DURATION, catalogueDTO.getDuration());
+        }
+        if (catalogueDTO.getPrice() != null) {
+            flags |= HAS_PRICE;
+            records.putDouble(position + PRICE, catalogueDTO.getPrice());
+        }
+        if (catalogueDTO.getSessionDt() != null) {
+            flags |= HAS_SESSION_DT;
+            records.putLong(position + SESSION_SECONDS, catalogueDTO.getSessionDt().getEpochSecond());
+            records.putInt(position + SESSION_NANOS, catalogueDTO.getSessionDt().getNano());
+        }
+        int offset = position + HEADER_BYTES;
+        if (description != null) {
+            flags |= HAS_DESCRIPTION;
+            offset = putBytes(offset, description);
+        }
+        if (username != null) {
+            flags |= HAS_USERNAME;
+            putBytes(offset, username);
+        }
+        records.put(position + FLAGS, (byte) flags);
+    }
+
+    private boolean isExpired(int position) {
+        return records.getLong(position + EXPIRES_AT) <= clock.getAsLong();
+    }
+
+    private CatalogueDTO decode(int position) {
+        int flags = records.get(position + FLAGS);
+        CatalogueDTO catalogueDTO = new CatalogueDTO();
+        catalogueDTO.setId(records.getLong(position + ID));
+        if ((flags & HAS_CATEGORY) != 0) {
+            catalogueDTO.setCategory(CATEGORIES[records.get(position + CATEGORY)]);
+        }
+        if ((flags & HAS_PARTNER_ID) != 0) {
+            catalogueDTO.setPartnerId(records.getInt(position + PARTNER_ID));
+        }
+        if ((flags & HAS_DURATION) != 0) {
+            catalogueDTO.setDuration(records.getInt(position + DURATION));
+        }
+        if ((flags & HAS_PRICE) != 0) {
+            catalogueDTO.setPrice(records.getDouble(position + PRICE));
+        }
+        if ((flags & HAS_SESSION_DT) != 0) {
+            catalogueDTO.setSessionDt(Instant.ofEpochSecond(records.getLong(position + SESSION_SECONDS), records.getInt(position + SESSION_NANOS)));
+        }
+        int offset = position + HEADER_BYTES;
+        if ((flags & HAS_DESCRIPTION) != 0) {
+            int length = getLength(offset);
+            offset += lengthBytes(length);
+            catalogueDTO.setDescription(getString(offset, length));
+            offset += length;
+        }
+        if ((flags & HAS_USERNAME) != 0) {
+            int length = getLength(offset);
+            catalogueDTO.setUsername(getString(offset + lengthBytes(length), length));
+        }
+        return catalogueDTO;
+    }
+
+    private static long encodedLength(byte[] bytes) {
+        return bytes == null ? 0 : lengthBytes(bytes.length) + (long) bytes.length;
+    }
+
+    /**
+     * The lengths are variable-length integers of 7 bits per byte, so that short strings take one byte more.
+     */
+    private static int lengthBytes(int length) {
+        return length < 1 << 7 ? 1 : length < 1 << 14 ? 2 : length < 1 << 21 ? 3 : length < 1 << 28 ? 4 : 5;
+    }
+
+    private int putBytes(int offset, byte[] bytes) {
+        int length = bytes.length;
+        while (length >= 0x80) {
+            records.put(offset++, (byte) (length | 0x80));
+            length >>>= 7;
+        }
+        records.put(offset++, (byte) length);
+        // A duplicate has its own position, the buffer being read concurrently
+        ByteBuffer target = records.duplicate();
+        target.position(offset);
+        target.put(bytes);
+        return offset + bytes.length;
+    }
+
+    private int getLength(int offset) {
+        int length = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = records.get(offset++);
+            length |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return length;
+            }
+        }
+    }
+
+    private String getString(int offset, int length) {
+        byte[] bytes = new byte[length];
+        ByteBuffer source = records.duplicate();
+        source.position(offset);
+        source.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int stripe(long id) {
+        long hash = id * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 32) & (INVALIDATION_STRIPES - 1);
+    }
+}
@@ -0,0 +1,263 @@
+package com.gymmastercatalogue.app.service;
+
+import com.gymmastercatalogue.app.config.ApplicationProperties;
+import com.gymmastercatalogue.app.domain.enumeration.categoryEnum;
+import com.gymmastercatalogue.app.repository.CatalogueRepository;
+import com.gymmastercatalogue.app.service.dto.CatalogueCriteria;
+import com.gymmastercatalogue.app.service.dto.CatalogueDTO;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.map.AbstractEntryProcessor;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import io.github.jhipster.service.filter.Filter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Service caching the pages of {@link CatalogueDTO} returned for a {@link CatalogueCriteria}, in a Hazelcast map.
+ * <p>
+ * Entries are keyed by a hash of the canonical form of the criteria, where the values of {@code in} and
+ * {@code notIn} filters are sorted, of the requested page, and of the generations of the partners its criteria
+ * are restricted to, else of its categories, else of all the catalogues. Writing a catalogue increments the
+ * generations of its partner, of its category and of all the catalogues, so that the keys of the pages which may
+ * contain it change, without scanning the cached pages; the pages left behind expire after
+ * {@code application.cache.query-results.time-to-live-seconds}, which also bounds the staleness of a page computed
+ * while a write was being committed.
+ */
+@Service
+public class CatalogueQueryResultCache {
+
+    private final Logger log = LoggerFactory.getLogger(CatalogueQueryResultCache.class);
+
+    static final String ALL = "all";
+
+    static final String CATEGORY = "category:";
+
+    static final String PARTNER = "partner:";
+
+    private final IMap<String, CachedPage> results;
+
+    private final IMap<String, Long> generations;
+
+    private final boolean enabled;
+
+    public CatalogueQueryResultCache(HazelcastInstance hazelcastInstance, ApplicationProperties applicationProperties) {
+        this.results = hazelcastInstance.getMap(CatalogueRepository.QUERY_RESULTS_CACHE);
+        this.generations = hazelcastInstance.getMap(CatalogueRepository.QUERY_RESULTS_GENERATIONS);
+        this.enabled = applicationProperties.getCache().getQueryResults().isEnabled();
+    }
+
+    /**
+     * Get a page of catalogues from the cache, or load and cache it.
+     *
+     * @param criteria the criteria of the query.
+     * @param page the requested page.
+     * @param loader the query to run on a cache miss.
+     * @return the page of catalogues.
+     */
+    public Page<CatalogueDTO> get(CatalogueCriteria criteria, Pageable page, Supplier<Page<CatalogueDTO>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        String key = keyOf(criteria, page, generations.getAll(generationKeysOf(criteria)));
+        CachedPage cached = results.get(key);
+        if (cached != null) {
+            return new PageImpl<>(cached.content, page, cached.total);
+        }
+        Page<CatalogueDTO> result = loader.get();
+        results.set(key, new CachedPage(result.getContent(), result.getTotalElements()));
+        return result;
+    }
+
+    /**
+     * Make the cached pages which may contain a catalogue of the given category and partner unreachable.
+     *
+     * @param category the category of the written catalogue, or {@code null}.
+     * @param partnerId the partner of the written catalogue, or {@code null}.
+     */
+    public void invalidate(categoryEnum category, Integer partnerId) {
+        if (!enabled) {
+            return;
+        }
+        log.debug("Evicting Catalogue query results of category {} and partner {}", category, partnerId);
+        generations.executeOnKeys(new HashSet<>(Arrays.asList(ALL, CATEGORY + category, PARTNER + partnerId)),
+            new IncrementGeneration());
+    }
+
+    /**
+     * Get the generations a query depends on: those of the partners it is restricted to, else of its categories,
+     * else of all the catalogues.
+     */
+    static Set<String> generationKeysOf(CatalogueCriteria criteria) {
+        Set<String> partners = generationKeysOf(criteria.getPartnerId(), partnerId -> PARTNER + partnerId);
+        if (partners != null) {
+            return partners;
+        }
+        Set<String> categories = generationKeysOf(criteria.getCategory(), category -> CATEGORY + category);
+        return categories != null ? categories : Collections.singleton(ALL);
+    }
+
+    /**
+     * Hash the canonical form of a query and the generations it depends on, so that equivalent criteria share the
+     * same entry until a write changes these generations.
+     */
+    static String keyOf(CatalogueCriteria criteria, Pageable page, Map<String, Long> generations) {
+        CatalogueCriteria canonical = criteria.copy();
+        sortValues(canonical.getId());
+        sortValues(canonical.getDescription());
+        sortValues(canonical.getPrice());
+        sortValues(canonical.getDuration());
+        sortValues(canonical.getSessionDt());
+        sortValues(canonical.getCategory());
+        sortValues(canonical.getUsername());
+        sortValues(canonical.getPartnerId());
+        String query = canonical + "|" + (page.isPaged() ? page.getPageNumber() + "|" + page.getPageSize() : "unpaged")
+            + "|" + page.getSort() + "|" + new TreeMap<>(generations);
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(query.getBytes(StandardCharsets.UTF_8));
+            StringBuilder key = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                key.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return key.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Get the generations of the values a filter restricts a field to, or {@code null} when the field may take any value.
+     */
+    private static <T> Set<String> generationKeysOf(Filter<T> filter, Function<T, String> key) {
+        if (filter == null) {
+            return null;
+        }
+        if (filter.getEquals() != null) {
+            return Collections.singleton(key.apply(filter.getEquals()));
+        }
+        if (filter.getIn() != null) {
+            return filter.getIn().stream().map(key).collect(Collectors.toSet());
+        }
+        return null;
+    }
+
+    private static <T> void sortValues(Filter<T> filter) {
+        if (filter == null) {
+            return;
+        }
+        filter.setIn(sorted(filter.getIn()));
+        filter.setNotIn(sorted(filter.getNotIn()));
+    }
+
+    private static <T> List<T> sorted(List<T> values) {
+        if (values == null) {
+            return null;
+        }
+        return values.stream()
+            .sorted(Comparator.nullsFirst(Comparator.comparing(Object::toString)))
+            .distinct()
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * A cached page. Its catalogues are written by the Hazelcast serializer of {@link CatalogueDTO}.
+     */
+    static final class CachedPage implements IdentifiedDataSerializable {
+
+        private ArrayList<CatalogueDTO> content;
+
+        private long total;
+
+        CachedPage() {
+        }
+
+        CachedPage(List<CatalogueDTO> content, long total) {
+            this.content = new ArrayList<>(content);
+            this.total = total;
+        }
+
+        @Override
+        public int getFactoryId() {
+            return CatalogueDataSerializableFactory.FACTORY_ID;
+        }
+
+        @Override
+        public int getId() {
+            return CatalogueDataSerializableFactory.CACHED_PAGE;
+        }
+
+        @Override
+        public void writeData(ObjectDataOutput out) throws IOException {
+            out.writeInt(content.size());
+            for (CatalogueDTO catalogueDTO : content) {
+                out.writeObject(catalogueDTO);
+            }
+            out.writeLong(total);
+        }
+
+        @Override
+        public void readData(ObjectDataInput in) throws IOException {
+            int size = in.readInt();
+            content = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                content.add(in.readObject());
+            }
+            total = in.readLong();
+        }
+    }
+
+    /**
+     * Increments a generation, on the member owning it.
+     */
+    static final class IncrementGeneration extends AbstractEntryProcessor<String, Long> implements IdentifiedDataSerializable {
+
+        @Override
+        public Object process(Map.Entry<String, Long> entry) {
+            Long generation = entry.getValue();
+            entry.setValue(generation == null ? 1 : generation + 1);
+            return null;
+        }
+
+        @Override
+        public int getFactoryId() {
+            return CatalogueDataSerializableFactory.FACTORY_ID;
+        }
+
+        @Override
+        public int getId() {
+            return CatalogueDataSerializableFactory.INCREMENT_GENERATION;
+        }
+
+        @Override
+        public void writeData(ObjectDataOutput out) {
+        }
+
+        @Override
+        public void readData(ObjectDataInput in) {
+        }
+    }
+}
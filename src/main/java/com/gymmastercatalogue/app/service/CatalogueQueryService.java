@@ -1,16 +1,37 @@
 package com.gymmastercatalogue.app.service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import io.github.jhipster.service.QueryService;
 
@@ -26,12 +47,26 @@ import com.gymmastercatalogue.app.service.mapper.CatalogueMapper;
  * Service for executing complex queries for {@link Catalogue} entities in the database.
  * The main input is a {@link CatalogueCriteria} which gets converted to {@link Specification},
  * in a way that all the filters must apply.
- * It returns a {@link List} of {@link CatalogueDTO} or a {@link Page} of {@link CatalogueDTO} which fulfills the criteria.
+ * It returns a {@link List} of {@link CatalogueDTO} or a {@link Page} of {@link CatalogueDTO} which fulfills the criteria,
+ * or a {@link Slice} of {@link CatalogueDTO} following a cursor for deep scrolling.
+ * <p>
+ * The queries answered by the {@link CatalogueColumnarIndex} or the {@link CatalogueQueryResultCache} are routed
+ * before any transaction is started, so that they don't hold a JDBC connection; the others then run in a read-only
+ * transaction.
  */
 @Service
 @Transactional(readOnly = true)
 public class CatalogueQueryService extends QueryService<Catalogue> {
 
+    private static final Map<String, KeysetProperty<?>> KEYSET_PROPERTIES = new HashMap<>();
+
+    static {
+        KEYSET_PROPERTIES.put("id", new KeysetProperty<>("id", false, Long::valueOf, CatalogueDTO::getId));
+        KEYSET_PROPERTIES.put("sessionDt", new KeysetProperty<>("sessionDt", true, Instant::parse, CatalogueDTO::getSessionDt));
+        KEYSET_PROPERTIES.put("partnerId", new KeysetProperty<>("partnerId", false, Integer::valueOf, CatalogueDTO::getPartnerId));
+        KEYSET_PROPERTIES.put("username", new KeysetProperty<>("username", false, Function.identity(), CatalogueDTO::getUsername));
+    }
+
     private final Logger log = LoggerFactory.getLogger(CatalogueQueryService.class);
 
     private final CatalogueRepository catalogueRepository;
@@ -40,48 +75,226 @@ public class CatalogueQueryService extends QueryService<Catalogue> {
 
     private final CatalogueSearchRepository catalogueSearchRepository;
 
-    public CatalogueQueryService(CatalogueRepository catalogueRepository, CatalogueMapper catalogueMapper, CatalogueSearchRepository catalogueSearchRepository) {
+    private final CacheManager cacheManager;
+
+    private final CatalogueQueryShapeRecorder catalogueQueryShapeRecorder;
+
+    private final CatalogueQueryResultCache catalogueQueryResultCache;
+
+    private final CatalogueColumnarIndex catalogueColumnarIndex;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    public CatalogueQueryService(CatalogueRepository catalogueRepository, CatalogueMapper catalogueMapper, CatalogueSearchRepository catalogueSearchRepository,
+                                 CacheManager cacheManager, CatalogueQueryShapeRecorder catalogueQueryShapeRecorder,
+                                 CatalogueQueryResultCache catalogueQueryResultCache, CatalogueColumnarIndex catalogueColumnarIndex,
+                                 PlatformTransactionManager transactionManager) {
         this.catalogueRepository = catalogueRepository;
         this.catalogueMapper = catalogueMapper;
         this.catalogueSearchRepository = catalogueSearchRepository;
+        this.cacheManager = cacheManager;
+        this.catalogueQueryShapeRecorder = catalogueQueryShapeRecorder;
+        this.catalogueQueryResultCache = catalogueQueryResultCache;
+        this.catalogueColumnarIndex = catalogueColumnarIndex;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
     }
 
     /**
-     * Return a {@link List} of {@link CatalogueDTO} which matches the criteria from the database.
+     * Return a {@link List} of {@link CatalogueDTO} which matches the criteria from the database,
+     * or from the {@link CatalogueColumnarIndex} when it supports them.
      * @param criteria The object which holds all the filters, which the entities should match.
      * @return the matching entities.
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<CatalogueDTO> findByCriteria(CatalogueCriteria criteria) {
         log.debug("find by criteria : {}", criteria);
-        final Specification<Catalogue> specification = createSpecification(criteria);
-        return catalogueMapper.toDto(catalogueRepository.findAll(specification));
+        if (catalogueColumnarIndex.supports(criteria, Sort.unsorted())) {
+            return catalogueColumnarIndex.find(criteria);
+        }
+        return readOnlyTransaction.execute(status -> {
+            catalogueQueryShapeRecorder.record("list", criteria, Sort.unsorted());
+            final Specification<Catalogue> specification = createSpecification(criteria);
+            return catalogueMapper.toDto(catalogueRepository.findAll(specification));
+        });
     }
 
     /**
-     * Return a {@link Page} of {@link CatalogueDTO} which matches the criteria from the database.
+     * Return a {@link Page} of {@link CatalogueDTO} which matches the criteria from the {@link CatalogueColumnarIndex}
+     * when it supports them, else from the database or the {@link CatalogueQueryResultCache}.
      * @param criteria The object which holds all the filters, which the entities should match.
      * @param page The page, which should be returned.
      * @return the matching entities.
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Page<CatalogueDTO> findByCriteria(CatalogueCriteria criteria, Pageable page) {
         log.debug("find by criteria : {}, page: {}", criteria, page);
+        if (catalogueColumnarIndex.supports(criteria, page.getSort())) {
+            return catalogueColumnarIndex.find(criteria, page);
+        }
+        return catalogueQueryResultCache.get(criteria, page, () -> readOnlyTransaction.execute(status -> {
+            catalogueQueryShapeRecorder.record("page", criteria, page.getSort());
+            final Specification<Catalogue> specification = createSpecification(criteria);
+            Page<CatalogueDTO> result = catalogueRepository.findAll(specification, page)
+                .map(catalogueMapper::toDto);
+            getCountsCache().put(countKey(criteria), result.getTotalElements());
+            return result;
+        }));
+    }
+
+    /**
+     * Return a {@link Slice} of {@link CatalogueDTO} which matches the criteria from the database, without counting them.
+     * One extra row is read to know if there is a next slice. The {@link CatalogueColumnarIndex} answers the queries it
+     * supports with a counted page, which costs it nothing more.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @return the matching entities.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Slice<CatalogueDTO> findSliceByCriteria(CatalogueCriteria criteria, Pageable page) {
+        log.debug("find slice by criteria : {}, page: {}", criteria, page);
+        if (catalogueColumnarIndex.supports(criteria, page.getSort())) {
+            return catalogueColumnarIndex.find(criteria, page);
+        }
+        return readOnlyTransaction.execute(status -> {
+            catalogueQueryShapeRecorder.record("slice", criteria, page.getSort());
+            final Specification<Catalogue> specification = createSpecification(criteria);
+            return catalogueRepository.findSlice(specification, page)
+                .map(catalogueMapper::toDto);
+        });
+    }
+
+    /**
+     * Return a {@link Page} of {@link CatalogueDTO} which matches the criteria from the database, with an approximate total.
+     * The total comes from {@link #approximateCountByCriteria(CatalogueCriteria)}, unless the page is the last one.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @return the matching entities.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Page<CatalogueDTO> findByCriteriaWithApproximateCount(CatalogueCriteria criteria, Pageable page) {
+        Slice<CatalogueDTO> slice = findSliceByCriteria(criteria, page);
+        long offset = page.isPaged() ? page.getOffset() : 0;
+        long seen = offset + slice.getNumberOfElements();
+        long total;
+        if (!slice.hasNext() && (slice.hasContent() || offset == 0)) {
+            total = seen;
+        } else {
+            // A stale count must not end the pagination before the rows just read
+            total = Math.max(approximateCountByCriteria(criteria), slice.hasNext() ? seen + 1 : seen);
+        }
+        return new PageImpl<>(slice.getContent(), page, total);
+    }
+
+    /**
+     * Return a {@link Slice} of {@link CatalogueDTO} which matches the criteria from the database, following a cursor.
+     * The rows are read with a seek predicate on the sort property and the id, so the cost of a slice does not depend on
+     * how deep it is, and no count query is issued. Rows without a value for the sort property come last.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param after The cursor of the previous slice, see {@link #nextCursor(Slice)}, or an empty string for the first slice.
+     * @param page The size and sort of the slice, sorted by at most one of id, sessionDt, partnerId or username.
+     * @return the matching entities.
+     * @throws IllegalArgumentException if the sort is not supported, or the cursor is invalid.
+     */
+    @Transactional(readOnly = true)
+    public Slice<CatalogueDTO> findByCriteria(CatalogueCriteria criteria, String after, Pageable page) {
+        log.debug("find by criteria : {}, after: {}, page: {}", criteria, after, page);
+        final Sort.Order order = keysetOrder(page.getSort());
+        final KeysetProperty<?> key = KEYSET_PROPERTIES.get(order.getProperty());
+        final Cursor cursor = after.isEmpty() ? null : Cursor.decode(after, order);
         final Specification<Catalogue> specification = createSpecification(criteria);
-        return catalogueRepository.findAll(specification, page)
-            .map(catalogueMapper::toDto);
+        final Sort sort = key.isId() ? Sort.by(order) : Sort.by(order, new Sort.Order(order.getDirection(), "id"));
+        catalogueQueryShapeRecorder.record("cursor", criteria, sort);
+        final int limit = page.getPageSize() + 1;
+        List<Catalogue> catalogues = new ArrayList<>(limit);
+        if (cursor == null || cursor.value != null) {
+            catalogues.addAll(catalogueRepository.findTop(specification.and(key.seek(order.getDirection(), cursor)), sort, limit));
+        }
+        if (key.nullable && catalogues.size() < limit) {
+            catalogues.addAll(catalogueRepository.findTop(specification.and(key.seekNull(order.getDirection(), cursor)),
+                Sort.by(order.getDirection(), "id"), limit - catalogues.size()));
+        }
+        boolean hasNext = catalogues.size() == limit;
+        List<CatalogueDTO> content = catalogueMapper.toDto(hasNext ? catalogues.subList(0, page.getPageSize()) : catalogues);
+        return new SliceImpl<>(content, PageRequest.of(0, page.getPageSize(), sort), hasNext);
+    }
+
+    /**
+     * Return the cursor of the slice following the given one.
+     * @param slice The slice returned by {@link #findByCriteria(CatalogueCriteria, String, Pageable)}.
+     * @return the opaque cursor of the next slice, or {@code null} if this is the last slice.
+     */
+    public String nextCursor(Slice<CatalogueDTO> slice) {
+        if (!slice.hasNext() || !slice.hasContent()) {
+            return null;
+        }
+        Sort.Order order = slice.getSort().iterator().next();
+        CatalogueDTO last = slice.getContent().get(slice.getNumberOfElements() - 1);
+        return Cursor.encode(order, KEYSET_PROPERTIES.get(order.getProperty()).getter.apply(last), last.getId());
     }
 
     /**
-     * Return the number of matching entities in the database.
+     * Pass each {@link CatalogueDTO} which matches the criteria from the database to a consumer, in id order.
+     * The rows are read through a forward-only cursor and released one by one, so that exporting millions of them
+     * runs in constant memory; the transaction stays open until the consumer took the last one.
      * @param criteria The object which holds all the filters, which the entities should match.
+     * @param consumer The consumer of the matching entities.
      * @return the number of matching entities.
      */
     @Transactional(readOnly = true)
+    public long exportByCriteria(CatalogueCriteria criteria, Consumer<CatalogueDTO> consumer) {
+        log.debug("export by criteria : {}", criteria);
+        catalogueQueryShapeRecorder.record("export", criteria, Sort.by("id"));
+        final Specification<Catalogue> specification = createSpecification(criteria);
+        return catalogueRepository.forEach(specification, Sort.by("id"), catalogue -> consumer.accept(catalogueMapper.toDto(catalogue)));
+    }
+
+    /**
+     * Return the number of matching entities in the database, or in the {@link CatalogueColumnarIndex} when it supports
+     * the criteria.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the number of matching entities.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public long countByCriteria(CatalogueCriteria criteria) {
         log.debug("count by criteria : {}", criteria);
+        if (catalogueColumnarIndex.supports(criteria, Sort.unsorted())) {
+            return catalogueColumnarIndex.count(criteria);
+        }
+        catalogueQueryShapeRecorder.record("count", criteria, Sort.unsorted());
         final Specification<Catalogue> specification = createSpecification(criteria);
-        return catalogueRepository.count(specification);
+        long count = readOnlyTransaction.execute(status -> catalogueRepository.count(specification));
+        getCountsCache().put(countKey(criteria), count);
+        return count;
+    }
+
+    /**
+     * Return the number of matching entities, from the counts cache when available.
+     * Cached counts are refreshed by exact counts, and expire after
+     * {@code application.query.count-cache.time-to-live-seconds}: they can be stale, but not older than that.
+     * The {@link CatalogueColumnarIndex} counts the criteria it supports as cheaply, without the cache.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the approximate number of matching entities.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public long approximateCountByCriteria(CatalogueCriteria criteria) {
+        log.debug("approximate count by criteria : {}", criteria);
+        if (catalogueColumnarIndex.supports(criteria, Sort.unsorted())) {
+            return catalogueColumnarIndex.count(criteria);
+        }
+        Long count = getCountsCache().get(countKey(criteria), () -> {
+            catalogueQueryShapeRecorder.record("count", criteria, Sort.unsorted());
+            return readOnlyTransaction.execute(status -> catalogueRepository.count(createSpecification(criteria)));
+        });
+        return count == null ? 0 : count;
+    }
+
+    private Cache getCountsCache() {
+        return cacheManager.getCache(CatalogueRepository.COUNTS_CACHE);
+    }
+
+    private static String countKey(CatalogueCriteria criteria) {
+        return String.valueOf(criteria);
     }
 
     /**
@@ -116,7 +329,145 @@ public class CatalogueQueryService extends QueryService<Catalogue> {
             if (criteria.getPartnerId() != null) {
                 specification = specification.and(buildRangeSpecification(criteria.getPartnerId(), Catalogue_.partnerId));
             }
+            if (criteria.getSessionOverlap() != null) {
+                specification = specification.and(buildSessionOverlapSpecification(criteria.getSessionOverlap()));
+            }
         }
         return specification;
     }
+
+    /**
+     * Build the specification of the sessions running during a period: they end after its start, a range read from the
+     * index on the session end, and start before its end, checked on the second column of that index.
+     */
+    private static Specification<Catalogue> buildSessionOverlapSpecification(CatalogueCriteria.SessionOverlapFilter filter) {
+        return (root, query, builder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(builder.isNotNull(root.get(Catalogue_.sessionDt)));
+            if (filter.getFrom() != null) {
+                predicates.add(builder.greaterThan(root.get(Catalogue_.sessionEnd), filter.getFrom()));
+            }
+            if (filter.getTo() != null) {
+                predicates.add(builder.lessThan(root.get(Catalogue_.sessionDt), filter.getTo()));
+            }
+            return builder.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    private static Sort.Order keysetOrder(Sort sort) {
+        Iterator<Sort.Order> orders = sort.iterator();
+        if (!orders.hasNext()) {
+            return Sort.Order.asc("id");
+        }
+        Sort.Order order = orders.next();
+        Sort.Order tieBreaker = orders.hasNext() ? orders.next() : null;
+        if (!KEYSET_PROPERTIES.containsKey(order.getProperty()) || orders.hasNext() || (tieBreaker != null
+            && (!"id".equals(tieBreaker.getProperty()) || tieBreaker.getDirection() != order.getDirection()))) {
+            throw new IllegalArgumentException("Unsupported sort for cursor pagination: " + sort);
+        }
+        return new Sort.Order(order.getDirection(), order.getProperty());
+    }
+
+    /**
+     * A property catalogues can be scrolled by, with the id as tie-breaker.
+     */
+    private static final class KeysetProperty<T extends Comparable<? super T>> {
+
+        private final String name;
+
+        private final boolean nullable;
+
+        private final Function<String, T> parser;
+
+        private final Function<CatalogueDTO, Object> getter;
+
+        private KeysetProperty(String name, boolean nullable, Function<String, T> parser, Function<CatalogueDTO, Object> getter) {
+            this.name = name;
+            this.nullable = nullable;
+            this.parser = parser;
+            this.getter = getter;
+        }
+
+        private boolean isId() {
+            return "id".equals(name);
+        }
+
+        /**
+         * Catalogues with a value for this property, after the cursor.
+         */
+        private Specification<Catalogue> seek(Sort.Direction direction, Cursor cursor) {
+            return (root, query, builder) -> {
+                Path<T> path = root.get(name);
+                if (cursor == null) {
+                    return nullable ? builder.isNotNull(path) : null;
+                }
+                T value = parse(cursor.value);
+                Predicate beyond = direction.isAscending() ? builder.greaterThan(path, value) : builder.lessThan(path, value);
+                if (isId()) {
+                    return beyond;
+                }
+                Path<Long> id = root.get("id");
+                return builder.or(beyond, builder.and(builder.equal(path, value),
+                    direction.isAscending() ? builder.greaterThan(id, cursor.id) : builder.lessThan(id, cursor.id)));
+            };
+        }
+
+        /**
+         * Catalogues without a value for this property, after the cursor.
+         */
+        private Specification<Catalogue> seekNull(Sort.Direction direction, Cursor cursor) {
+            return (root, query, builder) -> {
+                Predicate isNull = builder.isNull(root.get(name));
+                if (cursor == null || cursor.value != null) {
+                    return isNull;
+                }
+                Path<Long> id = root.get("id");
+                return builder.and(isNull, direction.isAscending() ? builder.greaterThan(id, cursor.id) : builder.lessThan(id, cursor.id));
+            };
+        }
+
+        private T parse(String value) {
+            try {
+                return parser.apply(value);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor value for " + name, e);
+            }
+        }
+    }
+
+    /**
+     * The position after the last catalogue of a slice: its sort value and id, encoded as an opaque token.
+     */
+    private static final class Cursor {
+
+        private static final String SEPARATOR = "|";
+
+        private final Long id;
+
+        private final String value;
+
+        private Cursor(Long id, String value) {
+            this.id = id;
+            this.value = value;
+        }
+
+        private static String encode(Sort.Order order, Object value, Long id) {
+            String token = order.getProperty() + SEPARATOR + order.getDirection() + SEPARATOR + id
+                + (value == null ? "" : SEPARATOR + value);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+        }
+
+        private static Cursor decode(String token, Sort.Order order) {
+            String[] parts;
+            try {
+                parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|", 4);
+                if (parts.length < 3 || !order.getProperty().equals(parts[0]) || !order.getDirection().name().equals(parts[1])) {
+                    throw new IllegalArgumentException("Cursor does not match the sort " + order);
+                }
+                return new Cursor(Long.valueOf(parts[2]), parts.length == 4 ? parts[3] : null);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + token, e);
+            }
+        }
+    }
 }
@@ -0,0 +1,134 @@
+package com.gymmastercatalogue.app.service;
+
+import com.gymmastercatalogue.app.service.dto.CatalogueCriteria;
+
+import io.github.jhipster.service.filter.Filter;
+import io.github.jhipster.service.filter.RangeFilter;
+import io.github.jhipster.service.filter.StringFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service recording the shape of the {@link CatalogueCriteria} queries sent to the database: which filters and
+ * operators are combined, and how the result is sorted, but not the filter values.
+ * <p>
+ * Each shape is counted in the {@code catalogue.query.shapes} metric and logged at debug level, to check that the
+ * combinations clients actually send are covered by the indexes of the {@code catalogue} table.
+ * At most {@link #MAX_SHAPES} distinct criteria and sort shapes are tagged, the others are counted as {@code other}.
+ */
+@Service
+public class CatalogueQueryShapeRecorder {
+
+    static final int MAX_SHAPES = 200;
+
+    static final String OTHER = "other";
+
+    private final Logger log = LoggerFactory.getLogger(CatalogueQueryShapeRecorder.class);
+
+    private final MeterRegistry meterRegistry;
+
+    private final Set<String> criteriaShapes = ConcurrentHashMap.newKeySet();
+
+    private final Set<String> sortShapes = ConcurrentHashMap.newKeySet();
+
+    public CatalogueQueryShapeRecorder(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Record a query about to be sent to the database.
+     *
+     * @param operation the kind of query, like {@code page} or {@code count}.
+     * @param criteria the criteria of the query.
+     * @param sort the order of the query.
+     */
+    public void record(String operation, CatalogueCriteria criteria, Sort sort) {
+        String criteriaShape = shapeOf(criteria);
+        String sortShape = shapeOf(sort);
+        log.debug("Catalogue {} query shape: criteria [{}], sort [{}]", operation, criteriaShape, sortShape);
+        Counter.builder("catalogue.query.shapes")
+            .description("Catalogue queries sent to the database, by combination of criteria")
+            .tag("operation", operation)
+            .tag("criteria", bounded(criteriaShapes, criteriaShape))
+            .tag("sort", bounded(sortShapes, sortShape))
+            .register(meterRegistry)
+            .increment();
+    }
+
+    static String shapeOf(CatalogueCriteria criteria) {
+        Set<String> parts = new TreeSet<>();
+        if (criteria != null) {
+            addOperators(parts, "id", criteria.getId());
+            addOperators(parts, "description", criteria.getDescription());
+            addOperators(parts, "price", criteria.getPrice());
+            addOperators(parts, "duration", criteria.getDuration());
+            addOperators(parts, "sessionDt", criteria.getSessionDt());
+            addOperators(parts, "category", criteria.getCategory());
+            addOperators(parts, "username", criteria.getUsername());
+            addOperators(parts, "partnerId", criteria.getPartnerId());
+            if (criteria.getSessionOverlap() != null) {
+                addOperator(parts, "sessionOverlap", "from", criteria.getSessionOverlap().getFrom());
+                addOperator(parts, "sessionOverlap", "to", criteria.getSessionOverlap().getTo());
+            }
+        }
+        return parts.isEmpty() ? "none" : String.join(",", parts);
+    }
+
+    static String shapeOf(Sort sort) {
+        if (sort == null || sort.isUnsorted()) {
+            return "none";
+        }
+        StringJoiner joiner = new StringJoiner(",");
+        sort.forEach(order -> joiner.add(order.getProperty() + "." + order.getDirection().name().toLowerCase()));
+        return joiner.toString();
+    }
+
+    private static String bounded(Set<String> shapes, String shape) {
+        if (shapes.contains(shape)) {
+            return shape;
+        }
+        if (shapes.size() >= MAX_SHAPES) {
+            return OTHER;
+        }
+        shapes.add(shape);
+        return shape;
+    }
+
+    private static void addOperators(Set<String> parts, String field, Filter<?> filter) {
+        if (filter == null) {
+            return;
+        }
+        addOperator(parts, field, "equals", filter.getEquals());
+        addOperator(parts, field, "notEquals", filter.getNotEquals());
+        addOperator(parts, field, "in", filter.getIn());
+        addOperator(parts, field, "notIn", filter.getNotIn());
+        addOperator(parts, field, "specified", filter.getSpecified());
+        if (filter instanceof RangeFilter) {
+            RangeFilter<?> rangeFilter = (RangeFilter<?>) filter;
+            addOperator(parts, field, "greaterThan", rangeFilter.getGreaterThan());
+            addOperator(parts, field, "greaterThanOrEqual", rangeFilter.getGreaterThanOrEqual());
+            addOperator(parts, field, "lessThan", rangeFilter.getLessThan());
+            addOperator(parts, field, "lessThanOrEqual", rangeFilter.getLessThanOrEqual());
+        }
+        if (filter instanceof StringFilter) {
+            StringFilter stringFilter = (StringFilter) filter;
+            addOperator(parts, field, "contains", stringFilter.getContains());
+            addOperator(parts, field, "doesNotContain", stringFilter.getDoesNotContain());
+        }
+    }
+
+    private static void addOperator(Set<String> parts, String field, String operator, Object value) {
+        if (value != null) {
+            parts.add(field + "." + operator);
+        }
+    }
+}
@@ -0,0 +1,362 @@
+package com.gymmastercatalogue.app.service;
+
+import com.gymmastercatalogue.app.config.ApplicationProperties;
+import com.gymmastercatalogue.app.domain.Catalogue;
+import com.gymmastercatalogue.app.repository.CatalogueRepository;
+import com.gymmastercatalogue.app.repository.search.CatalogueSearchIndex;
+import com.gymmastercatalogue.app.service.dto.CatalogueReindexStatus;
+
+import com.google.gson.JsonObject;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import io.searchbox.action.Action;
+import io.searchbox.client.JestClient;
+import io.searchbox.client.JestResult;
+import io.searchbox.indices.aliases.AddAliasMapping;
+import io.searchbox.indices.aliases.AliasMapping;
+import io.searchbox.indices.aliases.GetAliases;
+import io.searchbox.indices.aliases.ModifyAliases;
+import io.searchbox.indices.aliases.RemoveAliasMapping;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service rebuilding the {@link Catalogue} Elasticsearch index from the database.
+ * <p>
+ * The catalogues are loaded into a new versioned index, named after the default index and created with the
+ * current mapping and settings, while searches keep using the current one. The id range is split into {@code parallelism * partitions-per-thread} partitions,
+ * each read in id order by keyset pagination on a fork-join pool of {@code parallelism} threads. Changes
+ * relayed during the reindex, by any node, are also sent to the new index, a shadow index of the
+ * {@link CatalogueBulkIndexer}; as documents are written with its external version, a catalogue read by the load
+ * before it was changed or deleted cannot overwrite the change. Once loaded, the default index name is moved
+ * to the new index as an alias, in a single atomic alias update, and the previous indices are deleted.
+ * <p>
+ * One reindex runs at a time in the cluster, holding the lock of {@link #JOB} in the Hazelcast map
+ * {@link #REINDEX_JOBS}, which is released if its node leaves the cluster. The next reindex then deletes the shadow
+ * indices left by that node.
+ */
+@Service
+public class CatalogueReindexService {
+
+    static final String REINDEX_JOBS = "catalogue-reindex-jobs";
+
+    static final String JOB = "reindex";
+
+    private static final DateTimeFormatter INDEX_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMddHHmmss").withZone(ZoneOffset.UTC);
+
+    private final Logger log = LoggerFactory.getLogger(CatalogueReindexService.class);
+
+    private final CatalogueRepository catalogueRepository;
+
+    private final CatalogueBulkIndexer catalogueBulkIndexer;
+
+    private final ElasticsearchOperations elasticsearchOperations;
+
+    private final CatalogueSearchIndex catalogueSearchIndex;
+
+    private final JestClient jestClient;
+
+    private final ApplicationProperties.Search.Reindex properties;
+
+    private final Executor taskExecutor;
+
+    private final IMap<String, String> jobs;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final AtomicLong indexed = new AtomicLong();
+
+    private volatile CatalogueReindexStatus.State state = CatalogueReindexStatus.State.IDLE;
+
+    private volatile String indexName;
+
+    private volatile Instant startedAt;
+
+    private volatile Instant finishedAt;
+
+    private volatile long total;
+
+    private volatile String error;
+
+    public CatalogueReindexService(CatalogueRepository catalogueRepository, CatalogueBulkIndexer catalogueBulkIndexer,
+                                   ElasticsearchOperations elasticsearchOperations, CatalogueSearchIndex catalogueSearchIndex,
+                                   JestClient jestClient, HazelcastInstance hazelcastInstance,
+                                   ApplicationProperties applicationProperties, @Qualifier("taskExecutor") Executor taskExecutor) {
+        this.catalogueRepository = catalogueRepository;
+        this.catalogueBulkIndexer = catalogueBulkIndexer;
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.catalogueSearchIndex = catalogueSearchIndex;
+        this.jestClient = jestClient;
+        this.properties = applicationProperties.getSearch().getReindex();
+        this.taskExecutor = taskExecutor;
+        this.jobs = hazelcastInstance.getMap(REINDEX_JOBS);
+    }
+
+    /**
+     * Start a full reindex on the async task executor, unless one is already running on this node. The reindex
+     * fails if another node is running one.
+     *
+     * @return the status of the reindex.
+     */
+    public CatalogueReindexStatus start() {
+        if (!running.compareAndSet(false, true)) {
+            return getStatus();
+        }
+        indexed.set(0);
+        total = 0;
+        error = null;
+        finishedAt = null;
+        startedAt = Instant.now();
+        indexName = catalogueBulkIndexer.getDefaultIndexName() + "_" + INDEX_SUFFIX.format(startedAt);
+        state = CatalogueReindexStatus.State.RUNNING;
+        try {
+            taskExecutor.execute(this::reindex);
+        } catch (RejectedExecutionException e) {
+            finish(CatalogueReindexStatus.State.FAILED, e.getMessage());
+        }
+        return getStatus();
+    }
+
+    /**
+     * Get the progress of the current, or last, reindex.
+     *
+     * @return the status of the reindex.
+     */
+    public CatalogueReindexStatus getStatus() {
+        CatalogueReindexStatus status = new CatalogueReindexStatus();
+        status.setState(state);
+        status.setIndexName(indexName);
+        status.setStartedAt(startedAt);
+        status.setFinishedAt(finishedAt);
+        status.setTotal(total);
+        long done = indexed.get();
+        status.setIndexed(done);
+        if (startedAt != null) {
+            Instant end = finishedAt != null ? finishedAt : Instant.now();
+            double seconds = Math.max(1, Duration.between(startedAt, end).toMillis()) / 1000.0;
+            double docsPerSecond = done / seconds;
+            status.setDocsPerSecond(docsPerSecond);
+            if (state == CatalogueReindexStatus.State.RUNNING && docsPerSecond > 0) {
+                status.setEtaSeconds((long) Math.ceil(Math.max(0, total - done) / docsPerSecond));
+            }
+        }
+        status.setError(error);
+        return status;
+    }
+
+    void reindex() {
+        String alias = catalogueBulkIndexer.getDefaultIndexName();
+        String newIndex = indexName;
+        // The lock is held by this thread until the reindex finishes, or released by the cluster if the node leaves it
+        try {
+            if (!jobs.tryLock(JOB)) {
+                log.warn("Not reindexing Catalogues into {}, as another node is reindexing them", newIndex);
+                finish(CatalogueReindexStatus.State.FAILED, "A reindex is already running on another node");
+                return;
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to lock the Catalogue reindex", e);
+            finish(CatalogueReindexStatus.State.FAILED, e.getMessage());
+            return;
+        }
+        String failure;
+        try {
+            failure = reindex(alias, newIndex);
+        } finally {
+            jobs.unlock(JOB);
+        }
+        finish(failure == null ? CatalogueReindexStatus.State.COMPLETED : CatalogueReindexStatus.State.FAILED, failure);
+    }
+
+    /**
+     * @return the error of the reindex, or {@code null} if it completed.
+     */
+    private String reindex(String alias, String newIndex) {
+        log.info("Reindexing Catalogues into {}", newIndex);
+        try {
+            deleteAbandonedIndices(alias);
+            catalogueSearchIndex.create(newIndex, Collections.singletonMap("index.refresh_interval", "-1"));
+            catalogueBulkIndexer.addShadowIndex(newIndex);
+
+            total = catalogueRepository.count();
+            load(newIndex);
+
+            catalogueSearchIndex.updateSettings(newIndex);
+            elasticsearchOperations.refresh(newIndex);
+            Set<String> previousIndices = swapAlias(alias, newIndex);
+            catalogueBulkIndexer.removeShadowIndex(newIndex);
+            previousIndices.forEach(elasticsearchOperations::deleteIndex);
+            log.info("Reindexed {} Catalogues into {}", indexed.get(), newIndex);
+            return null;
+        } catch (Exception e) {
+            log.error("Failed to reindex Catalogues into {}", newIndex, e);
+            catalogueBulkIndexer.removeShadowIndex(newIndex);
+            try {
+                elasticsearchOperations.deleteIndex(newIndex);
+            } catch (RuntimeException cleanup) {
+                log.warn("Failed to delete index {}: {}", newIndex, cleanup.getMessage());
+            }
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            return e.getMessage();
+        }
+    }
+
+    /**
+     * Delete the shadow indices of the reindexes which stopped with their node, as the lock of the current one
+     * guarantees that no other reindex is running. An index the alias was already moved to is kept.
+     */
+    private void deleteAbandonedIndices(String alias) throws IOException {
+        Set<String> aliased = getIndicesFromAlias(alias);
+        for (String abandoned : catalogueBulkIndexer.getShadowIndexNames()) {
+            catalogueBulkIndexer.removeShadowIndex(abandoned);
+            if (!aliased.contains(abandoned) && elasticsearchOperations.indexExists(abandoned)) {
+                log.warn("Deleting index {} of an interrupted reindex", abandoned);
+                elasticsearchOperations.deleteIndex(abandoned);
+            }
+        }
+    }
+
+    private void load(String newIndex) throws InterruptedException, ExecutionException {
+        Long minId = catalogueRepository.findMinId();
+        Long maxId = catalogueRepository.findMaxId();
+        if (minId == null) {
+            return;
+        }
+        int partitions = Math.max(1, properties.getParallelism() * properties.getPartitionsPerThread());
+        long span = Math.max(1, (maxId - minId) / partitions + 1);
+        ForkJoinPool pool = new ForkJoinPool(properties.getParallelism());
+        try {
+            List<ForkJoinTask<?>> tasks = new ArrayList<>(partitions);
+            for (long after = minId - 1; after < maxId; after += span) {
+                long from = after;
+                long upTo = Math.min(maxId, after + span);
+                tasks.add(pool.submit(() -> loadPartition(newIndex, from, upTo)));
+            }
+            for (ForkJoinTask<?> task : tasks) {
+                task.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Load the catalogues with an id in {@code (after, upTo]}, one page at a time, with one page
+     * in flight in the bulk indexer while the next one is read.
+     */
+    private void loadPartition(String newIndex, long after, long upTo) {
+        PageRequest page = PageRequest.of(0, properties.getBatchSize());
+        CompletableFuture<Void> inFlight = CompletableFuture.completedFuture(null);
+        List<Catalogue> catalogues;
+        do {
+            catalogues = catalogueRepository.findByIdGreaterThanAndIdLessThanEqualOrderByIdAsc(after, upTo, page);
+            inFlight.join();
+            if (catalogues.isEmpty()) {
+                break;
+            }
+            int size = catalogues.size();
+            inFlight = catalogueBulkIndexer.index(newIndex, catalogues).thenRun(() -> indexed.addAndGet(size));
+            after = catalogues.get(size - 1).getId();
+        } while (catalogues.size() == page.getPageSize());
+        inFlight.join();
+    }
+
+    /**
+     * Point the alias to the new index only, in one atomic alias update. The first time, the alias
+     * name is still a concrete index, which is removed in the same update.
+     *
+     * @return the indices the alias pointed to before.
+     */
+    private Set<String> swapAlias(String alias, String newIndex) throws IOException {
+        Set<String> previousIndices = getIndicesFromAlias(alias);
+        List<AliasMapping> actions = new ArrayList<>();
+        if (previousIndices.isEmpty() && elasticsearchOperations.indexExists(alias)) {
+            actions.add(new RemoveIndexMapping(alias));
+        } else if (!previousIndices.isEmpty()) {
+            actions.add(new RemoveAliasMapping.Builder(new ArrayList<>(previousIndices), alias).build());
+        }
+        actions.add(new AddAliasMapping.Builder(newIndex, alias).build());
+        execute(new ModifyAliases.Builder(actions).build());
+        return previousIndices;
+    }
+
+    private Set<String> getIndicesFromAlias(String alias) throws IOException {
+        JestResult result = jestClient.execute(new GetAliases.Builder().addAlias(alias).build());
+        if (!result.isSucceeded()) {
+            return Collections.emptySet();
+        }
+        Set<String> indices = new LinkedHashSet<>();
+        JsonObject json = result.getJsonObject();
+        json.keySet().forEach(indices::add);
+        return indices;
+    }
+
+    private void execute(Action<? extends JestResult> action) throws IOException {
+        JestResult result = jestClient.execute(action);
+        if (!result.isSucceeded()) {
+            throw new IllegalStateException(result.getErrorMessage());
+        }
+    }
+
+    private void finish(CatalogueReindexStatus.State state, String error) {
+        this.error = error;
+        this.finishedAt = Instant.now();
+        this.state = state;
+        running.set(false);
+    }
+
+    /**
+     * Alias action removing a concrete index, so that its name can become an alias in the same update.
+     */
+    private static final class RemoveIndexMapping extends AliasMapping {
+
+        private RemoveIndexMapping(String index) {
+            indices.add(index);
+        }
+
+        @Override
+        public String getType() {
+            return "remove_index";
+        }
+
+        @Override
+        public List<Map<String, Object>> getData() {
+            List<Map<String, Object>> data = new ArrayList<>();
+            for (String index : indices) {
+                Map<String, Object> action = new HashMap<>();
+                action.put("index", index);
+                Map<String, Object> wrapper = new HashMap<>();
+                wrapper.put(getType(), action);
+                data.add(wrapper);
+            }
+            return data;
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.gymmastercatalogue.app.service;
+
+import com.gymmastercatalogue.app.config.ApplicationProperties;
+import com.gymmastercatalogue.app.domain.Catalogue;
+import com.gymmastercatalogue.app.domain.CatalogueOutboxEvent;
+import com.gymmastercatalogue.app.domain.enumeration.OutboxOperation;
+import com.gymmastercatalogue.app.repository.CatalogueOutboxEventRepository;
+import com.gymmastercatalogue.app.repository.CatalogueRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service relaying {@link CatalogueOutboxEvent}s to Elasticsearch.
+ * <p>
+ * Catalogue writes only record an outbox row in their own transaction; this relay drains the
+ * outbox in batches on the async task executor, so write latency does not depend on Elasticsearch.
+ * Each batch is handed to the {@link CatalogueBulkIndexer} and removed once Elasticsearch acknowledged it.
+ * Within a batch the last operation per catalogue wins, and changes are applied in catalogue id order.
+ * <p>
+ * Every node runs a relay: each batch is first claimed by the node for {@code application.search.outbox.claim-timeout-ms},
+ * so that the nodes drain different events, and the events of a node which stopped while relaying them are claimed
+ * again once their claim expired. A failed batch is released and retried with exponential backoff; its events are
+ * dead-lettered after {@code application.search.outbox.max-attempts} attempts, and kept in the outbox without being
+ * relayed until their {@code deadLetteredDate} is cleared.
+ */
+@Service
+public class CatalogueSearchOutboxRelay {
+
+    private static final long MAX_BACKOFF_MS = 60_000;
+
+    private static final long ACKNOWLEDGE_TIMEOUT_MS = 120_000;
+
+    private final Logger log = LoggerFactory.getLogger(CatalogueSearchOutboxRelay.class);
+
+    private final CatalogueOutboxEventRepository catalogueOutboxEventRepository;
+
+    private final CatalogueRepository catalogueRepository;
+
+    private final CatalogueBulkIndexer catalogueBulkIndexer;
+
+    private final ApplicationProperties.Search.Outbox properties;
+
+    private final Executor taskExecutor;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final AtomicLong oldestPendingEpochMilli = new AtomicLong();
+
+    private final AtomicLong pending = new AtomicLong();
+
+    private final AtomicLong deadLettered = new AtomicLong();
+
+    private final String relayId = UUID.randomUUID().toString();
+
+    private final Counter relayedCounter;
+
+    private final Counter failedCounter;
+
+    private volatile long backoffUntil;
+
+    private int consecutiveFailures;
+
+    public CatalogueSearchOutboxRelay(CatalogueOutboxEventRepository catalogueOutboxEventRepository, CatalogueRepository catalogueRepository,
+                                      CatalogueBulkIndexer catalogueBulkIndexer, ApplicationProperties applicationProperties,
+                                      @Qualifier("taskExecutor") Executor taskExecutor, MeterRegistry meterRegistry) {
+        this.catalogueOutboxEventRepository = catalogueOutboxEventRepository;
+        this.catalogueRepository = catalogueRepository;
+        this.catalogueBulkIndexer = catalogueBulkIndexer;
+        this.properties = applicationProperties.getSearch().getOutbox();
+        this.taskExecutor = taskExecutor;
+        Gauge.builder("catalogue.search.outbox.lag", this, CatalogueSearchOutboxRelay::getLagSeconds)
+            .description("Age of the oldest Catalogue change not yet relayed to Elasticsearch")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+        Gauge.builder("catalogue.search.outbox.pending", pending, AtomicLong::get)
+            .description("Number of Catalogue changes waiting in the outbox")
+            .register(meterRegistry);
+        Gauge.builder("catalogue.search.outbox.dead_lettered", deadLettered, AtomicLong::get)
+            .description("Number of Catalogue changes kept in the outbox after failing too many times")
+            .register(meterRegistry);
+        this.relayedCounter = Counter.builder("catalogue.search.outbox.relayed")
+            .description("Catalogue changes applied to Elasticsearch")
+            .register(meterRegistry);
+        this.failedCounter = Counter.builder("catalogue.search.outbox.failed")
+            .description("Catalogue changes that failed to be applied to Elasticsearch")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Hand a drain cycle to the async task executor, unless one is already running or the relay is backing off.
+     */
+    @Scheduled(fixedDelayString = "${application.search.outbox.relay-delay-ms:1000}")
+    public void scheduleRelay() {
+        if (!properties.isEnabled() || System.currentTimeMillis() < backoffUntil || !running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            taskExecutor.execute(() -> {
+                try {
+                    drain();
+                } finally {
+                    running.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            running.set(false);
+            log.warn("Catalogue outbox relay rejected by the task executor: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Drain the outbox, batch by batch, until it is empty or a batch fails.
+     */
+    public void drain() {
+        int batchSize = properties.getBatchSize();
+        List<Long> ids;
+        do {
+            ids = catalogueOutboxEventRepository.findClaimableIds(Instant.now(), PageRequest.of(0, batchSize));
+            List<CatalogueOutboxEvent> batch = claim(ids);
+            if (!batch.isEmpty() && !relay(batch)) {
+                break;
+            }
+        } while (ids.size() == batchSize);
+        refreshLag();
+    }
+
+    /**
+     * Get the age of the oldest pending outbox event.
+     *
+     * @return the lag in seconds, {@code 0} when the outbox is empty.
+     */
+    public double getLagSeconds() {
+        long oldest = oldestPendingEpochMilli.get();
+        return oldest == 0 ? 0 : Math.max(0, System.currentTimeMillis() - oldest) / 1000.0;
+    }
+
+    /**
+     * Claim events for this relay.
+     *
+     * @param ids the ids of the events to claim.
+     * @return the events claimed, without those claimed by another relay in the meantime.
+     */
+    private List<CatalogueOutboxEvent> claim(List<Long> ids) {
+        Instant now = Instant.now();
+        if (ids.isEmpty() || catalogueOutboxEventRepository.claim(ids, relayId, now.plusMillis(properties.getClaimTimeoutMs()), now) == 0) {
+            return new ArrayList<>();
+        }
+        return catalogueOutboxEventRepository.findAllByClaimedByAndIdInOrderByIdAsc(relayId, ids);
+    }
+
+    private boolean relay(List<CatalogueOutboxEvent> batch) {
+        Map<Long, OutboxOperation> latest = new TreeMap<>();
+        batch.forEach(event -> latest.put(event.getCatalogueId(), event.getOperation()));
+        List<Long> toIndex = new ArrayList<>();
+        List<Long> toDelete = new ArrayList<>();
+        latest.forEach((catalogueId, operation) -> (operation == OutboxOperation.INDEX ? toIndex : toDelete).add(catalogueId));
+        try {
+            List<Catalogue> catalogues = new ArrayList<>();
+            if (!toIndex.isEmpty()) {
+                catalogues.addAll(catalogueRepository.findAllById(toIndex));
+                Set<Long> found = new HashSet<>();
+                catalogues.forEach(catalogue -> found.add(catalogue.getId()));
+                // Rows deleted since the event was recorded must not stay in the index
+                toIndex.stream().filter(id -> !found.contains(id)).forEach(toDelete::add);
+                catalogues.sort(Comparator.comparing(Catalogue::getId));
+            }
+            toDelete.sort(Comparator.naturalOrder());
+            CompletableFuture.allOf(catalogueBulkIndexer.index(catalogues), catalogueBulkIndexer.delete(toDelete))
+                .get(ACKNOWLEDGE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | TimeoutException | RuntimeException e) {
+            Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+            log.warn("Failed to relay {} Catalogue changes to Elasticsearch: {}", latest.size(), cause.getMessage());
+            failedCounter.increment(latest.size());
+            onFailure(batch);
+            return false;
+        }
+        catalogueOutboxEventRepository.deleteInBatch(batch);
+        relayedCounter.increment(latest.size());
+        consecutiveFailures = 0;
+        return true;
+    }
+
+    private void onFailure(List<CatalogueOutboxEvent> batch) {
+        consecutiveFailures++;
+        long delay = properties.getRelayDelayMs() << Math.min(consecutiveFailures, 16);
+        backoffUntil = System.currentTimeMillis() + Math.min(delay, MAX_BACKOFF_MS);
+        Instant now = Instant.now();
+        for (CatalogueOutboxEvent event : batch) {
+            event.setAttempts(event.getAttempts() + 1);
+            event.setClaimedBy(null);
+            event.setClaimedUntil(null);
+            if (event.getAttempts() >= properties.getMaxAttempts()) {
+                log.error("Dead-lettering Catalogue outbox event after {} attempts: {}", event.getAttempts(), event);
+                event.setDeadLetteredDate(now);
+            }
+        }
+        catalogueOutboxEventRepository.saveAll(batch);
+    }
+
+    private void refreshLag() {
+        pending.set(catalogueOutboxEventRepository.countByDeadLetteredDateIsNull());
+        deadLettered.set(catalogueOutboxEventRepository.countByDeadLetteredDateIsNotNull());
+        oldestPendingEpochMilli.set(catalogueOutboxEventRepository.findFirstByDeadLetteredDateIsNullOrderByIdAsc()
+            .map(CatalogueOutboxEvent::getCreatedDate)
+            .map(Instant::toEpochMilli)
+            .orElse(0L));
+    }
+}
@@ -1,11 +1,16 @@
 package com.gymmastercatalogue.app.service;
 
 import com.gymmastercatalogue.app.service.dto.CatalogueDTO;
+import com.gymmastercatalogue.app.service.dto.CatalogueFacetsDTO;
+import com.gymmastercatalogue.app.service.dto.CatalogueSearchRequest;
+import com.gymmastercatalogue.app.service.dto.CatalogueSuggestionDTO;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Service Interface for managing {@link com.gymmastercatalogue.app.domain.Catalogue}.
@@ -20,6 +25,18 @@ public interface CatalogueService {
      */
     CatalogueDTO save(CatalogueDTO catalogueDTO);
 
+    /**
+     * Save catalogues, creating those without an ID and updating the others, in one transaction per chunk of
+     * {@code application.batch.chunk-size} catalogues. The catalogues to update are all checked to exist before the
+     * first chunk; a chunk failing afterwards is rolled back, the previous ones stay committed.
+     *
+     * @param catalogueDTOs the entities to save.
+     * @return the persisted entities, in the same order.
+     * @throws IllegalArgumentException if a catalogue to update doesn't exist, with the number of catalogues already
+     * saved in its message when it was deleted while the previous chunks were saved.
+     */
+    List<CatalogueDTO> saveAll(List<CatalogueDTO> catalogueDTOs);
+
     /**
      * Get all the catalogues.
      *
@@ -45,12 +62,32 @@ public interface CatalogueService {
     void delete(Long id);
 
     /**
-     * Search for the catalogue corresponding to the query.
+     * Search for the catalogues corresponding to the request.
      *
-     * @param query the query of the search.
-     * 
+     * @param request the text and filters of the search.
      * @param pageable the pagination information.
-     * @return the list of entities.
+     * @return a future completed with the list of entities, without blocking the calling thread.
+     * @throws IllegalArgumentException if the page is sorted by a field that Elasticsearch doesn't sort on.
+     */
+    CompletableFuture<Page<CatalogueDTO>> search(CatalogueSearchRequest request, Pageable pageable);
+
+    /**
+     * Suggest the catalogues whose description has a word starting with each word of a prefix.
+     *
+     * @param prefix the text typed so far.
+     * @param size the maximum number of suggestions.
+     * @return a future completed with the suggestions, best first.
+     * @throws IllegalArgumentException if the prefix is blank or too long, or the size out of range.
+     */
+    CompletableFuture<List<CatalogueSuggestionDTO>> suggest(String prefix, int size);
+
+    /**
+     * Count the catalogues corresponding to the request, in total and by category, partner and session time bucket,
+     * from Elasticsearch, or from the database if the search fails.
+     *
+     * @param request the text and filters of the search.
+     * @param interval the length of the session time buckets.
+     * @return a future completed with the counts.
      */
-    Page<CatalogueDTO> search(String query, Pageable pageable);
+    CompletableFuture<CatalogueFacetsDTO> facets(CatalogueSearchRequest request, CatalogueFacetsDTO.Interval interval);
 }
@@ -0,0 +1,119 @@
+package com.gymmastercatalogue.app.service;
+
+import com.gymmastercatalogue.app.config.ApplicationProperties;
+import com.gymmastercatalogue.app.service.dto.CatalogueSuggestionDTO;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Service caching the suggestions of the hot description prefixes, in a local LRU map.
+ * <p>
+ * Suggestions are requested on every keystroke, mostly for the same few first letters, so they are kept on each
+ * node rather than in the Hazelcast cluster, which would add a network round trip. An entry holds the pending
+ * search of its prefix, which concurrent requests share. Entries expire after
+ * {@code application.search.suggest.cache-time-to-live-seconds}, which bounds how long a changed description is
+ * suggested with its previous text.
+ */
+@Service
+public class CatalogueSuggestionCache {
+
+    private final Map<String, Entry> entries;
+
+    private final long timeToLiveNanos;
+
+    private final Counter hitCounter;
+
+    private final Counter missCounter;
+
+    public CatalogueSuggestionCache(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        ApplicationProperties.Search.Suggest properties = applicationProperties.getSearch().getSuggest();
+        int maxSize = properties.getCacheMaxSize();
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+        this.timeToLiveNanos = TimeUnit.SECONDS.toNanos(properties.getCacheTimeToLiveSeconds());
+        Gauge.builder("catalogue.suggest.cache.size", entries, Map::size)
+            .description("Number of description prefixes whose suggestions are cached on this node")
+            .register(meterRegistry);
+        this.hitCounter = Counter.builder("catalogue.suggest.cache.requests")
+            .description("Number of suggestion requests, by cache result")
+            .tag("result", "hit")
+            .register(meterRegistry);
+        this.missCounter = Counter.builder("catalogue.suggest.cache.requests")
+            .description("Number of suggestion requests, by cache result")
+            .tag("result", "miss")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Get the suggestions of a prefix from the cache, or search and cache them.
+     *
+     * @param prefix the normalized prefix.
+     * @param size the maximum number of suggestions.
+     * @param loader the search to run on a cache miss.
+     * @return a future completed with the suggestions.
+     */
+    public CompletableFuture<List<CatalogueSuggestionDTO>> get(String prefix, int size,
+                                                               Supplier<CompletableFuture<List<CatalogueSuggestionDTO>>> loader) {
+        if (timeToLiveNanos <= 0) {
+            return loader.get();
+        }
+        String key = size + ":" + prefix;
+        long now = System.nanoTime();
+        Entry entry;
+        synchronized (entries) {
+            Entry cached = entries.get(key);
+            if (cached != null && now - cached.loadedAt < timeToLiveNanos) {
+                hitCounter.increment();
+                return cached.suggestions;
+            }
+            entry = new Entry(now);
+            entries.put(key, entry);
+        }
+        missCounter.increment();
+        try {
+            loader.get().whenComplete((suggestions, e) -> {
+                if (e != null) {
+                    evict(key, entry, e);
+                } else {
+                    entry.suggestions.complete(Collections.unmodifiableList(suggestions));
+                }
+            });
+        } catch (RuntimeException e) {
+            evict(key, entry, e);
+        }
+        return entry.suggestions;
+    }
+
+    private void evict(String key, Entry entry, Throwable cause) {
+        synchronized (entries) {
+            entries.remove(key, entry);
+        }
+        entry.suggestions.completeExceptionally(cause);
+    }
+
+    private static final class Entry {
+
+        private final CompletableFuture<List<CatalogueSuggestionDTO>> suggestions = new CompletableFuture<>();
+
+        private final long loadedAt;
+
+        private Entry(long loadedAt) {
+            this.loadedAt = loadedAt;
+        }
+    }
+}
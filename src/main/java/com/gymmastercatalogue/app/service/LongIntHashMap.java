@@ -0,0 +1,165 @@
+package com.gymmastercatalogue.app.service;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A hash table from {@code long} keys to non-negative {@code int} values, with open addressing and linear probing.
+ * A removal shifts back the following keys of its probe sequence, so the table has no tombstones. Each slot holds a
+ * key and a value in a {@link ByteBuffer}, on the heap or in direct memory, so the table allocates no object per entry.
+ * <p>
+ * The table doubles when it is three quarters full. {@link #FREE} marks the free slots, so it cannot be a key.
+ * It is not thread-safe.
+ */
+final class LongIntHashMap {
+
+    static final long FREE = Long.MIN_VALUE;
+
+    private static final int SLOT_BYTES = 12;
+
+    private static final int VALUE = 8;
+
+    private final boolean direct;
+
+    private ByteBuffer slots;
+
+    private int mask;
+
+    private int size;
+
+    /**
+     * @param expectedSize the number of entries held without growing the table.
+     * @param direct whether the slots are allocated in direct memory.
+     */
+    LongIntHashMap(int expectedSize, boolean direct) {
+        this.direct = direct;
+        allocate(Integer.highestOneBit(Math.max(expectedSize + expectedSize / 3, 1)) << 1);
+    }
+
+    /**
+     * @return the value of the key, or {@code -1} if it has none.
+     */
+    int get(long key) {
+        if (key == FREE) {
+            return -1;
+        }
+        for (int slot = index(key); ; slot = (slot + 1) & mask) {
+            long slotKey = key(slot);
+            if (slotKey == key) {
+                return value(slot);
+            }
+            if (slotKey == FREE) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * @param value the value, not negative.
+     * @return the previous value of the key, or {@code -1} if it had none.
+     */
+    int put(long key, int value) {
+        if (key == FREE) {
+            throw new IllegalArgumentException("Unsupported key: " + key);
+        }
+        if ((size + 1) * 4L > (mask + 1) * 3L) {
+            grow();
+        }
+        int slot = index(key);
+        for (long slotKey = key(slot); slotKey != FREE; slotKey = key(slot)) {
+            if (slotKey == key) {
+                int previous = value(slot);
+                slots.putInt(slot * SLOT_BYTES + VALUE, value);
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        slots.putLong(slot * SLOT_BYTES, key);
+        slots.putInt(slot * SLOT_BYTES + VALUE, value);
+        size++;
+        return -1;
+    }
+
+    /**
+     * @return the value of the removed key, or {@code -1} if it had none.
+     */
+    int remove(long key) {
+        if (key == FREE) {
+            return -1;
+        }
+        int gap = index(key);
+        while (key(gap) != key) {
+            if (key(gap) == FREE) {
+                return -1;
+            }
+            gap = (gap + 1) & mask;
+        }
+        int value = value(gap);
+        // The following keys of the probe sequence are shifted back, so that no lookup stops at the gap
+        for (int slot = (gap + 1) & mask; ; slot = (slot + 1) & mask) {
+            long slotKey = key(slot);
+            if (slotKey == FREE) {
+                break;
+            }
+            if (((slot - index(slotKey)) & mask) >= ((slot - gap) & mask)) {
+                slots.putLong(gap * SLOT_BYTES, slotKey);
+                slots.putInt(gap * SLOT_BYTES + VALUE, value(slot));
+                gap = slot;
+            }
+        }
+        slots.putLong(gap * SLOT_BYTES, FREE);
+        size--;
+        return value;
+    }
+
+    void clear() {
+        for (int slot = 0; slot <= mask; slot++) {
+            slots.putLong(slot * SLOT_BYTES, FREE);
+        }
+        size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return the memory allocated for the slots.
+     */
+    long sizeInBytes() {
+        return slots.capacity();
+    }
+
+    private void grow() {
+        ByteBuffer previous = slots;
+        int previousCount = mask + 1;
+        allocate(previousCount * 2);
+        for (int slot = 0; slot < previousCount; slot++) {
+            long key = previous.getLong(slot * SLOT_BYTES);
+            if (key != FREE) {
+                put(key, previous.getInt(slot * SLOT_BYTES + VALUE));
+            }
+        }
+    }
+
+    private void allocate(int slotCount) {
+        if (slotCount <= 0 || (long) slotCount * SLOT_BYTES > Integer.MAX_VALUE) {
+            throw new IllegalStateException("The table cannot hold more than " + size + " keys");
+        }
+        slots = direct ? ByteBuffer.allocateDirect(slotCount * SLOT_BYTES) : ByteBuffer.allocate(slotCount * SLOT_BYTES);
+        mask = slotCount - 1;
+        clear();
+    }
+
+    private long key(int slot) {
+        return slots.getLong(slot * SLOT_BYTES);
+    }
+
+    private int value(int slot) {
+        return slots.getInt(slot * SLOT_BYTES + VALUE);
+    }
+
+    private int index(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,264 @@
+package com.gymmastercatalogue.app.service;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * A compressed set of row slots, with the layout of a Roaring bitmap: the slots are grouped by their 16 high bits,
+ * and the 16 low bits of each group are stored in a sorted array while there are at most {@value #ARRAY_MAX_SIZE}
+ * of them, else in a bitmap of 2<sup>16</sup> bits. A sparse value costs 2 bytes per row, a dense one 1 bit.
+ * <p>
+ * It is not thread-safe.
+ */
+final class RowBitmap {
+
+    static final int ARRAY_MAX_SIZE = 4096;
+
+    private static final int BITMAP_WORDS = 1024;
+
+    private char[] keys = new char[4];
+
+    /**
+     * The containers of the groups, a {@code char[]} array or a {@code long[]} bitmap.
+     */
+    private Object[] containers = new Object[4];
+
+    private int[] sizes = new int[4];
+
+    private int groups;
+
+    private long cardinality;
+
+    boolean add(int row) {
+        int group = group(row);
+        if (group < 0) {
+            group = -group - 1;
+            insertGroup(group, (char) (row >>> 16));
+        }
+        char low = (char) row;
+        int size = sizes[group];
+        if (containers[group] instanceof long[]) {
+            long[] bitmap = (long[]) containers[group];
+            long bit = 1L << low;
+            if ((bitmap[low >>> 6] & bit) != 0) {
+                return false;
+            }
+            bitmap[low >>> 6] |= bit;
+        } else {
+            char[] array = (char[]) containers[group];
+            int index = Arrays.binarySearch(array, 0, size, low);
+            if (index >= 0) {
+                return false;
+            }
+            if (size == ARRAY_MAX_SIZE) {
+                long[] bitmap = toBitmap(array, size);
+                bitmap[low >>> 6] |= 1L << low;
+                containers[group] = bitmap;
+            } else {
+                index = -index - 1;
+                if (size == array.length) {
+                    array = Arrays.copyOf(array, Math.min(size * 2, ARRAY_MAX_SIZE));
+                    containers[group] = array;
+                }
+                System.arraycopy(array, index, array, index + 1, size - index);
+                array[index] = low;
+            }
+        }
+        sizes[group]++;
+        cardinality++;
+        return true;
+    }
+
+    boolean remove(int row) {
+        int group = group(row);
+        if (group < 0) {
+            return false;
+        }
+        char low = (char) row;
+        int size = sizes[group];
+        if (containers[group] instanceof long[]) {
+            long[] bitmap = (long[]) containers[group];
+            long bit = 1L << low;
+            if ((bitmap[low >>> 6] & bit) == 0) {
+                return false;
+            }
+            bitmap[low >>> 6] &= ~bit;
+            if (size - 1 == ARRAY_MAX_SIZE) {
+                containers[group] = toArray(bitmap, size - 1);
+            }
+        } else {
+            char[] array = (char[]) containers[group];
+            int index = Arrays.binarySearch(array, 0, size, low);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(array, index + 1, array, index, size - index - 1);
+            if (size - 1 < array.length / 4) {
+                containers[group] = Arrays.copyOf(array, array.length / 2);
+            }
+        }
+        cardinality--;
+        if (--sizes[group] == 0) {
+            removeGroup(group);
+        }
+        return true;
+    }
+
+    boolean contains(int row) {
+        int group = group(row);
+        if (group < 0) {
+            return false;
+        }
+        char low = (char) row;
+        if (containers[group] instanceof long[]) {
+            return (((long[]) containers[group])[low >>> 6] & (1L << low)) != 0;
+        }
+        return Arrays.binarySearch((char[]) containers[group], 0, sizes[group], low) >= 0;
+    }
+
+    long getCardinality() {
+        return cardinality;
+    }
+
+    boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    /**
+     * Add the rows of this bitmap to a {@link BitSet}.
+     */
+    void orInto(BitSet target) {
+        for (int group = 0; group < groups; group++) {
+            int base = keys[group] << 16;
+            if (containers[group] instanceof long[]) {
+                long[] bitmap = (long[]) containers[group];
+                for (int word = 0; word < BITMAP_WORDS; word++) {
+                    for (long bits = bitmap[word]; bits != 0; bits &= bits - 1) {
+                        target.set(base + (word << 6) + Long.numberOfTrailingZeros(bits));
+                    }
+                }
+            } else {
+                char[] array = (char[]) containers[group];
+                for (int i = 0; i < sizes[group]; i++) {
+                    target.set(base + array[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Count the rows of both bitmaps, group by group, without building their intersection.
+     */
+    long andCardinality(RowBitmap other) {
+        long count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < groups && j < other.groups) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                count += andCardinality(containers[i], sizes[i], other.containers[j], other.sizes[j]);
+                i++;
+                j++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Estimate the memory used by this bitmap, in bytes.
+     */
+    long sizeInBytes() {
+        long bytes = 16 + 3 * 16 + keys.length * 2L + sizes.length * 4L + containers.length * 4L;
+        for (int group = 0; group < groups; group++) {
+            bytes += 16 + (containers[group] instanceof long[] ? BITMAP_WORDS * 8L : ((char[]) containers[group]).length * 2L);
+        }
+        return bytes;
+    }
+
+    private static long andCardinality(Object a, int sizeA, Object b, int sizeB) {
+        if (a instanceof long[] && b instanceof long[]) {
+            long[] bitmapA = (long[]) a;
+            long[] bitmapB = (long[]) b;
+            long count = 0;
+            for (int word = 0; word < BITMAP_WORDS; word++) {
+                count += Long.bitCount(bitmapA[word] & bitmapB[word]);
+            }
+            return count;
+        }
+        if (a instanceof long[] || b instanceof long[]) {
+            long[] bitmap = (long[]) (a instanceof long[] ? a : b);
+            char[] array = (char[]) (a instanceof long[] ? b : a);
+            int size = a instanceof long[] ? sizeB : sizeA;
+            long count = 0;
+            for (int i = 0; i < size; i++) {
+                count += (bitmap[array[i] >>> 6] >>> array[i]) & 1;
+            }
+            return count;
+        }
+        char[] arrayA = (char[]) a;
+        char[] arrayB = (char[]) b;
+        long count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < sizeA && j < sizeB) {
+            if (arrayA[i] < arrayB[j]) {
+                i++;
+            } else if (arrayA[i] > arrayB[j]) {
+                j++;
+            } else {
+                count++;
+                i++;
+                j++;
+            }
+        }
+        return count;
+    }
+
+    private int group(int row) {
+        return Arrays.binarySearch(keys, 0, groups, (char) (row >>> 16));
+    }
+
+    private void insertGroup(int group, char key) {
+        if (groups == keys.length) {
+            keys = Arrays.copyOf(keys, groups * 2);
+            containers = Arrays.copyOf(containers, groups * 2);
+            sizes = Arrays.copyOf(sizes, groups * 2);
+        }
+        System.arraycopy(keys, group, keys, group + 1, groups - group);
+        System.arraycopy(containers, group, containers, group + 1, groups - group);
+        System.arraycopy(sizes, group, sizes, group + 1, groups - group);
+        keys[group] = key;
+        containers[group] = new char[4];
+        sizes[group] = 0;
+        groups++;
+    }
+
+    private void removeGroup(int group) {
+        System.arraycopy(keys, group + 1, keys, group, groups - group - 1);
+        System.arraycopy(containers, group + 1, containers, group, groups - group - 1);
+        System.arraycopy(sizes, group + 1, sizes, group, groups - group - 1);
+        containers[--groups] = null;
+    }
+
+    private static long[] toBitmap(char[] array, int size) {
+        long[] bitmap = new long[BITMAP_WORDS];
+        for (int i = 0; i < size; i++) {
+            bitmap[array[i] >>> 6] |= 1L << array[i];
+        }
+        return bitmap;
+    }
+
+    private static char[] toArray(long[] bitmap, int size) {
+        char[] array = new char[size];
+        int i = 0;
+        for (int word = 0; word < BITMAP_WORDS; word++) {
+            for (long bits = bitmap[word]; bits != 0; bits &= bits - 1) {
+                array[i++] = (char) ((word << 6) + Long.numberOfTrailingZeros(bits));
+            }
+        }
+        return array;
+    }
+}
@@ -1,6 +1,7 @@
 package com.gymmastercatalogue.app.service.dto;
 
 import java.io.Serializable;
+import java.time.Instant;
 import java.util.Objects;
 import io.github.jhipster.service.Criteria;
 import com.gymmastercatalogue.app.domain.enumeration.categoryEnum;
@@ -42,6 +43,76 @@ public class CatalogueCriteria implements Serializable, Criteria {
 
     }
 
+    /**
+     * Class for filtering the sessions running during a period: those starting before its end and ending after its
+     * start, a session ending at its date plus its duration in minutes. Sessions without a date never match, and
+     * either bound may be omitted.
+     * For example {@code sessionOverlap.from=2026-01-05T18:00:00Z&sessionOverlap.to=2026-01-05T19:00:00Z}
+     */
+    public static class SessionOverlapFilter implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private Instant from;
+
+        private Instant to;
+
+        public SessionOverlapFilter() {
+        }
+
+        public SessionOverlapFilter(SessionOverlapFilter filter) {
+            this.from = filter.from;
+            this.to = filter.to;
+        }
+
+        public SessionOverlapFilter copy() {
+            return new SessionOverlapFilter(this);
+        }
+
+        public Instant getFrom() {
+            return from;
+        }
+
+        public SessionOverlapFilter setFrom(Instant from) {
+            this.from = from;
+            return this;
+        }
+
+        public Instant getTo() {
+            return to;
+        }
+
+        public SessionOverlapFilter setTo(Instant to) {
+            this.to = to;
+            return this;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final SessionOverlapFilter that = (SessionOverlapFilter) o;
+            return Objects.equals(from, that.from) && Objects.equals(to, that.to);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(from, to);
+        }
+
+        @Override
+        public String toString() {
+            return "SessionOverlapFilter [" +
+                (from != null ? "from=" + from + ", " : "") +
+                (to != null ? "to=" + to + ", " : "") +
+                "]";
+        }
+    }
+
     private static final long serialVersionUID = 1L;
 
     private LongFilter id;
@@ -60,6 +131,8 @@ public class CatalogueCriteria implements Serializable, Criteria {
 
     private IntegerFilter partnerId;
 
+    private SessionOverlapFilter sessionOverlap;
+
     public CatalogueCriteria() {
     }
 
@@ -72,6 +145,7 @@ public class CatalogueCriteria implements Serializable, Criteria {
         this.category = other.category == null ? null : other.category.copy();
         this.username = other.username == null ? null : other.username.copy();
         this.partnerId = other.partnerId == null ? null : other.partnerId.copy();
+        this.sessionOverlap = other.sessionOverlap == null ? null : other.sessionOverlap.copy();
     }
 
     @Override
@@ -143,6 +217,14 @@ public class CatalogueCriteria implements Serializable, Criteria {
         this.partnerId = partnerId;
     }
 
+    public SessionOverlapFilter getSessionOverlap() {
+        return sessionOverlap;
+    }
+
+    public void setSessionOverlap(SessionOverlapFilter sessionOverlap) {
+        this.sessionOverlap = sessionOverlap;
+    }
+
 
     @Override
     public boolean equals(Object o) {
@@ -161,7 +243,8 @@ public class CatalogueCriteria implements Serializable, Criteria {
             Objects.equals(sessionDt, that.sessionDt) &&
             Objects.equals(category, that.category) &&
             Objects.equals(username, that.username) &&
-            Objects.equals(partnerId, that.partnerId);
+            Objects.equals(partnerId, that.partnerId) &&
+            Objects.equals(sessionOverlap, that.sessionOverlap);
     }
 
     @Override
@@ -174,7 +257,8 @@ public class CatalogueCriteria implements Serializable, Criteria {
         sessionDt,
         category,
         username,
-        partnerId
+        partnerId,
+        sessionOverlap
         );
     }
 
@@ -190,6 +274,7 @@ public class CatalogueCriteria implements Serializable, Criteria {
                 (category != null ? "category=" + category + ", " : "") +
                 (username != null ? "username=" + username + ", " : "") +
                 (partnerId != null ? "partnerId=" + partnerId + ", " : "") +
+                (sessionOverlap != null ? "sessionOverlap=" + sessionOverlap + ", " : "") +
             "}";
     }
 
@@ -0,0 +1,303 @@
+package com.gymmastercatalogue.app.service.dto;
+
+import com.gymmastercatalogue.app.domain.enumeration.categoryEnum;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * The CSV representation of {@link CatalogueDTO}s, one line per catalogue after a header line, as in RFC 4180.
+ * Empty fields are {@code null}, the session dates are ISO-8601 instants.
+ * Documents are read by a {@link Parser}, and may have their columns in any order.
+ */
+public final class CatalogueCsvFormat {
+
+    public static final String MEDIA_TYPE = "text/csv";
+
+    static final String[] COLUMNS = { "id", "description", "price", "duration", "sessionDt", "category", "username", "partnerId" };
+
+    private CatalogueCsvFormat() {
+    }
+
+    /**
+     * Write the header line.
+     *
+     * @param out the destination.
+     * @throws IOException if the line cannot be written.
+     */
+    public static void writeHeader(Appendable out) throws IOException {
+        out.append(String.join(",", COLUMNS)).append("\r\n");
+    }
+
+    /**
+     * Write the line of a catalogue.
+     *
+     * @param out the destination.
+     * @param catalogueDTO the catalogue to write.
+     * @throws IOException if the line cannot be written.
+     */
+    public static void writeRow(Appendable out, CatalogueDTO catalogueDTO) throws IOException {
+        Object[] values = {
+            catalogueDTO.getId(), catalogueDTO.getDescription(), catalogueDTO.getPrice(), catalogueDTO.getDuration(),
+            catalogueDTO.getSessionDt(), catalogueDTO.getCategory(), catalogueDTO.getUsername(), catalogueDTO.getPartnerId()
+        };
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            if (values[i] != null) {
+                writeField(out, values[i].toString());
+            }
+        }
+        out.append("\r\n");
+    }
+
+    private static void writeField(Appendable out, String value) throws IOException {
+        // An empty text is quoted, to tell it from null
+        if (value.isEmpty() || value.chars().anyMatch(c -> c == ',' || c == '"' || c == '\r' || c == '\n')) {
+            out.append('"').append(value.replace("\"", "\"\"")).append('"');
+        } else {
+            out.append(value);
+        }
+    }
+
+    /**
+     * Reader of the catalogues of a CSV document, one record at a time.
+     * <p>
+     * The characters are scanned once from a fixed buffer, without reading lines or splitting them first, so the
+     * memory used does not depend on the size of the document.
+     */
+    public static final class Parser {
+
+        private static final int END = -1;
+
+        private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+        private final Reader reader;
+
+        private final char[] buffer = new char[8192];
+
+        private int position;
+
+        private int limit;
+
+        private final StringBuilder field = new StringBuilder();
+
+        private final List<String> record = new ArrayList<>(COLUMNS.length);
+
+        private final int[] columns;
+
+        private long line = 1;
+
+        private long recordLine;
+
+        /**
+         * Create a parser, reading the header line, after the byte order mark some spreadsheets write.
+         *
+         * @param reader the CSV document.
+         * @throws IOException if the document cannot be read.
+         * @throws IllegalArgumentException if the header line is missing or has an unknown or duplicate column.
+         */
+        public Parser(Reader reader) throws IOException {
+            this.reader = reader;
+            if (peek() == BYTE_ORDER_MARK) {
+                read();
+            }
+            if (!readRecord()) {
+                throw new IllegalArgumentException("The header line is missing");
+            }
+            columns = new int[record.size()];
+            List<String> names = Arrays.asList(COLUMNS);
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = names.indexOf(record.get(i));
+                if (columns[i] < 0 || record.indexOf(record.get(i)) != i) {
+                    throw new IllegalArgumentException("Unknown or duplicate column: " + record.get(i));
+                }
+            }
+        }
+
+        /**
+         * Get the line of the last record read, starting at 1 for the header line.
+         *
+         * @return the line number.
+         */
+        public long getLine() {
+            return recordLine;
+        }
+
+        /**
+         * Read the next catalogue. A record which cannot be read as a catalogue is skipped, so that the next call
+         * reads the following one.
+         *
+         * @return the catalogue, or {@code null} at the end of the document.
+         * @throws IOException if the document cannot be read.
+         * @throws IllegalArgumentException if the record doesn't have a field per column, or a field has an invalid value.
+         */
+        public CatalogueDTO next() throws IOException {
+            if (!readRecord()) {
+                return null;
+            }
+            if (record.size() != columns.length) {
+                throw new IllegalArgumentException("Expected " + columns.length + " fields, found " + record.size());
+            }
+            CatalogueDTO catalogueDTO = new CatalogueDTO();
+            for (int i = 0; i < columns.length; i++) {
+                String value = record.get(i);
+                switch (COLUMNS[columns[i]]) {
+                    case "id":
+                        catalogueDTO.setId(parse("id", value, Long::valueOf));
+                        break;
+                    case "description":
+                        catalogueDTO.setDescription(value);
+                        break;
+                    case "price":
+                        catalogueDTO.setPrice(parse("price", value, Double::valueOf));
+                        break;
+                    case "duration":
+                        catalogueDTO.setDuration(parse("duration", value, Integer::valueOf));
+                        break;
+                    case "sessionDt":
+                        catalogueDTO.setSessionDt(parse("sessionDt", value, Instant::parse));
+                        break;
+                    case "category":
+                        catalogueDTO.setCategory(parse("category", value, categoryEnum::valueOf));
+                        break;
+                    case "username":
+                        catalogueDTO.setUsername(value);
+                        break;
+                    default:
+                        catalogueDTO.setPartnerId(parse("partnerId", value, Integer::valueOf));
+                }
+            }
+            return catalogueDTO;
+        }
+
+        private static <T> T parse(String column, String value, Function<String, T> parser) {
+            if (value == null) {
+                return null;
+            }
+            try {
+                return parser.apply(value);
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid " + column + ": '" + value + "'");
+            }
+        }
+
+        /**
+         * Read the fields of the next record, skipping blank lines.
+         */
+        private boolean readRecord() throws IOException {
+            record.clear();
+            int c = peek();
+            while (c == '\r' || c == '\n') {
+                readLineEnd();
+                c = peek();
+            }
+            if (c == END) {
+                return false;
+            }
+            recordLine = line;
+            while (true) {
+                try {
+                    record.add(readField());
+                } catch (IllegalArgumentException e) {
+                    skipLine();
+                    throw e;
+                }
+                c = read();
+                if (c == END) {
+                    return true;
+                }
+                if (c == '\r' || c == '\n') {
+                    position--;
+                    readLineEnd();
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * Read a field, up to the next separator, line end or end of document, which is not consumed.
+         */
+        private String readField() throws IOException {
+            field.setLength(0);
+            int c = peek();
+            if (c != '"') {
+                while (c != ',' && c != '\r' && c != '\n' && c != END) {
+                    field.append((char) read());
+                    c = peek();
+                }
+                return field.length() == 0 ? null : field.toString();
+            }
+            read();
+            while (true) {
+                c = read();
+                if (c == END) {
+                    throw new IllegalArgumentException("Unterminated quoted field");
+                }
+                if (c == '"') {
+                    if (peek() != '"') {
+                        break;
+                    }
+                    read();
+                } else if (c == '\n') {
+                    line++;
+                }
+                field.append((char) c);
+            }
+            c = peek();
+            if (c != ',' && c != '\r' && c != '\n' && c != END) {
+                throw new IllegalArgumentException("Unexpected character after a quoted field: '" + (char) c + "'");
+            }
+            return field.toString();
+        }
+
+        private void skipLine() throws IOException {
+            int c = peek();
+            while (c != '\r' && c != '\n' && c != END) {
+                read();
+                c = peek();
+            }
+            if (c != END) {
+                readLineEnd();
+            }
+        }
+
+        private void readLineEnd() throws IOException {
+            if (read() == '\r' && peek() == '\n') {
+                read();
+            }
+            line++;
+        }
+
+        private int peek() throws IOException {
+            if (position == limit && !fill()) {
+                return END;
+            }
+            return buffer[position];
+        }
+
+        private int read() throws IOException {
+            if (position == limit && !fill()) {
+                return END;
+            }
+            return buffer[position++];
+        }
+
+        private boolean fill() throws IOException {
+            int read = reader.read(buffer);
+            if (read <= 0) {
+                return false;
+            }
+            position = 0;
+            limit = read;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.gymmastercatalogue.app.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import com.gymmastercatalogue.app.domain.enumeration.categoryEnum;
+
+/**
+ * The numbers of {@link com.gymmastercatalogue.app.domain.Catalogue} entities matching a search, in total and by
+ * category, partner and session time bucket.
+ */
+public class CatalogueFacetsDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The length of the session time buckets, which start at a UTC hour or day.
+     */
+    public enum Interval {
+        HOUR(ChronoUnit.HOURS), DAY(ChronoUnit.DAYS);
+
+        private final ChronoUnit unit;
+
+        Interval(ChronoUnit unit) {
+            this.unit = unit;
+        }
+
+        public ChronoUnit getUnit() {
+            return unit;
+        }
+    }
+
+    private long total;
+
+    private Map<categoryEnum, Long> category = new LinkedHashMap<>();
+
+    private Map<Integer, Long> partnerId = new LinkedHashMap<>();
+
+    private Map<Instant, Long> sessionDt = new LinkedHashMap<>();
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public Map<categoryEnum, Long> getCategory() {
+        return category;
+    }
+
+    public void setCategory(Map<categoryEnum, Long> category) {
+        this.category = category;
+    }
+
+    public Map<Integer, Long> getPartnerId() {
+        return partnerId;
+    }
+
+    public void setPartnerId(Map<Integer, Long> partnerId) {
+        this.partnerId = partnerId;
+    }
+
+    public Map<Instant, Long> getSessionDt() {
+        return sessionDt;
+    }
+
+    public void setSessionDt(Map<Instant, Long> sessionDt) {
+        this.sessionDt = sessionDt;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CatalogueFacetsDTO{" +
+            "total=" + getTotal() +
+            ", category=" + getCategory() +
+            ", partnerId=" + getPartnerId() +
+            ", sessionDt=" + getSessionDt() +
+            "}";
+    }
+}
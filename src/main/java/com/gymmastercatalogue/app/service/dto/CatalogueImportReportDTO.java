@@ -0,0 +1,135 @@
+package com.gymmastercatalogue.app.service.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The outcome of an import of {@link com.gymmastercatalogue.app.domain.Catalogue} rows: how many were imported
+ * or rejected, how fast, why the first ones were rejected, and why the import stopped if it did not complete.
+ */
+public class CatalogueImportReportDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * A rejected row, by line of the imported document.
+     */
+    public static class Reject implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private long line;
+
+        private String message;
+
+        public Reject() {
+        }
+
+        public Reject(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        public void setLine(long line) {
+            this.line = line;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+
+        // prettier-ignore
+        @Override
+        public String toString() {
+            return "Reject{" +
+                "line=" + getLine() +
+                ", message='" + getMessage() + "'" +
+                "}";
+        }
+    }
+
+    private long imported;
+
+    private long rejected;
+
+    private long durationMs;
+
+    private double rowsPerSecond;
+
+    private List<Reject> rejects = new ArrayList<>();
+
+    /**
+     * The error which stopped the import, {@code null} when all the rows were read.
+     */
+    private String error;
+
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    public void setDurationMs(long durationMs) {
+        this.durationMs = durationMs;
+    }
+
+    public double getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public void setRowsPerSecond(double rowsPerSecond) {
+        this.rowsPerSecond = rowsPerSecond;
+    }
+
+    public List<Reject> getRejects() {
+        return rejects;
+    }
+
+    public void setRejects(List<Reject> rejects) {
+        this.rejects = rejects;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CatalogueImportReportDTO{" +
+            "imported=" + getImported() +
+            ", rejected=" + getRejected() +
+            ", durationMs=" + getDurationMs() +
+            ", rowsPerSecond=" + getRowsPerSecond() +
+            ", rejects=" + getRejects() +
+            ", error='" + getError() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,119 @@
+package com.gymmastercatalogue.app.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * A snapshot of the progress of a full {@link com.gymmastercatalogue.app.domain.Catalogue} reindex.
+ */
+public class CatalogueReindexStatus implements Serializable {
+
+    public enum State {
+        IDLE, RUNNING, COMPLETED, FAILED
+    }
+
+    private State state;
+
+    private String indexName;
+
+    private Instant startedAt;
+
+    private Instant finishedAt;
+
+    private long total;
+
+    private long indexed;
+
+    private double docsPerSecond;
+
+    private Long etaSeconds;
+
+    private String error;
+
+    public State getState() {
+        return state;
+    }
+
+    public void setState(State state) {
+        this.state = state;
+    }
+
+    public String getIndexName() {
+        return indexName;
+    }
+
+    public void setIndexName(String indexName) {
+        this.indexName = indexName;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public long getIndexed() {
+        return indexed;
+    }
+
+    public void setIndexed(long indexed) {
+        this.indexed = indexed;
+    }
+
+    public double getDocsPerSecond() {
+        return docsPerSecond;
+    }
+
+    public void setDocsPerSecond(double docsPerSecond) {
+        this.docsPerSecond = docsPerSecond;
+    }
+
+    public Long getEtaSeconds() {
+        return etaSeconds;
+    }
+
+    public void setEtaSeconds(Long etaSeconds) {
+        this.etaSeconds = etaSeconds;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    @Override
+    public String toString() {
+        return "CatalogueReindexStatus{" +
+            "state=" + getState() +
+            ", indexName='" + getIndexName() + "'" +
+            ", startedAt='" + getStartedAt() + "'" +
+            ", finishedAt='" + getFinishedAt() + "'" +
+            ", total=" + getTotal() +
+            ", indexed=" + getIndexed() +
+            ", docsPerSecond=" + getDocsPerSecond() +
+            ", etaSeconds=" + getEtaSeconds() +
+            ", error='" + getError() + "'" +
+            "}";
+    }
+}
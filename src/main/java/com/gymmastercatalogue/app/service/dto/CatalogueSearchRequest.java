@@ -0,0 +1,138 @@
+package com.gymmastercatalogue.app.service.dto;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import javax.validation.constraints.Size;
+import java.io.Serializable;
+import com.gymmastercatalogue.app.domain.enumeration.categoryEnum;
+
+/**
+ * A full-text search of {@link com.gymmastercatalogue.app.domain.Catalogue} entities, received from the
+ * parameters of {@code GET /api/_search/catalogues}.
+ * For example the following could be a valid request:
+ * {@code /_search/catalogues?query=morning yoga&category=YOGA&category=PILATES&priceMax=20&sessionFrom=2026-01-01T00:00:00Z}
+ * The query is matched against the description, and the other parameters only filter the results.
+ * Prices are inclusive bounds, and sessions from {@code sessionFrom} included to {@code sessionTo} excluded.
+ */
+public class CatalogueSearchRequest implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Size(max = 256)
+    private String query;
+
+    private List<categoryEnum> category;
+
+    private List<Integer> partnerId;
+
+    private Double priceMin;
+
+    private Double priceMax;
+
+    private Instant sessionFrom;
+
+    private Instant sessionTo;
+
+    public String getQuery() {
+        return query;
+    }
+
+    public void setQuery(String query) {
+        this.query = query;
+    }
+
+    public List<categoryEnum> getCategory() {
+        return category;
+    }
+
+    public void setCategory(List<categoryEnum> category) {
+        this.category = category;
+    }
+
+    public List<Integer> getPartnerId() {
+        return partnerId;
+    }
+
+    public void setPartnerId(List<Integer> partnerId) {
+        this.partnerId = partnerId;
+    }
+
+    public Double getPriceMin() {
+        return priceMin;
+    }
+
+    public void setPriceMin(Double priceMin) {
+        this.priceMin = priceMin;
+    }
+
+    public Double getPriceMax() {
+        return priceMax;
+    }
+
+    public void setPriceMax(Double priceMax) {
+        this.priceMax = priceMax;
+    }
+
+    public Instant getSessionFrom() {
+        return sessionFrom;
+    }
+
+    public void setSessionFrom(Instant sessionFrom) {
+        this.sessionFrom = sessionFrom;
+    }
+
+    public Instant getSessionTo() {
+        return sessionTo;
+    }
+
+    public void setSessionTo(Instant sessionTo) {
+        this.sessionTo = sessionTo;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final CatalogueSearchRequest that = (CatalogueSearchRequest) o;
+        return
+            Objects.equals(query, that.query) &&
+            Objects.equals(category, that.category) &&
+            Objects.equals(partnerId, that.partnerId) &&
+            Objects.equals(priceMin, that.priceMin) &&
+            Objects.equals(priceMax, that.priceMax) &&
+            Objects.equals(sessionFrom, that.sessionFrom) &&
+            Objects.equals(sessionTo, that.sessionTo);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(
+        query,
+        category,
+        partnerId,
+        priceMin,
+        priceMax,
+        sessionFrom,
+        sessionTo
+        );
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CatalogueSearchRequest{" +
+            (query != null ? "query='" + query + "', " : "") +
+            (category != null ? "category=" + category + ", " : "") +
+            (partnerId != null ? "partnerId=" + partnerId + ", " : "") +
+            (priceMin != null ? "priceMin=" + priceMin + ", " : "") +
+            (priceMax != null ? "priceMax=" + priceMax + ", " : "") +
+            (sessionFrom != null ? "sessionFrom=" + sessionFrom + ", " : "") +
+            (sessionTo != null ? "sessionTo=" + sessionTo + ", " : "") +
+            "}";
+    }
+}
@@ -0,0 +1,58 @@
+package com.gymmastercatalogue.app.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A suggestion of {@link com.gymmastercatalogue.app.domain.Catalogue} for a description prefix, with only the
+ * fields displayed while typing.
+ */
+public class CatalogueSuggestionDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long id;
+
+    private String description;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CatalogueSuggestionDTO)) {
+            return false;
+        }
+
+        return id != null && id.equals(((CatalogueSuggestionDTO) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CatalogueSuggestionDTO{" +
+            "id=" + getId() +
+            ", description='" + getDescription() + "'" +
+            "}";
+    }
+}
@@ -1,20 +1,73 @@
 package com.gymmastercatalogue.app.service.impl;
 
+import com.gymmastercatalogue.app.config.ApplicationProperties;
+import com.gymmastercatalogue.app.service.CatalogueColumnarIndex;
+import com.gymmastercatalogue.app.service.CatalogueQueryResultCache;
 import com.gymmastercatalogue.app.service.CatalogueService;
+import com.gymmastercatalogue.app.service.CatalogueSuggestionCache;
 import com.gymmastercatalogue.app.domain.Catalogue;
+import com.gymmastercatalogue.app.domain.Catalogue_;
+import com.gymmastercatalogue.app.domain.CatalogueOutboxEvent;
+import com.gymmastercatalogue.app.domain.enumeration.OutboxOperation;
+import com.gymmastercatalogue.app.domain.enumeration.categoryEnum;
+import com.gymmastercatalogue.app.repository.CatalogueOutboxEventRepository;
 import com.gymmastercatalogue.app.repository.CatalogueRepository;
-import com.gymmastercatalogue.app.repository.search.CatalogueSearchRepository;
+import com.gymmastercatalogue.app.repository.search.CatalogueSearchTransport;
 import com.gymmastercatalogue.app.service.dto.CatalogueDTO;
+import com.gymmastercatalogue.app.service.dto.CatalogueFacetsDTO;
+import com.gymmastercatalogue.app.service.dto.CatalogueSearchRequest;
+import com.gymmastercatalogue.app.service.dto.CatalogueSuggestionDTO;
 import com.gymmastercatalogue.app.service.mapper.CatalogueMapper;
+import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.index.query.Operator;
+import org.elasticsearch.index.query.RangeQueryBuilder;
+import org.elasticsearch.search.aggregations.AggregationBuilders;
+import org.elasticsearch.search.aggregations.bucket.histogram.DateHistogramInterval;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import io.searchbox.core.SearchResult;
+import io.searchbox.core.search.aggregation.MetricAggregation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.StringUtils;
 
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Predicate;
+import java.time.Instant;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static org.elasticsearch.index.query.QueryBuilders.*;
 
@@ -25,30 +78,160 @@ import static org.elasticsearch.index.query.QueryBuilders.*;
 @Transactional
 public class CatalogueServiceImpl implements CatalogueService {
 
+    private static final int MAX_SUGGEST_PREFIX_LENGTH = 64;
+
+    /**
+     * The fields of the Elasticsearch mapping with doc values, which searches can be sorted on.
+     */
+    private static final Set<String> SEARCH_SORT_PROPERTIES = new HashSet<>(Arrays.asList("_score", Catalogue_.ID,
+        Catalogue_.PRICE, Catalogue_.SESSION_DT, Catalogue_.CATEGORY, Catalogue_.PARTNER_ID));
+
     private final Logger log = LoggerFactory.getLogger(CatalogueServiceImpl.class);
 
     private final CatalogueRepository catalogueRepository;
 
     private final CatalogueMapper catalogueMapper;
 
-    private final CatalogueSearchRepository catalogueSearchRepository;
+    private final CatalogueSearchTransport catalogueSearchTransport;
+
+    private final CatalogueOutboxEventRepository catalogueOutboxEventRepository;
+
+    private final CacheManager cacheManager;
+
+    private final CatalogueQueryResultCache catalogueQueryResultCache;
+
+    private final CatalogueSuggestionCache catalogueSuggestionCache;
+
+    private final CatalogueColumnarIndex catalogueColumnarIndex;
+
+    private final ApplicationProperties.Search.Suggest suggestProperties;
+
+    private final ApplicationProperties.Search.Facets facetsProperties;
+
+    private final ApplicationProperties.Batch batchProperties;
+
+    private final Executor taskExecutor;
+
+    private final TransactionTemplate transactionTemplate;
 
-    public CatalogueServiceImpl(CatalogueRepository catalogueRepository, CatalogueMapper catalogueMapper, CatalogueSearchRepository catalogueSearchRepository) {
+    private final EntityManager entityManager;
+
+    public CatalogueServiceImpl(CatalogueRepository catalogueRepository, CatalogueMapper catalogueMapper, CatalogueSearchTransport catalogueSearchTransport,
+                                CatalogueOutboxEventRepository catalogueOutboxEventRepository, CacheManager cacheManager,
+                                CatalogueQueryResultCache catalogueQueryResultCache, CatalogueSuggestionCache catalogueSuggestionCache,
+                                CatalogueColumnarIndex catalogueColumnarIndex, ApplicationProperties applicationProperties, @Qualifier("taskExecutor") Executor taskExecutor,
+                                PlatformTransactionManager transactionManager, EntityManager entityManager) {
         this.catalogueRepository = catalogueRepository;
         this.catalogueMapper = catalogueMapper;
-        this.catalogueSearchRepository = catalogueSearchRepository;
+        this.catalogueSearchTransport = catalogueSearchTransport;
+        this.catalogueOutboxEventRepository = catalogueOutboxEventRepository;
+        this.cacheManager = cacheManager;
+        this.catalogueQueryResultCache = catalogueQueryResultCache;
+        this.catalogueSuggestionCache = catalogueSuggestionCache;
+        this.catalogueColumnarIndex = catalogueColumnarIndex;
+        this.suggestProperties = applicationProperties.getSearch().getSuggest();
+        this.facetsProperties = applicationProperties.getSearch().getFacets();
+        this.batchProperties = applicationProperties.getBatch();
+        this.taskExecutor = taskExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManager = entityManager;
     }
 
     @Override
     public CatalogueDTO save(CatalogueDTO catalogueDTO) {
         log.debug("Request to save Catalogue : {}", catalogueDTO);
+        // The previous version is read before the save, which merges the changes into it
+        Optional<Catalogue> previous = Optional.ofNullable(catalogueDTO.getId()).flatMap(catalogueRepository::findById);
+        previous.ifPresent(existing -> clearQueryResults(existing.getCategory(), existing.getPartnerId()));
         Catalogue catalogue = catalogueMapper.toEntity(catalogueDTO);
+        if (catalogueDTO.getId() != null) {
+            // The DTO has no version: the update applies to the version read, and increments it
+            catalogue.setVersion(previous.map(Catalogue::getVersion).orElse(0L));
+        }
         catalogue = catalogueRepository.save(catalogue);
         CatalogueDTO result = catalogueMapper.toDto(catalogue);
-        catalogueSearchRepository.save(catalogue);
+        recordSearchChange(catalogue.getId(), OutboxOperation.INDEX);
+        clearCatalogueCaches(Collections.singleton(catalogue.getId()));
+        clearQueryResults(catalogue.getCategory(), catalogue.getPartnerId());
+        refreshColumnarIndex(Collections.singleton(catalogue.getId()));
+        return result;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<CatalogueDTO> saveAll(List<CatalogueDTO> catalogueDTOs) {
+        log.debug("Request to save {} Catalogues", catalogueDTOs.size());
+        int chunkSize = batchProperties.getChunkSize();
+        checkExist(catalogueDTOs, chunkSize);
+        List<CatalogueDTO> result = new ArrayList<>(catalogueDTOs.size());
+        for (int from = 0; from < catalogueDTOs.size(); from += chunkSize) {
+            List<CatalogueDTO> chunk = catalogueDTOs.subList(from, Math.min(from + chunkSize, catalogueDTOs.size()));
+            try {
+                result.addAll(transactionTemplate.execute(status -> saveChunk(chunk)));
+            } catch (IllegalArgumentException e) {
+                if (result.isEmpty()) {
+                    throw e;
+                }
+                throw new IllegalArgumentException(e.getMessage() + ", after saving the first " + result.size() + " catalogues", e);
+            }
+        }
         return result;
     }
 
+    /**
+     * Check that the catalogues to update exist, querying their ids by chunk so that the {@code IN} lists stay within
+     * the limits of the database, before any chunk is saved.
+     */
+    private void checkExist(List<CatalogueDTO> catalogueDTOs, int chunkSize) {
+        List<Long> ids = catalogueDTOs.stream().map(CatalogueDTO::getId).filter(Objects::nonNull).distinct().collect(Collectors.toList());
+        Set<Long> missing = new LinkedHashSet<>();
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            Set<Long> chunk = new LinkedHashSet<>(ids.subList(from, Math.min(from + chunkSize, ids.size())));
+            chunk.removeAll(catalogueRepository.findExistingIds(chunk));
+            missing.addAll(chunk);
+        }
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("Catalogues not found: " + missing);
+        }
+    }
+
+    /**
+     * Save a chunk of catalogues in the current transaction. The inserts and updates are flushed in JDBC batches of
+     * {@code hibernate.jdbc.batch_size} statements, then the persistence context is cleared so that it doesn't grow
+     * with the next chunks.
+     */
+    private List<CatalogueDTO> saveChunk(List<CatalogueDTO> chunk) {
+        Set<Long> ids = chunk.stream().map(CatalogueDTO::getId).filter(Objects::nonNull).collect(Collectors.toCollection(LinkedHashSet::new));
+        Set<Map.Entry<categoryEnum, Integer>> affected = new HashSet<>();
+        Map<Long, Long> versions = new HashMap<>();
+        if (!ids.isEmpty()) {
+            // The previous versions are read with one query, so the updates merge into them without selecting each row
+            List<Catalogue> previous = catalogueRepository.findAllById(ids);
+            previous.forEach(existing -> {
+                ids.remove(existing.getId());
+                versions.put(existing.getId(), existing.getVersion());
+                affected.add(new AbstractMap.SimpleImmutableEntry<>(existing.getCategory(), existing.getPartnerId()));
+            });
+            if (!ids.isEmpty()) {
+                throw new IllegalArgumentException("Catalogues not found: " + ids);
+            }
+        }
+        List<Catalogue> entities = catalogueMapper.toEntity(chunk);
+        entities.forEach(catalogue -> catalogue.setVersion(versions.get(catalogue.getId())));
+        List<Catalogue> catalogues = catalogueRepository.saveAll(entities);
+        catalogueOutboxEventRepository.saveAll(catalogues.stream()
+            .map(catalogue -> searchChange(catalogue.getId(), OutboxOperation.INDEX))
+            .collect(Collectors.toList()));
+        entityManager.flush();
+        entityManager.clear();
+        catalogues.forEach(catalogue -> affected.add(new AbstractMap.SimpleImmutableEntry<>(catalogue.getCategory(), catalogue.getPartnerId())));
+        List<Long> savedIds = catalogues.stream().map(Catalogue::getId).collect(Collectors.toList());
+        clearCatalogueCaches(savedIds);
+        affected.forEach(entry -> clearQueryResults(entry.getKey(), entry.getValue()));
+        refreshColumnarIndex(savedIds);
+        return catalogueMapper.toDto(catalogues);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Page<CatalogueDTO> findAll(Pageable pageable) {
@@ -60,6 +243,7 @@ public class CatalogueServiceImpl implements CatalogueService {
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CatalogueRepository.CATALOGUE_BY_ID_CACHE, key = "#id", unless = "#result == null")
     public Optional<CatalogueDTO> findOne(Long id) {
         log.debug("Request to get Catalogue : {}", id);
         return catalogueRepository.findById(id)
@@ -69,15 +253,231 @@ public class CatalogueServiceImpl implements CatalogueService {
     @Override
     public void delete(Long id) {
         log.debug("Request to delete Catalogue : {}", id);
+        catalogueRepository.findById(id)
+            .ifPresent(catalogue -> clearQueryResults(catalogue.getCategory(), catalogue.getPartnerId()));
         catalogueRepository.deleteById(id);
-        catalogueSearchRepository.deleteById(id);
+        recordSearchChange(id, OutboxOperation.DELETE);
+        clearCatalogueCaches(Collections.singleton(id));
+        refreshColumnarIndex(Collections.singleton(id));
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public Page<CatalogueDTO> search(String query, Pageable pageable) {
-        log.debug("Request to search for a page of Catalogues for query {}", query);
-        return catalogueSearchRepository.search(queryStringQuery(query), pageable)
-            .map(catalogueMapper::toDto);
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletableFuture<Page<CatalogueDTO>> search(CatalogueSearchRequest request, Pageable pageable) {
+        log.debug("Request to search for a page of Catalogues for {}", request);
+        pageable.getSort().forEach(order -> {
+            if (!SEARCH_SORT_PROPERTIES.contains(order.getProperty())) {
+                throw new IllegalArgumentException("Searches cannot be sorted by " + order.getProperty());
+            }
+        });
+        return catalogueSearchTransport.search(toQuery(request), pageable)
+            .thenApply(page -> page.map(catalogueMapper::toDto));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletableFuture<List<CatalogueSuggestionDTO>> suggest(String prefix, int size) {
+        log.debug("Request to suggest Catalogues for prefix {}", prefix);
+        if (!StringUtils.hasText(prefix) || prefix.length() > MAX_SUGGEST_PREFIX_LENGTH) {
+            throw new IllegalArgumentException("The prefix must have 1 to " + MAX_SUGGEST_PREFIX_LENGTH + " characters");
+        }
+        if (size < 1 || size > suggestProperties.getMaxResults()) {
+            throw new IllegalArgumentException("The size must be between 1 and " + suggestProperties.getMaxResults());
+        }
+        // The prefix is analyzed with lowercase tokens, so prefixes differing in case share an entry
+        String normalized = prefix.trim().toLowerCase(Locale.ROOT);
+        return catalogueSuggestionCache.get(normalized, size, () -> catalogueSearchTransport
+            .search("suggest", matchQuery("description.suggest", normalized).operator(Operator.AND), size, "id", "description")
+            .thenApply(catalogues -> catalogues.stream().map(catalogueMapper::toSuggestionDto).collect(Collectors.toList())));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletableFuture<CatalogueFacetsDTO> facets(CatalogueSearchRequest request, CatalogueFacetsDTO.Interval interval) {
+        log.debug("Request to count Catalogues by facet for {} by {}", request, interval);
+        SearchSourceBuilder source = new SearchSourceBuilder()
+            .query(toQuery(request))
+            .size(0)
+            .aggregation(AggregationBuilders.terms("category").field("category").size(categoryEnum.values().length))
+            .aggregation(AggregationBuilders.terms("partnerId").field("partnerId").size(facetsProperties.getMaxPartners()))
+            .aggregation(AggregationBuilders.dateHistogram("sessionDt").field("sessionDt").minDocCount(1)
+                .dateHistogramInterval(interval == CatalogueFacetsDTO.Interval.HOUR ? DateHistogramInterval.HOUR : DateHistogramInterval.DAY));
+        return catalogueSearchTransport.search("facets", source)
+            .thenApply(result -> toFacets(result, facetsProperties.getMaxSessionBuckets()))
+            .handle((facets, e) -> {
+                if (e == null) {
+                    return CompletableFuture.completedFuture(facets);
+                }
+                log.warn("Counting Catalogues by facet in the database, as Elasticsearch failed: {}", e.getMessage());
+                return CompletableFuture.supplyAsync(() -> countFacets(request, interval), taskExecutor);
+            })
+            .thenCompose(Function.identity());
+    }
+
+    /**
+     * Count the catalogues by facet with {@code GROUP BY} queries, the session dates by time bucket.
+     */
+    private CatalogueFacetsDTO countFacets(CatalogueSearchRequest request, CatalogueFacetsDTO.Interval interval) {
+        Specification<Catalogue> specification = toSpecification(request);
+        CatalogueFacetsDTO facets = new CatalogueFacetsDTO();
+        facets.setTotal(catalogueRepository.count(specification));
+        facets.setCategory(catalogueRepository.countBy(specification, Catalogue_.category, categoryEnum.values().length));
+        facets.setPartnerId(catalogueRepository.countBy(specification, Catalogue_.partnerId, facetsProperties.getMaxPartners()));
+        facets.setSessionDt(catalogueRepository.countBySessionDt(specification, interval.getUnit(), facetsProperties.getMaxSessionBuckets()));
+        return facets;
+    }
+
+    /**
+     * Build the Elasticsearch query of a search. Only the text is scored, against the description: the other
+     * parameters are in the filter context of the query, where Elasticsearch caches their matching documents.
+     */
+    static BoolQueryBuilder toQuery(CatalogueSearchRequest request) {
+        BoolQueryBuilder query = boolQuery();
+        if (StringUtils.hasText(request.getQuery())) {
+            query.must(matchQuery("description", request.getQuery()));
+        }
+        if (!CollectionUtils.isEmpty(request.getCategory())) {
+            query.filter(termsQuery("category", request.getCategory().stream().map(Enum::name).collect(Collectors.toList())));
+        }
+        if (!CollectionUtils.isEmpty(request.getPartnerId())) {
+            query.filter(termsQuery("partnerId", request.getPartnerId()));
+        }
+        if (request.getPriceMin() != null || request.getPriceMax() != null) {
+            RangeQueryBuilder price = rangeQuery("price");
+            if (request.getPriceMin() != null) {
+                price.gte(request.getPriceMin());
+            }
+            if (request.getPriceMax() != null) {
+                price.lte(request.getPriceMax());
+            }
+            query.filter(price);
+        }
+        if (request.getSessionFrom() != null || request.getSessionTo() != null) {
+            RangeQueryBuilder sessionDt = rangeQuery("sessionDt");
+            if (request.getSessionFrom() != null) {
+                sessionDt.gte(request.getSessionFrom().toString());
+            }
+            if (request.getSessionTo() != null) {
+                sessionDt.lt(request.getSessionTo().toString());
+            }
+            query.filter(sessionDt);
+        }
+        return query;
+    }
+
+    /**
+     * Build the database equivalent of the query of a search, where the description contains any word of the text.
+     */
+    static Specification<Catalogue> toSpecification(CatalogueSearchRequest request) {
+        return (root, query, builder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (StringUtils.hasText(request.getQuery())) {
+                Expression<String> description = builder.lower(root.get(Catalogue_.description));
+                predicates.add(builder.or(Arrays.stream(request.getQuery().trim().toLowerCase(Locale.ROOT).split("\\s+"))
+                    .map(word -> builder.like(description, "%" + word.replaceAll("([\\\\%_])", "\\\\$1") + "%", '\\'))
+                    .toArray(Predicate[]::new)));
+            }
+            if (!CollectionUtils.isEmpty(request.getCategory())) {
+                predicates.add(root.get(Catalogue_.category).in(request.getCategory()));
+            }
+            if (!CollectionUtils.isEmpty(request.getPartnerId())) {
+                predicates.add(root.get(Catalogue_.partnerId).in(request.getPartnerId()));
+            }
+            if (request.getPriceMin() != null) {
+                predicates.add(builder.greaterThanOrEqualTo(root.get(Catalogue_.price), request.getPriceMin()));
+            }
+            if (request.getPriceMax() != null) {
+                predicates.add(builder.lessThanOrEqualTo(root.get(Catalogue_.price), request.getPriceMax()));
+            }
+            if (request.getSessionFrom() != null) {
+                predicates.add(builder.greaterThanOrEqualTo(root.get(Catalogue_.sessionDt), request.getSessionFrom()));
+            }
+            if (request.getSessionTo() != null) {
+                predicates.add(builder.lessThan(root.get(Catalogue_.sessionDt), request.getSessionTo()));
+            }
+            return builder.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    static CatalogueFacetsDTO toFacets(SearchResult result, int maxSessionBuckets) {
+        if (!result.isSucceeded()) {
+            throw new IllegalStateException("Catalogue aggregation failed: " + result.getErrorMessage());
+        }
+        CatalogueFacetsDTO facets = new CatalogueFacetsDTO();
+        Long total = result.getTotal();
+        facets.setTotal(total != null ? total : 0);
+        MetricAggregation aggregations = result.getAggregations();
+        aggregations.getTermsAggregation("category").getBuckets()
+            .forEach(bucket -> facets.getCategory().put(categoryEnum.valueOf(bucket.getKey()), bucket.getCount()));
+        aggregations.getTermsAggregation("partnerId").getBuckets()
+            .forEach(bucket -> facets.getPartnerId().put(Integer.valueOf(bucket.getKey()), bucket.getCount()));
+        aggregations.getDateHistogramAggregation("sessionDt").getBuckets().stream()
+            .limit(maxSessionBuckets)
+            .forEach(bucket -> facets.getSessionDt().put(Instant.ofEpochMilli(bucket.getTime()), bucket.getCount()));
+        return facets;
+    }
+
+    /**
+     * Evict catalogues from the caches, now and once the current transaction is committed, so that a read
+     * racing with the transaction cannot leave the previous version in the cache.
+     */
+    private void clearCatalogueCaches(Collection<Long> ids) {
+        Cache cache = cacheManager.getCache(CatalogueRepository.CATALOGUE_BY_ID_CACHE);
+        ids.forEach(cache::evict);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    ids.forEach(cache::evict);
+                }
+            });
+        }
+    }
+
+    /**
+     * Evict the cached query results which may contain a catalogue of the given category and partner,
+     * now and once the current transaction is committed.
+     */
+    private void clearQueryResults(categoryEnum category, Integer partnerId) {
+        catalogueQueryResultCache.invalidate(category, partnerId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    catalogueQueryResultCache.invalidate(category, partnerId);
+                }
+            });
+        }
+    }
+
+    /**
+     * Have the columnar index of every node re-read catalogues, once the current transaction is committed.
+     */
+    private void refreshColumnarIndex(Collection<Long> ids) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            catalogueColumnarIndex.changed(ids);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                catalogueColumnarIndex.changed(ids);
+            }
+        });
+    }
+
+    /**
+     * Record an Elasticsearch change in the outbox, within the current transaction.
+     * It is applied later by {@link com.gymmastercatalogue.app.service.CatalogueSearchOutboxRelay}.
+     */
+    private void recordSearchChange(Long id, OutboxOperation operation) {
+        catalogueOutboxEventRepository.save(searchChange(id, operation));
+    }
+
+    private static CatalogueOutboxEvent searchChange(Long id, OutboxOperation operation) {
+        return new CatalogueOutboxEvent()
+            .catalogueId(id)
+            .operation(operation)
+            .createdDate(Instant.now());
     }
 }
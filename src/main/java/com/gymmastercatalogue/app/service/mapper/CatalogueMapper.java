@@ -3,6 +3,7 @@ package com.gymmastercatalogue.app.service.mapper;
 
 import com.gymmastercatalogue.app.domain.*;
 import com.gymmastercatalogue.app.service.dto.CatalogueDTO;
+import com.gymmastercatalogue.app.service.dto.CatalogueSuggestionDTO;
 
 import org.mapstruct.*;
 
@@ -12,7 +13,7 @@ import org.mapstruct.*;
 @Mapper(componentModel = "spring", uses = {})
 public interface CatalogueMapper extends EntityMapper<CatalogueDTO, Catalogue> {
 
-
+    CatalogueSuggestionDTO toSuggestionDto(Catalogue catalogue);
 
     default Catalogue fromId(Long id) {
         if (id == null) {
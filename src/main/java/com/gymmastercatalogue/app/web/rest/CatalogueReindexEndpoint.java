@@ -0,0 +1,43 @@
+package com.gymmastercatalogue.app.web.rest;
+
+import com.gymmastercatalogue.app.service.CatalogueReindexService;
+import com.gymmastercatalogue.app.service.dto.CatalogueReindexStatus;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Management endpoint to rebuild the Catalogue search index, and follow its progress.
+ */
+@Component
+@Endpoint(id = "cataloguereindex")
+public class CatalogueReindexEndpoint {
+
+    private final CatalogueReindexService catalogueReindexService;
+
+    public CatalogueReindexEndpoint(CatalogueReindexService catalogueReindexService) {
+        this.catalogueReindexService = catalogueReindexService;
+    }
+
+    /**
+     * {@code GET /management/cataloguereindex} : get the progress of the current, or last, reindex.
+     *
+     * @return the status of the reindex.
+     */
+    @ReadOperation
+    public CatalogueReindexStatus status() {
+        return catalogueReindexService.getStatus();
+    }
+
+    /**
+     * {@code POST /management/cataloguereindex} : start a full reindex, unless one is already running.
+     *
+     * @return the status of the reindex.
+     */
+    @WriteOperation
+    public CatalogueReindexStatus start() {
+        return catalogueReindexService.start();
+    }
+}
@@ -1,11 +1,22 @@
 package com.gymmastercatalogue.app.web.rest;
 
+import com.gymmastercatalogue.app.config.ApplicationProperties;
+import com.gymmastercatalogue.app.service.CatalogueImportService;
 import com.gymmastercatalogue.app.service.CatalogueService;
 import com.gymmastercatalogue.app.web.rest.errors.BadRequestAlertException;
+import com.gymmastercatalogue.app.service.dto.CatalogueCsvFormat;
 import com.gymmastercatalogue.app.service.dto.CatalogueDTO;
+import com.gymmastercatalogue.app.service.dto.CatalogueFacetsDTO;
+import com.gymmastercatalogue.app.service.dto.CatalogueImportReportDTO;
+import com.gymmastercatalogue.app.service.dto.CatalogueSearchRequest;
+import com.gymmastercatalogue.app.service.dto.CatalogueSuggestionDTO;
 import com.gymmastercatalogue.app.service.dto.CatalogueCriteria;
 import com.gymmastercatalogue.app.service.CatalogueQueryService;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.jhipster.web.util.HeaderUtil;
 import io.github.jhipster.web.util.PaginationUtil;
 import io.github.jhipster.web.util.ResponseUtil;
@@ -14,17 +25,38 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import javax.validation.ConstraintViolation;
 import javax.validation.Valid;
+import javax.validation.Validator;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.StreamSupport;
 
 import static org.elasticsearch.index.query.QueryBuilders.*;
@@ -40,6 +72,12 @@ public class CatalogueResource {
 
     private static final String ENTITY_NAME = "gymMasterCatalogueCatalogue";
 
+    private static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    private static final int MAX_REPORTED_VIOLATIONS = 20;
+
+    private static final String EXPORT_TIMEOUT_INTERCEPTOR = CatalogueResource.class.getName() + ".exportTimeout";
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -47,9 +85,23 @@ public class CatalogueResource {
 
     private final CatalogueQueryService catalogueQueryService;
 
-    public CatalogueResource(CatalogueService catalogueService, CatalogueQueryService catalogueQueryService) {
+    private final CatalogueImportService catalogueImportService;
+
+    private final ObjectMapper objectMapper;
+
+    private final Validator validator;
+
+    private final ApplicationProperties.Batch batchProperties;
+
+    public CatalogueResource(CatalogueService catalogueService, CatalogueQueryService catalogueQueryService,
+                             CatalogueImportService catalogueImportService, ObjectMapper objectMapper, Validator validator,
+                             ApplicationProperties applicationProperties) {
         this.catalogueService = catalogueService;
         this.catalogueQueryService = catalogueQueryService;
+        this.catalogueImportService = catalogueImportService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.batchProperties = applicationProperties.getBatch();
     }
 
     /**
@@ -92,31 +144,271 @@ public class CatalogueResource {
             .body(result);
     }
 
+    /**
+     * {@code POST  /catalogues/batch} : Create and update catalogues, given as a JSON array.
+     * <p>
+     * Catalogues without an ID are created, the others updated. Nothing is saved unless all of them are valid.
+     *
+     * @param catalogueDTOs the catalogueDTOs to save, at most {@code application.batch.max-entries}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the saved catalogueDTOs in the same order,
+     * or with status {@code 400 (Bad Request)} if a catalogueDTO is not valid or a catalogue to update doesn't exist.
+     */
+    @PostMapping(value = "/catalogues/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<CatalogueDTO>> saveCatalogues(@RequestBody List<CatalogueDTO> catalogueDTOs) {
+        log.debug("REST request to save {} Catalogues", catalogueDTOs.size());
+        if (catalogueDTOs.size() > batchProperties.getMaxEntries()) {
+            throw new BadRequestAlertException("A batch cannot have more than " + batchProperties.getMaxEntries() + " catalogues",
+                ENTITY_NAME, "batchtoolarge");
+        }
+        return saveBatch(catalogueDTOs);
+    }
+
+    /**
+     * {@code POST  /catalogues/batch} : Create and update catalogues, given as newline-delimited JSON.
+     * <p>
+     * The request body is read one catalogue at a time, without buffering the whole document.
+     *
+     * @param body the catalogueDTOs to save, one JSON object per line, at most {@code application.batch.max-entries}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the saved catalogueDTOs in the same order,
+     * or with status {@code 400 (Bad Request)} if a line is not a valid catalogueDTO or a catalogue to update doesn't exist.
+     * @throws IOException if the request body cannot be read.
+     */
+    @PostMapping(value = "/catalogues/batch", consumes = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<List<CatalogueDTO>> saveCataloguesStream(InputStream body) throws IOException {
+        log.debug("REST request to save a stream of Catalogues");
+        List<CatalogueDTO> catalogueDTOs = new ArrayList<>();
+        try (MappingIterator<CatalogueDTO> lines = objectMapper.readerFor(CatalogueDTO.class).readValues(body)) {
+            while (lines.hasNextValue()) {
+                if (catalogueDTOs.size() == batchProperties.getMaxEntries()) {
+                    throw new BadRequestAlertException("A batch cannot have more than " + batchProperties.getMaxEntries() + " catalogues",
+                        ENTITY_NAME, "batchtoolarge");
+                }
+                catalogueDTOs.add(lines.nextValue());
+            }
+        } catch (JsonProcessingException e) {
+            String line = e.getLocation() != null ? " at line " + e.getLocation().getLineNr() : "";
+            throw new BadRequestAlertException("Invalid catalogue" + line + ": " + e.getOriginalMessage(), ENTITY_NAME, "batchinvalid");
+        }
+        return saveBatch(catalogueDTOs);
+    }
+
+    /**
+     * {@code POST  /catalogues/import} : Import catalogues from a CSV or newline-delimited JSON document, of any size.
+     * <p>
+     * The rows are read, validated and created as they are received. Invalid rows are rejected without stopping the
+     * import, and reported with their line. If a chunk of rows cannot be written, the import stops, and the report
+     * tells how many rows were imported before, with the error, also sent in a failure alert header.
+     *
+     * @param body the document: CSV with a header line naming the columns, or one JSON catalogueDTO per line.
+     * @param contentType {@code text/csv} or {@code application/x-ndjson}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the report of the import,
+     * or with status {@code 400 (Bad Request)} if the CSV header line is invalid.
+     * @throws IOException if the request body cannot be read.
+     */
+    @PostMapping(value = "/catalogues/import", consumes = { CatalogueCsvFormat.MEDIA_TYPE, APPLICATION_NDJSON_VALUE })
+    public ResponseEntity<CatalogueImportReportDTO> importCatalogues(InputStream body, @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType)
+        throws IOException {
+        log.debug("REST request to import Catalogues from {}", contentType);
+        CatalogueImportReportDTO report;
+        try {
+            report = contentType.isCompatibleWith(MediaType.parseMediaType(CatalogueCsvFormat.MEDIA_TYPE))
+                ? catalogueImportService.importCsv(body) : catalogueImportService.importNdjson(body);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "importinvalid");
+        }
+        if (report.getError() != null) {
+            return ResponseEntity.ok()
+                .headers(HeaderUtil.createFailureAlert(applicationName, false, ENTITY_NAME, "importfailed", report.getError()))
+                .body(report);
+        }
+        return ResponseEntity.ok().body(report);
+    }
+
+    private ResponseEntity<List<CatalogueDTO>> saveBatch(List<CatalogueDTO> catalogueDTOs) {
+        List<String> violations = new ArrayList<>();
+        for (int i = 0; i < catalogueDTOs.size() && violations.size() < MAX_REPORTED_VIOLATIONS; i++) {
+            if (catalogueDTOs.get(i) == null) {
+                violations.add("[" + i + "]: must not be null");
+                continue;
+            }
+            for (ConstraintViolation<CatalogueDTO> violation : validator.validate(catalogueDTOs.get(i))) {
+                violations.add("[" + i + "]." + violation.getPropertyPath() + ": " + violation.getMessage());
+            }
+        }
+        if (!violations.isEmpty()) {
+            throw new BadRequestAlertException("Invalid catalogues " + violations, ENTITY_NAME, "batchinvalid");
+        }
+        try {
+            return ResponseEntity.ok().body(catalogueService.saveAll(catalogueDTOs));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "idnotfound");
+        }
+    }
+
     /**
      * {@code GET  /catalogues} : get all the catalogues.
+     * <p>
+     * With {@code count=false} the total is not computed: the {@code X-Has-Next-Page} header tells if there is a next page.
+     * With {@code count=approximate} the {@code X-Total-Count} header is served from the cached counts, and may be stale.
      *
      * @param pageable the pagination information.
      * @param criteria the criteria which the requested entities should match.
+     * @param count how the total is computed: {@code true} (exact, the default), {@code false} or {@code approximate}.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of catalogues in body.
      */
     @GetMapping("/catalogues")
-    public ResponseEntity<List<CatalogueDTO>> getAllCatalogues(CatalogueCriteria criteria, Pageable pageable) {
-        log.debug("REST request to get Catalogues by criteria: {}", criteria);
-        Page<CatalogueDTO> page = catalogueQueryService.findByCriteria(criteria, pageable);
-        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
-        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    public ResponseEntity<List<CatalogueDTO>> getAllCatalogues(CatalogueCriteria criteria, Pageable pageable,
+                                                               @RequestParam(defaultValue = "true") String count) {
+        log.debug("REST request to get Catalogues by criteria: {}, count: {}", criteria, count);
+        switch (count) {
+            case "true":
+                Page<CatalogueDTO> page = catalogueQueryService.findByCriteria(criteria, pageable);
+                HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+                return ResponseEntity.ok().headers(headers).body(page.getContent());
+            case "false":
+                Slice<CatalogueDTO> slice = catalogueQueryService.findSliceByCriteria(criteria, pageable);
+                return ResponseEntity.ok().headers(generateSliceHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), slice))
+                    .body(slice.getContent());
+            case "approximate":
+                Page<CatalogueDTO> approximatePage = catalogueQueryService.findByCriteriaWithApproximateCount(criteria, pageable);
+                HttpHeaders approximateHeaders = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), approximatePage);
+                approximateHeaders.add("X-Total-Count-Approximate", "true");
+                return ResponseEntity.ok().headers(approximateHeaders).body(approximatePage.getContent());
+            default:
+                throw new BadRequestAlertException("Invalid count mode", ENTITY_NAME, "countinvalid");
+        }
+    }
+
+    /**
+     * {@code GET  /catalogues?after=:cursor} : get the catalogues following a cursor.
+     * <p>
+     * Pass an empty {@code after} for the first slice; the cursor of the next slice is returned in the
+     * {@code X-Next-Cursor} header and in the {@code next} link, and is absent on the last slice.
+     * No total count is computed.
+     *
+     * @param after the cursor returned with the previous slice.
+     * @param pageable the size and sort of the slice.
+     * @param criteria the criteria which the requested entities should match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of catalogues in body,
+     * or with status {@code 400 (Bad Request)} if the cursor or the sort is not valid.
+     */
+    @GetMapping(value = "/catalogues", params = "after")
+    public ResponseEntity<List<CatalogueDTO>> getAllCataloguesAfter(CatalogueCriteria criteria, @RequestParam String after, Pageable pageable) {
+        log.debug("REST request to get Catalogues by criteria: {}, after: {}", criteria, after);
+        Slice<CatalogueDTO> slice;
+        try {
+            slice = catalogueQueryService.findByCriteria(criteria, after, pageable);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "cursorinvalid");
+        }
+        HttpHeaders headers = new HttpHeaders();
+        String nextCursor = catalogueQueryService.nextCursor(slice);
+        if (nextCursor != null) {
+            UriComponentsBuilder uriBuilder = ServletUriComponentsBuilder.fromCurrentRequest();
+            headers.add("X-Next-Cursor", nextCursor);
+            headers.add(HttpHeaders.LINK, "<" + uriBuilder.replaceQueryParam("after", nextCursor).toUriString() + ">; rel=\"next\"");
+        }
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
     }
 
     /**
      * {@code GET  /catalogues/count} : count all the catalogues.
      *
      * @param criteria the criteria which the requested entities should match.
+     * @param approximate whether the count can be served from the cached counts.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the count in body.
      */
     @GetMapping("/catalogues/count")
-    public ResponseEntity<Long> countCatalogues(CatalogueCriteria criteria) {
-        log.debug("REST request to count Catalogues by criteria: {}", criteria);
-        return ResponseEntity.ok().body(catalogueQueryService.countByCriteria(criteria));
+    public ResponseEntity<Long> countCatalogues(CatalogueCriteria criteria, @RequestParam(defaultValue = "false") boolean approximate) {
+        log.debug("REST request to count Catalogues by criteria: {}, approximate: {}", criteria, approximate);
+        return ResponseEntity.ok().body(approximate ? catalogueQueryService.approximateCountByCriteria(criteria)
+            : catalogueQueryService.countByCriteria(criteria));
+    }
+
+    /**
+     * {@code GET  /catalogues/export} : export all the catalogues matching the criteria, in id order.
+     * <p>
+     * The rows are written as they are read from the database, so the export runs in constant memory whatever its size,
+     * for at most {@code application.batch.export-timeout-ms}.
+     *
+     * @param criteria the criteria which the exported entities should match.
+     * @param format the format of the export: {@code ndjson} (one JSON object per line, the default) or {@code csv}.
+     * @param request the request, whose asynchronous processing is given the export timeout.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the catalogues streamed in body.
+     */
+    @GetMapping("/catalogues/export")
+    public ResponseEntity<StreamingResponseBody> exportCatalogues(CatalogueCriteria criteria, @RequestParam(defaultValue = "ndjson") String format,
+                                                                  NativeWebRequest request) {
+        log.debug("REST request to export Catalogues by criteria: {}, format: {}", criteria, format);
+        // The streaming body is run like a Callable without a timeout of its own, which is set just before it starts
+        long timeoutMs = batchProperties.getExportTimeoutMs();
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(EXPORT_TIMEOUT_INTERCEPTOR, new CallableProcessingInterceptor() {
+            @Override
+            public <T> void beforeConcurrentHandling(NativeWebRequest asyncRequest, Callable<T> task) {
+                ((AsyncWebRequest) asyncRequest).setTimeout(timeoutMs);
+            }
+        });
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"catalogues." + format + "\"");
+        switch (format) {
+            case "ndjson":
+                return response.contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE))
+                    .body(out -> exportNdjson(criteria, out));
+            case "csv":
+                return response.contentType(MediaType.parseMediaType(CatalogueCsvFormat.MEDIA_TYPE + ";charset=UTF-8"))
+                    .body(out -> exportCsv(criteria, out));
+            default:
+                throw new BadRequestAlertException("Invalid export format", ENTITY_NAME, "formatinvalid");
+        }
+    }
+
+    private void exportNdjson(CatalogueCriteria criteria, OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.setRootValueSeparator(null);
+            long count = catalogueQueryService.exportByCriteria(criteria, catalogueDTO -> {
+                try {
+                    generator.writeObject(catalogueDTO);
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            log.debug("Exported {} Catalogues", count);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void exportCsv(CatalogueCriteria criteria, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        CatalogueCsvFormat.writeHeader(writer);
+        try {
+            long count = catalogueQueryService.exportByCriteria(criteria, catalogueDTO -> {
+                try {
+                    CatalogueCsvFormat.writeRow(writer, catalogueDTO);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            log.debug("Exported {} Catalogues", count);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    /**
+     * {@code GET  /catalogues/facets} : count the catalogues by category, partner and session time bucket, in one request.
+     *
+     * @param request the text and filters the counted catalogues should match.
+     * @param interval the length of the session time buckets: {@code HOUR} or {@code DAY}, the default.
+     * @return the total and the counts by facet.
+     */
+    @GetMapping("/catalogues/facets")
+    public CompletableFuture<CatalogueFacetsDTO> getCatalogueFacets(@Valid CatalogueSearchRequest request,
+                                                                    @RequestParam(defaultValue = "DAY") CatalogueFacetsDTO.Interval interval) {
+        log.debug("REST request to count Catalogues by facet for {} by {}", request, interval);
+        return catalogueService.facets(request, interval);
     }
 
     /**
@@ -146,18 +438,64 @@ public class CatalogueResource {
     }
 
     /**
-     * {@code SEARCH  /_search/catalogues?query=:query} : search for the catalogue corresponding
-     * to the query.
+     * {@code SEARCH  /_search/catalogues?query=:query} : search for the catalogues whose description matches
+     * the query, optionally filtered by category, partner, price and session date.
      *
-     * @param query the query of the catalogue search.
+     * @param request the text and filters of the catalogue search.
      * @param pageable the pagination information.
      * @return the result of the search.
      */
     @GetMapping("/_search/catalogues")
-    public ResponseEntity<List<CatalogueDTO>> searchCatalogues(@RequestParam String query, Pageable pageable) {
-        log.debug("REST request to search for a page of Catalogues for query {}", query);
-        Page<CatalogueDTO> page = catalogueService.search(query, pageable);
-        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
-        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    public CompletableFuture<ResponseEntity<List<CatalogueDTO>>> searchCatalogues(@Valid CatalogueSearchRequest request, Pageable pageable) {
+        log.debug("REST request to search for a page of Catalogues for {}", request);
+        // The request is released while Elasticsearch answers, so its URI is read beforehand
+        UriComponentsBuilder uriBuilder = ServletUriComponentsBuilder.fromCurrentRequest();
+        try {
+            return catalogueService.search(request, pageable).thenApply(page -> {
+                HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(uriBuilder, page);
+                return ResponseEntity.ok().headers(headers).body(page.getContent());
+            });
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "searchinvalid");
         }
+    }
+
+    /**
+     * {@code GET  /_suggest/catalogues?prefix=:prefix} : suggest the catalogues whose description has words
+     * starting with the words of the prefix, for search-as-you-type.
+     *
+     * @param prefix the text typed so far.
+     * @param size the maximum number of suggestions.
+     * @return the ids and descriptions of the suggested catalogues, best first.
+     */
+    @GetMapping("/_suggest/catalogues")
+    public CompletableFuture<List<CatalogueSuggestionDTO>> suggestCatalogues(@RequestParam String prefix,
+                                                                             @RequestParam(defaultValue = "10") int size) {
+        log.debug("REST request to suggest Catalogues for prefix {}", prefix);
+        try {
+            return catalogueService.suggest(prefix, size);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "suggestinvalid");
+        }
+    }
+
+    private static HttpHeaders generateSliceHttpHeaders(UriComponentsBuilder uriBuilder, Slice<?> slice) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("X-Has-Next-Page", Boolean.toString(slice.hasNext()));
+        List<String> links = new ArrayList<>();
+        if (slice.hasNext()) {
+            links.add(prepareLink(uriBuilder, slice.getNumber() + 1, slice.getSize(), "next"));
+        }
+        if (slice.hasPrevious()) {
+            links.add(prepareLink(uriBuilder, slice.getNumber() - 1, slice.getSize(), "prev"));
+        }
+        links.add(prepareLink(uriBuilder, 0, slice.getSize(), "first"));
+        headers.add(HttpHeaders.LINK, String.join(",", links));
+        return headers;
+    }
+
+    private static String prepareLink(UriComponentsBuilder uriBuilder, int pageNumber, int pageSize, String relType) {
+        return "<" + uriBuilder.replaceQueryParam("page", pageNumber).replaceQueryParam("size", pageSize).toUriString()
+            .replace(",", "%2C").replace(";", "%3B") + ">; rel=\"" + relType + "\"";
+    }
 }
@@ -0,0 +1,41 @@
+package com.gymmastercatalogue.app.config;
+
+import com.hazelcast.core.Cluster;
+import com.hazelcast.core.Member;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class CacheConfigurationTest {
+
+    @Test
+    public void testMembersOfAnotherClusterVersionAreRefused() {
+        Member current = member(CacheConfiguration.CLUSTER_VERSION);
+        Member previous = member(null);
+
+        assertThatCode(() -> CacheConfiguration.checkClusterVersion(cluster(current, current))).doesNotThrowAnyException();
+        assertThatThrownBy(() -> CacheConfiguration.checkClusterVersion(cluster(previous, current)))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("stop every member of the cluster");
+        assertThatThrownBy(() -> CacheConfiguration.checkClusterVersion(cluster(current, member(CacheConfiguration.CLUSTER_VERSION + 1))))
+            .isInstanceOf(IllegalStateException.class);
+    }
+
+    private static Member member(Integer clusterVersion) {
+        Member member = mock(Member.class);
+        when(member.getIntAttribute(CacheConfiguration.CLUSTER_VERSION_ATTRIBUTE)).thenReturn(clusterVersion);
+        return member;
+    }
+
+    private static Cluster cluster(Member... members) {
+        Cluster cluster = mock(Cluster.class);
+        when(cluster.getMembers()).thenReturn(new LinkedHashSet<>(Arrays.asList(members)));
+        return cluster;
+    }
+}
@@ -0,0 +1,86 @@
+package com.gymmastercatalogue.app.config;
+
+import com.gymmastercatalogue.app.domain.enumeration.categoryEnum;
+import com.gymmastercatalogue.app.service.dto.CatalogueDTO;
+
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.config.SerializerConfig;
+import com.hazelcast.spi.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.nio.serialization.HazelcastSerializationException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class CatalogueSerializersTest {
+
+    private final SerializationService serializationService = serializationService(true);
+
+    @Test
+    public void testCataloguesAreReadWithAllTheirFields() {
+        CatalogueDTO full = catalogueDTO();
+        CatalogueDTO empty = new CatalogueDTO();
+
+        assertThat((CatalogueDTO) roundTrip(full)).isEqualToComparingFieldByField(full);
+        assertThat((CatalogueDTO) roundTrip(empty)).isEqualToComparingFieldByField(empty);
+    }
+
+    @Test
+    public void testCataloguesAreSmallerThanWithJavaSerialization() {
+        Data compact = serializationService.toData(catalogueDTO());
+        Data java = serializationService(false).toData(catalogueDTO());
+
+        assertThat(compact.getType()).isEqualTo(CatalogueSerializers.CATALOGUE_DTO_TYPE_ID);
+        assertThat(compact.totalSize()).isLessThan(java.totalSize() / 4);
+    }
+
+    @Test
+    public void testNewerVersionsAreReadWithoutTheirAppendedFields() {
+        byte[] bytes = serializationService.toData(catalogueDTO()).toByteArray();
+        ByteBuffer newer = ByteBuffer.allocate(bytes.length + Long.BYTES).put(bytes).putLong(42L);
+        int versionPosition = HeapData.DATA_OFFSET;
+        newer.put(versionPosition, (byte) (CatalogueSerializers.VERSION + 1));
+        newer.putInt(versionPosition + 1, newer.getInt(versionPosition + 1) + Long.BYTES);
+
+        assertThat((CatalogueDTO) serializationService.toObject(new HeapData(newer.array())))
+            .isEqualToComparingFieldByField(catalogueDTO());
+
+        newer.put(versionPosition, (byte) 0);
+
+        assertThatThrownBy(() -> serializationService.toObject(new HeapData(newer.array())))
+            .isInstanceOf(HazelcastSerializationException.class);
+    }
+
+    private <T> T roundTrip(Object object) {
+        return serializationService.toObject(serializationService.toData(object));
+    }
+
+    private static CatalogueDTO catalogueDTO() {
+        CatalogueDTO catalogueDTO = new CatalogueDTO();
+        catalogueDTO.setId(1L);
+        catalogueDTO.setDescription("Yoga à l'aéroport 🧘");
+        catalogueDTO.setPrice(12.5);
+        catalogueDTO.setDuration(60);
+        catalogueDTO.setSessionDt(Instant.parse("2026-01-05T18:00:00.123456789Z"));
+        catalogueDTO.setCategory(categoryEnum.YOGA);
+        catalogueDTO.setUsername("coach");
+        catalogueDTO.setPartnerId(7);
+        return catalogueDTO;
+    }
+
+    private static SerializationService serializationService(boolean compact) {
+        SerializationConfig serializationConfig = new SerializationConfig();
+        if (compact) {
+            serializationConfig.addSerializerConfig(new SerializerConfig()
+                .setTypeClass(CatalogueDTO.class)
+                .setImplementation(new CatalogueSerializers.CatalogueDTOSerializer()));
+        }
+        return new DefaultSerializationServiceBuilder().setConfig(serializationConfig).build();
+    }
+}
@@ -0,0 +1,62 @@
+package com.gymmastercatalogue.app.config;
+
+import com.gymmastercatalogue.app.domain.Catalogue;
+import com.gymmastercatalogue.app.domain.enumeration.categoryEnum;
+
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.elasticsearch.core.EntityMapper;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ElasticsearchConfigurationTest {
+
+    private EntityMapper entityMapper;
+
+    @BeforeEach
+    public void setup() {
+        entityMapper = new ElasticsearchConfiguration.CustomEntityMapper(Jackson2ObjectMapperBuilder.json()
+            .modules(new JavaTimeModule())
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build());
+    }
+
+    @Test
+    public void testMapObjectMatchesTheIndexedJson() throws Exception {
+        Catalogue catalogue = catalogue();
+
+        Map<String, Object> source = entityMapper.mapObject(catalogue);
+
+        assertThat(entityMapper.mapToObject(entityMapper.mapToString(source), Map.class))
+            .isEqualTo(entityMapper.mapToObject(entityMapper.mapToString(catalogue), Map.class));
+        assertThat(source).containsEntry("sessionDt", "2026-01-05T18:30:00Z").containsEntry("category", "YOGA");
+    }
+
+    @Test
+    public void testReadObjectRestoresTheCatalogue() {
+        Catalogue catalogue = catalogue();
+
+        Catalogue read = entityMapper.readObject(entityMapper.mapObject(catalogue), Catalogue.class);
+
+        assertThat(read).isEqualToComparingFieldByField(catalogue);
+    }
+
+    private static Catalogue catalogue() {
+        Catalogue catalogue = new Catalogue()
+            .description("Morning flow")
+            .price(12.5)
+            .duration(60)
+            .sessionDt(Instant.parse("2026-01-05T18:30:00Z"))
+            .category(categoryEnum.YOGA)
+            .username("coach")
+            .partnerId(7);
+        catalogue.setId(3L);
+        return catalogue;
+    }
+}
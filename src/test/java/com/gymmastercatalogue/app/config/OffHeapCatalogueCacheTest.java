@@ -0,0 +1,86 @@
+package com.gymmastercatalogue.app.config;
+
+import com.gymmastercatalogue.app.service.CatalogueOffHeapStore;
+import com.gymmastercatalogue.app.service.dto.CatalogueDTO;
+
+import com.hazelcast.core.EntryEvent;
+import com.hazelcast.core.EntryEventType;
+import com.hazelcast.core.IMap;
+import com.hazelcast.map.listener.EntryRemovedListener;
+import com.hazelcast.map.listener.EntryUpdatedListener;
+import com.hazelcast.map.listener.MapListener;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class OffHeapCatalogueCacheTest {
+
+    private Cache delegate;
+
+    private MapListener listener;
+
+    private OffHeapCatalogueCache cache;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        delegate = mock(Cache.class);
+        when(delegate.getName()).thenReturn("catalogueById");
+        IMap<Object, Object> map = mock(IMap.class);
+        cache = new OffHeapCatalogueCache(delegate, map, new CatalogueOffHeapStore(100, 4096, 60_000), new SimpleMeterRegistry());
+        ArgumentCaptor<MapListener> captor = ArgumentCaptor.forClass(MapListener.class);
+        verify(map).addEntryListener(captor.capture(), anyBoolean());
+        listener = captor.getValue();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testEntriesAreReadOffHeapUntilChangedOnAnyNode() {
+        CatalogueDTO catalogueDTO = new CatalogueDTO();
+        catalogueDTO.setId(1L);
+        catalogueDTO.setUsername("coach");
+        when(delegate.get(any())).thenReturn(new SimpleValueWrapper(catalogueDTO));
+
+        assertThat(cache.get(1L, CatalogueDTO.class).getUsername()).isEqualTo("coach");
+        assertThat(cache.get(1L, CatalogueDTO.class)).isNotSameAs(catalogueDTO).isEqualToComparingFieldByField(catalogueDTO);
+        verify(delegate, times(1)).get(1L);
+
+        ((EntryRemovedListener<Object, Object>) listener).entryRemoved(new EntryEvent<>("catalogueById", null, EntryEventType.REMOVED.getType(), 1L, null));
+
+        assertThat(cache.get(1L)).isNotNull();
+        verify(delegate, times(2)).get(1L);
+
+        cache.evict(1L);
+        when(delegate.get(any())).thenReturn(null);
+
+        assertThat(cache.get(1L)).isNull();
+        verify(delegate).evict(1L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testEntriesChangedWhileReadAreNotKept() {
+        CatalogueDTO catalogueDTO = new CatalogueDTO();
+        catalogueDTO.setId(1L);
+        // The entry is replaced on another node after this one read it, and before it stores it locally
+        when(delegate.get(any())).thenAnswer(invocation -> {
+            ((EntryUpdatedListener<Object, Object>) listener).entryUpdated(new EntryEvent<>("catalogueById", null, EntryEventType.UPDATED.getType(), 1L, null));
+            return new SimpleValueWrapper(catalogueDTO);
+        });
+
+        assertThat(cache.get(1L)).isNotNull();
+        assertThat(cache.get(1L)).isNotNull();
+        verify(delegate, times(2)).get(1L);
+    }
+}
@@ -0,0 +1,78 @@
+package com.gymmastercatalogue.app.domain;
+
+import com.gymmastercatalogue.app.domain.enumeration.categoryEnum;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PooledSequenceGeneratorTest {
+
+    private static final int ROWS = 10_000;
+
+    private static final int BATCH_SIZE = 25;
+
+    private final AtomicInteger sequenceCalls = new AtomicInteger();
+
+    private StandardServiceRegistry registry;
+
+    @AfterEach
+    public void destroy() {
+        StandardServiceRegistryBuilder.destroy(registry);
+    }
+
+    @Test
+    public void testBatchInsertsCallTheSequenceOncePerIncrement() {
+        int incrementSize = 100;
+        try (SessionFactory sessionFactory = buildSessionFactory(incrementSize); Session session = sessionFactory.openSession()) {
+            session.beginTransaction();
+            for (int i = 0; i < ROWS; i++) {
+                session.persist(new Catalogue().description("Catalogue " + i).category(categoryEnum.GYM).username("partner").partnerId(i % 10));
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+            session.getTransaction().commit();
+
+            assertThat(sequenceCalls).hasValue(ROWS / incrementSize);
+            Object[] range = (Object[]) session.createQuery("select min(c.id), max(c.id), count(c) from Catalogue c").getSingleResult();
+            // pooled-lo hands out the block starting at the value returned by the sequence, without gaps
+            assertThat(range).containsExactly(1L, (long) ROWS, (long) ROWS);
+        }
+    }
+
+    private SessionFactory buildSessionFactory(int incrementSize) {
+        StatementInspector inspector = sql -> {
+            if (sql.toLowerCase(Locale.ROOT).contains("next value for " + PooledSequenceGenerator.SEQUENCE_NAME)) {
+                sequenceCalls.incrementAndGet();
+            }
+            return sql;
+        };
+        registry = new StandardServiceRegistryBuilder()
+            .applySetting(AvailableSettings.URL, "jdbc:h2:mem:pooledSequence;DB_CLOSE_DELAY=-1")
+            .applySetting(AvailableSettings.DIALECT, H2Dialect.class.getName())
+            .applySetting(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+            .applySetting(AvailableSettings.STATEMENT_BATCH_SIZE, BATCH_SIZE)
+            .applySetting(AvailableSettings.STATEMENT_INSPECTOR, inspector)
+            .applySetting(AvailableSettings.USE_SECOND_LEVEL_CACHE, false)
+            .applySetting(PooledSequenceGenerator.INCREMENT_SIZE_SETTING, incrementSize)
+            .build();
+        return new MetadataSources(registry)
+            .addAnnotatedClass(Catalogue.class)
+            .buildMetadata()
+            .buildSessionFactory();
+    }
+}
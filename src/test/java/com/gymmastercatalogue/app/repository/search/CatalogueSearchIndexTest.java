@@ -0,0 +1,123 @@
+package com.gymmastercatalogue.app.repository.search;
+
+import com.gymmastercatalogue.app.config.ApplicationProperties;
+import com.gymmastercatalogue.app.domain.Catalogue;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import io.searchbox.action.Action;
+import io.searchbox.client.JestClient;
+import io.searchbox.client.JestResult;
+import io.searchbox.indices.CreateIndex;
+import io.searchbox.indices.IndicesExists;
+import io.searchbox.indices.mapping.GetMapping;
+import io.searchbox.indices.mapping.PutMapping;
+import io.searchbox.indices.settings.UpdateSettings;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.mapping.ElasticsearchPersistentEntity;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class CatalogueSearchIndexTest {
+
+    private JestClient jestClient;
+
+    private CatalogueSearchIndex catalogueSearchIndex;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        jestClient = mock(JestClient.class);
+        ElasticsearchPersistentEntity<Object> persistentEntity = mock(ElasticsearchPersistentEntity.class);
+        when(persistentEntity.getIndexName()).thenReturn("catalogue");
+        when(persistentEntity.getIndexType()).thenReturn("catalogue");
+        ElasticsearchOperations elasticsearchOperations = mock(ElasticsearchOperations.class);
+        when(elasticsearchOperations.getPersistentEntityFor(Catalogue.class)).thenReturn(persistentEntity);
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getSearch().getIndex().setShards(3);
+        catalogueSearchIndex = new CatalogueSearchIndex(jestClient, elasticsearchOperations, applicationProperties);
+    }
+
+    @Test
+    public void testMissingIndexIsCreatedSortedWithTheExplicitMapping() throws Exception {
+        JestResult missing = result(false, new JsonObject());
+        JestResult succeeded = result(true, new JsonObject());
+        when(jestClient.execute(any())).thenReturn(succeeded);
+        when(jestClient.execute(any(IndicesExists.class))).thenReturn(missing);
+
+        catalogueSearchIndex.afterPropertiesSet();
+
+        List<CreateIndex> creates = actions(CreateIndex.class);
+        assertThat(creates).hasSize(1);
+        JsonObject payload = JsonParser.parseString(creates.get(0).getData(new Gson())).getAsJsonObject();
+        JsonObject settings = payload.getAsJsonObject("settings");
+        assertThat(settings.getAsJsonObject("index").get("sort.field").getAsString()).isEqualTo("sessionDt");
+        assertThat(settings.get("index.number_of_shards").getAsInt()).isEqualTo(3);
+        JsonObject properties = payload.getAsJsonObject("mappings").getAsJsonObject("catalogue").getAsJsonObject("properties");
+        assertThat(properties.getAsJsonObject("category").get("type").getAsString()).isEqualTo("keyword");
+        assertThat(properties.getAsJsonObject("price").get("type").getAsString()).isEqualTo("scaled_float");
+    }
+
+    @Test
+    public void testExistingIndexWithDynamicMappingIsReported() throws Exception {
+        JestResult exists = result(true, new JsonObject());
+        JestResult mapping = result(true, JsonParser.parseString("{\"catalogue\":{\"mappings\":{\"catalogue\":{\"properties\":{"
+            + "\"category\":{\"type\":\"text\",\"fields\":{\"keyword\":{\"type\":\"keyword\"}}},\"price\":{\"type\":\"float\"}}}}}}")
+            .getAsJsonObject());
+        when(jestClient.execute(any())).thenReturn(exists);
+        when(jestClient.execute(any(GetMapping.class))).thenReturn(mapping);
+
+        catalogueSearchIndex.afterPropertiesSet();
+
+        assertThat(actions(PutMapping.class)).isEmpty();
+        assertThat(actions(CreateIndex.class)).isEmpty();
+        assertThat(actions(UpdateSettings.class)).hasSize(1);
+    }
+
+    @Test
+    public void testConflictsIgnoreMissingFields() {
+        JsonObject expected = JsonParser.parseString("{\"properties\":{\"category\":{\"type\":\"keyword\"},"
+            + "\"sessionDt\":{\"type\":\"date\",\"format\":\"strict_date_optional_time||epoch_millis\"},\"username\":{\"type\":\"keyword\"},"
+            + "\"description\":{\"type\":\"text\",\"fields\":{\"suggest\":{\"type\":\"text\",\"analyzer\":\"catalogue_autocomplete\"}}}}}")
+            .getAsJsonObject();
+        JsonObject actual = JsonParser.parseString("{\"properties\":{\"category\":{\"type\":\"text\"},"
+            + "\"sessionDt\":{\"type\":\"date\"},\"description\":{\"type\":\"text\"}}}").getAsJsonObject();
+
+        assertThat(CatalogueSearchIndex.conflicts(expected, actual)).containsExactly("category", "sessionDt", "description.suggest");
+        assertThat(CatalogueSearchIndex.conflicts(expected, expected)).isEmpty();
+    }
+
+    @Test
+    public void testDisabledDocValuesAreConflicts() {
+        JsonObject expected = JsonParser.parseString("{\"properties\":{\"username\":{\"type\":\"keyword\",\"doc_values\":false},"
+            + "\"category\":{\"type\":\"keyword\"}}}").getAsJsonObject();
+        JsonObject actual = JsonParser.parseString("{\"properties\":{\"username\":{\"type\":\"keyword\"},"
+            + "\"category\":{\"type\":\"keyword\"}}}").getAsJsonObject();
+
+        assertThat(CatalogueSearchIndex.conflicts(expected, actual)).containsExactly("username");
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> List<T> actions(Class<T> type) throws IOException {
+        ArgumentCaptor<Action<JestResult>> actions = ArgumentCaptor.forClass(Action.class);
+        verify(jestClient, atLeastOnce()).execute(actions.capture());
+        return actions.getAllValues().stream().filter(type::isInstance).map(type::cast).collect(Collectors.toList());
+    }
+
+    private static JestResult result(boolean succeeded, JsonObject json) {
+        JestResult result = mock(JestResult.class);
+        when(result.isSucceeded()).thenReturn(succeeded);
+        when(result.getJsonObject()).thenReturn(json);
+        return result;
+    }
+}
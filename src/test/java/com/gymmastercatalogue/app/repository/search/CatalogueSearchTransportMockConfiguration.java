@@ -0,0 +1,16 @@
+package com.gymmastercatalogue.app.repository.search;
+
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configure a Mock version of {@link CatalogueSearchTransport} to test the
+ * application without starting Elasticsearch.
+ */
+@Configuration
+public class CatalogueSearchTransportMockConfiguration {
+
+    @MockBean
+    private CatalogueSearchTransport mockCatalogueSearchTransport;
+
+}
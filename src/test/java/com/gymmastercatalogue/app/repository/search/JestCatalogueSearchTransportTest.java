@@ -0,0 +1,113 @@
+package com.gymmastercatalogue.app.repository.search;
+
+import com.gymmastercatalogue.app.domain.Catalogue;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.searchbox.client.JestClient;
+import io.searchbox.client.JestResultHandler;
+import io.searchbox.core.Search;
+import io.searchbox.core.SearchResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.EntityMapper;
+import org.springframework.data.elasticsearch.core.mapping.ElasticsearchPersistentEntity;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.elasticsearch.index.query.QueryBuilders.queryStringQuery;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class JestCatalogueSearchTransportTest {
+
+    private JestClient jestClient;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private JestCatalogueSearchTransport transport;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setup() throws IOException {
+        jestClient = mock(JestClient.class);
+        EntityMapper entityMapper = mock(EntityMapper.class);
+        when(entityMapper.mapToObject(anyString(), eq(Catalogue.class))).thenAnswer(invocation -> new Catalogue());
+        ElasticsearchPersistentEntity<Object> persistentEntity = mock(ElasticsearchPersistentEntity.class);
+        when(persistentEntity.getIndexName()).thenReturn("catalogue");
+        when(persistentEntity.getIndexType()).thenReturn("catalogue");
+        ElasticsearchOperations elasticsearchOperations = mock(ElasticsearchOperations.class);
+        when(elasticsearchOperations.getPersistentEntityFor(Catalogue.class)).thenReturn(persistentEntity);
+        meterRegistry = new SimpleMeterRegistry();
+        transport = new JestCatalogueSearchTransport(jestClient, entityMapper, elasticsearchOperations, Runnable::run, meterRegistry);
+    }
+
+    @Test
+    public void testSearchMapsTheHitsAndRecordsTheLatency() throws Exception {
+        SearchResult result = result(true, "{\"hits\":{\"total\":42,\"hits\":[{\"_id\":\"1\",\"_source\":{\"id\":1}},{\"_id\":\"2\",\"_source\":{\"id\":2}}]}}");
+        answer(result);
+
+        CompletableFuture<Page<Catalogue>> page = transport.search(queryStringQuery("yoga"), PageRequest.of(1, 2));
+
+        assertThat(page.get(5, TimeUnit.SECONDS).getContent()).hasSize(2);
+        assertThat(page.get().getTotalElements()).isEqualTo(42);
+        assertThat(meterRegistry.get("catalogue.search.latency").tag("operation", "search").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void testFailedSearchFailsTheFuture() {
+        answer(result(false, "{\"error\":{\"type\":\"index_not_found_exception\"}}"));
+
+        CompletableFuture<Page<Catalogue>> page = transport.search(queryStringQuery("yoga"), PageRequest.of(0, 20));
+
+        assertThatThrownBy(() -> page.get(5, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testSearchReadsOnlyTheIncludedFieldsWithoutCounting() throws Exception {
+        answer(result(true, "{\"hits\":{\"hits\":[{\"_id\":\"1\",\"_source\":{\"id\":1,\"description\":\"Yoga\"}}]}}"));
+
+        CompletableFuture<List<Catalogue>> catalogues = transport.search("suggest", queryStringQuery("yo"), 5, "id", "description");
+
+        assertThat(catalogues.get(5, TimeUnit.SECONDS)).hasSize(1);
+        ArgumentCaptor<Search> search = ArgumentCaptor.forClass(Search.class);
+        verify(jestClient).executeAsync(search.capture(), any(JestResultHandler.class));
+        JsonObject source = JsonParser.parseString(search.getValue().getData(new Gson())).getAsJsonObject();
+        assertThat(source.get("size").getAsInt()).isEqualTo(5);
+        assertThat(source.get("track_total_hits").getAsBoolean()).isFalse();
+        assertThat(source.getAsJsonObject("_source").getAsJsonArray("includes")).hasSize(2);
+        assertThat(meterRegistry.get("catalogue.search.latency").tag("operation", "suggest").timer().count()).isEqualTo(1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void answer(SearchResult result) {
+        doAnswer(invocation -> {
+            invocation.getArgument(1, JestResultHandler.class).completed(result);
+            return null;
+        }).when(jestClient).executeAsync(any(Search.class), any(JestResultHandler.class));
+    }
+
+    private static SearchResult result(boolean succeeded, String json) {
+        SearchResult result = new SearchResult(new Gson());
+        result.setSucceeded(succeeded);
+        result.setJsonString(json);
+        result.setJsonObject(JsonParser.parseString(json).getAsJsonObject());
+        result.setPathToResult("hits/hits/_source");
+        return result;
+    }
+}
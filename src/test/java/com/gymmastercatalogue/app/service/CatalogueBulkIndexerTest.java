@@ -0,0 +1,161 @@
+package com.gymmastercatalogue.app.service;
+
+import com.gymmastercatalogue.app.config.ApplicationProperties;
+import com.gymmastercatalogue.app.domain.Catalogue;
+
+import com.google.gson.Gson;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.ISet;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.searchbox.client.JestClient;
+import io.searchbox.core.Bulk;
+import io.searchbox.core.BulkResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.EntityMapper;
+import org.springframework.data.elasticsearch.core.mapping.ElasticsearchPersistentEntity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class CatalogueBulkIndexerTest {
+
+    private JestClient jestClient;
+
+    private EntityMapper entityMapper;
+
+    private ElasticsearchOperations elasticsearchOperations;
+
+    private HazelcastInstance hazelcastInstance;
+
+    private ApplicationProperties applicationProperties;
+
+    private CatalogueBulkIndexer catalogueBulkIndexer;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setup() throws Exception {
+        jestClient = mock(JestClient.class);
+        entityMapper = mock(EntityMapper.class);
+        when(entityMapper.mapToString(any())).thenReturn("{}");
+        ElasticsearchPersistentEntity<Object> persistentEntity = mock(ElasticsearchPersistentEntity.class);
+        when(persistentEntity.getIndexName()).thenReturn("catalogue");
+        when(persistentEntity.getIndexType()).thenReturn("catalogue");
+        elasticsearchOperations = mock(ElasticsearchOperations.class);
+        when(elasticsearchOperations.getPersistentEntityFor(Catalogue.class)).thenReturn(persistentEntity);
+        // The set of the shadow indices is shared by the nodes of the cluster
+        ISet<String> shadowIndexNames = mock(ISet.class, delegatesTo(new CopyOnWriteArraySet<String>()));
+        hazelcastInstance = mock(HazelcastInstance.class);
+        when(hazelcastInstance.<String>getSet(CatalogueBulkIndexer.SHADOW_INDICES)).thenReturn(shadowIndexNames);
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getSearch().getBulk().setFlushIntervalMs(200);
+        catalogueBulkIndexer = bulkIndexer();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        catalogueBulkIndexer.stop();
+    }
+
+    @Test
+    public void testOperationsAreCoalescedIntoOneBulkRequest() throws Exception {
+        BulkResult result = result(item("index", "1", 201, null), item("index", "2", 201, null), item("delete", "3", 404, null));
+        when(jestClient.execute(any(Bulk.class))).thenReturn(result);
+
+        CompletableFuture<Void> indexed = catalogueBulkIndexer.index(Arrays.asList(catalogue(1L), catalogue(2L)));
+        CompletableFuture<Void> deleted = catalogueBulkIndexer.delete(Collections.singletonList(3L));
+        CompletableFuture.allOf(indexed, deleted).get(5, TimeUnit.SECONDS);
+
+        ArgumentCaptor<Bulk> bulk = ArgumentCaptor.forClass(Bulk.class);
+        verify(jestClient, times(1)).execute(bulk.capture());
+        assertThat(bulk.getValue().getData(new Gson()).toString().split("\n")).hasSize(5);
+    }
+
+    @Test
+    public void testDocumentsAreWrittenWithAnExternalVersion() throws Exception {
+        BulkResult result = result(item("index", "1", 409, "version_conflict_engine_exception"), item("delete", "2", 409,
+            "version_conflict_engine_exception"));
+        when(jestClient.execute(any(Bulk.class))).thenReturn(result);
+
+        // The versions of the index already being newer is not a failure
+        CompletableFuture<Void> indexed = catalogueBulkIndexer.index(Collections.singletonList(catalogue(1L)));
+        CompletableFuture<Void> deleted = catalogueBulkIndexer.delete(Collections.singletonList(2L));
+        CompletableFuture.allOf(indexed, deleted).get(5, TimeUnit.SECONDS);
+
+        ArgumentCaptor<Bulk> bulk = ArgumentCaptor.forClass(Bulk.class);
+        verify(jestClient).execute(bulk.capture());
+        String[] lines = bulk.getValue().getData(new Gson()).toString().split("\n");
+        assertThat(lines[0]).contains("\"version\":\"3\"").contains("\"version_type\":\"external\"");
+        assertThat(lines[2]).contains("\"version\":\"" + Long.MAX_VALUE + "\"").contains("\"version_type\":\"external\"");
+    }
+
+    @Test
+    public void testChangesAreSentToTheShadowIndicesOfAnyNode() throws Exception {
+        BulkResult result = result(item("index", "1", 201, null), item("index", "1", 201, null));
+        when(jestClient.execute(any(Bulk.class))).thenReturn(result);
+        CatalogueBulkIndexer otherNode = bulkIndexer();
+        try {
+            otherNode.addShadowIndex("catalogue_20260105180000");
+
+            catalogueBulkIndexer.index(Collections.singletonList(catalogue(1L))).get(5, TimeUnit.SECONDS);
+
+            ArgumentCaptor<Bulk> bulk = ArgumentCaptor.forClass(Bulk.class);
+            verify(jestClient).execute(bulk.capture());
+            assertThat(bulk.getValue().getData(new Gson()).toString())
+                .contains("\"_index\":\"catalogue\"")
+                .contains("\"_index\":\"catalogue_20260105180000\"");
+            assertThat(catalogueBulkIndexer.getShadowIndexNames()).containsExactly("catalogue_20260105180000");
+        } finally {
+            otherNode.stop();
+        }
+    }
+
+    @Test
+    public void testRejectedItemFailsItsFuture() throws Exception {
+        BulkResult result = result(item("index", "1", 400, "mapper_parsing_exception"));
+        when(jestClient.execute(any(Bulk.class))).thenReturn(result);
+
+        CompletableFuture<Void> indexed = catalogueBulkIndexer.index(Collections.singletonList(catalogue(1L)));
+
+        assertThatThrownBy(() -> indexed.get(5, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class);
+    }
+
+    private CatalogueBulkIndexer bulkIndexer() {
+        CatalogueBulkIndexer bulkIndexer = new CatalogueBulkIndexer(jestClient, entityMapper, elasticsearchOperations, hazelcastInstance,
+            applicationProperties, new SimpleMeterRegistry());
+        bulkIndexer.start();
+        return bulkIndexer;
+    }
+
+    private static Catalogue catalogue(Long id) {
+        Catalogue catalogue = new Catalogue();
+        catalogue.setId(id);
+        catalogue.setVersion(3L);
+        return catalogue;
+    }
+
+    private static BulkResult result(BulkResult.BulkResultItem... items) {
+        BulkResult result = mock(BulkResult.class);
+        when(result.getItems()).thenReturn(new ArrayList<>(Arrays.asList(items)));
+        return result;
+    }
+
+    private static BulkResult.BulkResultItem item(String operation, String id, int status, String error) {
+        return new BulkResult(new Gson()).new BulkResultItem(operation, "catalogue", "catalogue", id, status,
+            error, 1, error, error);
+    }
+}
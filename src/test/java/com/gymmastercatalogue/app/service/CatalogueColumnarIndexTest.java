@@ -0,0 +1,348 @@
+package com.gymmastercatalogue.app.service;
+
+import com.gymmastercatalogue.app.config.ApplicationProperties;
+import com.gymmastercatalogue.app.domain.Catalogue;
+import com.gymmastercatalogue.app.domain.enumeration.categoryEnum;
+import com.gymmastercatalogue.app.repository.CatalogueRepository;
+import com.gymmastercatalogue.app.service.dto.CatalogueCriteria;
+import com.gymmastercatalogue.app.service.dto.CatalogueDTO;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.ITopic;
+import com.hazelcast.core.Message;
+import com.hazelcast.core.MessageListener;
+import io.github.jhipster.service.filter.DoubleFilter;
+import io.github.jhipster.service.filter.InstantFilter;
+import io.github.jhipster.service.filter.IntegerFilter;
+import io.github.jhipster.service.filter.StringFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CatalogueColumnarIndexTest {
+
+    private static final Instant MONDAY = Instant.parse("2026-01-05T18:00:00Z");
+
+    private final List<Catalogue> database = new ArrayList<>();
+
+    private CatalogueRepository catalogueRepository;
+
+    private HazelcastInstance hazelcastInstance;
+
+    private ITopic<long[]> topic;
+
+    private MeterRegistry meterRegistry;
+
+    private CatalogueColumnarIndex index;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        database.add(catalogue(1L, "Morning yoga", 12.0, 60, MONDAY, categoryEnum.YOGA, "anna", 7));
+        database.add(catalogue(2L, "Evening YOGA flow", null, 45, MONDAY.plusSeconds(3600), categoryEnum.YOGA, "bob", 7));
+        database.add(catalogue(3L, "Spin class", 8.5, null, null, categoryEnum.SPIN, "anna", 9));
+        database.add(catalogue(4L, null, 20.0, 90, MONDAY.plusSeconds(7200), categoryEnum.GYM, "carl", 7));
+        database.add(catalogue(5L, "Pilates", 15.0, 50, MONDAY.minusSeconds(3600), categoryEnum.PILATES, "bob", 11));
+        catalogueRepository = mock(CatalogueRepository.class);
+        when(catalogueRepository.forEach(any(), any(), any())).thenAnswer(this::forEach);
+        when(catalogueRepository.forEachVersion(any())).thenAnswer(invocation -> {
+            BiConsumer<Long, Long> consumer = invocation.getArgument(0);
+            database.forEach(catalogue -> consumer.accept(catalogue.getId(), catalogue.getVersion()));
+            return (long) database.size();
+        });
+        hazelcastInstance = mock(HazelcastInstance.class);
+        topic = mock(ITopic.class);
+        when(hazelcastInstance.<long[]>getTopic(CatalogueColumnarIndex.CHANGES_TOPIC)).thenReturn(topic);
+        meterRegistry = new SimpleMeterRegistry();
+        index = index(60);
+    }
+
+    private long forEach(InvocationOnMock invocation) {
+        Consumer<Catalogue> consumer = invocation.getArgument(2);
+        database.forEach(consumer);
+        return database.size();
+    }
+
+    private CatalogueColumnarIndex index(int sessionBucketMinutes) {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getQuery().getColumnarIndex().setEnabled(true);
+        applicationProperties.getQuery().getColumnarIndex().setSessionBucketMinutes(sessionBucketMinutes);
+        return new CatalogueColumnarIndex(catalogueRepository, hazelcastInstance, applicationProperties, Runnable::run,
+            mock(PlatformTransactionManager.class), meterRegistry);
+    }
+
+    @Test
+    public void testQueriesAreNotSupportedUntilLoaded() {
+        assertThat(index.supports(null, Sort.unsorted())).isFalse();
+
+        index.start();
+
+        assertThat(index.supports(null, Sort.unsorted())).isTrue();
+        assertThat(index.count(null)).isEqualTo(5);
+    }
+
+    @Test
+    public void testFiltersAreIntersected() {
+        index.start();
+        CatalogueCriteria criteria = new CatalogueCriteria();
+        IntegerFilter partnerId = new IntegerFilter();
+        partnerId.setEquals(7);
+        criteria.setPartnerId(partnerId);
+        StringFilter description = new StringFilter();
+        description.setContains("yoga");
+        criteria.setDescription(description);
+
+        assertThat(index.find(criteria)).extracting(CatalogueDTO::getId).containsExactly(1L, 2L);
+
+        InstantFilter sessionDt = new InstantFilter();
+        sessionDt.setGreaterThan(MONDAY);
+        criteria.setSessionDt(sessionDt);
+
+        assertThat(index.find(criteria)).extracting(CatalogueDTO::getId).containsExactly(2L);
+        assertThat(index.count(criteria)).isEqualTo(1);
+    }
+
+    @Test
+    public void testEqualityFiltersAreAnsweredByTheBitmaps() {
+        index.start();
+        CatalogueCriteria criteria = new CatalogueCriteria();
+        CatalogueCriteria.categoryEnumFilter category = new CatalogueCriteria.categoryEnumFilter();
+        category.setIn(Arrays.asList(categoryEnum.YOGA, categoryEnum.GYM, categoryEnum.YOGA));
+        criteria.setCategory(category);
+
+        assertThat(index.count(criteria)).isEqualTo(3);
+
+        IntegerFilter partnerId = new IntegerFilter();
+        partnerId.setIn(Arrays.asList(7, 9, 42));
+        criteria.setPartnerId(partnerId);
+
+        assertThat(index.count(criteria)).isEqualTo(3);
+        assertThat(index.find(criteria)).extracting(CatalogueDTO::getId).containsExactly(1L, 2L, 4L);
+
+        partnerId.setIn(null);
+        partnerId.setGreaterThan(7);
+
+        assertThat(index.count(criteria)).isZero();
+
+        category.setIn(null);
+        category.setNotEquals(categoryEnum.SPIN);
+
+        assertThat(index.find(criteria)).extracting(CatalogueDTO::getId).containsExactly(5L);
+    }
+
+    @Test
+    public void testRowsWithoutAValueOnlyMatchUnspecified() {
+        index.start();
+        CatalogueCriteria criteria = new CatalogueCriteria();
+        DoubleFilter price = new DoubleFilter();
+        price.setLessThan(15.0);
+        criteria.setPrice(price);
+
+        assertThat(index.find(criteria)).extracting(CatalogueDTO::getId).containsExactly(1L, 3L);
+
+        price = new DoubleFilter();
+        price.setSpecified(false);
+        criteria.setPrice(price);
+
+        assertThat(index.find(criteria)).extracting(CatalogueDTO::getId).containsExactly(2L);
+
+        criteria = new CatalogueCriteria();
+        StringFilter username = new StringFilter();
+        username.setNotEquals("anna");
+        criteria.setUsername(username);
+        StringFilter description = new StringFilter();
+        description.setDoesNotContain("pilates");
+        criteria.setDescription(description);
+
+        assertThat(index.find(criteria)).extracting(CatalogueDTO::getId).containsExactly(2L);
+    }
+
+    @Test
+    public void testPagesAreSortedWithNullsLast() {
+        index.start();
+
+        Page<CatalogueDTO> page = index.find(null, PageRequest.of(0, 2, Sort.by("duration")));
+
+        assertThat(page.getTotalElements()).isEqualTo(5);
+        assertThat(page.getContent()).extracting(CatalogueDTO::getId).containsExactly(2L, 5L);
+
+        page = index.find(null, PageRequest.of(2, 2, Sort.by("duration")));
+
+        assertThat(page.getContent()).extracting(CatalogueDTO::getId).containsExactly(3L);
+
+        page = index.find(null, PageRequest.of(0, 3, Sort.by(Sort.Order.asc("username"), Sort.Order.desc("sessionDt"))));
+
+        assertThat(page.getContent()).extracting(CatalogueDTO::getId).containsExactly(3L, 1L, 2L);
+        CatalogueDTO first = page.getContent().get(0);
+        assertThat(first.getDuration()).isNull();
+        assertThat(first.getSessionDt()).isNull();
+        assertThat(first.getCategory()).isEqualTo(categoryEnum.SPIN);
+        assertThat(page.getContent().get(1).getSessionDt()).isEqualTo(MONDAY);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCommittedChangesAreReadAgain() {
+        ArgumentCaptor<MessageListener<long[]>> listener = ArgumentCaptor.forClass(MessageListener.class);
+        index.start();
+        verify(topic).addMessageListener(listener.capture());
+        doAnswer(invocation -> {
+            listener.getValue().onMessage(new Message<>(CatalogueColumnarIndex.CHANGES_TOPIC, invocation.getArgument(0), 0, null));
+            return null;
+        }).when(topic).publish(any());
+        database.set(0, catalogue(1L, "Morning yoga", 12.0, 60, MONDAY, categoryEnum.YOGA, "dana", 11));
+        database.remove(1);
+        database.add(catalogue(6L, "Yoga for runners", 10.0, 30, MONDAY, categoryEnum.YOGA, "dana", 11));
+
+        index.changed(Arrays.asList(1L, 2L, 6L));
+
+        CatalogueCriteria criteria = new CatalogueCriteria();
+        IntegerFilter partnerId = new IntegerFilter();
+        partnerId.setIn(Collections.singletonList(11));
+        criteria.setPartnerId(partnerId);
+        assertThat(index.find(criteria)).extracting(CatalogueDTO::getId).containsExactly(1L, 5L, 6L);
+        assertThat(index.count(criteria)).isEqualTo(3);
+        assertThat(index.count(null)).isEqualTo(5);
+        assertThat(meterRegistry.get("catalogue.columnar.index.rows").gauge().value()).isEqualTo(5);
+        assertThat(meterRegistry.get("catalogue.columnar.index.bitmap.values").gauge().value()).isEqualTo(3);
+        assertThat(meterRegistry.get("catalogue.columnar.index.bitmap.size").tag("field", "partnerId").gauge().value()).isPositive();
+        assertThat(meterRegistry.get("catalogue.columnar.index.updates").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("catalogue.columnar.index.updated").counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    public void testChangesWhoseMessageWasLostAreReconciled() {
+        index.start();
+        Catalogue updated = catalogue(1L, "Morning yoga", 12.0, 60, MONDAY, categoryEnum.YOGA, "dana", 11);
+        updated.setVersion(1L);
+        database.set(0, updated);
+        database.remove(1);
+        database.add(catalogue(6L, "Yoga for runners", 10.0, 30, MONDAY, categoryEnum.YOGA, "dana", 11));
+
+        index.reconcile();
+
+        CatalogueCriteria criteria = new CatalogueCriteria();
+        IntegerFilter partnerId = new IntegerFilter();
+        partnerId.setIn(Collections.singletonList(11));
+        criteria.setPartnerId(partnerId);
+        assertThat(index.find(criteria)).extracting(CatalogueDTO::getId).containsExactly(1L, 5L, 6L);
+        assertThat(index.count(null)).isEqualTo(5);
+        assertThat(meterRegistry.get("catalogue.columnar.index.reconciled").counter().count()).isEqualTo(3);
+
+        index.reconcile();
+
+        assertThat(meterRegistry.get("catalogue.columnar.index.reconciled").counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    public void testFailedLoadIsRetriedByTheReconciliation() {
+        doThrow(new DataAccessResourceFailureException("Connection refused"))
+            .when(catalogueRepository).forEach(any(), any(), any());
+        index.start();
+
+        assertThat(index.supports(null, Sort.unsorted())).isFalse();
+
+        doAnswer(this::forEach).when(catalogueRepository).forEach(any(), any(), any());
+        index.reconcile();
+
+        assertThat(index.supports(null, Sort.unsorted())).isTrue();
+        assertThat(index.count(null)).isEqualTo(5);
+    }
+
+    @Test
+    public void testQueriesTheDatabaseWouldAnswerDifferentlyAreNotSupported() {
+        index.start();
+        CatalogueCriteria criteria = new CatalogueCriteria();
+        StringFilter description = new StringFilter();
+        description.setContains("100%");
+        criteria.setDescription(description);
+
+        assertThat(index.supports(criteria, Sort.unsorted())).isFalse();
+
+        criteria = new CatalogueCriteria();
+        InstantFilter sessionDt = new InstantFilter();
+        sessionDt.setLessThan(MONDAY.plusNanos(1));
+        criteria.setSessionDt(sessionDt);
+
+        assertThat(index.supports(criteria, Sort.unsorted())).isFalse();
+        assertThat(index.supports(null, Sort.by(Sort.Order.asc("description").ignoreCase()))).isFalse();
+        assertThat(index.supports(null, Sort.by("unknown"))).isFalse();
+    }
+
+    @Test
+    public void testOverlappingSessionsAreReadFromTheirBuckets() {
+        database.add(catalogue(6L, "Yoga retreat", 300.0, 5 * 24 * 60, MONDAY.minusSeconds(3 * 86400), categoryEnum.YOGA, "anna", 7));
+        index.start();
+        CatalogueColumnarIndex scanned = index(0);
+        scanned.start();
+        CatalogueCriteria criteria = new CatalogueCriteria();
+        criteria.setSessionOverlap(new CatalogueCriteria.SessionOverlapFilter()
+            .setFrom(MONDAY.plusSeconds(1800)).setTo(MONDAY.plusSeconds(5400)));
+
+        assertThat(index.supports(criteria, Sort.unsorted())).isTrue();
+        assertThat(index.find(criteria)).extracting(CatalogueDTO::getId).containsExactly(1L, 2L, 6L);
+        assertThat(scanned.find(criteria)).extracting(CatalogueDTO::getId).containsExactly(1L, 2L, 6L);
+        assertThat(index.count(criteria)).isEqualTo(3);
+
+        // The pilates session ends when the morning yoga starts
+        criteria.setSessionOverlap(new CatalogueCriteria.SessionOverlapFilter()
+            .setFrom(MONDAY.minusSeconds(900)).setTo(MONDAY));
+
+        assertThat(index.find(criteria)).extracting(CatalogueDTO::getId).containsExactly(5L, 6L);
+        assertThat(scanned.find(criteria)).extracting(CatalogueDTO::getId).containsExactly(5L, 6L);
+
+        criteria.setSessionOverlap(new CatalogueCriteria.SessionOverlapFilter().setFrom(MONDAY.plusSeconds(9000)));
+
+        assertThat(index.find(criteria)).extracting(CatalogueDTO::getId).containsExactly(4L, 6L);
+
+        criteria.setSessionOverlap(null);
+        InstantFilter sessionDt = new InstantFilter();
+        sessionDt.setIn(Arrays.asList(MONDAY.plusSeconds(3600), MONDAY.plusSeconds(3601)));
+        criteria.setSessionDt(sessionDt);
+
+        assertThat(index.find(criteria)).extracting(CatalogueDTO::getId).containsExactly(2L);
+        assertThat(meterRegistry.get("catalogue.columnar.index.bitmap.values").tag("field", "sessionDt").gauge().value()).isEqualTo(5);
+
+        criteria.setSessionOverlap(new CatalogueCriteria.SessionOverlapFilter().setTo(MONDAY.plusNanos(1)));
+
+        assertThat(index.supports(criteria, Sort.unsorted())).isFalse();
+    }
+
+    private static Catalogue catalogue(Long id, String description, Double price, Integer duration, Instant sessionDt,
+                                       categoryEnum category, String username, Integer partnerId) {
+        Catalogue catalogue = new Catalogue()
+            .description(description)
+            .price(price)
+            .duration(duration)
+            .sessionDt(sessionDt)
+            .category(category)
+            .username(username)
+            .partnerId(partnerId);
+        catalogue.setId(id);
+        return catalogue;
+    }
+}
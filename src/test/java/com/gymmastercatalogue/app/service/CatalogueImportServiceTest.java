@@ -0,0 +1,114 @@
+package com.gymmastercatalogue.app.service;
+
+import com.gymmastercatalogue.app.config.ApplicationProperties;
+import com.gymmastercatalogue.app.service.dto.CatalogueDTO;
+import com.gymmastercatalogue.app.service.dto.CatalogueImportReportDTO;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+
+import javax.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CatalogueImportServiceTest {
+
+    private final List<List<CatalogueDTO>> chunks = new ArrayList<>();
+
+    private CatalogueService catalogueService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private CatalogueImportService catalogueImportService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        catalogueService = mock(CatalogueService.class);
+        when(catalogueService.saveAll(anyList())).thenAnswer(invocation -> {
+            List<CatalogueDTO> chunk = new ArrayList<>(invocation.getArgument(0));
+            chunks.add(chunk);
+            return chunk;
+        });
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getBatch().setChunkSize(2);
+        applicationProperties.getBatch().setMaxReportedRejects(2);
+        meterRegistry = new SimpleMeterRegistry();
+        catalogueImportService = new CatalogueImportService(catalogueService, new ObjectMapper().registerModule(new JavaTimeModule()),
+            Validation.buildDefaultValidatorFactory().getValidator(), applicationProperties, meterRegistry);
+    }
+
+    @Test
+    public void testValidRowsAreSavedByChunksAndInvalidOnesReported() throws Exception {
+        String csv = "partnerId,category,username,price,duration\n"
+            + "1,GYM,coach,10,60\n"
+            + "2,GYM,coach,-1,60\n"
+            + "3,HIIT,coach,,\n"
+            + "4,GYM,,10,60\n"
+            + "5,GYM,coach,10,-5\n"
+            + "6,YOGA?,coach,10,60\n"
+            + "7,GYM,coach,10,60\n";
+
+        CatalogueImportReportDTO report = catalogueImportService.importCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(report.getImported()).isEqualTo(3);
+        assertThat(report.getRejected()).isEqualTo(4);
+        assertThat(report.getRejects()).extracting(CatalogueImportReportDTO.Reject::getLine).containsExactly(3L, 5L);
+        assertThat(report.getRejects().get(0).getMessage()).startsWith("price: ");
+        assertThat(report.getRejects().get(1).getMessage()).startsWith("username: ");
+        assertThat(chunks).hasSize(2);
+        assertThat(chunks.get(0)).extracting(CatalogueDTO::getPartnerId).containsExactly(1, 3);
+        assertThat(chunks.get(1)).extracting(CatalogueDTO::getPartnerId).containsExactly(7);
+        assertThat(meterRegistry.get("catalogue.import.rows").tag("result", "rejected").counter().count()).isEqualTo(4);
+    }
+
+    @Test
+    public void testMalformedJsonLinesAreRejected() throws Exception {
+        String ndjson = "{\"partnerId\":1,\"category\":\"GYM\",\"username\":\"coach\"}\n"
+            + "\n"
+            + "{\"partnerId\":2,\"category\":\n"
+            + "{\"id\":5,\"partnerId\":3,\"category\":\"GYM\",\"username\":\"coach\"}\n"
+            + "null\n"
+            + "{\"partnerId\":4,\"category\":\"GYM\",\"username\":\"coach\",\"sessionDt\":\"2026-01-05T18:30:00Z\"}\n";
+
+        CatalogueImportReportDTO report = catalogueImportService.importNdjson(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(report.getImported()).isEqualTo(2);
+        assertThat(report.getRejected()).isEqualTo(3);
+        assertThat(report.getRejects()).extracting(CatalogueImportReportDTO.Reject::getLine).containsExactly(3L, 4L);
+        assertThat(report.getRejects().get(1).getMessage()).isEqualTo("An imported catalogue cannot have an ID");
+        assertThat(report.getError()).isNull();
+    }
+
+    @Test
+    public void testAFailedChunkStopsTheImportWithAPartialReport() throws Exception {
+        when(catalogueService.saveAll(anyList()))
+            .thenAnswer(invocation -> invocation.getArgument(0))
+            .thenThrow(new QueryTimeoutException("Query timed out"));
+        String csv = "partnerId,category,username\n"
+            + "1,GYM,coach\n"
+            + "2,GYM,coach\n"
+            + "3,GYM,coach\n"
+            + "4,GYM,coach\n"
+            + "5,GYM,coach\n";
+
+        CatalogueImportReportDTO report = catalogueImportService.importCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(report.getImported()).isEqualTo(2);
+        assertThat(report.getError()).isEqualTo("Could not import the rows up to line 5: Query timed out");
+        verify(catalogueService, times(2)).saveAll(anyList());
+    }
+}
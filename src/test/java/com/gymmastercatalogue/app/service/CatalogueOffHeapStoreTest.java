@@ -0,0 +1,125 @@
+package com.gymmastercatalogue.app.service;
+
+import com.gymmastercatalogue.app.domain.enumeration.categoryEnum;
+import com.gymmastercatalogue.app.service.dto.CatalogueDTO;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CatalogueOffHeapStoreTest {
+
+    @Test
+    public void testRecordsAreDecodedWithAllTheirFields() {
+        CatalogueOffHeapStore store = new CatalogueOffHeapStore(10, 4096, 0);
+        CatalogueDTO full = catalogueDTO(1L, "Yoga à l'aéroport 🧘 " + new String(new char[200]).replace('\0', 'x'));
+        full.setPrice(12.5);
+        full.setDuration(60);
+        full.setSessionDt(Instant.parse("2026-01-05T18:00:00.123456789Z"));
+        CatalogueDTO empty = new CatalogueDTO();
+        empty.setId(2L);
+
+        assertThat(store.put(full)).isTrue();
+        assertThat(store.put(empty)).isTrue();
+
+        assertThat(store.get(1L)).isEqualToComparingFieldByField(full);
+        assertThat(store.get(2L)).isEqualToComparingFieldByField(empty);
+        assertThat(store.get(3L)).isNull();
+        assertThat(store.size()).isEqualTo(2);
+        assertThat(store.getHits()).isEqualTo(2);
+        assertThat(store.getMisses()).isEqualTo(1);
+    }
+
+    @Test
+    public void testOldestRecordsAreEvictedToMakeRoom() {
+        CatalogueOffHeapStore store = new CatalogueOffHeapStore(1000, 1024, 0);
+        int count = 200;
+        for (long id = 1; id <= count; id++) {
+            // Records of varying lengths, so that some don't fit before the end of the ring buffer
+            store.put(catalogueDTO(id, new String(new char[(int) (id % 50)]).replace('\0', 'x')));
+        }
+
+        long oldest = count;
+        while (oldest > 1 && store.get(oldest - 1) != null) {
+            oldest--;
+        }
+        for (long id = 1; id < oldest; id++) {
+            assertThat(store.get(id)).isNull();
+        }
+        for (long id = oldest; id <= count; id++) {
+            assertThat(store.get(id).getDescription()).hasSize((int) (id % 50));
+        }
+        assertThat(store.size()).isEqualTo(count - oldest + 1).isGreaterThan(5);
+        assertThat(store.getEvictions()).isEqualTo(oldest - 1);
+        assertThat(store.getUsedBytes()).isLessThanOrEqualTo(1024);
+    }
+
+    @Test
+    public void testReplacedAndRemovedRecordsAreNotCounted() {
+        CatalogueOffHeapStore store = new CatalogueOffHeapStore(3, 4096, 0);
+        store.put(catalogueDTO(1L, "Spin"));
+        store.put(catalogueDTO(2L, "Yoga"));
+        store.put(catalogueDTO(3L, "Pilates"));
+        store.put(catalogueDTO(2L, "Evening yoga"));
+
+        assertThat(store.size()).isEqualTo(3);
+
+        store.put(catalogueDTO(4L, "Gym"));
+
+        assertThat(store.get(1L)).isNull();
+        assertThat(store.get(2L).getDescription()).isEqualTo("Evening yoga");
+        assertThat(store.getEvictions()).isEqualTo(1);
+
+        store.remove(3L);
+
+        assertThat(store.get(3L)).isNull();
+        assertThat(store.size()).isEqualTo(2);
+
+        store.clear();
+
+        assertThat(store.get(4L)).isNull();
+        assertThat(store.size()).isZero();
+    }
+
+    @Test
+    public void testExpiredAndStaleRecordsAreNotRead() {
+        AtomicLong now = new AtomicLong(1000);
+        CatalogueOffHeapStore store = new CatalogueOffHeapStore(10, 4096, 60_000, now::get);
+        store.put(catalogueDTO(1L, "Spin"));
+        now.addAndGet(59_999);
+
+        assertThat(store.get(1L)).isNotNull();
+
+        now.incrementAndGet();
+
+        assertThat(store.get(1L)).isNull();
+
+        // Read before a change of the catalogue, and stored after it was removed for the change
+        long stamp = store.stamp();
+        store.remove(2L);
+
+        assertThat(store.put(catalogueDTO(2L, "Yoga"), stamp)).isFalse();
+        assertThat(store.get(2L)).isNull();
+        assertThat(store.put(catalogueDTO(2L, "Evening yoga"), store.stamp())).isTrue();
+        assertThat(store.get(2L).getDescription()).isEqualTo("Evening yoga");
+
+        stamp = store.stamp();
+        store.clear();
+
+        assertThat(store.put(catalogueDTO(3L, "Pilates"), stamp)).isFalse();
+        assertThat(store.size()).isZero();
+    }
+
+    private static CatalogueDTO catalogueDTO(long id, String description) {
+        CatalogueDTO catalogueDTO = new CatalogueDTO();
+        catalogueDTO.setId(id);
+        catalogueDTO.setDescription(description);
+        catalogueDTO.setCategory(categoryEnum.YOGA);
+        catalogueDTO.setUsername("coach");
+        catalogueDTO.setPartnerId(7);
+        return catalogueDTO;
+    }
+}
@@ -0,0 +1,131 @@
+package com.gymmastercatalogue.app.service;
+
+import com.gymmastercatalogue.app.config.ApplicationProperties;
+import com.gymmastercatalogue.app.config.CatalogueSerializers;
+import com.gymmastercatalogue.app.domain.enumeration.categoryEnum;
+import com.gymmastercatalogue.app.repository.CatalogueRepository;
+import com.gymmastercatalogue.app.service.dto.CatalogueCriteria;
+import com.gymmastercatalogue.app.service.dto.CatalogueDTO;
+
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.config.SerializerConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.spi.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import io.github.jhipster.service.filter.IntegerFilter;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class CatalogueQueryResultCacheTest {
+
+    @Test
+    public void testEquivalentCriteriaShareTheSameKey() {
+        PageRequest page = PageRequest.of(0, 20, Sort.by("id"));
+
+        String key = CatalogueQueryResultCache.keyOf(partners(3, 1, 2), page, Collections.emptyMap());
+
+        assertThat(CatalogueQueryResultCache.keyOf(partners(1, 2, 3, 2), page, Collections.emptyMap())).isEqualTo(key);
+        assertThat(CatalogueQueryResultCache.keyOf(partners(1, 2, 4), page, Collections.emptyMap())).isNotEqualTo(key);
+        assertThat(CatalogueQueryResultCache.keyOf(partners(1, 2, 3), PageRequest.of(1, 20, Sort.by("id")), Collections.emptyMap()))
+            .isNotEqualTo(key);
+        assertThat(CatalogueQueryResultCache.keyOf(partners(1, 2, 3), page, Collections.singletonMap("partner:1", 1L)))
+            .isNotEqualTo(key);
+    }
+
+    @Test
+    public void testQueriesDependOnTheGenerationsOfTheirMostSelectiveFilter() {
+        CatalogueCriteria.categoryEnumFilter category = new CatalogueCriteria.categoryEnumFilter();
+        category.setEquals(categoryEnum.values()[0]);
+        CatalogueCriteria categories = new CatalogueCriteria();
+        categories.setCategory(category);
+        CatalogueCriteria both = partners(1, 2);
+        both.setCategory(category);
+
+        assertThat(CatalogueQueryResultCache.generationKeysOf(both)).containsOnly("partner:1", "partner:2");
+        assertThat(CatalogueQueryResultCache.generationKeysOf(categories)).containsOnly("category:" + categoryEnum.values()[0]);
+        assertThat(CatalogueQueryResultCache.generationKeysOf(new CatalogueCriteria())).containsOnly("all");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testWritesChangeTheKeysOfTheMatchingPages() {
+        IMap<String, CatalogueQueryResultCache.CachedPage> results = mock(IMap.class);
+        IMap<String, Long> generations = mock(IMap.class);
+        Map<String, Long> values = new HashMap<>();
+        when(generations.getAll(any())).thenAnswer(invocation -> {
+            Map<String, Long> found = new HashMap<>();
+            invocation.<Set<String>>getArgument(0).stream().filter(values::containsKey).forEach(key -> found.put(key, values.get(key)));
+            return found;
+        });
+        when(generations.executeOnKeys(any(), any())).thenAnswer(invocation -> {
+            invocation.<Set<String>>getArgument(0).forEach(key -> values.merge(key, 1L, Long::sum));
+            return Collections.emptyMap();
+        });
+        HazelcastInstance hazelcastInstance = mock(HazelcastInstance.class);
+        when(hazelcastInstance.<String, CatalogueQueryResultCache.CachedPage>getMap(CatalogueRepository.QUERY_RESULTS_CACHE)).thenReturn(results);
+        when(hazelcastInstance.<String, Long>getMap(CatalogueRepository.QUERY_RESULTS_GENERATIONS)).thenReturn(generations);
+        CatalogueQueryResultCache cache = new CatalogueQueryResultCache(hazelcastInstance, new ApplicationProperties());
+        PageRequest page = PageRequest.of(0, 20);
+        Page<CatalogueDTO> empty = Page.empty();
+
+        cache.get(partners(1, 2), page, () -> empty);
+        cache.invalidate(categoryEnum.values()[0], 3);
+        cache.get(partners(1, 2), page, () -> empty);
+        cache.invalidate(categoryEnum.values()[0], 2);
+        cache.get(partners(1, 2), page, () -> empty);
+
+        ArgumentCaptor<String> keys = ArgumentCaptor.forClass(String.class);
+        verify(results, times(3)).get(keys.capture());
+        assertThat(keys.getAllValues().get(1)).isEqualTo(keys.getAllValues().get(0));
+        assertThat(keys.getAllValues().get(2)).isNotEqualTo(keys.getAllValues().get(1));
+        verify(generations).executeOnKeys(eq(new HashSet<>(Arrays.asList("all", "category:" + categoryEnum.values()[0], "partner:3"))),
+            any(CatalogueQueryResultCache.IncrementGeneration.class));
+    }
+
+    @Test
+    public void testCachedPagesAreSerialized() {
+        SerializationConfig serializationConfig = new SerializationConfig()
+            .addSerializerConfig(new SerializerConfig()
+                .setTypeClass(CatalogueDTO.class)
+                .setImplementation(new CatalogueSerializers.CatalogueDTOSerializer()))
+            .addDataSerializableFactory(CatalogueDataSerializableFactory.FACTORY_ID, new CatalogueDataSerializableFactory());
+        SerializationService serializationService = new DefaultSerializationServiceBuilder().setConfig(serializationConfig).build();
+        CatalogueDTO catalogueDTO = new CatalogueDTO();
+        catalogueDTO.setId(1L);
+        catalogueDTO.setPartnerId(2);
+        CatalogueQueryResultCache.CachedPage page = new CatalogueQueryResultCache.CachedPage(Arrays.asList(catalogueDTO, new CatalogueDTO()), 12);
+
+        CatalogueQueryResultCache.CachedPage read = serializationService.toObject(serializationService.toData(page));
+        Object increment = serializationService.toObject(serializationService.toData(new CatalogueQueryResultCache.IncrementGeneration()));
+
+        assertThat(read).isEqualToIgnoringGivenFields(page, "content");
+        assertThat(read).extracting("content").asList()
+            .usingElementComparator((a, b) -> a.toString().compareTo(b.toString()))
+            .containsExactly(catalogueDTO, new CatalogueDTO());
+        assertThat(increment).isInstanceOf(CatalogueQueryResultCache.IncrementGeneration.class);
+    }
+
+    private static CatalogueCriteria partners(Integer... partnerIds) {
+        IntegerFilter partnerId = new IntegerFilter();
+        partnerId.setIn(Arrays.asList(partnerIds));
+        CatalogueCriteria criteria = new CatalogueCriteria();
+        criteria.setPartnerId(partnerId);
+        return criteria;
+    }
+}
@@ -0,0 +1,60 @@
+package com.gymmastercatalogue.app.service;
+
+import com.gymmastercatalogue.app.service.dto.CatalogueCriteria;
+
+import io.github.jhipster.service.filter.InstantFilter;
+import io.github.jhipster.service.filter.IntegerFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CatalogueQueryShapeRecorderTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private CatalogueQueryShapeRecorder catalogueQueryShapeRecorder;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        catalogueQueryShapeRecorder = new CatalogueQueryShapeRecorder(meterRegistry);
+    }
+
+    @Test
+    public void testShapeIgnoresFilterValues() {
+        catalogueQueryShapeRecorder.record("page", partnerSessions(1, Instant.EPOCH), Sort.by("sessionDt"));
+        catalogueQueryShapeRecorder.record("page", partnerSessions(2, Instant.now()), Sort.by("sessionDt"));
+
+        assertThat(meterRegistry.get("catalogue.query.shapes")
+            .tag("operation", "page")
+            .tag("criteria", "partnerId.equals,sessionDt.greaterThanOrEqual")
+            .tag("sort", "sessionDt.asc")
+            .counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    public void testShapesAreBounded() {
+        for (int i = 0; i <= CatalogueQueryShapeRecorder.MAX_SHAPES; i++) {
+            catalogueQueryShapeRecorder.record("page", null, Sort.by("field" + i));
+        }
+
+        assertThat(meterRegistry.get("catalogue.query.shapes").tag("sort", CatalogueQueryShapeRecorder.OTHER).counter().count())
+            .isEqualTo(1);
+    }
+
+    private static CatalogueCriteria partnerSessions(int partnerId, Instant from) {
+        CatalogueCriteria criteria = new CatalogueCriteria();
+        IntegerFilter partnerFilter = new IntegerFilter();
+        partnerFilter.setEquals(partnerId);
+        criteria.setPartnerId(partnerFilter);
+        InstantFilter sessionDtFilter = new InstantFilter();
+        sessionDtFilter.setGreaterThanOrEqual(from);
+        criteria.setSessionDt(sessionDtFilter);
+        return criteria;
+    }
+}
@@ -0,0 +1,202 @@
+package com.gymmastercatalogue.app.service;
+
+import com.gymmastercatalogue.app.config.ApplicationProperties;
+import com.gymmastercatalogue.app.domain.Catalogue;
+import com.gymmastercatalogue.app.repository.CatalogueRepository;
+import com.gymmastercatalogue.app.repository.search.CatalogueSearchIndex;
+import com.gymmastercatalogue.app.service.dto.CatalogueReindexStatus;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import io.searchbox.action.Action;
+import io.searchbox.client.JestClient;
+import io.searchbox.client.JestResult;
+import io.searchbox.indices.aliases.GetAliases;
+import io.searchbox.indices.aliases.ModifyAliases;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class CatalogueReindexServiceTest {
+
+    private CatalogueBulkIndexer catalogueBulkIndexer;
+
+    private ElasticsearchOperations elasticsearchOperations;
+
+    private CatalogueSearchIndex catalogueSearchIndex;
+
+    private JestClient jestClient;
+
+    private IMap<String, String> jobs;
+
+    private CatalogueReindexService catalogueReindexService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setup() throws Exception {
+        CatalogueRepository catalogueRepository = mock(CatalogueRepository.class);
+        when(catalogueRepository.count()).thenReturn(10L);
+        when(catalogueRepository.findMinId()).thenReturn(1L);
+        when(catalogueRepository.findMaxId()).thenReturn(10L);
+        when(catalogueRepository.findByIdGreaterThanAndIdLessThanEqualOrderByIdAsc(anyLong(), anyLong(), any())).thenAnswer(invocation -> {
+            long after = invocation.getArgument(0);
+            long upTo = invocation.getArgument(1);
+            Pageable pageable = invocation.getArgument(2);
+            return LongStream.rangeClosed(after + 1, upTo).limit(pageable.getPageSize()).mapToObj(CatalogueReindexServiceTest::catalogue)
+                .collect(Collectors.toList());
+        });
+        catalogueBulkIndexer = mock(CatalogueBulkIndexer.class);
+        when(catalogueBulkIndexer.getDefaultIndexName()).thenReturn("catalogue");
+        when(catalogueBulkIndexer.getIndexType()).thenReturn("catalogue");
+        when(catalogueBulkIndexer.index(anyString(), any())).thenReturn(CompletableFuture.completedFuture(null));
+        elasticsearchOperations = mock(ElasticsearchOperations.class);
+        when(elasticsearchOperations.indexExists("catalogue")).thenReturn(true);
+        jestClient = mock(JestClient.class);
+        JestResult succeeded = result(true, new JsonObject());
+        when(jestClient.execute(any())).thenReturn(succeeded);
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getSearch().getReindex().setParallelism(2);
+        applicationProperties.getSearch().getReindex().setPartitionsPerThread(2);
+        applicationProperties.getSearch().getReindex().setBatchSize(2);
+        catalogueSearchIndex = mock(CatalogueSearchIndex.class);
+        jobs = mock(IMap.class);
+        when(jobs.tryLock(CatalogueReindexService.JOB)).thenReturn(true);
+        HazelcastInstance hazelcastInstance = mock(HazelcastInstance.class);
+        when(hazelcastInstance.<String, String>getMap(CatalogueReindexService.REINDEX_JOBS)).thenReturn(jobs);
+        catalogueReindexService = new CatalogueReindexService(catalogueRepository, catalogueBulkIndexer, elasticsearchOperations,
+            catalogueSearchIndex, jestClient, hazelcastInstance, applicationProperties, Runnable::run);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testReindexLoadsEveryCatalogueIntoNewIndex() throws Exception {
+        JestResult missingAlias = result(false, new JsonObject());
+        when(jestClient.execute(any(GetAliases.class))).thenReturn(missingAlias);
+
+        CatalogueReindexStatus status = catalogueReindexService.start();
+
+        assertThat(status.getState()).isEqualTo(CatalogueReindexStatus.State.COMPLETED);
+        assertThat(status.getIndexed()).isEqualTo(10);
+        assertThat(status.getTotal()).isEqualTo(10);
+        String newIndex = status.getIndexName();
+        assertThat(newIndex).startsWith("catalogue_");
+        ArgumentCaptor<Collection<Catalogue>> pages = ArgumentCaptor.forClass(Collection.class);
+        verify(catalogueBulkIndexer, atLeastOnce()).index(eq(newIndex), pages.capture());
+        List<Long> ids = pages.getAllValues().stream().flatMap(Collection::stream).map(Catalogue::getId).sorted()
+            .collect(Collectors.toList());
+        assertThat(ids).containsExactlyElementsOf(LongStream.rangeClosed(1, 10).boxed().collect(Collectors.toList()));
+        verify(catalogueSearchIndex).create(eq(newIndex), eq(Collections.singletonMap("index.refresh_interval", "-1")));
+        verify(catalogueSearchIndex).updateSettings(newIndex);
+        verify(catalogueBulkIndexer).addShadowIndex(newIndex);
+        verify(catalogueBulkIndexer).removeShadowIndex(newIndex);
+        verify(jobs).unlock(CatalogueReindexService.JOB);
+        assertThat(aliasUpdate().getData(new Gson()))
+            .contains("\"remove_index\":{\"index\":\"catalogue\"}")
+            .contains("\"add\":{\"index\":\"" + newIndex + "\",\"alias\":\"catalogue\"}");
+    }
+
+    @Test
+    public void testReindexRemovesAliasFromPreviousIndex() throws Exception {
+        JsonObject aliases = new JsonObject();
+        aliases.add("catalogue_20260101000000", new JsonObject());
+        JestResult previous = result(true, aliases);
+        when(jestClient.execute(any(GetAliases.class))).thenReturn(previous);
+
+        CatalogueReindexStatus status = catalogueReindexService.start();
+
+        assertThat(status.getState()).isEqualTo(CatalogueReindexStatus.State.COMPLETED);
+        assertThat(aliasUpdate().getData(new Gson()))
+            .contains("\"remove\":{\"index\":\"catalogue_20260101000000\",\"alias\":\"catalogue\"}");
+        verify(elasticsearchOperations).deleteIndex("catalogue_20260101000000");
+    }
+
+    @Test
+    public void testFailedReindexDeletesNewIndex() {
+        CompletableFuture<Void> failure = new CompletableFuture<>();
+        failure.completeExceptionally(new IllegalStateException("Elasticsearch unavailable"));
+        when(catalogueBulkIndexer.index(anyString(), any())).thenReturn(failure);
+
+        CatalogueReindexStatus status = catalogueReindexService.start();
+
+        assertThat(status.getState()).isEqualTo(CatalogueReindexStatus.State.FAILED);
+        assertThat(status.getError()).contains("Elasticsearch unavailable");
+        verify(elasticsearchOperations).deleteIndex(status.getIndexName());
+        verify(catalogueBulkIndexer).removeShadowIndex(status.getIndexName());
+    }
+
+    @Test
+    public void testReindexRunningOnAnotherNodeIsNotStarted() throws Exception {
+        when(jobs.tryLock(CatalogueReindexService.JOB)).thenReturn(false);
+
+        CatalogueReindexStatus status = catalogueReindexService.start();
+
+        assertThat(status.getState()).isEqualTo(CatalogueReindexStatus.State.FAILED);
+        assertThat(status.getError()).contains("another node");
+        verify(catalogueSearchIndex, never()).create(anyString(), any());
+        verify(jestClient, never()).execute(any(ModifyAliases.class));
+        verify(jobs, never()).unlock(anyString());
+    }
+
+    @Test
+    public void testReindexDeletesTheShadowIndicesOfAnInterruptedReindex() throws Exception {
+        JsonObject aliases = new JsonObject();
+        aliases.add("catalogue_20260101000000", new JsonObject());
+        JestResult previous = result(true, aliases);
+        when(jestClient.execute(any(GetAliases.class))).thenReturn(previous);
+        when(catalogueBulkIndexer.getShadowIndexNames())
+            .thenReturn(new HashSet<>(Arrays.asList("catalogue_20260101000000", "catalogue_20260102000000")));
+        when(elasticsearchOperations.indexExists(anyString())).thenReturn(true);
+
+        CatalogueReindexStatus status = catalogueReindexService.start();
+
+        assertThat(status.getState()).isEqualTo(CatalogueReindexStatus.State.COMPLETED);
+        verify(catalogueBulkIndexer).removeShadowIndex("catalogue_20260102000000");
+        verify(elasticsearchOperations).deleteIndex("catalogue_20260102000000");
+        // The index the interrupted reindex moved the alias to is only deleted by the swap of the alias
+        verify(catalogueBulkIndexer).removeShadowIndex("catalogue_20260101000000");
+        verify(elasticsearchOperations, times(1)).deleteIndex("catalogue_20260101000000");
+    }
+
+    @SuppressWarnings("unchecked")
+    private ModifyAliases aliasUpdate() throws Exception {
+        ArgumentCaptor<Action<JestResult>> actions = ArgumentCaptor.forClass(Action.class);
+        verify(jestClient, atLeastOnce()).execute(actions.capture());
+        List<ModifyAliases> aliasUpdates = actions.getAllValues().stream().filter(ModifyAliases.class::isInstance)
+            .map(ModifyAliases.class::cast).collect(Collectors.toList());
+        assertThat(aliasUpdates).hasSize(1);
+        return aliasUpdates.get(0);
+    }
+
+    private static Catalogue catalogue(long id) {
+        Catalogue catalogue = new Catalogue();
+        catalogue.setId(id);
+        return catalogue;
+    }
+
+    private static JestResult result(boolean succeeded, JsonObject json) {
+        JestResult result = mock(JestResult.class);
+        when(result.isSucceeded()).thenReturn(succeeded);
+        when(result.getJsonObject()).thenReturn(json);
+        return result;
+    }
+}
@@ -0,0 +1,156 @@
+package com.gymmastercatalogue.app.service;
+
+import com.gymmastercatalogue.app.config.ApplicationProperties;
+import com.gymmastercatalogue.app.domain.Catalogue;
+import com.gymmastercatalogue.app.domain.CatalogueOutboxEvent;
+import com.gymmastercatalogue.app.domain.enumeration.OutboxOperation;
+import com.gymmastercatalogue.app.repository.CatalogueOutboxEventRepository;
+import com.gymmastercatalogue.app.repository.CatalogueRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class CatalogueSearchOutboxRelayTest {
+
+    private CatalogueOutboxEventRepository catalogueOutboxEventRepository;
+
+    private CatalogueRepository catalogueRepository;
+
+    private CatalogueBulkIndexer catalogueBulkIndexer;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private CatalogueSearchOutboxRelay relay;
+
+    @BeforeEach
+    public void setup() {
+        catalogueOutboxEventRepository = mock(CatalogueOutboxEventRepository.class);
+        catalogueRepository = mock(CatalogueRepository.class);
+        catalogueBulkIndexer = mock(CatalogueBulkIndexer.class);
+        when(catalogueBulkIndexer.index(any())).thenReturn(CompletableFuture.completedFuture(null));
+        when(catalogueBulkIndexer.delete(any())).thenReturn(CompletableFuture.completedFuture(null));
+        meterRegistry = new SimpleMeterRegistry();
+        relay = new CatalogueSearchOutboxRelay(catalogueOutboxEventRepository, catalogueRepository, catalogueBulkIndexer,
+            new ApplicationProperties(), Runnable::run, meterRegistry);
+        when(catalogueOutboxEventRepository.findFirstByDeadLetteredDateIsNullOrderByIdAsc()).thenReturn(Optional.empty());
+    }
+
+    @Test
+    public void testDrainKeepsLastOperationPerCatalogue() {
+        List<CatalogueOutboxEvent> batch = Arrays.asList(
+            event(1L, 5L, OutboxOperation.INDEX),
+            event(2L, 3L, OutboxOperation.INDEX),
+            event(3L, 5L, OutboxOperation.DELETE));
+        claimable(batch);
+        Catalogue catalogue = new Catalogue();
+        catalogue.setId(3L);
+        when(catalogueRepository.findAllById(Collections.singletonList(3L))).thenReturn(new ArrayList<>(Collections.singletonList(catalogue)));
+
+        relay.drain();
+
+        InOrder inOrder = inOrder(catalogueBulkIndexer, catalogueOutboxEventRepository);
+        inOrder.verify(catalogueBulkIndexer).index(Collections.singletonList(catalogue));
+        inOrder.verify(catalogueBulkIndexer).delete(Collections.singletonList(5L));
+        inOrder.verify(catalogueOutboxEventRepository).deleteInBatch(batch);
+        assertThat(meterRegistry.get("catalogue.search.outbox.relayed").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    public void testDrainDeletesMissingCatalogue() {
+        List<CatalogueOutboxEvent> batch = Collections.singletonList(event(1L, 7L, OutboxOperation.INDEX));
+        claimable(batch);
+        when(catalogueRepository.findAllById(Collections.singletonList(7L))).thenReturn(new ArrayList<>());
+
+        relay.drain();
+
+        verify(catalogueBulkIndexer).index(Collections.emptyList());
+        verify(catalogueBulkIndexer).delete(Collections.singletonList(7L));
+        verify(catalogueOutboxEventRepository).deleteInBatch(batch);
+    }
+
+    @Test
+    public void testDrainSkipsEventsClaimedByAnotherRelay() {
+        when(catalogueOutboxEventRepository.findClaimableIds(any(), any())).thenReturn(Collections.singletonList(1L));
+        when(catalogueOutboxEventRepository.claim(any(), any(), any(), any())).thenReturn(0);
+
+        relay.drain();
+
+        verify(catalogueOutboxEventRepository, never()).findAllByClaimedByAndIdInOrderByIdAsc(any(), any());
+        verifyNoInteractions(catalogueBulkIndexer);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testFailedBatchIsRetained() {
+        CatalogueOutboxEvent event = event(1L, 9L, OutboxOperation.DELETE);
+        claimable(Collections.singletonList(event));
+        CompletableFuture<Void> failure = new CompletableFuture<>();
+        failure.completeExceptionally(new IllegalStateException("Elasticsearch unavailable"));
+        when(catalogueBulkIndexer.delete(Collections.singletonList(9L))).thenReturn(failure);
+        when(catalogueOutboxEventRepository.findFirstByDeadLetteredDateIsNullOrderByIdAsc()).thenReturn(Optional.of(event));
+
+        relay.drain();
+
+        ArgumentCaptor<List<CatalogueOutboxEvent>> retried = ArgumentCaptor.forClass(List.class);
+        verify(catalogueOutboxEventRepository).saveAll(retried.capture());
+        assertThat(retried.getValue()).containsExactly(event);
+        assertThat(event.getAttempts()).isEqualTo(1);
+        assertThat(event.getClaimedBy()).isNull();
+        assertThat(event.getClaimedUntil()).isNull();
+        assertThat(event.getDeadLetteredDate()).isNull();
+        verify(catalogueOutboxEventRepository, never()).deleteInBatch(any());
+        assertThat(relay.getLagSeconds()).isGreaterThan(0);
+        assertThat(meterRegistry.get("catalogue.search.outbox.failed").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void testEventIsDeadLetteredAfterMaxAttempts() {
+        CatalogueOutboxEvent event = event(1L, 9L, OutboxOperation.DELETE).attempts(9);
+        claimable(Collections.singletonList(event));
+        CompletableFuture<Void> failure = new CompletableFuture<>();
+        failure.completeExceptionally(new IllegalStateException("Elasticsearch unavailable"));
+        when(catalogueBulkIndexer.delete(Collections.singletonList(9L))).thenReturn(failure);
+        when(catalogueOutboxEventRepository.countByDeadLetteredDateIsNotNull()).thenReturn(1L);
+
+        relay.drain();
+
+        verify(catalogueOutboxEventRepository).saveAll(Collections.singletonList(event));
+        verify(catalogueOutboxEventRepository, never()).deleteInBatch(any());
+        assertThat(event.getAttempts()).isEqualTo(10);
+        assertThat(event.getDeadLetteredDate()).isNotNull();
+        assertThat(meterRegistry.get("catalogue.search.outbox.dead_lettered").gauge().value()).isEqualTo(1);
+    }
+
+    private void claimable(List<CatalogueOutboxEvent> batch) {
+        List<Long> ids = new ArrayList<>();
+        batch.forEach(event -> ids.add(event.getId()));
+        when(catalogueOutboxEventRepository.findClaimableIds(any(), any())).thenReturn(ids);
+        when(catalogueOutboxEventRepository.claim(eq(ids), any(), any(), any())).thenReturn(ids.size());
+        when(catalogueOutboxEventRepository.findAllByClaimedByAndIdInOrderByIdAsc(any(), eq(ids))).thenReturn(batch);
+    }
+
+    private static CatalogueOutboxEvent event(Long id, Long catalogueId, OutboxOperation operation) {
+        CatalogueOutboxEvent event = new CatalogueOutboxEvent()
+            .catalogueId(catalogueId)
+            .operation(operation)
+            .createdDate(Instant.now().minusSeconds(30));
+        event.setId(id);
+        return event;
+    }
+}
@@ -0,0 +1,80 @@
+package com.gymmastercatalogue.app.service;
+
+import com.gymmastercatalogue.app.config.ApplicationProperties;
+import com.gymmastercatalogue.app.service.dto.CatalogueSuggestionDTO;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CatalogueSuggestionCacheTest {
+
+    private final AtomicInteger searches = new AtomicInteger();
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private CatalogueSuggestionCache cache;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getSearch().getSuggest().setCacheMaxSize(2);
+        cache = new CatalogueSuggestionCache(applicationProperties, meterRegistry);
+    }
+
+    @Test
+    public void testPendingAndCompletedSearchesAreShared() {
+        CompletableFuture<List<CatalogueSuggestionDTO>> pending = new CompletableFuture<>();
+
+        CompletableFuture<List<CatalogueSuggestionDTO>> first = cache.get("yo", 10, () -> search(pending));
+        CompletableFuture<List<CatalogueSuggestionDTO>> second = cache.get("yo", 10, () -> search(new CompletableFuture<>()));
+        pending.complete(Collections.singletonList(suggestion(1L)));
+
+        assertThat(searches).hasValue(1);
+        assertThat(second).isSameAs(first);
+        assertThat(second.join()).containsExactly(suggestion(1L));
+        assertThat(cache.get("yo", 5, () -> search(new CompletableFuture<>()))).isNotSameAs(first);
+        assertThat(meterRegistry.get("catalogue.suggest.cache.requests").tag("result", "hit").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void testFailedSearchesAndLeastRecentlyUsedPrefixesAreEvicted() {
+        CompletableFuture<List<CatalogueSuggestionDTO>> failure = new CompletableFuture<>();
+        failure.completeExceptionally(new IllegalStateException("Elasticsearch unavailable"));
+        assertThat(cache.get("yo", 10, () -> search(failure))).isCompletedExceptionally();
+        assertThat(cache.get("yo", 10, this::found).join()).hasSize(1);
+
+        cache.get("pi", 10, this::found);
+        cache.get("yo", 10, this::found);
+        cache.get("hi", 10, this::found);
+        cache.get("yo", 10, this::found);
+        cache.get("pi", 10, this::found);
+
+        assertThat(searches).hasValue(5);
+        assertThat(meterRegistry.get("catalogue.suggest.cache.size").gauge().value()).isEqualTo(2);
+    }
+
+    private CompletableFuture<List<CatalogueSuggestionDTO>> found() {
+        return search(CompletableFuture.completedFuture(Collections.singletonList(suggestion(1L))));
+    }
+
+    private CompletableFuture<List<CatalogueSuggestionDTO>> search(CompletableFuture<List<CatalogueSuggestionDTO>> result) {
+        searches.incrementAndGet();
+        return result;
+    }
+
+    private static CatalogueSuggestionDTO suggestion(Long id) {
+        CatalogueSuggestionDTO suggestion = new CatalogueSuggestionDTO();
+        suggestion.setId(id);
+        suggestion.setDescription("Yoga " + id);
+        return suggestion;
+    }
+}
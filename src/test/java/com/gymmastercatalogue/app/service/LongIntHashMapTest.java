@@ -0,0 +1,87 @@
+package com.gymmastercatalogue.app.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class LongIntHashMapTest {
+
+    @Test
+    public void testKeysAreFoundAfterTheRemovalOfTheirPredecessors() {
+        LongIntHashMap map = new LongIntHashMap(16, false);
+        // Multiples of 64 cluster in the small tables the map starts with
+        for (int i = 0; i < 1000; i++) {
+            assertThat(map.put(i * 64L, i)).isEqualTo(-1);
+        }
+        for (int i = 0; i < 1000; i += 2) {
+            assertThat(map.remove(i * 64L)).isEqualTo(i);
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            assertThat(map.get(i * 64L)).isEqualTo(i % 2 == 0 ? -1 : i);
+        }
+        assertThat(map.size()).isEqualTo(500);
+        assertThat(map.remove(0)).isEqualTo(-1);
+    }
+
+    @Test
+    public void testTheMapMatchesAHashMapUnderRandomChanges() {
+        LongIntHashMap map = new LongIntHashMap(1024, true);
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            long key = random.nextInt(2048) - 1024L;
+            if (random.nextBoolean()) {
+                Integer previous = expected.put(key, i);
+                assertThat(map.put(key, i)).isEqualTo(previous == null ? -1 : previous);
+            } else {
+                Integer previous = expected.remove(key);
+                assertThat(map.remove(key)).isEqualTo(previous == null ? -1 : previous);
+            }
+        }
+
+        assertThat(map.size()).isEqualTo(expected.size());
+        expected.forEach((key, value) -> assertThat(map.get(key)).isEqualTo(value));
+    }
+
+    @Test
+    public void testTheTableGrowsOnlyBeyondTheExpectedSize() {
+        LongIntHashMap map = new LongIntHashMap(1000, true);
+        long sizeInBytes = map.sizeInBytes();
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, i);
+        }
+
+        assertThat(map.sizeInBytes()).isEqualTo(sizeInBytes);
+
+        int size = 1000;
+        while (map.sizeInBytes() == sizeInBytes) {
+            map.put(size, size);
+            size++;
+        }
+
+        assertThat(map.sizeInBytes()).isEqualTo(2 * sizeInBytes);
+        assertThat(map.size()).isEqualTo(size);
+        assertThat(map.get(500)).isEqualTo(500);
+        assertThat(map.get(size - 1)).isEqualTo(size - 1);
+
+        map.clear();
+
+        assertThat(map.size()).isZero();
+        assertThat(map.get(500)).isEqualTo(-1);
+    }
+
+    @Test
+    public void testTheFreeMarkerIsNotAKey() {
+        LongIntHashMap map = new LongIntHashMap(16, false);
+
+        assertThat(map.get(LongIntHashMap.FREE)).isEqualTo(-1);
+        assertThat(map.remove(LongIntHashMap.FREE)).isEqualTo(-1);
+        assertThatThrownBy(() -> map.put(LongIntHashMap.FREE, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,62 @@
+package com.gymmastercatalogue.app.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RowBitmapTest {
+
+    @Test
+    public void testGroupsSwitchBetweenArraysAndBitmaps() {
+        RowBitmap bitmap = new RowBitmap();
+        BitSet expected = new BitSet();
+        // A dense group, beyond the array size, between two sparse groups
+        for (int row = 0; row < 3 * 65536; row += row >= 65536 && row < 2 * 65536 ? 3 : 1000) {
+            assertThat(bitmap.add(row)).isTrue();
+            expected.set(row);
+        }
+        assertThat(bitmap.add(3000)).isFalse();
+        long bitmapSize = bitmap.sizeInBytes();
+        // Back under the array size
+        for (int row = 66000; row < 2 * 65536; row += 3) {
+            if ((row - 66000) % 96 != 0) {
+                assertThat(bitmap.remove(row)).isTrue();
+                expected.clear(row);
+            }
+        }
+        assertThat(bitmap.remove(66003)).isFalse();
+
+        assertThat(bitmap.getCardinality()).isEqualTo(expected.cardinality());
+        assertThat(bitmap.sizeInBytes()).isLessThan(bitmapSize);
+        assertThat(bitmap.contains(66096)).isTrue();
+        assertThat(bitmap.contains(66006)).isFalse();
+        BitSet rows = new BitSet();
+        bitmap.orInto(rows);
+        assertThat(rows).isEqualTo(expected);
+    }
+
+    @Test
+    public void testIntersectionsAreCountedByGroup() {
+        RowBitmap evens = new RowBitmap();
+        RowBitmap thirds = new RowBitmap();
+        RowBitmap sparse = new RowBitmap();
+        for (int row = 0; row < 200_000; row++) {
+            if (row % 2 == 0) {
+                evens.add(row);
+            }
+            if (row % 3 == 0) {
+                thirds.add(row);
+            }
+            if (row % 1000 == 0) {
+                sparse.add(row);
+            }
+        }
+
+        assertThat(evens.andCardinality(thirds)).isEqualTo(33_334);
+        assertThat(sparse.andCardinality(thirds)).isEqualTo(67);
+        assertThat(sparse.andCardinality(sparse)).isEqualTo(200);
+        assertThat(new RowBitmap().andCardinality(evens)).isZero();
+    }
+}
@@ -0,0 +1,89 @@
+package com.gymmastercatalogue.app.service.dto;
+
+import com.gymmastercatalogue.app.domain.enumeration.categoryEnum;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class CatalogueCsvFormatTest {
+
+    @Test
+    public void testFieldsAreQuotedOnlyWhenNeeded() throws Exception {
+        CatalogueDTO catalogueDTO = new CatalogueDTO();
+        catalogueDTO.setId(1L);
+        catalogueDTO.setDescription("Yoga, \"flow\"\nand stretch");
+        catalogueDTO.setPrice(12.5);
+        catalogueDTO.setSessionDt(Instant.parse("2026-01-05T18:30:00Z"));
+        catalogueDTO.setCategory(categoryEnum.GYM);
+        catalogueDTO.setUsername("");
+        catalogueDTO.setPartnerId(7);
+        StringBuilder out = new StringBuilder();
+
+        CatalogueCsvFormat.writeHeader(out);
+        CatalogueCsvFormat.writeRow(out, catalogueDTO);
+
+        assertThat(out.toString()).isEqualTo("id,description,price,duration,sessionDt,category,username,partnerId\r\n"
+            + "1,\"Yoga, \"\"flow\"\"\nand stretch\",12.5,,2026-01-05T18:30:00Z,GYM,\"\",7\r\n");
+    }
+
+    @Test
+    public void testRecordsAreParsedWhateverTheColumnOrder() throws Exception {
+        CatalogueCsvFormat.Parser parser = new CatalogueCsvFormat.Parser(new StringReader(
+            "partnerId,username,category,description,sessionDt\n"
+            + "7,coach,GYM,\"Yoga, \"\"flow\"\"\nand stretch\",2026-01-05T18:30:00Z\r\n"
+            + "\n"
+            + "8,\"\",HIIT,,\n"));
+
+        CatalogueDTO first = parser.next();
+        assertThat(parser.getLine()).isEqualTo(2);
+        CatalogueDTO second = parser.next();
+        assertThat(parser.getLine()).isEqualTo(5);
+
+        assertThat(first.getPartnerId()).isEqualTo(7);
+        assertThat(first.getUsername()).isEqualTo("coach");
+        assertThat(first.getCategory()).isEqualTo(categoryEnum.GYM);
+        assertThat(first.getDescription()).isEqualTo("Yoga, \"flow\"\nand stretch");
+        assertThat(first.getSessionDt()).isEqualTo(Instant.parse("2026-01-05T18:30:00Z"));
+        assertThat(second.getUsername()).isEmpty();
+        assertThat(second.getDescription()).isNull();
+        assertThat(second.getSessionDt()).isNull();
+        assertThat(parser.next()).isNull();
+    }
+
+    @Test
+    public void testInvalidRecordsAreSkipped() throws Exception {
+        CatalogueCsvFormat.Parser parser = new CatalogueCsvFormat.Parser(new StringReader(
+            "partnerId,category,username\n"
+            + "seven,GYM,coach\n"
+            + "7,\"GYM\"x,coach\n"
+            + "7,GYM\n"
+            + "7,GYM,coach"));
+
+        assertThatThrownBy(parser::next).isInstanceOf(IllegalArgumentException.class).hasMessage("Invalid partnerId: 'seven'");
+        assertThatThrownBy(parser::next).isInstanceOf(IllegalArgumentException.class).hasMessageStartingWith("Unexpected character");
+        assertThatThrownBy(parser::next).isInstanceOf(IllegalArgumentException.class).hasMessage("Expected 3 fields, found 2");
+        assertThat(parser.next().getUsername()).isEqualTo("coach");
+        assertThat(parser.getLine()).isEqualTo(5);
+        assertThat(parser.next()).isNull();
+    }
+
+    @Test
+    public void testTheByteOrderMarkIsNotPartOfTheHeader() throws Exception {
+        CatalogueCsvFormat.Parser parser = new CatalogueCsvFormat.Parser(new StringReader("\uFEFFpartnerId,category,username\n"
+            + "7,GYM,coach\n"));
+
+        assertThat(parser.next().getPartnerId()).isEqualTo(7);
+    }
+
+    @Test
+    public void testUnknownColumnsAreRefused() {
+        assertThatThrownBy(() -> new CatalogueCsvFormat.Parser(new StringReader("partnerId,color\n")))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Unknown or duplicate column: color");
+    }
+}
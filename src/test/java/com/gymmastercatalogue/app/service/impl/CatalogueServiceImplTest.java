@@ -0,0 +1,289 @@
+package com.gymmastercatalogue.app.service.impl;
+
+import com.gymmastercatalogue.app.config.ApplicationProperties;
+import com.gymmastercatalogue.app.domain.Catalogue;
+import com.gymmastercatalogue.app.domain.enumeration.categoryEnum;
+import com.gymmastercatalogue.app.repository.CatalogueOutboxEventRepository;
+import com.gymmastercatalogue.app.repository.CatalogueRepository;
+import com.gymmastercatalogue.app.repository.search.CatalogueSearchTransport;
+import com.gymmastercatalogue.app.service.CatalogueColumnarIndex;
+import com.gymmastercatalogue.app.service.CatalogueQueryResultCache;
+import com.gymmastercatalogue.app.service.CatalogueSuggestionCache;
+import com.gymmastercatalogue.app.service.dto.CatalogueDTO;
+import com.gymmastercatalogue.app.service.dto.CatalogueFacetsDTO;
+import com.gymmastercatalogue.app.service.dto.CatalogueSearchRequest;
+import com.gymmastercatalogue.app.service.mapper.CatalogueMapper;
+import com.gymmastercatalogue.app.service.mapper.CatalogueMapperImpl;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParser;
+import io.searchbox.core.SearchResult;
+import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.elasticsearch.index.query.QueryBuilders.*;
+
+public class CatalogueServiceImplTest {
+
+    @Test
+    public void testOnlyTheTextIsScored() {
+        CatalogueSearchRequest request = new CatalogueSearchRequest();
+        request.setQuery("morning yoga");
+        request.setCategory(Arrays.asList(categoryEnum.values()[0], categoryEnum.values()[1]));
+        request.setPartnerId(Collections.singletonList(7));
+        request.setPriceMax(20.0);
+        request.setSessionFrom(Instant.parse("2026-01-01T00:00:00Z"));
+
+        BoolQueryBuilder query = CatalogueServiceImpl.toQuery(request);
+
+        assertThat(query.must()).containsExactly(matchQuery("description", "morning yoga"));
+        assertThat(query.should()).isEmpty();
+        assertThat(query.filter()).containsExactly(
+            termsQuery("category", categoryEnum.values()[0].name(), categoryEnum.values()[1].name()),
+            termsQuery("partnerId", Collections.singletonList(7)),
+            rangeQuery("price").lte(20.0),
+            rangeQuery("sessionDt").gte("2026-01-01T00:00:00Z"));
+    }
+
+    @Test
+    public void testAnEmptyRequestMatchesAllCatalogues() {
+        BoolQueryBuilder query = CatalogueServiceImpl.toQuery(new CatalogueSearchRequest());
+
+        assertThat(query.must()).isEmpty();
+        assertThat(query.filter()).isEmpty();
+        assertThat(query).isEqualTo(boolQuery());
+    }
+
+    @Test
+    public void testAggregationsAreReadIntoFacets() {
+        String json = "{\"hits\":{\"total\":5,\"hits\":[]},\"aggregations\":{"
+            + "\"category\":{\"buckets\":[{\"key\":\"" + categoryEnum.values()[0].name() + "\",\"doc_count\":5}]},"
+            + "\"partnerId\":{\"buckets\":[{\"key\":7,\"doc_count\":3},{\"key\":9,\"doc_count\":2}]},"
+            + "\"sessionDt\":{\"buckets\":[{\"key_as_string\":\"2026-01-05T00:00:00.000Z\",\"key\":1767571200000,\"doc_count\":5}]}}}";
+        SearchResult result = new SearchResult(new Gson());
+        result.setSucceeded(true);
+        result.setJsonString(json);
+        result.setJsonObject(JsonParser.parseString(json).getAsJsonObject());
+        result.setPathToResult("hits/hits/_source");
+
+        CatalogueFacetsDTO facets = CatalogueServiceImpl.toFacets(result, 1000);
+
+        assertThat(facets.getTotal()).isEqualTo(5);
+        assertThat(facets.getCategory()).containsExactly(entry(categoryEnum.values()[0], 5L));
+        assertThat(facets.getPartnerId()).containsExactly(entry(7, 3L), entry(9, 2L));
+        assertThat(facets.getSessionDt()).containsExactly(entry(Instant.parse("2026-01-05T00:00:00Z"), 5L));
+    }
+
+    @Test
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public void testFacetsAreCountedInTheDatabaseWhenTheSearchFails() {
+        CatalogueRepository catalogueRepository = mock(CatalogueRepository.class);
+        when(catalogueRepository.count(any(Specification.class))).thenReturn(3L);
+        Map<Instant, Long> sessions = new LinkedHashMap<>();
+        sessions.put(Instant.parse("2026-01-04T00:00:00Z"), 1L);
+        sessions.put(Instant.parse("2026-01-05T00:00:00Z"), 2L);
+        when(catalogueRepository.countBy(any(), any(), anyInt())).thenReturn((Map) Collections.singletonMap(categoryEnum.values()[0], 3L),
+            (Map) Collections.singletonMap(7, 3L));
+        when(catalogueRepository.countBySessionDt(any(), eq(ChronoUnit.DAYS), eq(1000))).thenReturn(sessions);
+        CatalogueSearchTransport catalogueSearchTransport = mock(CatalogueSearchTransport.class);
+        CompletableFuture<SearchResult> failure = new CompletableFuture<>();
+        failure.completeExceptionally(new IOException("Connection refused"));
+        when(catalogueSearchTransport.search(eq("facets"), any(SearchSourceBuilder.class))).thenReturn(failure);
+        CatalogueServiceImpl catalogueService = new CatalogueServiceImpl(catalogueRepository, mock(CatalogueMapper.class),
+            catalogueSearchTransport, mock(CatalogueOutboxEventRepository.class), mock(CacheManager.class),
+            mock(CatalogueQueryResultCache.class), mock(CatalogueSuggestionCache.class), mock(CatalogueColumnarIndex.class), new ApplicationProperties(), Runnable::run,
+            mock(PlatformTransactionManager.class), mock(EntityManager.class));
+
+        CatalogueFacetsDTO facets = catalogueService.facets(new CatalogueSearchRequest(), CatalogueFacetsDTO.Interval.DAY).join();
+
+        assertThat(facets.getTotal()).isEqualTo(3);
+        assertThat(facets.getCategory()).containsExactly(entry(categoryEnum.values()[0], 3L));
+        assertThat(facets.getPartnerId()).containsExactly(entry(7, 3L));
+        assertThat(facets.getSessionDt()).containsExactly(
+            entry(Instant.parse("2026-01-04T00:00:00Z"), 1L),
+            entry(Instant.parse("2026-01-05T00:00:00Z"), 2L));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCataloguesAreSavedInChunksFlushedAndCleared() {
+        CatalogueRepository catalogueRepository = mock(CatalogueRepository.class);
+        AtomicLong ids = new AtomicLong();
+        when(catalogueRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Catalogue> catalogues = invocation.getArgument(0);
+            catalogues.forEach(catalogue -> catalogue.setId(ids.incrementAndGet()));
+            return catalogues;
+        });
+        CatalogueMapper catalogueMapper = new CatalogueMapperImpl();
+        CatalogueOutboxEventRepository catalogueOutboxEventRepository = mock(CatalogueOutboxEventRepository.class);
+        CacheManager cacheManager = mock(CacheManager.class);
+        when(cacheManager.getCache(CatalogueRepository.CATALOGUE_BY_ID_CACHE)).thenReturn(mock(Cache.class));
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        EntityManager entityManager = mock(EntityManager.class);
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getBatch().setChunkSize(2);
+        CatalogueServiceImpl catalogueService = new CatalogueServiceImpl(catalogueRepository, catalogueMapper,
+            mock(CatalogueSearchTransport.class), catalogueOutboxEventRepository, cacheManager, mock(CatalogueQueryResultCache.class),
+            mock(CatalogueSuggestionCache.class), mock(CatalogueColumnarIndex.class), applicationProperties, Runnable::run, transactionManager, entityManager);
+
+        List<CatalogueDTO> saved = catalogueService.saveAll(Arrays.asList(new CatalogueDTO(), new CatalogueDTO(), new CatalogueDTO()));
+
+        assertThat(saved).extracting(CatalogueDTO::getId).containsExactly(1L, 2L, 3L);
+        verify(catalogueRepository, times(2)).saveAll(anyList());
+        verify(catalogueOutboxEventRepository, times(2)).saveAll(anyList());
+        verify(transactionManager, times(2)).commit(any());
+        verify(entityManager, times(2)).flush();
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    public void testUpdatingAMissingCatalogueIsRejectedBeforeTheFirstChunk() {
+        CatalogueRepository catalogueRepository = mock(CatalogueRepository.class);
+        when(catalogueRepository.findExistingIds(any())).thenReturn(Collections.emptyList());
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        CatalogueServiceImpl catalogueService = new CatalogueServiceImpl(catalogueRepository, new CatalogueMapperImpl(),
+            mock(CatalogueSearchTransport.class), mock(CatalogueOutboxEventRepository.class), mock(CacheManager.class),
+            mock(CatalogueQueryResultCache.class), mock(CatalogueSuggestionCache.class), mock(CatalogueColumnarIndex.class), new ApplicationProperties(), Runnable::run,
+            transactionManager, mock(EntityManager.class));
+        CatalogueDTO catalogueDTO = new CatalogueDTO();
+        catalogueDTO.setId(42L);
+
+        assertThatThrownBy(() -> catalogueService.saveAll(Collections.singletonList(catalogueDTO)))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("42");
+        verify(catalogueRepository, never()).saveAll(anyList());
+        verify(transactionManager, never()).getTransaction(any());
+    }
+
+    @Test
+    public void testCatalogueDeletedWhileSavingIsReportedWithTheSavedCount() {
+        CatalogueRepository catalogueRepository = mock(CatalogueRepository.class);
+        when(catalogueRepository.findExistingIds(any())).thenAnswer(invocation -> new ArrayList<>(invocation.<Collection<Long>>getArgument(0)));
+        when(catalogueRepository.findAllById(any())).thenReturn(Collections.emptyList());
+        when(catalogueRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        CacheManager cacheManager = mock(CacheManager.class);
+        when(cacheManager.getCache(CatalogueRepository.CATALOGUE_BY_ID_CACHE)).thenReturn(mock(Cache.class));
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getBatch().setChunkSize(2);
+        CatalogueServiceImpl catalogueService = new CatalogueServiceImpl(catalogueRepository, new CatalogueMapperImpl(),
+            mock(CatalogueSearchTransport.class), mock(CatalogueOutboxEventRepository.class), cacheManager,
+            mock(CatalogueQueryResultCache.class), mock(CatalogueSuggestionCache.class), mock(CatalogueColumnarIndex.class), applicationProperties, Runnable::run,
+            transactionManager, mock(EntityManager.class));
+        CatalogueDTO catalogueDTO = new CatalogueDTO();
+        catalogueDTO.setId(42L);
+
+        // The catalogue to update is deleted after the check, before its chunk is saved
+        assertThatThrownBy(() -> catalogueService.saveAll(Arrays.asList(new CatalogueDTO(), new CatalogueDTO(), catalogueDTO)))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("42")
+            .hasMessageContaining("after saving the first 2 catalogues");
+        verify(transactionManager).commit(any());
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    public void testSaveEvictsTheQueryResultsOfThePreviousAndNewCategoryAndPartner() {
+        CatalogueRepository catalogueRepository = mock(CatalogueRepository.class);
+        when(catalogueRepository.findById(42L)).thenReturn(Optional.of(catalogue(42L, categoryEnum.YOGA, 7)));
+        when(catalogueRepository.save(any(Catalogue.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        CatalogueQueryResultCache catalogueQueryResultCache = mock(CatalogueQueryResultCache.class);
+        CatalogueServiceImpl catalogueService = catalogueService(catalogueRepository, catalogueQueryResultCache, new ApplicationProperties());
+
+        catalogueService.save(catalogueDTO(42L, categoryEnum.SPIN, 9));
+
+        verify(catalogueQueryResultCache).invalidate(categoryEnum.YOGA, 7);
+        verify(catalogueQueryResultCache).invalidate(categoryEnum.SPIN, 9);
+    }
+
+    @Test
+    public void testSaveAllEvictsTheQueryResultsOfThePreviousAndNewCategoriesAndPartners() {
+        CatalogueRepository catalogueRepository = mock(CatalogueRepository.class);
+        when(catalogueRepository.findExistingIds(any())).thenReturn(Collections.singletonList(42L));
+        when(catalogueRepository.findAllById(any())).thenReturn(Collections.singletonList(catalogue(42L, categoryEnum.YOGA, 7)));
+        when(catalogueRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Catalogue> catalogues = invocation.getArgument(0);
+            catalogues.stream().filter(catalogue -> catalogue.getId() == null).forEach(catalogue -> catalogue.setId(43L));
+            return catalogues;
+        });
+        CatalogueQueryResultCache catalogueQueryResultCache = mock(CatalogueQueryResultCache.class);
+        CatalogueServiceImpl catalogueService = catalogueService(catalogueRepository, catalogueQueryResultCache, new ApplicationProperties());
+
+        catalogueService.saveAll(Arrays.asList(catalogueDTO(42L, categoryEnum.SPIN, 9), catalogueDTO(null, categoryEnum.GYM, 11)));
+
+        verify(catalogueQueryResultCache).invalidate(categoryEnum.YOGA, 7);
+        verify(catalogueQueryResultCache).invalidate(categoryEnum.SPIN, 9);
+        verify(catalogueQueryResultCache).invalidate(categoryEnum.GYM, 11);
+    }
+
+    @Test
+    public void testDeleteEvictsTheQueryResultsOfTheCategoryAndPartner() {
+        CatalogueRepository catalogueRepository = mock(CatalogueRepository.class);
+        when(catalogueRepository.findById(42L)).thenReturn(Optional.of(catalogue(42L, categoryEnum.YOGA, 7)));
+        CatalogueQueryResultCache catalogueQueryResultCache = mock(CatalogueQueryResultCache.class);
+        CatalogueServiceImpl catalogueService = catalogueService(catalogueRepository, catalogueQueryResultCache, new ApplicationProperties());
+
+        catalogueService.delete(42L);
+
+        verify(catalogueRepository).deleteById(42L);
+        verify(catalogueQueryResultCache).invalidate(categoryEnum.YOGA, 7);
+    }
+
+    private static CatalogueServiceImpl catalogueService(CatalogueRepository catalogueRepository,
+                                                        CatalogueQueryResultCache catalogueQueryResultCache,
+                                                        ApplicationProperties applicationProperties) {
+        CacheManager cacheManager = mock(CacheManager.class);
+        when(cacheManager.getCache(CatalogueRepository.CATALOGUE_BY_ID_CACHE)).thenReturn(mock(Cache.class));
+        return new CatalogueServiceImpl(catalogueRepository, new CatalogueMapperImpl(), mock(CatalogueSearchTransport.class),
+            mock(CatalogueOutboxEventRepository.class), cacheManager, catalogueQueryResultCache, mock(CatalogueSuggestionCache.class),
+            mock(CatalogueColumnarIndex.class), applicationProperties, Runnable::run, mock(PlatformTransactionManager.class),
+            mock(EntityManager.class));
+    }
+
+    private static Catalogue catalogue(Long id, categoryEnum category, Integer partnerId) {
+        Catalogue catalogue = new Catalogue().category(category).partnerId(partnerId);
+        catalogue.setId(id);
+        catalogue.setVersion(0L);
+        return catalogue;
+    }
+
+    private static CatalogueDTO catalogueDTO(Long id, categoryEnum category, Integer partnerId) {
+        CatalogueDTO catalogueDTO = new CatalogueDTO();
+        catalogueDTO.setId(id);
+        catalogueDTO.setCategory(category);
+        catalogueDTO.setPartnerId(partnerId);
+        return catalogueDTO;
+    }
+}
@@ -0,0 +1,84 @@
+package com.gymmastercatalogue.app.web.rest;
+
+import com.gymmastercatalogue.app.GymMasterCatalogueApp;
+import com.gymmastercatalogue.app.domain.Catalogue;
+import com.gymmastercatalogue.app.domain.enumeration.categoryEnum;
+import com.gymmastercatalogue.app.repository.CatalogueRepository;
+import com.gymmastercatalogue.app.service.dto.CatalogueDTO;
+import com.gymmastercatalogue.app.service.mapper.CatalogueMapper;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration tests for the {@link CatalogueResource} REST controller, with the Catalogue query results cache enabled.
+ */
+@SpringBootTest(classes = GymMasterCatalogueApp.class, properties = "application.cache.query-results.enabled=true")
+@AutoConfigureMockMvc
+@WithMockUser
+public class CatalogueQueryResultCacheIT {
+
+    @Autowired
+    private CatalogueRepository catalogueRepository;
+
+    @Autowired
+    private CatalogueMapper catalogueMapper;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MockMvc restCatalogueMockMvc;
+
+    @Test
+    @Transactional
+    public void updateCatalogueEvictsTheResultsOfItsPreviousAndNewPartner() throws Exception {
+        // Initialize the database
+        Catalogue catalogue = catalogueRepository.saveAndFlush(CatalogueResourceIT.createEntity(em));
+        String previousPartner = "/api/catalogues?id.equals=" + catalogue.getId() + "&partnerId.equals=" + catalogue.getPartnerId();
+        String newPartner = "/api/catalogues?id.equals=" + catalogue.getId() + "&partnerId.equals=" + (catalogue.getPartnerId() + 1);
+        restCatalogueMockMvc.perform(get(previousPartner))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].description").value(catalogue.getDescription()));
+        restCatalogueMockMvc.perform(get(newPartner))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(0)));
+
+        // Writes through the repository are not seen until the results expire
+        em.detach(catalogue);
+        catalogueRepository.saveAndFlush(catalogue.description("Written through the repository"));
+        restCatalogueMockMvc.perform(get(previousPartner))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].description").value(CatalogueResourceIT.createEntity(em).getDescription()));
+
+        // Writes through the REST API evict the results of the partner and category before and after the update
+        CatalogueDTO catalogueDTO = catalogueMapper.toDto(catalogueRepository.findById(catalogue.getId()).get());
+        catalogueDTO.setPartnerId(catalogue.getPartnerId() + 1);
+        catalogueDTO.setCategory(categoryEnum.YOGA);
+        restCatalogueMockMvc.perform(put("/api/catalogues")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(catalogueDTO)))
+            .andExpect(status().isOk());
+
+        restCatalogueMockMvc.perform(get(previousPartner))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(0)));
+        restCatalogueMockMvc.perform(get(newPartner))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].description").value("Written through the repository"))
+            .andExpect(jsonPath("$.[*].category").value(categoryEnum.YOGA.toString()));
+    }
+}
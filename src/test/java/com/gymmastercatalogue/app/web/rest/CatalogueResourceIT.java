@@ -2,14 +2,24 @@ package com.gymmastercatalogue.app.web.rest;
 
 import com.gymmastercatalogue.app.GymMasterCatalogueApp;
 import com.gymmastercatalogue.app.domain.Catalogue;
+import com.gymmastercatalogue.app.domain.CatalogueOutboxEvent;
+import com.gymmastercatalogue.app.domain.enumeration.OutboxOperation;
+import com.gymmastercatalogue.app.repository.CatalogueOutboxEventRepository;
 import com.gymmastercatalogue.app.repository.CatalogueRepository;
-import com.gymmastercatalogue.app.repository.search.CatalogueSearchRepository;
+import com.gymmastercatalogue.app.repository.search.CatalogueSearchTransport;
 import com.gymmastercatalogue.app.service.CatalogueService;
 import com.gymmastercatalogue.app.service.dto.CatalogueDTO;
 import com.gymmastercatalogue.app.service.mapper.CatalogueMapper;
 import com.gymmastercatalogue.app.service.dto.CatalogueCriteria;
 import com.gymmastercatalogue.app.service.CatalogueQueryService;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.gson.Gson;
+import com.google.gson.JsonParser;
+import io.searchbox.core.SearchResult;
+import org.elasticsearch.index.query.Operator;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
@@ -18,20 +28,31 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 import javax.persistence.EntityManager;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.elasticsearch.index.query.QueryBuilders.queryStringQuery;
+import static org.assertj.core.api.Assertions.entry;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.elasticsearch.index.query.QueryBuilders.*;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasItem;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -81,16 +102,25 @@ public class CatalogueResourceIT {
     private CatalogueService catalogueService;
 
     /**
-     * This repository is mocked in the com.gymmastercatalogue.app.repository.search test package.
+     * This transport is mocked in the com.gymmastercatalogue.app.repository.search test package.
      *
-     * @see com.gymmastercatalogue.app.repository.search.CatalogueSearchRepositoryMockConfiguration
+     * @see com.gymmastercatalogue.app.repository.search.CatalogueSearchTransportMockConfiguration
      */
     @Autowired
-    private CatalogueSearchRepository mockCatalogueSearchRepository;
+    private CatalogueSearchTransport mockCatalogueSearchTransport;
 
     @Autowired
     private CatalogueQueryService catalogueQueryService;
 
+    @Autowired
+    private CatalogueOutboxEventRepository catalogueOutboxEventRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @Autowired
     private EntityManager em;
 
@@ -162,8 +192,10 @@ public class CatalogueResourceIT {
         assertThat(testCatalogue.getUsername()).isEqualTo(DEFAULT_USERNAME);
         assertThat(testCatalogue.getPartnerId()).isEqualTo(DEFAULT_PARTNER_ID);
 
-        // Validate the Catalogue in Elasticsearch
-        verify(mockCatalogueSearchRepository, times(1)).save(testCatalogue);
+        // Validate the Catalogue change is queued for Elasticsearch
+        assertThat(catalogueOutboxEventRepository.findAll())
+            .extracting(CatalogueOutboxEvent::getCatalogueId, CatalogueOutboxEvent::getOperation)
+            .containsExactly(tuple(testCatalogue.getId(), OutboxOperation.INDEX));
     }
 
     @Test
@@ -185,8 +217,82 @@ public class CatalogueResourceIT {
         List<Catalogue> catalogueList = catalogueRepository.findAll();
         assertThat(catalogueList).hasSize(databaseSizeBeforeCreate);
 
-        // Validate the Catalogue in Elasticsearch
-        verify(mockCatalogueSearchRepository, times(0)).save(catalogue);
+        // Validate no Catalogue change is queued for Elasticsearch
+        assertThat(catalogueOutboxEventRepository.findAll()).isEmpty();
+    }
+
+    @Test
+    @Transactional
+    public void saveCataloguesBatch() throws Exception {
+        catalogueRepository.saveAndFlush(catalogue);
+        int databaseSizeBeforeSave = catalogueRepository.findAll().size();
+        em.detach(catalogue);
+        CatalogueDTO updatedDTO = catalogueMapper.toDto(createUpdatedEntity(em));
+        updatedDTO.setId(catalogue.getId());
+        CatalogueDTO createdDTO = catalogueMapper.toDto(createEntity(em));
+
+        restCatalogueMockMvc.perform(post("/api/catalogues/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(Arrays.asList(updatedDTO, createdDTO))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].id").value(catalogue.getId().intValue()))
+            .andExpect(jsonPath("$.[0].description").value(UPDATED_DESCRIPTION))
+            .andExpect(jsonPath("$.[1].id").isNumber())
+            .andExpect(jsonPath("$.[1].description").value(DEFAULT_DESCRIPTION));
+
+        assertThat(catalogueRepository.findAll()).hasSize(databaseSizeBeforeSave + 1);
+        assertThat(catalogueRepository.findById(catalogue.getId()).get().getDescription()).isEqualTo(UPDATED_DESCRIPTION);
+        assertThat(catalogueOutboxEventRepository.findAll())
+            .extracting(CatalogueOutboxEvent::getOperation)
+            .containsExactly(OutboxOperation.INDEX, OutboxOperation.INDEX);
+    }
+
+    @Test
+    @Transactional
+    public void saveCataloguesBatchStream() throws Exception {
+        int databaseSizeBeforeSave = catalogueRepository.findAll().size();
+        CatalogueDTO catalogueDTO = catalogueMapper.toDto(catalogue);
+        String line = new String(TestUtil.convertObjectToJsonBytes(catalogueDTO), StandardCharsets.UTF_8);
+
+        restCatalogueMockMvc.perform(post("/api/catalogues/batch")
+            .contentType("application/x-ndjson")
+            .content(line + "\n" + line + "\n"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2));
+
+        assertThat(catalogueRepository.findAll()).hasSize(databaseSizeBeforeSave + 2);
+    }
+
+    @Test
+    @Transactional
+    public void saveCataloguesBatchWithAnInvalidCatalogue() throws Exception {
+        int databaseSizeBeforeSave = catalogueRepository.findAll().size();
+        CatalogueDTO validDTO = catalogueMapper.toDto(catalogue);
+        CatalogueDTO invalidDTO = catalogueMapper.toDto(createEntity(em));
+        invalidDTO.setPrice(SMALLER_PRICE);
+
+        // Nothing is saved unless all the catalogues are valid
+        restCatalogueMockMvc.perform(post("/api/catalogues/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(Arrays.asList(validDTO, invalidDTO))))
+            .andExpect(status().isBadRequest());
+
+        restCatalogueMockMvc.perform(post("/api/catalogues/batch")
+            .contentType("application/x-ndjson")
+            .content("{\"description\": \"Yoga\"}\n{\"price\": "))
+            .andExpect(status().isBadRequest());
+
+        // Nothing is saved unless all the catalogues to update exist
+        CatalogueDTO missingDTO = catalogueMapper.toDto(createEntity(em));
+        missingDTO.setId(Long.MAX_VALUE);
+        restCatalogueMockMvc.perform(post("/api/catalogues/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(Arrays.asList(validDTO, missingDTO))))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.idnotfound"));
+
+        assertThat(catalogueRepository.findAll()).hasSize(databaseSizeBeforeSave);
+        assertThat(catalogueOutboxEventRepository.findAll()).isEmpty();
     }
 
 
@@ -270,6 +376,78 @@ public class CatalogueResourceIT {
             .andExpect(jsonPath("$.[*].partnerId").value(hasItem(DEFAULT_PARTNER_ID)));
     }
     
+    @Test
+    @Transactional
+    public void getAllCataloguesWithoutCount() throws Exception {
+        // Initialize the database
+        catalogueRepository.saveAndFlush(catalogue);
+        catalogueRepository.saveAndFlush(createEntity(em));
+
+        restCatalogueMockMvc.perform(get("/api/catalogues?count=false&size=1&sort=id,asc&id.greaterThanOrEqual=" + catalogue.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(header().string("X-Has-Next-Page", "true"))
+            .andExpect(jsonPath("$.[*].id").value(contains(catalogue.getId().intValue())));
+
+        restCatalogueMockMvc.perform(get("/api/catalogues?count=false&size=1&page=1&sort=id,asc&id.greaterThanOrEqual=" + catalogue.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Has-Next-Page", "false"));
+    }
+
+    @Test
+    @Transactional
+    public void getAllCataloguesWithApproximateCount() throws Exception {
+        // Initialize the database
+        catalogueRepository.saveAndFlush(catalogue);
+
+        restCatalogueMockMvc.perform(get("/api/catalogues?count=approximate&id.equals=" + catalogue.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "1"))
+            .andExpect(header().string("X-Total-Count-Approximate", "true"));
+
+        restCatalogueMockMvc.perform(get("/api/catalogues/count?approximate=true&id.equals=" + catalogue.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().string("1"));
+
+        restCatalogueMockMvc.perform(get("/api/catalogues?count=maybe"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    public void getAllCataloguesAfterCursor() throws Exception {
+        // Initialize the database
+        Catalogue later = createEntity(em).sessionDt(UPDATED_SESSION_DT);
+        Catalogue unscheduled = createEntity(em).sessionDt(null);
+        catalogueRepository.saveAndFlush(catalogue);
+        catalogueRepository.saveAndFlush(later);
+        catalogueRepository.saveAndFlush(unscheduled);
+
+        // Get the first slice, sessions without a date come last
+        String nextCursor = restCatalogueMockMvc.perform(get("/api/catalogues?after=&size=2&sort=sessionDt,asc&username.equals=" + DEFAULT_USERNAME))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(header().exists("X-Next-Cursor"))
+            .andExpect(jsonPath("$.[*].id").value(contains(catalogue.getId().intValue(), later.getId().intValue())))
+            .andReturn().getResponse().getHeader("X-Next-Cursor");
+
+        // Get the last slice
+        restCatalogueMockMvc.perform(get("/api/catalogues?size=2&sort=sessionDt,asc&username.equals=" + DEFAULT_USERNAME + "&after=" + nextCursor))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("X-Next-Cursor"))
+            .andExpect(jsonPath("$.[*].id").value(contains(unscheduled.getId().intValue())));
+    }
+
+    @Test
+    @Transactional
+    public void getAllCataloguesAfterInvalidCursor() throws Exception {
+        restCatalogueMockMvc.perform(get("/api/catalogues?after=invalid&sort=sessionDt,asc"))
+            .andExpect(status().isBadRequest());
+
+        restCatalogueMockMvc.perform(get("/api/catalogues?after=&sort=description,asc"))
+            .andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     public void getCatalogue() throws Exception {
@@ -650,6 +828,22 @@ public class CatalogueResourceIT {
         defaultCatalogueShouldNotBeFound("sessionDt.specified=false");
     }
 
+    @Test
+    @Transactional
+    public void getAllCataloguesBySessionOverlapIsOverlappingSomething() throws Exception {
+        // Initialize the database
+        catalogueRepository.saveAndFlush(catalogue);
+
+        // Get all the catalogueList where the session runs during the period around DEFAULT_SESSION_DT
+        defaultCatalogueShouldBeFound("sessionOverlap.from=" + DEFAULT_SESSION_DT.minusSeconds(60) + "&sessionOverlap.to=" + DEFAULT_SESSION_DT.plusSeconds(60));
+
+        // Get all the catalogueList where the session runs after DEFAULT_SESSION_DT, when the session of DEFAULT_DURATION ends
+        defaultCatalogueShouldNotBeFound("sessionOverlap.from=" + DEFAULT_SESSION_DT);
+
+        // Get all the catalogueList where the session runs before DEFAULT_SESSION_DT
+        defaultCatalogueShouldNotBeFound("sessionOverlap.to=" + DEFAULT_SESSION_DT);
+    }
+
     @Test
     @Transactional
     public void getAllCataloguesByCategoryIsEqualToSomething() throws Exception {
@@ -970,9 +1164,12 @@ public class CatalogueResourceIT {
         assertThat(testCatalogue.getCategory()).isEqualTo(UPDATED_CATEGORY);
         assertThat(testCatalogue.getUsername()).isEqualTo(UPDATED_USERNAME);
         assertThat(testCatalogue.getPartnerId()).isEqualTo(UPDATED_PARTNER_ID);
+        assertThat(testCatalogue.getVersion()).isEqualTo(1L);
 
-        // Validate the Catalogue in Elasticsearch
-        verify(mockCatalogueSearchRepository, times(1)).save(testCatalogue);
+        // Validate the Catalogue change is queued for Elasticsearch
+        assertThat(catalogueOutboxEventRepository.findAll())
+            .extracting(CatalogueOutboxEvent::getCatalogueId, CatalogueOutboxEvent::getOperation)
+            .containsExactly(tuple(testCatalogue.getId(), OutboxOperation.INDEX));
     }
 
     @Test
@@ -993,8 +1190,8 @@ public class CatalogueResourceIT {
         List<Catalogue> catalogueList = catalogueRepository.findAll();
         assertThat(catalogueList).hasSize(databaseSizeBeforeUpdate);
 
-        // Validate the Catalogue in Elasticsearch
-        verify(mockCatalogueSearchRepository, times(0)).save(catalogue);
+        // Validate no Catalogue change is queued for Elasticsearch
+        assertThat(catalogueOutboxEventRepository.findAll()).isEmpty();
     }
 
     @Test
@@ -1014,21 +1211,54 @@ public class CatalogueResourceIT {
         List<Catalogue> catalogueList = catalogueRepository.findAll();
         assertThat(catalogueList).hasSize(databaseSizeBeforeDelete - 1);
 
-        // Validate the Catalogue in Elasticsearch
-        verify(mockCatalogueSearchRepository, times(1)).deleteById(catalogue.getId());
+        // Validate the Catalogue deletion is queued for Elasticsearch
+        assertThat(catalogueOutboxEventRepository.findAll())
+            .extracting(CatalogueOutboxEvent::getCatalogueId, CatalogueOutboxEvent::getOperation)
+            .containsExactly(tuple(catalogue.getId(), OutboxOperation.DELETE));
     }
 
     @Test
     @Transactional
-    public void searchCatalogue() throws Exception {
-        // Configure the mock search repository
+    public void getCatalogueIsCachedUntilDeleted() throws Exception {
         // Initialize the database
         catalogueRepository.saveAndFlush(catalogue);
-        when(mockCatalogueSearchRepository.search(queryStringQuery("id:" + catalogue.getId()), PageRequest.of(0, 20)))
-            .thenReturn(new PageImpl<>(Collections.singletonList(catalogue), PageRequest.of(0, 1), 1));
+        Cache cache = cacheManager.getCache(CatalogueRepository.CATALOGUE_BY_ID_CACHE);
+
+        // Get the catalogue
+        restCatalogueMockMvc.perform(get("/api/catalogues/{id}", catalogue.getId()))
+            .andExpect(status().isOk());
+        assertThat(cache.get(catalogue.getId())).isNotNull();
 
-        // Search the catalogue
-        restCatalogueMockMvc.perform(get("/api/_search/catalogues?query=id:" + catalogue.getId()))
+        // Delete the catalogue
+        restCatalogueMockMvc.perform(delete("/api/catalogues/{id}", catalogue.getId())
+            .accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isNoContent());
+        assertThat(cache.get(catalogue.getId())).isNull();
+        restCatalogueMockMvc.perform(get("/api/catalogues/{id}", catalogue.getId()))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    public void searchCatalogue() throws Exception {
+        // Configure the mock search transport
+        // Initialize the database
+        catalogueRepository.saveAndFlush(catalogue);
+        when(mockCatalogueSearchTransport.search(boolQuery()
+                .must(matchQuery("description", DEFAULT_DESCRIPTION))
+                .filter(termsQuery("category", DEFAULT_CATEGORY.name()))
+                .filter(rangeQuery("price").gte(DEFAULT_PRICE)),
+            PageRequest.of(0, 20)))
+            .thenReturn(CompletableFuture.completedFuture(new PageImpl<>(Collections.singletonList(catalogue), PageRequest.of(0, 1), 1)));
+
+        // Search the catalogue, which is answered asynchronously
+        MvcResult result = restCatalogueMockMvc.perform(get("/api/_search/catalogues")
+                .param("query", DEFAULT_DESCRIPTION)
+                .param("category", DEFAULT_CATEGORY.name())
+                .param("priceMin", DEFAULT_PRICE.toString()))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        restCatalogueMockMvc.perform(asyncDispatch(result))
             .andExpect(status().isOk())
             .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
             .andExpect(jsonPath("$.[*].id").value(hasItem(catalogue.getId().intValue())))
@@ -1040,4 +1270,151 @@ public class CatalogueResourceIT {
             .andExpect(jsonPath("$.[*].username").value(hasItem(DEFAULT_USERNAME)))
             .andExpect(jsonPath("$.[*].partnerId").value(hasItem(DEFAULT_PARTNER_ID)));
     }
+
+    @Test
+    @Transactional
+    public void searchCatalogueSortedByFieldWithoutDocValues() throws Exception {
+        restCatalogueMockMvc.perform(get("/api/_search/catalogues?query=aaa&sort=duration,asc"))
+            .andExpect(status().isBadRequest());
+
+        verify(mockCatalogueSearchTransport, never()).search(any(QueryBuilder.class), any(Pageable.class));
+    }
+
+    @Test
+    @Transactional
+    public void suggestCatalogue() throws Exception {
+        // Initialize the database
+        catalogueRepository.saveAndFlush(catalogue);
+        // Configure the mock search transport
+        when(mockCatalogueSearchTransport.search("suggest", matchQuery("description.suggest", "aaa").operator(Operator.AND), 10,
+            "id", "description"))
+            .thenReturn(CompletableFuture.completedFuture(Collections.singletonList(catalogue)));
+
+        // Suggest the catalogue, which is answered asynchronously
+        MvcResult result = restCatalogueMockMvc.perform(get("/api/_suggest/catalogues?prefix=AAA"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        restCatalogueMockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(catalogue.getId().intValue())))
+            .andExpect(jsonPath("$.[*].description").value(hasItem(DEFAULT_DESCRIPTION)))
+            .andExpect(jsonPath("$.[*].price").doesNotExist());
+    }
+
+    @Test
+    @Transactional
+    public void suggestCatalogueWithInvalidSize() throws Exception {
+        restCatalogueMockMvc.perform(get("/api/_suggest/catalogues?prefix=aaa&size=0"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    public void getCatalogueFacets() throws Exception {
+        // Configure the mock search transport
+        String json = "{\"hits\":{\"total\":1,\"hits\":[]},\"aggregations\":{"
+            + "\"category\":{\"buckets\":[{\"key\":\"" + DEFAULT_CATEGORY.name() + "\",\"doc_count\":1}]},"
+            + "\"partnerId\":{\"buckets\":[{\"key\":" + DEFAULT_PARTNER_ID + ",\"doc_count\":1}]},"
+            + "\"sessionDt\":{\"buckets\":[{\"key_as_string\":\"" + DEFAULT_SESSION_DT + "\",\"key\":0,\"doc_count\":1}]}}}";
+        SearchResult aggregations = new SearchResult(new Gson());
+        aggregations.setSucceeded(true);
+        aggregations.setJsonString(json);
+        aggregations.setJsonObject(JsonParser.parseString(json).getAsJsonObject());
+        when(mockCatalogueSearchTransport.search(eq("facets"), any(SearchSourceBuilder.class)))
+            .thenReturn(CompletableFuture.completedFuture(aggregations));
+
+        // Count the catalogues by facet, which is answered asynchronously
+        MvcResult result = restCatalogueMockMvc.perform(get("/api/catalogues/facets?interval=HOUR&priceMin=0"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        restCatalogueMockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.total").value(1))
+            .andExpect(jsonPath("$.category." + DEFAULT_CATEGORY.name()).value(1))
+            .andExpect(jsonPath("$.partnerId." + DEFAULT_PARTNER_ID).value(1))
+            .andExpect(jsonPath("$.sessionDt['" + DEFAULT_SESSION_DT + "']").value(1));
+    }
+
+    @Test
+    @Transactional
+    public void countCataloguesBySessionHourInTheDatabase() {
+        // Initialize the database
+        catalogueRepository.saveAndFlush(catalogue);
+        catalogueRepository.saveAndFlush(createEntity(em).sessionDt(DEFAULT_SESSION_DT.plusSeconds(1800)));
+        catalogueRepository.saveAndFlush(createEntity(em).sessionDt(DEFAULT_SESSION_DT.plusSeconds(3600)));
+
+        // Count the catalogues by hour of their session, truncated by the database
+        assertThat(catalogueRepository.countBySessionDt(null, ChronoUnit.HOURS, 10))
+            .containsExactly(entry(DEFAULT_SESSION_DT, 2L), entry(DEFAULT_SESSION_DT.plusSeconds(3600), 1L));
+        assertThat(catalogueRepository.countBySessionDt(null, ChronoUnit.HOURS, 1))
+            .containsExactly(entry(DEFAULT_SESSION_DT, 2L));
+    }
+
+    @Test
+    public void exportCatalogues() throws Exception {
+        // The export reads the database from the async request thread, so the catalogue is committed
+        catalogueRepository.saveAndFlush(catalogue.description("Yoga, \"flow\""));
+        try {
+            MvcResult result = restCatalogueMockMvc.perform(get("/api/catalogues/export?id.equals=" + catalogue.getId()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+            assertThat(result.getRequest().getAsyncContext().getTimeout()).isEqualTo(TimeUnit.HOURS.toMillis(1));
+            restCatalogueMockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andExpect(content().string(objectMapper.writeValueAsString(catalogueMapper.toDto(catalogue)) + "\n"));
+
+            result = restCatalogueMockMvc.perform(get("/api/catalogues/export?format=csv&id.equals=" + catalogue.getId()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+            restCatalogueMockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(content().string("id,description,price,duration,sessionDt,category,username,partnerId\r\n"
+                    + catalogue.getId() + ",\"Yoga, \"\"flow\"\"\"," + DEFAULT_PRICE + "," + DEFAULT_DURATION + "," + DEFAULT_SESSION_DT
+                    + "," + DEFAULT_CATEGORY + "," + DEFAULT_USERNAME + "," + DEFAULT_PARTNER_ID + "\r\n"));
+        } finally {
+            catalogueRepository.deleteById(catalogue.getId());
+        }
+    }
+
+    @Test
+    @Transactional
+    public void exportCataloguesWithInvalidFormat() throws Exception {
+        restCatalogueMockMvc.perform(get("/api/catalogues/export?format=xml"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    public void importCatalogues() throws Exception {
+        int databaseSizeBeforeImport = catalogueRepository.findAll().size();
+        String csv = "description,price,category,username,partnerId\n"
+            + DEFAULT_DESCRIPTION + "," + DEFAULT_PRICE + "," + DEFAULT_CATEGORY + "," + DEFAULT_USERNAME + "," + DEFAULT_PARTNER_ID + "\n"
+            + UPDATED_DESCRIPTION + "," + SMALLER_PRICE + "," + DEFAULT_CATEGORY + "," + DEFAULT_USERNAME + "," + DEFAULT_PARTNER_ID + "\n";
+
+        restCatalogueMockMvc.perform(post("/api/catalogues/import")
+            .contentType("text/csv")
+            .content(csv))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.imported").value(1))
+            .andExpect(jsonPath("$.rejected").value(1))
+            .andExpect(jsonPath("$.rejects[0].line").value(3));
+
+        List<Catalogue> catalogueList = catalogueRepository.findAll();
+        assertThat(catalogueList).hasSize(databaseSizeBeforeImport + 1);
+        assertThat(catalogueList.get(catalogueList.size() - 1).getDescription()).isEqualTo(DEFAULT_DESCRIPTION);
+        assertThat(catalogueOutboxEventRepository.findAll()).hasSize(1);
+    }
+
+    @Test
+    @Transactional
+    public void importCataloguesWithAnUnknownColumn() throws Exception {
+        restCatalogueMockMvc.perform(post("/api/catalogues/import")
+            .contentType("text/csv")
+            .content("description,color\n"))
+            .andExpect(status().isBadRequest());
+    }
 }